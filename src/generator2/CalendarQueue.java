@@ -0,0 +1,277 @@
+package generator2;
+
+/**
+ * Calendar queue of the events of the event-driven movement.
+ * An event belongs to the time stamp in which it is processed; the events of future
+ * time stamps are kept unsorted in a ring of buckets (one time stamp per bucket,
+ * events of later rounds remain in their bucket). When a time stamp begins, the events
+ * of its bucket are moved to a binary heap, which orders them by their exact time,
+ * their type and their key. Events for the current time stamp are inserted into the
+ * heap directly.
+ * An event is identified by an entry number; the entries are reused after release.
+ *
+ * @version 1.00	17.10.2026	first version
+ * @author FH Oldenburg
+ */
+class CalendarQueue {
+
+	/**
+	 * Number of buckets (power of 2).
+	 */
+	private static final int NUM_OF_BUCKETS = 1024;
+
+	/**
+	 * the current time stamp
+	 */
+	private int currTick = 0;
+	/**
+	 * the entries of the buckets
+	 */
+	private int[][] bucket = new int[NUM_OF_BUCKETS][];
+	/**
+	 * number of entries in the buckets
+	 */
+	private int[] bucketSize = new int[NUM_OF_BUCKETS];
+	/**
+	 * the heap of the current time stamp
+	 */
+	private int[] heap = new int[1024];
+	/**
+	 * number of entries in the heap
+	 */
+	private int heapSize = 0;
+
+	/**
+	 * time stamps of the entries
+	 */
+	private int[] tick = new int[1024];
+	/**
+	 * exact times of the entries
+	 */
+	private double[] time = new double[1024];
+	/**
+	 * types of the entries
+	 */
+	private int[] type = new int[1024];
+	/**
+	 * keys of the entries (third criterion of the order)
+	 */
+	private int[] key = new int[1024];
+	/**
+	 * slots of the entries
+	 */
+	private int[] slot = new int[1024];
+	/**
+	 * stamps of the entries
+	 */
+	private int[] stamp = new int[1024];
+	/**
+	 * number of used entries (including free entries)
+	 */
+	private int numOfEntries = 0;
+	/**
+	 * the free entries
+	 */
+	private int[] free = new int[1024];
+	/**
+	 * number of free entries
+	 */
+	private int numOfFree = 0;
+
+/**
+ * CalendarQueue constructor.
+ */
+CalendarQueue () {
+	for (int b=0; b<NUM_OF_BUCKETS; b++)
+		bucket[b] = new int[16];
+}
+/**
+ * Adds an event. An event of an earlier time stamp is assigned to the current one.
+ * @param t the time stamp
+ * @param tm the exact time
+ * @param ty the type
+ * @param k the key
+ * @param s the slot
+ * @param st the stamp
+ */
+void add (int t, double tm, int ty, int k, int s, int st) {
+	int e;
+	if (numOfFree > 0)
+		e = free[--numOfFree];
+	else {
+		if (numOfEntries == tick.length)
+			enlarge();
+		e = numOfEntries++;
+	}
+	if (t < currTick)
+		t = currTick;
+	tick[e] = t;
+	time[e] = tm;
+	type[e] = ty;
+	key[e] = k;
+	slot[e] = s;
+	stamp[e] = st;
+	if (t == currTick)
+		push(e);
+	else {
+		int b = t & (NUM_OF_BUCKETS-1);
+		if (bucketSize[b] == bucket[b].length)
+			bucket[b] = enlarge(bucket[b],2*bucket[b].length);
+		bucket[b][bucketSize[b]++] = e;
+	}
+}
+/**
+ * Begins a time stamp: the events of its bucket are moved to the heap.
+ * The events of the skipped time stamps are also moved to the heap.
+ * @param t the time stamp
+ */
+void advance (int t) {
+	while (currTick < t) {
+		currTick++;
+		int b = currTick & (NUM_OF_BUCKETS-1);
+		int[] entries = bucket[b];
+		int n = bucketSize[b];
+		int m = 0;
+		for (int i=0; i<n; i++) {
+			int e = entries[i];
+			if (tick[e] <= currTick) {
+				tick[e] = currTick;
+				push(e);
+			}
+			else
+				entries[m++] = e;
+		}
+		bucketSize[b] = m;
+	}
+}
+/**
+ * Removes all events.
+ */
+void clear () {
+	for (int b=0; b<NUM_OF_BUCKETS; b++)
+		bucketSize[b] = 0;
+	heapSize = 0;
+	numOfEntries = 0;
+	numOfFree = 0;
+}
+/**
+ * Doubles the number of entries.
+ */
+private void enlarge () {
+	int n = 2*tick.length;
+	tick = enlarge(tick,n);
+	type = enlarge(type,n);
+	key = enlarge(key,n);
+	slot = enlarge(slot,n);
+	stamp = enlarge(stamp,n);
+	free = enlarge(free,n);
+	double[] d = new double[n];
+	System.arraycopy(time,0,d,0,time.length);
+	time = d;
+}
+/**
+ * Enlarges an int array.
+ * @return the new array
+ * @param a the old array
+ * @param n the new size
+ */
+private static int[] enlarge (int[] a, int n) {
+	int[] res = new int[n];
+	System.arraycopy(a,0,res,0,a.length);
+	return res;
+}
+/**
+ * Returns the slot of an event.
+ * @return slot
+ * @param e the entry
+ */
+int getSlot (int e) {
+	return slot[e];
+}
+/**
+ * Returns the stamp of an event.
+ * @return stamp
+ * @param e the entry
+ */
+int getStamp (int e) {
+	return stamp[e];
+}
+/**
+ * Returns the exact time of an event.
+ * @return time
+ * @param e the entry
+ */
+double getTime (int e) {
+	return time[e];
+}
+/**
+ * Returns the type of an event.
+ * @return type
+ * @param e the entry
+ */
+int getType (int e) {
+	return type[e];
+}
+/**
+ * Compares two events by their exact time, their type and their key.
+ * @return is the first event before the second one?
+ * @param e1 the first entry
+ * @param e2 the second entry
+ */
+private boolean less (int e1, int e2) {
+	if (time[e1] != time[e2])
+		return time[e1] < time[e2];
+	if (type[e1] != type[e2])
+		return type[e1] < type[e2];
+	return key[e1] < key[e2];
+}
+/**
+ * Removes the next event of the current time stamp.
+ * The entry must be released after its use.
+ * @return the entry or -1 if there is no further event in the current time stamp
+ */
+int poll () {
+	if (heapSize == 0)
+		return -1;
+	int res = heap[0];
+	int e = heap[--heapSize];
+	int i = 0;
+	while (true) {
+		int c = 2*i+1;
+		if (c >= heapSize)
+			break;
+		if ((c+1 < heapSize) && less(heap[c+1],heap[c]))
+			c++;
+		if (!less(heap[c],e))
+			break;
+		heap[i] = heap[c];
+		i = c;
+	}
+	heap[i] = e;
+	return res;
+}
+/**
+ * Inserts an entry into the heap.
+ * @param e the entry
+ */
+private void push (int e) {
+	if (heapSize == heap.length)
+		heap = enlarge(heap,2*heap.length);
+	int i = heapSize++;
+	while (i > 0) {
+		int p = (i-1)/2;
+		if (!less(e,heap[p]))
+			break;
+		heap[i] = heap[p];
+		i = p;
+	}
+	heap[i] = e;
+}
+/**
+ * Releases an entry returned by poll.
+ * @param e the entry
+ */
+void release (int e) {
+	free[numOfFree++] = e;
+}
+}
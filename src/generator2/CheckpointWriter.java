@@ -0,0 +1,120 @@
+package generator2;
+
+import java.io.*;
+
+/**
+ * Thread writing the checkpoints of a generation into a file.
+ * A checkpoint is handed over as byte array and written in the background; if a new
+ * checkpoint arrives before the last one has been written, only the new one is written.
+ * The file is replaced by renaming a temporary file; therefore, it always contains
+ * a complete checkpoint.
+ *
+ * @version 1.00	17.10.2026	first version
+ * @author FH Oldenburg
+ */
+class CheckpointWriter extends Thread {
+
+	/**
+	 * the name of the checkpoint file
+	 */
+	private String fileName = null;
+	/**
+	 * the checkpoint waiting to be written (or null)
+	 */
+	private byte[] pending = null;
+	/**
+	 * is the writer closed?
+	 */
+	private boolean closed = false;
+
+/**
+ * Constructor.
+ * @param  fileName  the name of the checkpoint file
+ */
+CheckpointWriter (String fileName) {
+	this.fileName = fileName;
+	setDaemon(true);
+}
+
+/**
+ * Closes the writer after the waiting checkpoint has been written.
+ */
+void close () {
+	synchronized (this) {
+		closed = true;
+		notifyAll();
+	}
+	try {
+		join();
+	}
+	catch (InterruptedException ex) {
+		System.err.println("CheckpointWriter.close: "+ex);
+	}
+}
+
+/**
+ * Reads a checkpoint file.
+ * @return the content of the file
+ * @param  fileName  the name of the checkpoint file
+ * @exception IOException if an I/O error occurs
+ */
+static byte[] read (String fileName) throws IOException {
+	File file = new File(fileName);
+	byte[] data = new byte[(int)file.length()];
+	DataInputStream in = new DataInputStream(new FileInputStream(file));
+	try {
+		in.readFully(data);
+	}
+	finally {
+		in.close();
+	}
+	return data;
+}
+
+/**
+ * Writes the checkpoints until the writer is closed.
+ */
+public void run () {
+	while (true) {
+		byte[] data = null;
+		synchronized (this) {
+			while ((pending == null) && !closed)
+				try {
+					wait();
+				}
+				catch (InterruptedException ex) {
+				}
+			if (pending == null)
+				return;
+			data = pending;
+			pending = null;
+		}
+		try {
+			File tmp = new File(fileName+".tmp");
+			FileOutputStream out = new FileOutputStream(tmp);
+			try {
+				out.write(data);
+				out.getFD().sync();
+			}
+			finally {
+				out.close();
+			}
+			if (!tmp.renameTo(new File(fileName)))
+				throw new IOException("cannot rename "+tmp);
+		}
+		catch (IOException ex) {
+			System.err.println("Error occured by writing the checkpoint "+fileName+": "+ex.getMessage());
+		}
+	}
+}
+
+/**
+ * Hands over a checkpoint; a checkpoint not written yet is replaced.
+ * @param  data  the checkpoint
+ */
+synchronized void write (byte[] data) {
+	pending = data;
+	notifyAll();
+}
+
+}
@@ -20,6 +20,15 @@ import util.*;
  * It is also possible to run these subclasses as Java applications.
  * See the additional documentation for the supported properties in the property file.
  *
+ * @version	2.19	17.10.2026	landmarks only by the property "landmarks"
+ * @version	2.18	17.10.2026	generation delegated to the headless GenerationEngine
+ * @version	2.17	17.10.2026	objects stored in parallel arrays by the property "objectStore"
+ * @version	2.16	17.10.2026	random streams for new objects and the parallel movement
+ * @version	2.15	17.10.2026	parallel movement of the objects by the property "threads"
+ * @version	2.14	17.10.2026	route cache, statistics of the route cache reported
+ * @version	2.13	17.10.2026	contraction hierarchy customized every n time stamps
+ * @version	2.12	17.10.2026	landmarks prepared for the route computation
+ * @version	2.11	17.10.2026	timers of IndexedHeap reported
  * @version	2.10	19.08.2003	considering null routes, tuned
  * @version	2.00	04.09.2001	complete revision
  * @version	1.22	15.06.2001	report of external objects added
@@ -75,6 +84,10 @@ public abstract class DataGenerator extends ShowNetworkMap implements java.awt.e
 	 * The reporter.
 	 */
 	protected Reporter reporter = null;
+	/**
+	 * The generation engine.
+	 */
+	protected GenerationEngine engine = null;
 
 	/**
 	 * Property file error
@@ -348,34 +361,53 @@ public void changeComponentPositions () {
 }
 
 /**
- * Computes the dataset.
- * Order of initialization: <ol>
- * <li>Time (only first call)
- * <li>ObjectClasses (only first call)
- * <li>ExternalObjectClasses (only first call)
- * <li>ExternalObjectGenerator
- * <li>ExternalObjects (only first call)
- * <li>Reporter
- * <li>WeightManagerForDataGenerator
- * <li>ReRoute
- * <li>ObjectGenerator
- * <li>MovingObjects
- * </ol>
+ * Returns the number of time stamps after which the contraction hierarchy is customized again.
+ * The number is given by the property "customizationInterval"; 0 (the default) means
+ * that the routes are computed without the contraction hierarchy.
+ * @return interval
+ */
+protected int getCustomizationInterval () {
+	if (properties.getProperty ("customizationInterval") != null)
+		try {
+			return Integer.parseInt(properties.getProperty ("customizationInterval").trim());
+		} catch (NumberFormatException ex) {
+			System.err.println("DataGenerator: wrong customization interval");
+		}
+	return 0;
+}
+/**
+ * Returns the number of landmarks used for the route computation.
+ * The number is given by the property "landmarks" (e.g. Landmarks.DEFAULT_NUMBER);
+ * without the property, no landmarks are computed or stored.
+ * @return number of landmarks (0: no landmarks)
+ */
+protected int getNumOfLandmarks () {
+	if (properties.getProperty ("landmarks") != null)
+		try {
+			return Integer.parseInt(properties.getProperty ("landmarks").trim());
+		} catch (NumberFormatException ex) {
+			System.err.println("DataGenerator: wrong number of landmarks");
+		}
+	return 0;
+}
+/**
+ * Computes the dataset by the generation engine (see createGenerationEngine).
+ * At the first call, the engine is created and initialized, and the presentations
+ * of the objects are defined.
  */
 public synchronized void compute () {
 	getComputeButton().setEnabled(false);
 	showStatus("initialize generation...");
-	// access to the network
-	Network net = getNetwork();
-	Nodes nodes = net.getNodes();
-	Edges edges = net.getEdges();
 	// initialization of the necessary classes
-	if (time == null) {
-		time = new Time (properties,getValueOfTextField(getMaxTimeTextField(),MIN_MAXTIME,MAX_MAXTIME,false));
-		dataspace = new DataSpace (drawableObjects);
-		objClasses = createObjectClasses (properties,time,dataspace,getValueOfTextField(getNumObjClassesTextField(),1,MAX_OBJCLASSES,false),
-			getValueOfTextField(getReportProbTextField(),0,1000,false),getValueOfTextField(getMsdTextField(),1,1000,true));
-		extObjClasses = createExternalObjectClasses (properties,time,dataspace,getValueOfTextField(getNumExtObjClassesTextField(),1,MAX_EXTOBJCLASSES,false));
+	if (engine == null) {
+		engine = createGenerationEngine();
+		engine.setEdgeClasses (edgeClasses);
+		engine.setDataSpace (new DataSpace (drawableObjects));
+		engine.initialize();
+		time = engine.getTime();
+		dataspace = engine.getDataSpace();
+		objClasses = engine.getObjectClasses();
+		extObjClasses = engine.getExternalObjectClasses();
 		if (properties.getProperty(Reporter.VIZ)!=null) {
 			for (int c=0; c<objClasses.getNumber(); c++)
 				for (int i=0; i<=time.getMaxTime(); i++)
@@ -385,138 +417,12 @@ public synchronized void compute () {
 					DrawablePresentation.newDrawablePresentation ("Rectangle"+c+"-"+i,false,extObjClasses.getColor(c),Color.red);
 		}
 	}
-	time.reset();
-	edgeClasses.announce (time,dataspace,getValueOfTextField(getMsdTextField(),1,1000,true));
-	ExternalObjectGenerator extObjGen = createExternalObjectGenerator (properties,time,dataspace,extObjClasses,
-		getValueOfTextField(getExtObjPerTimeTextField(),0,MAX_EXTOBJPERTIME,true),getValueOfTextField(getExtObjBeginTextField(),0,MAX_EXTOBJBEGIN,true));
-	boolean extObjectsExist = extObjGen.externalObjectsExist();
-	if (extObjectsExist && (extObjects == null))
-		extObjects = new ExternalObjects (properties,time,extObjClasses);
-	reporter = createReporter (properties,drawableObjects);
 	deleteButton.setEnabled(true);
-	WeightManagerForDataGenerator wm = null;
-	if (extObjectsExist)
-		wm = new WeightManagerForDataGenerator (edgeClasses,objClasses,extObjects);
-	else
-		wm = new WeightManagerForDataGenerator (edgeClasses,objClasses,null);
-	edges.setWeightManager (wm);
-	ReRoute reroute = createReRoute(properties,time,dataspace);
-	ObjectGenerator objGen = createObjectGenerator (properties,time,dataspace, nodes,objClasses,getValueOfTextField(getObjPerTimeTextField(),0,MAX_OBJPERTIME,true),getValueOfTextField(getObjBeginTextField(),0,MAX_OBJBEGIN,true));
-	MovingObjects movingObjects = new MovingObjects (wm,net,objGen,reporter,reroute);
 	// the time starts
 	showStatus("generate data, please wait...");
-	util.Timer.reset(1);
-	util.Timer.reset(2);
-	util.Timer.start(1);
-	actTime = time.getCurrTime();
-	// traverse the time
-	while (!time.isMaximumTimeExceeded()) {
-		// move and report all external objects, remove the desd objects
-		if (extObjectsExist)
-			extObjects.moveAndResizeAndRemoveObjects(actTime,extObjGen,reporter);
-		// move and report all moving objects, remove the objects reaching the destination
-		movingObjects.move(actTime);
-		// generate new external objects
-		int numOfNewExtObjects = extObjGen.numberOfNewObjects(actTime);
-		for (int i=0; i<numOfNewExtObjects; i++) {
-			ExternalObject extObj = extObjGen.computeExternalObject(actTime);
-			extObj.addToContainer (extObjects);
-			extObj.reportNewObject (reporter);
-		}
-		// generate new moving objects
-		int numOfNewObjects = objGen.numberOfNewObjects(actTime);
-		for (int i=0; i<numOfNewObjects; i++) {
-			// for each new moving object, determine its properties and create it, ...
-			int id = objGen.computeId(actTime);
-			int objClass = objGen.computeObjectClass(actTime);
-			Node start = objGen.computeStartingNode(actTime,objClass);
-			Node dest = objGen.computeDestinationNode(actTime,start,objGen.computeLengthOfRoute(actTime,objClass),objClass);
-			MovingObject obj = new MovingObject (id,objClass,start,dest,actTime);
-			obj.addToContainer (movingObjects);
-			// and compute the (first) route
-			while (! obj.computeRoute()) {
-				obj.setStart(objGen.computeStartingNode(actTime,objClass));
-				obj.setDestination(objGen.computeDestinationNode(actTime,start,objGen.computeLengthOfRoute(actTime,objClass),objClass));
-			}
-			obj.reportNewObject (reporter);
-		}
-		// show object if there is enough time
-		if (waitingPeriod > 0) {
-			if (!Time.isFirstTimeStamp(actTime)) {
-				for (int c=0; c<objClasses.getNumber(); c++)
-					DrawablePresentation.get("Point"+c+"-"+(this.actTime-1)).setVisibility(false);
-				for (int c=0; c<extObjClasses.getNumber(); c++)
-					DrawablePresentation.get("Rectangle"+c+"-"+(this.actTime-1)).setVisibility(false);
-			}
-			for (int c=0; c<objClasses.getNumber(); c++)
-				DrawablePresentation.get("Point"+c+"-"+this.actTime).setVisibility(true);
-			for (int c=0; c<extObjClasses.getNumber(); c++)
-				DrawablePresentation.get("Rectangle"+c+"-"+this.actTime).setVisibility(true);
-			update(getGraphics());
-		}
-		// to the next time stamp
-		time.increaseCurrTime();
-		actTime = time.getCurrTime();
-		if (actTime % 25 == 0)
-			System.gc();
-		reportProgress (actTime);
-		// wait
-		if (waitingPeriod > 0)
-			try {wait(waitingPeriod);} catch (Exception e){System.err.println("wait: "+e);}
-	}
-	util.Timer.stop(1);
-	// report and remove all still existing objects
-	showStatus("remove remaining objects and report statistics...");
-	movingObjects.removeObjects();
-	if (extObjectsExist)
-		extObjects.removeObjects();
-	// report statistics
-	long totalTime = util.Timer.get(1);
-	long routingTime = util.Timer.get(2);
-	int numOfRoutes = movingObjects.getTotalNumOfObjects()+reroute.getNumberOfRoutesByEvent()+reroute.getNumberOfRoutesByComparison();
-	int dx = dataspace.getMaxX()-dataspace.getMinX();
-	int dy = dataspace.getMaxY()-dataspace.getMinY();
-	reporter.reportInt("data space width: ",dx);
-	reporter.reportInt("data space height: ",dy);
-	reporter.reportInt("number of nodes: ",nodes.numOfNodes());
-	reporter.reportInt("number of edges: ",edges.numOfEdges());
-	reporter.reportInt("maximum time: ",time.getMaxTime());
-	reporter.reportInt("# moving objects: ",movingObjects.getTotalNumOfObjects());
-	reporter.reportInt("# points: ",reporter.getNumberOfReportedPoints());
-	reporter.reportInt("# traversed nodes: ",movingObjects.getTotalNumberOfTraversedNodes());
-	reporter.reportDouble("# nodes/obj: ",((double)movingObjects.getTotalNumberOfTraversedNodes())/movingObjects.getTotalNumOfObjects());
-	reporter.reportDouble("# traversed degree: ",movingObjects.getTotalDegreeOfTraversedNodes());
-	double nodeDegree = (double)(movingObjects.getTotalDegreeOfTraversedNodes()-movingObjects.getTotalNumberOfTraversedNodes())/movingObjects.getTotalNumberOfTraversedNodes();
-	reporter.reportDouble("# node degree: ",nodeDegree);
-	reporter.reportInt("# all routes: ",numOfRoutes);
-	reporter.reportInt("# routes by event: ",reroute.getNumberOfRoutesByEvent());
-	reporter.reportInt("# routes by comparison: ",reroute.getNumberOfRoutesByComparison());
-	reporter.reportInt("total time in ms: ",totalTime);
-	reporter.reportDouble("total time/obj: ",((double)totalTime/movingObjects.getTotalNumOfObjects()));
-	reporter.reportDouble("total time/point: ",((double)totalTime/reporter.getNumberOfReportedPoints()));
-	reporter.reportDouble("routing time in ms: ",routingTime);
-	reporter.reportDouble("insert time: ",BorderHeap.insertTimer.get());
-	reporter.reportDouble("fetch time:  ",BorderHeap.fetchTimer.get());
-	reporter.reportDouble("change time: ",BorderHeap.changeTimer.get());
-	reporter.reportDouble("routing time/obj: ",((double)routingTime/movingObjects.getTotalNumOfObjects()));
-	reporter.reportDouble("routing time/point: ",((double)routingTime/reporter.getNumberOfReportedPoints()));
-	reporter.reportDouble("routing time/node: ",((double)routingTime/movingObjects.getTotalNumberOfTraversedNodes()));
-	reporter.reportDouble("routing time/node/nodedegr: ",((double)routingTime/movingObjects.getTotalNumberOfTraversedNodes()/nodeDegree));
-	reporter.reportDouble("routing time/routing: ",((double)routingTime/numOfRoutes));
-	if (extObjectsExist) {
-		reporter.reportInt("# computed decreases: ",extObjects.getNumOfComputedDecreases());
-		reporter.reportInt("# real decreases: ",extObjects.getNumOfRealDecreases());
-		reporter.reportInt("time for external objects in ms: ",extObjects.getUsedTime());
-	}
-	long totalDistance = 0;
-	for (Enumeration e = edges.elements(); e.hasMoreElements();) {
-		Edge edge = (Edge)e.nextElement();
-		totalDistance += edge.getLength();
-	}
-	int avDistance = (int)(totalDistance/edges.numOfEdges());
-	reporter.reportInt("average edge length: ",avDistance);
-	reporter.reportInt("average route length: ",objGen.getAverageRouteLength());
-	reporter.close();
+	engine.compute();
+	extObjects = engine.getExternalObjects();
+	reporter = engine.getReporter();
 
 	setTime (0);
 	setTimeScrollbar (0);
@@ -525,6 +431,73 @@ public synchronized void compute () {
 	showStatus("ready...");
 }
 
+/**
+ * Creates the generation engine. The factory methods and the parameters of the
+ * engine are delegated to this applet.
+ * @return the engine
+ */
+protected GenerationEngine createGenerationEngine () {
+	return new GenerationEngine (properties,getNetwork()) {
+		public EdgeClasses createEdgeClasses (Properties properties) {
+			return DataGenerator.this.createEdgeClasses(properties);
+		}
+		public ExternalObjectClasses createExternalObjectClasses (Properties properties, Time time, DataSpace ds, int numOfClasses) {
+			return DataGenerator.this.createExternalObjectClasses(properties,time,ds,numOfClasses);
+		}
+		public ExternalObjectGenerator createExternalObjectGenerator (Properties properties, Time time, DataSpace dataspace, ExternalObjectClasses classes, int numOfExtObjPerTime, int numAtBeginning) {
+			return DataGenerator.this.createExternalObjectGenerator(properties,time,dataspace,classes,numOfExtObjPerTime,numAtBeginning);
+		}
+		public ObjectClasses createObjectClasses (Properties properties, Time time, DataSpace ds, int numOfClasses, int reportProb, int maxSpeedDivisor) {
+			return DataGenerator.this.createObjectClasses(properties,time,ds,numOfClasses,reportProb,maxSpeedDivisor);
+		}
+		public ObjectGenerator createObjectGenerator (Properties properties, Time time, DataSpace ds, Nodes nodes, ObjectClasses objClasses, int numOfObjPerTime, int numOfObjAtBeginning) {
+			return DataGenerator.this.createObjectGenerator(properties,time,ds,nodes,objClasses,numOfObjPerTime,numOfObjAtBeginning);
+		}
+		public Reporter createReporter (Properties properties) {
+			return DataGenerator.this.createReporter(properties,drawableObjects);
+		}
+		public ReRoute createReRoute (Properties properties, Time time, DataSpace ds) {
+			return DataGenerator.this.createReRoute(properties,time,ds);
+		}
+		protected int getCustomizationInterval () {
+			return DataGenerator.this.getCustomizationInterval();
+		}
+		protected int getMaxSpeedDivisor () {
+			return getValueOfTextField(getMsdTextField(),1,1000,true);
+		}
+		protected int getMaxTime () {
+			return getValueOfTextField(getMaxTimeTextField(),MIN_MAXTIME,MAX_MAXTIME,false);
+		}
+		protected int getNumOfExtObjAtBeginning () {
+			return getValueOfTextField(getExtObjBeginTextField(),0,MAX_EXTOBJBEGIN,true);
+		}
+		protected int getNumOfExtObjClasses () {
+			return getValueOfTextField(getNumExtObjClassesTextField(),1,MAX_EXTOBJCLASSES,false);
+		}
+		protected int getNumOfExtObjPerTime () {
+			return getValueOfTextField(getExtObjPerTimeTextField(),0,MAX_EXTOBJPERTIME,true);
+		}
+		protected int getNumOfLandmarks () {
+			return DataGenerator.this.getNumOfLandmarks();
+		}
+		protected int getNumOfObjAtBeginning () {
+			return getValueOfTextField(getObjBeginTextField(),0,MAX_OBJBEGIN,true);
+		}
+		protected int getNumOfObjClasses () {
+			return getValueOfTextField(getNumObjClassesTextField(),1,MAX_OBJCLASSES,false);
+		}
+		protected int getNumOfObjPerTime () {
+			return getValueOfTextField(getObjPerTimeTextField(),0,MAX_OBJPERTIME,true);
+		}
+		protected int getReportProbability () {
+			return getValueOfTextField(getReportProbTextField(),0,1000,false);
+		}
+		protected void reportProgress (int time) {
+			DataGenerator.this.reportProgress(time);
+		}
+	};
+}
+
 /**
  * Calls the constructor of EdgeClasses.
  * Must be implemented by a subclass of DataGenerator.
@@ -1035,11 +1008,31 @@ protected static String makeAbsolute (String fileName) {
 }
 
 /**
- * Reports the progress of the generation.
+ * Reports the progress of the generation. Is called by the generation engine after each time stamp.
+ * If there is a waiting period, the objects of the last time stamp are shown before waiting.
  * @param time actual time
  */
 protected void reportProgress (int time) {
+	// show object if there is enough time
+	if (waitingPeriod > 0) {
+		int lastTime = time-1;
+		if (!Time.isFirstTimeStamp(lastTime)) {
+			for (int c=0; c<objClasses.getNumber(); c++)
+				DrawablePresentation.get("Point"+c+"-"+(lastTime-1)).setVisibility(false);
+			for (int c=0; c<extObjClasses.getNumber(); c++)
+				DrawablePresentation.get("Rectangle"+c+"-"+(lastTime-1)).setVisibility(false);
+		}
+		for (int c=0; c<objClasses.getNumber(); c++)
+			DrawablePresentation.get("Point"+c+"-"+lastTime).setVisibility(true);
+		for (int c=0; c<extObjClasses.getNumber(); c++)
+			DrawablePresentation.get("Rectangle"+c+"-"+lastTime).setVisibility(true);
+		update(getGraphics());
+	}
+	actTime = time;
 	setTimeScrollbar (time);
+	// wait
+	if (waitingPeriod > 0)
+		try {wait(waitingPeriod);} catch (Exception e){System.err.println("wait: "+e);}
 }
 
 /**
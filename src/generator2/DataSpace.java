@@ -1,11 +1,14 @@
 package generator2;
 
 import java.awt.*;
+import java.util.Enumeration;
 import drawables.*;
+import routing.*;
 
 /**
  * Description of the dataspace.
  * 
+ * @version 1.20	17.10.2026	constructor for the nodes of a network
  * @version 1.10	01.02.00	use of DrawableObjects
  * @version 1.00	29.12.99	first version
  * @author FH Oldenburg
@@ -43,6 +46,29 @@ public DataSpace (DrawableObjects objects) {
 	minY = mbr.y;
 	maxY = mbr.y+mbr.height-1;
 }
+/**
+ * DataSpace constructor without drawable objects.
+ * The extrema are determined like by the search tree of the drawable objects:
+ * the rectangle spanned by the nodes, the maximum coordinates excluded.
+ * @param nodes the nodes of the network
+ */
+public DataSpace (Nodes nodes) {
+	if (nodes.numOfNodes() <= 0)
+		return;
+	minX = Integer.MAX_VALUE;
+	minY = Integer.MAX_VALUE;
+	maxX = Integer.MIN_VALUE;
+	maxY = Integer.MIN_VALUE;
+	for (Enumeration e = nodes.elements(); e.hasMoreElements();) {
+		Node node = (Node)e.nextElement();
+		minX = Math.min(minX,node.getX());
+		minY = Math.min(minY,node.getY());
+		maxX = Math.max(maxX,node.getX());
+		maxY = Math.max(maxY,node.getY());
+	}
+	maxX--;
+	maxY--;
+}
 /**
  * Returns the maximum x-coordinate.
  * @return x-coordinate
@@ -0,0 +1,170 @@
+package generator2;
+
+import java.awt.Rectangle;
+import java.util.Arrays;
+import routing.*;
+import spatial.MBR;
+
+/**
+ * Uniform grid over the edges of a network.
+ * Each cell stores the dense indices of the edges whose MBR intersects the cell;
+ * the size of the cells is chosen such that there is about one edge per cell.
+ * The grid finds the edges intersecting a rectangle without creating objects
+ * for the single edges. It is not changed after its construction.
+ *
+ * @version 1.00	17.10.2026	first version
+ * @author FH Oldenburg
+ */
+class EdgeGrid {
+
+	/**
+	 * minimum x-coordinate of the grid
+	 */
+	private int minX = 0;
+	/**
+	 * minimum y-coordinate of the grid
+	 */
+	private int minY = 0;
+	/**
+	 * width and height of a cell
+	 */
+	private int cellSize = 1;
+	/**
+	 * number of columns
+	 */
+	private int numOfColumns = 1;
+	/**
+	 * number of rows
+	 */
+	private int numOfRows = 1;
+	/**
+	 * position of the first entry of each cell in entry (the last element is the number of entries)
+	 */
+	private int[] firstEntry = null;
+	/**
+	 * dense indices of the edges of the cells
+	 */
+	private int[] entry = null;
+	/**
+	 * MBRs of the edges (minimum x, minimum y, maximum x, maximum y; the maxima are excluded)
+	 */
+	private int[] edgeMBR = null;
+	/**
+	 * the last query in which an edge has been found
+	 */
+	private int[] stamp = null;
+	/**
+	 * the number of the current query
+	 */
+	private int currStamp = 0;
+
+/**
+ * EdgeGrid constructor.
+ * @param  edges  the edges of the network
+ */
+EdgeGrid (Edges edges) {
+	int numOfEdges = edges.numOfEdges();
+	edgeMBR = new int[4*numOfEdges];
+	stamp = new int[numOfEdges];
+	int maxX = 0;
+	int maxY = 0;
+	for (int e=0; e<numOfEdges; e++) {
+		Rectangle r = edges.getEdge(e).getMBR();
+		edgeMBR[4*e] = r.x;
+		edgeMBR[4*e+1] = r.y;
+		edgeMBR[4*e+2] = r.x+r.width;
+		edgeMBR[4*e+3] = r.y+r.height;
+		if ((e == 0) || (r.x < minX))
+			minX = r.x;
+		if ((e == 0) || (r.y < minY))
+			minY = r.y;
+		if ((e == 0) || (r.x+r.width > maxX))
+			maxX = r.x+r.width;
+		if ((e == 0) || (r.y+r.height > maxY))
+			maxY = r.y+r.height;
+	}
+	if (numOfEdges > 0) {
+		double area = (double)(maxX-minX)*(maxY-minY);
+		cellSize = Math.max((int)Math.ceil(Math.sqrt(area/numOfEdges)),1);
+		numOfColumns = (maxX-minX)/cellSize+1;
+		numOfRows = (maxY-minY)/cellSize+1;
+	}
+	// count the entries of the cells, then fill them
+	firstEntry = new int[numOfColumns*numOfRows+1];
+	for (int e=0; e<numOfEdges; e++)
+		for (int row=getRow(edgeMBR[4*e+1]); row<=getRow(edgeMBR[4*e+3]-1); row++)
+			for (int col=getColumn(edgeMBR[4*e]); col<=getColumn(edgeMBR[4*e+2]-1); col++)
+				firstEntry[row*numOfColumns+col+1]++;
+	for (int c=0; c<numOfColumns*numOfRows; c++)
+		firstEntry[c+1] += firstEntry[c];
+	entry = new int[firstEntry[numOfColumns*numOfRows]];
+	int[] next = new int[numOfColumns*numOfRows];
+	System.arraycopy(firstEntry,0,next,0,next.length);
+	for (int e=0; e<numOfEdges; e++)
+		for (int row=getRow(edgeMBR[4*e+1]); row<=getRow(edgeMBR[4*e+3]-1); row++)
+			for (int col=getColumn(edgeMBR[4*e]); col<=getColumn(edgeMBR[4*e+2]-1); col++)
+				entry[next[row*numOfColumns+col]++] = e;
+}
+
+/**
+ * Finds the edges whose MBR intersects a rectangle (see MBR.intersects).
+ * @return  the dense indices of the edges
+ * @param  r  the rectangle
+ */
+int[] findEdges (MBR r) {
+	int x1 = r.min(MBR.X);
+	int y1 = r.min(MBR.Y);
+	int x2 = r.max(MBR.X);
+	int y2 = r.max(MBR.Y);
+	if (++currStamp == 0) {
+		Arrays.fill(stamp,0);
+		currStamp = 1;
+	}
+	int[] res = new int[16];
+	int num = 0;
+	for (int row=getRow(y1); row<=getRow(Math.max(y2-1,y1)); row++)
+		for (int col=getColumn(x1); col<=getColumn(Math.max(x2-1,x1)); col++) {
+			int cell = row*numOfColumns+col;
+			for (int i=firstEntry[cell]; i<firstEntry[cell+1]; i++) {
+				int e = entry[i];
+				if (stamp[e] == currStamp)
+					continue;
+				stamp[e] = currStamp;
+				if ((edgeMBR[4*e+2] > x1) && (edgeMBR[4*e] < x2) && (edgeMBR[4*e+3] > y1) && (edgeMBR[4*e+1] < y2)) {
+					if (num == res.length) {
+						int[] old = res;
+						res = new int[2*old.length];
+						System.arraycopy(old,0,res,0,num);
+					}
+					res[num++] = e;
+				}
+			}
+		}
+	int[] found = new int[num];
+	System.arraycopy(res,0,found,0,num);
+	return found;
+}
+
+/**
+ * Returns the column of an x-coordinate; coordinates outside of the grid belong to the border columns.
+ * @return  the column
+ * @param  x  the x-coordinate
+ */
+private int getColumn (int x) {
+	if (x <= minX)
+		return 0;
+	return Math.min((int)(((long)x-minX)/cellSize),numOfColumns-1);
+}
+
+/**
+ * Returns the row of a y-coordinate; coordinates outside of the grid belong to the border rows.
+ * @return  the row
+ * @param  y  the y-coordinate
+ */
+private int getRow (int y) {
+	if (y <= minY)
+		return 0;
+	return Math.min((int)(((long)y-minY)/cellSize),numOfRows-1);
+}
+
+}
@@ -0,0 +1,86 @@
+package generator2;
+
+import java.io.*;
+import routing.*;
+
+/**
+ * Usage of the edges of a network by the moving objects of one generation.
+ * The usage is stored in an array indexed by the dense edge index and not in the
+ * edges themselves; therefore, several generations can share a network, each
+ * with its own usage.
+ *
+ * @version 1.00	17.10.2026	first version
+ * @author FH Oldenburg
+ */
+public class EdgeUsage {
+
+	/**
+	 * usage of the edges indexed by the dense edge index
+	 */
+	private short[] usage = null;
+
+/**
+ * EdgeUsage constructor. The usage of all edges is 0.
+ * @param  edges  the edges of the network
+ */
+public EdgeUsage (Edges edges) {
+	usage = new short[edges.numOfEdges()];
+}
+
+/**
+ * Decrements the usage of an edge.
+ * @param  edge  the edge
+ */
+public void dec (Edge edge) {
+	int i = edge.getIndex();
+	if (usage[i] < 1) System.out.println("Edge "+edge.getId()+": "+usage[i]+"--");
+	usage[i]--;
+}
+
+/**
+ * Returns the usage of an edge.
+ * @return usage
+ * @param  edge  the edge
+ */
+public int get (Edge edge) {
+	return usage[edge.getIndex()];
+}
+
+/**
+ * Increments the usage of an edge.
+ * @param  edge  the edge
+ */
+public void inc (Edge edge) {
+	usage[edge.getIndex()]++;
+}
+
+/**
+ * Reads the usage of all edges written by write.
+ * @param  in  the input
+ * @exception IOException if an I/O error occurs
+ */
+public void read (DataInput in) throws IOException {
+	for (int i=0; i<usage.length; i++)
+		usage[i] = in.readShort();
+}
+
+/**
+ * Sets the usage of an edge.
+ * @param  edge  the edge
+ * @param  value  the new usage
+ */
+public void set (Edge edge, int value) {
+	usage[edge.getIndex()] = (short)value;
+}
+
+/**
+ * Writes the usage of all edges in the order of the dense edge index.
+ * @param  out  the output
+ * @exception IOException if an I/O error occurs
+ */
+public void write (DataOutput out) throws IOException {
+	for (int i=0; i<usage.length; i++)
+		out.writeShort(usage[i]);
+}
+
+}
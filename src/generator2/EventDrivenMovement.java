@@ -0,0 +1,602 @@
+package generator2;
+
+import routing.*;
+
+/**
+ * Event-driven movement of the moving objects.
+ * Instead of stepping each object at each time stamp, the movement is simulated by
+ * events kept in a calendar queue: the arrival at the next node, the re-routing by
+ * an event and the reporting of a position. Between two events, an object moves with
+ * constant speed on its edge; therefore, its position is only computed when it is
+ * reported. The time stamps of the next report and of the next re-routing by an event
+ * are drawn in advance from the random stream of the object with the same
+ * probabilities as used by the stepwise movement. If the speed on an edge changes by
+ * its usage, the objects on this edge are re-timed at once; if the weights change
+ * otherwise (e.g. by external objects), all objects are re-timed.
+ * The edges passed by an object are released at the arrival at the next node, not
+ * at the beginning of the next time stamp. Therefore, the movement has the same
+ * semantics as the stepwise movement, but the generated dataset is not identical.
+ * Each object has one pending event in the queue (the earliest one); obsolete
+ * events are recognized by a stamp of the object.
+ *
+ * @version 1.10	17.10.2026	weights computed by the weight manager of the container
+ * @version 1.00	17.10.2026	first version
+ * @author FH Oldenburg
+ */
+public class EventDrivenMovement {
+
+	/**
+	 * Event type "re-routing by an event" (processed at the beginning of a time stamp).
+	 */
+	private static final int REROUTE = 0;
+	/**
+	 * Event type "arrival at the next node".
+	 */
+	private static final int ARRIVAL = 1;
+	/**
+	 * Event type "report of the position" (processed at the end of a time stamp).
+	 */
+	private static final int REPORT = 2;
+
+	/**
+	 * the container of the moving objects
+	 */
+	private MovingObjects container = null;
+	/**
+	 * the nodes of the network
+	 */
+	private Nodes nodes = null;
+	/**
+	 * description of the object classes
+	 */
+	private ObjectClasses objClasses = null;
+	/**
+	 * the weight manager
+	 */
+	private WeightManagerForDataGenerator wm = null;
+	/**
+	 * the random stream of the movement
+	 */
+	private RandomStream stream = null;
+	/**
+	 * the event queue
+	 */
+	private CalendarQueue queue = new CalendarQueue();
+	/**
+	 * the last processed time stamp
+	 */
+	private int currTime = 0;
+	/**
+	 * the time of the current event
+	 */
+	private double now = 0;
+
+	/**
+	 * number of objects
+	 */
+	private int num = 0;
+	/**
+	 * number of used slots (including free slots)
+	 */
+	private int numOfSlots = 0;
+	/**
+	 * the free slots
+	 */
+	private int[] free = null;
+	/**
+	 * number of free slots
+	 */
+	private int numOfFree = 0;
+	/**
+	 * first object on each edge (indexed by the dense edge index)
+	 */
+	private int[] edgeHead = null;
+
+	/**
+	 * identifiers
+	 */
+	private int[] id = null;
+	/**
+	 * object classes
+	 */
+	private int[] objClass = null;
+	/**
+	 * indices of the starting nodes
+	 */
+	private int[] start = null;
+	/**
+	 * indices of the destination nodes
+	 */
+	private int[] dest = null;
+	/**
+	 * indices of the last traversed nodes
+	 */
+	private int[] lastNode = null;
+	/**
+	 * times when the last routes were computed
+	 */
+	private int[] lastTime = null;
+	/**
+	 * report numbers
+	 */
+	private int[] repNum = null;
+	/**
+	 * numbers of passed edges
+	 */
+	private int[] edgeNum = null;
+	/**
+	 * positions of the current edges in the routes
+	 */
+	private int[] pos = null;
+	/**
+	 * the routes (null: free slot)
+	 */
+	private Route[] route = null;
+	/**
+	 * times of the last updates of relDist and doneDist
+	 */
+	private double[] refTime = null;
+	/**
+	 * relative distances on the current edges
+	 */
+	private double[] relDist = null;
+	/**
+	 * distances since the last reports
+	 */
+	private double[] doneDist = null;
+	/**
+	 * current speeds
+	 */
+	private double[] speed = null;
+	/**
+	 * times of the arrival at the next node
+	 */
+	private double[] arrival = null;
+	/**
+	 * time stamps of the next reports
+	 */
+	private int[] nextReport = null;
+	/**
+	 * time stamps of the next re-routings by an event
+	 */
+	private int[] nextReroute = null;
+	/**
+	 * stamps of the pending events
+	 */
+	private int[] stamp = null;
+	/**
+	 * next objects on the same edge
+	 */
+	private int[] nextOnEdge = null;
+	/**
+	 * previous objects on the same edge
+	 */
+	private int[] prevOnEdge = null;
+	/**
+	 * the random streams of the objects
+	 */
+	private RandomStream[] random = null;
+
+/**
+ * EventDrivenMovement constructor.
+ * @param container the container of the moving objects
+ * @param stream the random stream of the movement
+ */
+public EventDrivenMovement (MovingObjects container, RandomStream stream) {
+	this.container = container;
+	this.nodes = container.getNetwork().getNodes();
+	this.objClasses = container.getObjectClasses();
+	this.wm = container.getWeightManager();
+	this.stream = stream;
+	edgeHead = new int[container.getNetwork().getEdges().numOfEdges()];
+	for (int e=0; e<edgeHead.length; e++)
+		edgeHead[e] = -1;
+	int capacity = 1024;
+	free = new int[capacity];
+	id = new int[capacity];
+	objClass = new int[capacity];
+	start = new int[capacity];
+	dest = new int[capacity];
+	lastNode = new int[capacity];
+	lastTime = new int[capacity];
+	repNum = new int[capacity];
+	edgeNum = new int[capacity];
+	pos = new int[capacity];
+	route = new Route[capacity];
+	refTime = new double[capacity];
+	relDist = new double[capacity];
+	doneDist = new double[capacity];
+	speed = new double[capacity];
+	arrival = new double[capacity];
+	nextReport = new int[capacity];
+	nextReroute = new int[capacity];
+	stamp = new int[capacity];
+	nextOnEdge = new int[capacity];
+	prevOnEdge = new int[capacity];
+	random = new RandomStream[capacity];
+}
+/**
+ * Adds an object. Called by MovingObject.addToEventDrivenMovement.
+ * The usage of the edges passed before the current edge is decreased.
+ */
+void add (int id, int objClass, Node start, Node dest, Node lastNode, int lastTime, int actTime, int repNum, int edgeNum,
+		Route route, int pos, int lastPos, double relDist, double doneDist) {
+	if ((route == null) || (pos >= route.getNumOfEdges()))
+		return;
+	for (int i=lastPos; i<pos; i++)
+		container.decUsage(route.getEdge(i));
+	int s;
+	if (numOfFree > 0)
+		s = free[--numOfFree];
+	else {
+		if (numOfSlots == this.id.length)
+			enlarge();
+		s = numOfSlots++;
+	}
+	num++;
+	this.id[s] = id;
+	this.objClass[s] = objClass;
+	this.start[s] = start.getIndex();
+	this.dest[s] = dest.getIndex();
+	this.lastNode[s] = lastNode.getIndex();
+	this.lastTime[s] = lastTime;
+	this.repNum[s] = repNum;
+	this.edgeNum[s] = edgeNum;
+	this.route[s] = route;
+	this.pos[s] = pos;
+	this.refTime[s] = actTime;
+	this.relDist[s] = relDist;
+	this.doneDist[s] = doneDist;
+	random[s] = stream.split(id);
+	insertIntoEdge(s,route.getEdge(pos));
+	computeSpeed(s);
+	nextReport[s] = computeTimeOfReport(s,actTime);
+	nextReroute[s] = container.getReRoute().computeTimeOfRouteByEvent(lastTime,actTime,random[s]);
+	schedule(s);
+}
+/**
+ * Moves an object to the current time with its current speed.
+ * @param s the slot
+ */
+private void advance (int s) {
+	if (now <= refTime[s])
+		return;
+	double length = getLength(route[s].getEdge(pos[s]));
+	double dist = (now-refTime[s])*speed[s];
+	if (relDist[s]+dist > length)
+		dist = length-relDist[s];
+	relDist[s] += dist;
+	doneDist[s] += dist;
+	refTime[s] = now;
+}
+/**
+ * Processes the arrival of an object at the next node of its route.
+ * The object enters the next edge or reaches its destination.
+ * @param s the slot
+ */
+private void arrive (int s) {
+	Route r = route[s];
+	Edge edge = r.getEdge(pos[s]);
+	doneDist[s] += getLength(edge)-relDist[s];
+	relDist[s] = 0;
+	refTime[s] = now;
+	Node node = edge.getOppositeNode(nodes.getNode(lastNode[s]));
+	lastNode[s] = node.getIndex();
+	removeFromEdge(s,edge);
+	container.decUsage(edge);
+	// destination reached?
+	if (node.getIndex() == dest[s]) {
+		finish(s,node);
+		return;
+	}
+	if (pos[s]+1 >= r.getNumOfEdges()) {
+		dest[s] = node.getIndex();
+		finish(s,node);
+		return;
+	}
+	// enter the next edge
+	int p = ++pos[s];
+	edge = r.getEdge(p);
+	container.incUsage(edge);
+	insertIntoEdge(s,edge);
+	double weight = computeSpeed(s);
+	int c = objClass[s];
+	container.getReporter().reportEdge(now,id[s],++edgeNum[s],c,edge.getId(),edge.getEdgeClass(),r.getStartingNode(p).getX(),r.getStartingNode(p).getY(),speed[s],r.getDestinationNode(p).getX(),r.getDestinationNode(p).getY(),objClasses.getReportProbability(c));
+	// if significant speed change then re-route
+	if (container.getReRoute().computeNewRouteByComparison(lastTime[s],currTime,(int)(0x7fffffff/r.getOrigWeight(p)),(int)(0x7fffffff/weight),random[s]))
+		computeNewRoute(s);
+	schedule(s);
+}
+/**
+ * Computes a new route from the next node of the current edge to the destination
+ * and draws the time stamp of the next re-routing by an event.
+ * Corresponds to MovingObject.reroute.
+ * @param s the slot
+ */
+private void computeNewRoute (int s) {
+	Route r = route[s];
+	int p = pos[s];
+	Node next = r.getEdge(p).getOppositeNode(nodes.getNode(lastNode[s]));
+	wm.setActualObjectClass(objClass[s]);
+	util.Timer.start(2);
+	Route newRoute = container.computeRoute(objClass[s],next,nodes.getNode(dest[s]));
+	util.Timer.stop(2);
+	if (newRoute != null) {
+		route[s] = r.reroute(p,p,newRoute);
+		pos[s] = 0;
+		container.incTraversedNodesBy(1+newRoute.getNumOfEdges());
+		container.incTraversedDegreeBy(route[s].getStartingNode(0).getNumOfEdges()+newRoute.getDegree());
+	}
+	lastTime[s] = currTime;
+	nextReroute[s] = container.getReRoute().computeTimeOfRouteByEvent(lastTime[s],currTime,random[s]);
+}
+/**
+ * Computes the speed of an object on its current edge and the time of its arrival at the next node.
+ * @return the weight of the edge for the object
+ * @param s the slot
+ */
+private double computeSpeed (int s) {
+	Edge edge = route[s].getEdge(pos[s]);
+	double length = getLength(edge);
+	wm.setActualObjectClass(objClass[s]);
+	double weight = wm.getWeight(edge);
+	speed[s] = length/weight;
+	if (speed[s] > 0)
+		arrival[s] = refTime[s]+(length-relDist[s])/speed[s];
+	else
+		arrival[s] = Double.POSITIVE_INFINITY;
+	return weight;
+}
+/**
+ * Draws the time stamp of the next report of an object.
+ * @return time stamp (Integer.MAX_VALUE: never)
+ * @param s the slot
+ * @param time the current time stamp
+ */
+private int computeTimeOfReport (int s, int time) {
+	int skipped = RandomGenerator.nextGeometric(random[s],objClasses.getReportProbability(objClass[s])/1000.0);
+	if (skipped >= Integer.MAX_VALUE-time-1)
+		return Integer.MAX_VALUE;
+	return time+1+skipped;
+}
+/**
+ * Doubles the number of slots.
+ */
+private void enlarge () {
+	int n = 2*id.length;
+	free = enlarge(free,n);
+	id = enlarge(id,n);
+	objClass = enlarge(objClass,n);
+	start = enlarge(start,n);
+	dest = enlarge(dest,n);
+	lastNode = enlarge(lastNode,n);
+	lastTime = enlarge(lastTime,n);
+	repNum = enlarge(repNum,n);
+	edgeNum = enlarge(edgeNum,n);
+	pos = enlarge(pos,n);
+	refTime = enlarge(refTime,n);
+	relDist = enlarge(relDist,n);
+	doneDist = enlarge(doneDist,n);
+	speed = enlarge(speed,n);
+	arrival = enlarge(arrival,n);
+	nextReport = enlarge(nextReport,n);
+	nextReroute = enlarge(nextReroute,n);
+	stamp = enlarge(stamp,n);
+	nextOnEdge = enlarge(nextOnEdge,n);
+	prevOnEdge = enlarge(prevOnEdge,n);
+	Route[] r = new Route[n];
+	System.arraycopy(route,0,r,0,route.length);
+	route = r;
+	RandomStream[] rs = new RandomStream[n];
+	System.arraycopy(random,0,rs,0,random.length);
+	random = rs;
+}
+/**
+ * Enlarges an int array.
+ * @return the new array
+ * @param a the old array
+ * @param n the new size
+ */
+private static int[] enlarge (int[] a, int n) {
+	int[] res = new int[n];
+	System.arraycopy(a,0,res,0,a.length);
+	return res;
+}
+/**
+ * Enlarges a double array.
+ * @return the new array
+ * @param a the old array
+ * @param n the new size
+ */
+private static double[] enlarge (double[] a, int n) {
+	double[] res = new double[n];
+	System.arraycopy(a,0,res,0,a.length);
+	return res;
+}
+/**
+ * Reports that an object has reached its destination, informs the object generator
+ * and frees the slot of the object.
+ * @param s the slot
+ * @param node the destination
+ */
+private void finish (int s, Node node) {
+	int c = objClass[s];
+	Reporter reporter = container.getReporter();
+	if (reporter != null)
+		reporter.reportDisappearingObject (now,id[s],repNum[s],c,node.getX(),node.getY(),doneDist[s],objClasses.getReportProbability(c));
+	ObjectGenerator objGen = container.getObjectGenerator();
+	if (objGen != null)
+		objGen.reachDestination(new MovingObject(id[s],c,nodes.getNode(start[s]),node,currTime));
+	route[s] = null;
+	random[s] = null;
+	free[numOfFree++] = s;
+	num--;
+}
+/**
+ * Returns the length of an edge used for the movement.
+ * @return length (at least 1)
+ * @param edge the edge
+ */
+private static double getLength (Edge edge) {
+	double length = edge.getLength();
+	if (length == 0)	// in the case of identical nodes
+		length = 1;
+	return length;
+}
+/**
+ * Returns the number of objects.
+ * @return number of objects
+ */
+public int getNumberOfObjects () {
+	return num;
+}
+/**
+ * Inserts an object into the list of the objects on an edge.
+ * @param s the slot
+ * @param edge the edge
+ */
+private void insertIntoEdge (int s, Edge edge) {
+	int e = edge.getIndex();
+	prevOnEdge[s] = -1;
+	nextOnEdge[s] = edgeHead[e];
+	if (edgeHead[e] >= 0)
+		prevOnEdge[edgeHead[e]] = s;
+	edgeHead[e] = s;
+}
+/**
+ * Processes all events until the end of a time stamp.
+ * @param time the time stamp
+ */
+public void move (int time) {
+	queue.advance(time);
+	currTime = time;
+	int e;
+	while ((e = queue.poll()) >= 0) {
+		int s = queue.getSlot(e);
+		int st = queue.getStamp(e);
+		int type = queue.getType(e);
+		now = queue.getTime(e);
+		queue.release(e);
+		if ((route[s] == null) || (stamp[s] != st))
+			continue;
+		switch (type) {
+			case REROUTE:
+				container.getReRoute().countRouteByEvent();
+				computeNewRoute(s);
+				schedule(s);
+				break;
+			case ARRIVAL:
+				arrive(s);
+				break;
+			case REPORT:
+				report(s);
+				break;
+		}
+	}
+	now = time;
+}
+/**
+ * Removes an object from the list of the objects on an edge.
+ * @param s the slot
+ * @param edge the edge
+ */
+private void removeFromEdge (int s, Edge edge) {
+	if (prevOnEdge[s] >= 0)
+		nextOnEdge[prevOnEdge[s]] = nextOnEdge[s];
+	else
+		edgeHead[edge.getIndex()] = nextOnEdge[s];
+	if (nextOnEdge[s] >= 0)
+		prevOnEdge[nextOnEdge[s]] = prevOnEdge[s];
+}
+/**
+ * Removes all objects and decreases the usage of their edges.
+ * Corresponds to MovingObjects.removeObjects.
+ */
+public void removeObjects () {
+	for (int s=0; s<numOfSlots; s++)
+		if (route[s] != null) {
+			Edge edge = route[s].getEdge(pos[s]);
+			removeFromEdge(s,edge);
+			container.decUsage(edge);
+			route[s] = null;
+			random[s] = null;
+		}
+	queue.clear();
+	num = 0;
+	numOfSlots = 0;
+	numOfFree = 0;
+}
+/**
+ * Reports the position of an object at the current time stamp and draws the time stamp of its next report.
+ * @param s the slot
+ */
+private void report (int s) {
+	advance(s);
+	Edge edge = route[s].getEdge(pos[s]);
+	Node from = nodes.getNode(lastNode[s]);
+	Node to = edge.getOppositeNode(from);
+	double length = getLength(edge);
+	double x = from.getX()+(to.getX()-from.getX())*relDist[s]/length;
+	double y = from.getY()+(to.getY()-from.getY())*relDist[s]/length;
+	int c = objClass[s];
+	// the decision has been made by the drawing of the time stamp
+	int oldRepNum = repNum[s];
+	repNum[s] = container.getReporter().reportMovingObject(currTime,id[s],repNum[s],c,x,y,speed[s],doneDist[s],to.getX(),to.getY(),1000);
+	if (repNum[s] != oldRepNum)
+		doneDist[s] = 0;
+	nextReport[s] = computeTimeOfReport(s,currTime);
+	schedule(s);
+}
+/**
+ * Moves an object to the current time and recomputes its speed and its arrival.
+ * @param s the slot
+ */
+private void retime (int s) {
+	advance(s);
+	computeSpeed(s);
+	schedule(s);
+}
+/**
+ * Schedules the earliest pending event of an object; the former event becomes obsolete.
+ * A re-routing by an event is processed before an arrival in the same time stamp,
+ * an arrival before a report.
+ * @param s the slot
+ */
+private void schedule (int s) {
+	stamp[s]++;
+	int type = ARRIVAL;
+	double time = arrival[s];
+	int tick = (time >= Integer.MAX_VALUE) ? Integer.MAX_VALUE : (int)Math.ceil(time);
+	if (nextReroute[s] <= tick) {
+		type = REROUTE;
+		tick = nextReroute[s];
+		time = tick-1;
+	}
+	if (nextReport[s] < tick) {
+		type = REPORT;
+		tick = nextReport[s];
+		time = tick;
+	}
+	if (tick == Integer.MAX_VALUE)
+		return;
+	queue.add(tick,time,type,id[s],s,stamp[s]);
+}
+/**
+ * Re-times the objects on an edge whose speed has changed by its usage.
+ * Called by MovingObjects.
+ * @param edge the edge
+ */
+void speedChanged (Edge edge) {
+	for (int s=edgeHead[edge.getIndex()]; s>=0; s=nextOnEdge[s])
+		retime(s);
+}
+/**
+ * Re-times all objects after a change of the weights, e.g. by external objects.
+ * Called by MovingObjects.
+ */
+void weightsChanged () {
+	for (int s=0; s<numOfSlots; s++)
+		if (route[s] != null)
+			retime(s);
+}
+}
@@ -1,11 +1,13 @@
 package generator2;
 
 import java.awt.*;
+import java.io.*;
 import spatial.*;
 
 /**
  * Class representing an external object.
  * 
+ * @version 3.20	17.10.2026	state can be written and read (for checkpoints)
  * @version 3.10	08.08.2003	getNumOfDimensions, isContainedBy(obj) added
  * @version 3.00	06.10.2002	Rectangle replaced by MBR
  * @version 2.10	17.03.2002	scale in isVisible now double
@@ -62,6 +64,28 @@ public ExternalObject (int id, int time, int lifetime, int objClass, int x, int
 	this.startTime = time;
 	this.deathTime = time+lifetime;
 }
+/**
+ * Reads an external object written by write.
+ * The object is assigned to the container but not inserted into its tree.
+ * @param in the input
+ * @param container the container
+ * @exception IOException if an I/O error occurs
+ */
+ExternalObject (DataInput in, ExternalObjects container) throws IOException {
+	this.container = container;
+	id = in.readInt();
+	objClass = in.readInt();
+	startTime = in.readInt();
+	deathTime = in.readInt();
+	int dim = in.readInt();
+	int[] coords = new int[dim];
+	int[] exts = new int[dim];
+	for (int d=0; d<dim; d++) {
+		coords[d] = in.readInt();
+		exts[d] = in.readInt();
+	}
+	area = new MBR(coords,exts);
+}
 /**
  * Adds the object to a container.
  * @param container the container
@@ -270,4 +294,22 @@ public void reportNewObject (Reporter reporter) {
 public void setMBR (MBR newMBR) {
 	area = newMBR;
 }
+/**
+ * Writes the state of the external object.
+ * @param out the output
+ * @exception IOException if an I/O error occurs
+ */
+void write (DataOutput out) throws IOException {
+	out.writeInt(id);
+	out.writeInt(objClass);
+	out.writeInt(startTime);
+	out.writeInt(deathTime);
+	int[] coords = area.getMinCoords();
+	int[] exts = area.getExtensions();
+	out.writeInt(coords.length);
+	for (int d=0; d<coords.length; d++) {
+		out.writeInt(coords[d]);
+		out.writeInt(exts[d]);
+	}
+}
 }
@@ -6,6 +6,7 @@ import java.util.*;
 /**
  * Definition of the properties of the classes of external objects.
  * 
+ * @version 2.10	17.10.2026	object class computed by a given random generator
  * @version 2.01	27.08.2003	using RandomGenerator
  * @version 2.00	04.09.2001	revision for generator v2.0
  * @version 1.00	29.04.2000	first version
@@ -129,6 +130,16 @@ public ExternalObjectClasses (Properties properties, Time time, DataSpace ds, in
  * @param time time stamp
  */
 public int computeNewExternalObjectClass (int time) {
+	return computeNewExternalObjectClass (time,random);
+}
+
+/**
+ * Computes the object class of a new external object using a given random generator.
+ * @return object class
+ * @param time time stamp
+ * @param random the random generator
+ */
+public int computeNewExternalObjectClass (int time, Random random) {
 	int value = Math.abs(random.nextInt())%PORTIONSUM;
 	int[] p = portion;
 	if (time == 0)
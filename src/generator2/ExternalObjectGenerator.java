@@ -1,11 +1,15 @@
 package generator2;
 
+import java.io.*;
 import java.util.*;
 import spatial.MBR;
 
 /**
  * Class for creating and modifying external objects.
  * 
+ * @version 2.40	17.10.2026	identifiers counted by each generator (shared network)
+ * @version 2.30	17.10.2026	state can be written and read (for checkpoints)
+ * @version 2.20	17.10.2026	random stream for each new external object
  * @version 2.11	27.08.2003	using RandomGenerator
  * @version 2.10	06.10.2002	use of MBR
  * @version 2.00	04.09.2001	revision for generator v2.0
@@ -18,7 +22,7 @@ public class ExternalObjectGenerator {
 	/**
 	 * The counter for the identifiers.
 	 */
-	static protected int currId = 0;
+	protected int currId = 0;
 
 	/**
 	 * Properties of the generator.
@@ -51,6 +55,10 @@ public class ExternalObjectGenerator {
 	 * Random generator.
 	 */
 	protected Random random;
+	/**
+	 * Random stream of the external objects (null if not used).
+	 */
+	protected RandomStream stream = null;
 
 /**
  * Constructor.
@@ -68,6 +76,8 @@ public ExternalObjectGenerator (Properties properties, Time time, DataSpace data
 	this.dataspace = dataspace;
 	this.classes = classes;
 	random = RandomGenerator.get(properties);
+	if (RandomGenerator.useStreams(properties))
+		stream = RandomGenerator.getStream(properties,RandomGenerator.EXTERNAL_OBJECTS);
 	this.numOfExtObjPerTime = numOfExtObjPerTime;
 	this.numOfExtObjAtBeginning = numOfExtObjAtBeginning;
 }
@@ -78,7 +88,9 @@ public ExternalObjectGenerator (Properties properties, Time time, DataSpace data
  */
 public ExternalObject computeExternalObject (int time) {
 	// to be changed ...
-	int objClass = classes.computeNewExternalObjectClass (time);
+	if (stream != null)
+		random = stream.split(currId);
+	int objClass = classes.computeNewExternalObjectClass (time,random);
 	int dx = dataspace.getMaxX()-dataspace.getMinX();
 	int dy = dataspace.getMaxY()-dataspace.getMinY();
 	int x = Math.abs(random.nextInt())%(dx+1) + dataspace.getMinX();
@@ -128,4 +140,21 @@ public int numberOfNewObjects (int time) {
 	else
 		return numOfExtObjPerTime;
 }
+/**
+ * Reads the state written by writeCheckpoint.
+ * @param  in  the input
+ * @exception IOException if an I/O error occurs
+ */
+public void readCheckpoint (DataInput in) throws IOException {
+	currId = in.readInt();
+}
+/**
+ * Writes the state of the generator, i.e. the next id.
+ * Subclasses with a further state must extend this method and readCheckpoint.
+ * @param  out  the output
+ * @exception IOException if an I/O error occurs
+ */
+public void writeCheckpoint (DataOutput out) throws IOException {
+	out.writeInt(currId);
+}
 }
@@ -1,12 +1,22 @@
 package generator2;
 
+import java.io.*;
 import java.util.*;
 import routing.*;
 import spatial.*;
 
 /**
  * Container class for all external objects.
+ * If the edges of the network are set (see setEdges), the decrease of each edge is kept
+ * in an array: for each edge and object class, the number of intersecting external
+ * objects is counted. The counters and decreases are updated when an object is inserted,
+ * moved or removed, only for the edges intersecting its old and new MBR, which are
+ * found by an EdgeGrid. Thus, computeDecrease reads the decrease from the array.
  *
+ * @version 2.40	17.10.2026	edges with changed decreases can be recorded
+ * @version 2.30	17.10.2026	decreases of the edges updated incrementally
+ * @version 2.20	17.10.2026	state can be written and read (for checkpoints)
+ * @version 2.10	17.10.2026	computeDecrease synchronized
  * @version 2.02	05.04.2003	adapted to ST_RegionQuery
  * @version 2.01	06.10.2002	adapted to MBR
  * @version 2.00	03.09.2001	revision for generator v2.0
@@ -54,16 +64,41 @@ public class ExternalObjects {
 	 */
 	private RegionQuery intersectionQuery = new RegionQuery(new WindowQuery());
 
+	/**
+	 * Grid over the edges (null if the edges are not set).
+	 */
+	private EdgeGrid grid = null;
+	/**
+	 * Number of intersecting external objects for each edge (dense index) and object class.
+	 */
+	private int[] count = null;
+	/**
+	 * Decrease of each edge (dense index) in per cent.
+	 */
+	private byte[] decrease = null;
+	/**
+	 * Dense indices of the edges whose decrease has changed since the last fetch (null: not recorded).
+	 */
+	private int[] changed = null;
+	/**
+	 * Number of recorded edges.
+	 */
+	private int numOfChanged = 0;
+	/**
+	 * Is the edge (dense index) recorded?
+	 */
+	private boolean[] isChanged = null;
+
 	/**
 	 * The number of created external objects.
 	 */
 	private int totalNum = 0;
 	/**
-	 * The number of computed decreases.
+	 * The number of computed decreases (or updates of the decreases of the edges).
 	 */
 	private long decNum = 0;
 	/**
-	 * The number of real decreases.
+	 * The number of real decreases (or updates resulting in a decrease).
 	 */
 	private long realDecNum = 0;
 
@@ -87,15 +122,100 @@ public ExternalObjects (Properties properties, Time time, ExternalObjectClasses
 protected void add (ExternalObject obj) {
 	util.Timer.start(7);
 	objs.insert(obj);
+	changeDecreases(obj.getMBR(),obj.getObjectClass(),1);
 	totalNum++;
 	util.Timer.stop(7);
 }
 /**
- * Computes the decrease of speed on the given edge by external objects.
+ * Changes the number of intersecting objects of an object class for the edges
+ * intersecting a rectangle and updates their decreases.
+ * @param r the rectangle
+ * @param objClass the object class
+ * @param d the change (+1 or -1)
+ */
+private void changeDecreases (MBR r, int objClass, int d) {
+	if ((grid == null) || (objClasses.getDecreasingFactor(objClass) >= 100))
+		return;
+	int numOfClasses = objClasses.getNumber();
+	int[] found = grid.findEdges(r);
+	for (int i=0; i<found.length; i++) {
+		int e = found[i];
+		count[e*numOfClasses+objClass] += d;
+		int minFactor = 100;
+		for (int c=0; c<numOfClasses; c++)
+			if ((count[e*numOfClasses+c] > 0) && (objClasses.getDecreasingFactor(c) < minFactor))
+				minFactor = objClasses.getDecreasingFactor(c);
+		if (decrease[e] != minFactor)
+			recordChange(e);
+		decrease[e] = (byte)minFactor;
+		decNum++;
+		if (minFactor < 100)
+			realDecNum++;
+	}
+}
+/**
+ * Returns the dense indices of the edges whose decrease has changed since
+ * the last call and clears the record.
+ * @return the indices or null if the changes are not recorded
+ */
+public int[] fetchChangedEdges () {
+	if (changed == null)
+		return null;
+	int[] res = new int[numOfChanged];
+	for (int i=0; i<numOfChanged; i++) {
+		res[i] = changed[i];
+		isChanged[changed[i]] = false;
+	}
+	numOfChanged = 0;
+	return res;
+}
+/**
+ * Records that the decrease of an edge has changed.
+ * @param e the dense index of the edge
+ */
+private void recordChange (int e) {
+	if ((changed == null) || isChanged[e])
+		return;
+	if (numOfChanged == changed.length) {
+		int[] old = changed;
+		changed = new int[2*old.length];
+		System.arraycopy(old,0,changed,0,numOfChanged);
+	}
+	isChanged[e] = true;
+	changed[numOfChanged++] = e;
+}
+/**
+ * Starts recording the edges whose decrease changes; they are returned by fetchChangedEdges.
+ * The edges must be set before.
+ * @return  false if the edges are not set and nothing is recorded
+ */
+public boolean recordChangedEdges () {
+	if (grid == null)
+		return false;
+	changed = new int[64];
+	numOfChanged = 0;
+	isChanged = new boolean[decrease.length];
+	return true;
+}
+/**
+ * Returns the decrease of speed on the given edge by external objects.
+ * If the edges are set, the decrease is read from the array; otherwise, it is computed
+ * by a query on the tree.
  * @return decrease in per cent
  * @param edge the edge
  */
 public int computeDecrease (Edge edge) {
+	if (decrease != null)
+		return decrease[edge.getIndex()];
+	return queryDecrease(edge);
+}
+/**
+ * Computes the decrease of speed on the given edge by a query on the tree.
+ * Synchronized because the query object is shared by the threads of the parallel movement.
+ * @return decrease in per cent
+ * @param edge the edge
+ */
+private synchronized int queryDecrease (Edge edge) {
 	util.Timer.start(7);
 	decNum++;
 	// if no object exists, no decrease
@@ -185,6 +305,8 @@ public void moveAndResizeAndRemoveObjects (int time, ExternalObjectGenerator gen
 		actObj.reportDeletedObject(reporter,time);
 		if (!objs.remove(actObj))
 			System.err.println("ext. obj. "+actObj.getMBR()+" not deleted!");
+		else
+			changeDecreases(actObj.getMBR(),actObj.getObjectClass(),-1);
 		deadObjs.setElementAt (null,i);
 	}
 	deadObjs.setSize(0);
@@ -203,6 +325,10 @@ public void moveAndResizeAndRemoveObjects (int time, ExternalObjectGenerator gen
 				}
 			else
 				actObj.setMBR(mbr);
+			if (actObj.getMBR() == mbr) {
+				changeDecreases(oldMBR,actObj.getObjectClass(),-1);
+				changeDecreases(mbr,actObj.getObjectClass(),1);
+			}
 		}
 		actObj.reportMovingObject(reporter,time);
 		moveObjs.setElementAt (null,i);
@@ -210,6 +336,29 @@ public void moveAndResizeAndRemoveObjects (int time, ExternalObjectGenerator gen
 	moveObjs.setSize(0);
 	util.Timer.stop(7);
 }
+/**
+ * Reads the state written by writeCheckpoint; the current objects are replaced.
+ * The tree gets the written structure, i.e. the objects are visited in the same order.
+ * @param  in  the input
+ * @exception IOException if an I/O error occurs
+ */
+public void readCheckpoint (DataInput in) throws IOException {
+	totalNum = in.readInt();
+	long decNum = in.readLong();
+	long realDecNum = in.readLong();
+	int n = in.readInt();
+	Vector v = new Vector(n);
+	for (int i=0; i<n; i++)
+		v.addElement(new ExternalObject(in,this));
+	objs = new MemoryRTree(in,v);
+	resetDecreases();
+	for (int i=0; i<n; i++) {
+		ExternalObject obj = (ExternalObject)v.elementAt(i);
+		changeDecreases(obj.getMBR(),obj.getObjectClass(),1);
+	}
+	this.decNum = decNum;
+	this.realDecNum = realDecNum;
+}
 /**
  * All external objects are removed from the tree into the dead object container.
  */
@@ -231,6 +380,61 @@ public void removeObjects() {
 	moveObjs.setSize(0);
 	// reset variables
 	objs = new MemoryRTree();
+	resetDecreases();
 	util.Timer.stop(7);
 }
+/**
+ * Resets the counters and decreases of all edges.
+ */
+private void resetDecreases () {
+	if (grid == null)
+		return;
+	Arrays.fill(count,0);
+	for (int e=0; e<decrease.length; e++)
+		if (decrease[e] != 100)
+			recordChange(e);
+	Arrays.fill(decrease,(byte)100);
+}
+/**
+ * Sets the edges of the network whose decreases are kept in an array.
+ * The decreases are computed for the current objects.
+ * @param edges the edges (null: the decreases are computed by queries on the tree)
+ */
+public void setEdges (Edges edges) {
+	changed = null;
+	isChanged = null;
+	numOfChanged = 0;
+	if (edges == null) {
+		grid = null;
+		count = null;
+		decrease = null;
+		return;
+	}
+	grid = new EdgeGrid(edges);
+	count = new int[edges.numOfEdges()*objClasses.getNumber()];
+	decrease = new byte[edges.numOfEdges()];
+	resetDecreases();
+	Vector v = new Vector();
+	objs.collectObjects(v);
+	for (int i=0; i<v.size(); i++) {
+		ExternalObject obj = (ExternalObject)v.elementAt(i);
+		changeDecreases(obj.getMBR(),obj.getObjectClass(),1);
+	}
+}
+/**
+ * Writes the counters, the objects and the structure of the tree.
+ * @param  out  the output
+ * @exception IOException if an I/O error occurs
+ */
+public void writeCheckpoint (DataOutput out) throws IOException {
+	out.writeInt(totalNum);
+	out.writeLong(decNum);
+	out.writeLong(realDecNum);
+	Vector v = new Vector();
+	objs.collectObjects(v);
+	out.writeInt(v.size());
+	for (int i=0; i<v.size(); i++)
+		((ExternalObject)v.elementAt(i)).write(out);
+	objs.write(out);
+}
 }
@@ -0,0 +1,858 @@
+package generator2;
+
+import java.io.*;
+import java.util.*;
+import routing.*;
+
+/**
+ * Headless engine computing a network-based spatiotemporal dataset.
+ * The engine needs only the routing graph; no drawable objects, search tree or
+ * presentations are created. The parameters are read from the properties
+ * (see the get-methods); the applet DataGenerator overrides these methods by the
+ * values of its text fields and the factory methods by its own ones.
+ * The engine can be started as Java application:
+ * <pre>java generator2.GenerationEngine propertyfile [network]</pre>
+ * where network is the base name of the network files (default: property "urlne").
+ * The application uses the default factory methods of the engine; the variants of the
+ * applets are selected by properties: "objectGenerator=constant" selects the
+ * ConstantObjectGenerator, "reporter=node" the NodeReporter and "reporter=oracle" the
+ * OracleReporter. The external objects have no variant. The applets ignore these
+ * properties; their variants are given by their classes.
+ * <p>
+ * The movement is serial (default), parallel (property "threads" &gt; 0), serial in
+ * parallel arrays (property "objectStore") or event-driven (property "eventDriven");
+ * the modes exclude each other and the computation is rejected if more than one
+ * of them is selected (see checkProperties).
+ * <p>
+ * If the first route of a new object cannot be computed, e.g. because its nodes are not
+ * connected, the starting node and the destination are drawn again; the destination is
+ * drawn around the new starting node. Former versions (before 1.91) drew it around the
+ * first starting node; therefore, datasets with such retries differ from the datasets of
+ * these versions for the same seed, also without the property "largestComponent".
+ * Datasets without retries are not changed.
+ * <p>
+ * If the property "checkpointInterval" is set, the state of the generation is written
+ * every checkpointInterval time stamps into the file given by the property "checkpointFile"
+ * (default: "generator.chk"); the file is written in the background. If the hierarchy is
+ * customized, the interval is rounded up to a multiple of the customization interval.
+ * If the property "resume" is set, the computation continues from the checkpoint file:
+ * the output file is truncated to its length at the checkpoint and continued, and the
+ * output is identical to the output of an uninterrupted computation. Checkpoints are not
+ * supported by the event-driven movement and by reporters whose output cannot be resumed.
+ * <p>
+ * If the property "snapshot" is set, a snapshot of the network with its landmarks and
+ * its contraction hierarchy is stored next to the network files before the first time
+ * stamp (see Network.saveSnapshot); the next start reads the network from the snapshot.
+ * <p>
+ * If the network is shared by several engines computing concurrently (see setSharedNetwork),
+ * the engine does not change the network: the usage of the edges is kept by the container
+ * of the moving objects and the weight manager and the landmarks are set in an own
+ * routing context. The random generators must be separated by a scope (see RandomGenerator).
+ *
+ * @version 1.94	17.10.2026	conflicting modes of the movement rejected, variants of the generator selected by properties
+ * @version 1.93	17.10.2026	random streams of the objects for the serial movement by the property "randomStreams"
+ * @version 1.92	17.10.2026	landmarks only by the property "landmarks"
+ * @version 1.91	17.10.2026	destination of a retry computed for the new starting node
+ * @version 1.90	17.10.2026	network snapshot by the property "snapshot"
+ * @version 1.80	17.10.2026	unconnected pairs rejected before routing, property "largestComponent", retries reported
+ * @version 1.70	17.10.2026	destinations by a search in the network by the property "networkDestinations"
+ * @version 1.60	17.10.2026	table of the weights by the property "weightTables"
+ * @version 1.50	17.10.2026	decreases of the edges by external objects kept by an array
+ * @version 1.40	17.10.2026	network shared by several engines
+ * @version 1.30	17.10.2026	checkpoints written in the background, resuming from a checkpoint
+ * @version 1.20	17.10.2026	report decision first by the property "reportDecisionFirst"
+ * @version 1.10	17.10.2026	event-driven movement by the property "eventDriven"
+ * @version 1.00	17.10.2026	first version
+ * @author FH Oldenburg
+ */
+public class GenerationEngine {
+
+	/**
+	 * Identifier of a checkpoint file.
+	 */
+	private static final int CHECKPOINT_MAGIC = 0x47454e43;
+	/**
+	 * Version of the format of the checkpoint file.
+	 */
+	private static final int CHECKPOINT_VERSION = 2;
+
+	/**
+	 * The properties of the generator.
+	 */
+	protected Properties properties = null;
+	/**
+	 * The network.
+	 */
+	protected Network net = null;
+	/**
+	 * The time object.
+	 */
+	protected Time time = null;
+	/**
+	 * The data space.
+	 */
+	protected DataSpace dataspace = null;
+	/**
+	 * The edge classes.
+	 */
+	protected EdgeClasses edgeClasses = null;
+	/**
+	 * The object classes.
+	 */
+	protected ObjectClasses objClasses = null;
+	/**
+	 * The external objects.
+	 */
+	protected ExternalObjects extObjects = null;
+	/**
+	 * The classes of external objects.
+	 */
+	protected ExternalObjectClasses extObjClasses = null;
+	/**
+	 * The reporter.
+	 */
+	protected Reporter reporter = null;
+	/**
+	 * Is the network shared by several engines?
+	 */
+	private boolean sharedNetwork = false;
+
+/**
+ * GenerationEngine constructor.
+ * @param properties the properties of the generator
+ * @param net the network
+ */
+public GenerationEngine (Properties properties, Network net) {
+	this.properties = properties;
+	this.net = net;
+}
+
+/**
+ * Computes the dataset.
+ * At the first call, the engine is initialized (see initialize).
+ * Order of the further initialization: <ol>
+ * <li>ExternalObjectGenerator
+ * <li>ExternalObjects (only first call)
+ * <li>Reporter
+ * <li>WeightManagerForDataGenerator
+ * <li>ReRoute
+ * <li>ObjectGenerator
+ * <li>MovingObjects
+ * </ol>
+ */
+public void compute () {
+	String error = checkProperties(properties);
+	if (error != null) {
+		System.err.println("GenerationEngine.compute: "+error);
+		return;
+	}
+	Nodes nodes = net.getNodes();
+	Edges edges = net.getEdges();
+	if (time == null)
+		initialize();
+	time.reset();
+	// when resuming, the output position and the random generators are restored first
+	DataInputStream checkpoint = null;
+	long outputOffset = 0;
+	Properties reporterProperties = properties;
+	if (properties.getProperty("resume") != null)
+		try {
+			checkpoint = new DataInputStream(new ByteArrayInputStream(CheckpointWriter.read(getCheckpointFile())));
+			if ((checkpoint.readInt() != CHECKPOINT_MAGIC) || (checkpoint.readInt() != CHECKPOINT_VERSION))
+				throw new IOException("unknown format");
+			outputOffset = checkpoint.readLong();
+			reporterProperties = new Properties(properties);
+			reporterProperties.setProperty("outputOffset",String.valueOf(outputOffset));
+			RandomGenerator.readState(checkpoint);
+		}
+		catch (IOException ex) {
+			System.err.println("Error occured by reading the checkpoint "+getCheckpointFile()+": "+ex.getMessage());
+			return;
+		}
+	edgeClasses.announce (time,dataspace,getMaxSpeedDivisor());
+	ExternalObjectGenerator extObjGen = createExternalObjectGenerator (properties,time,dataspace,extObjClasses,getNumOfExtObjPerTime(),getNumOfExtObjAtBeginning());
+	boolean extObjectsExist = extObjGen.externalObjectsExist();
+	if (extObjectsExist && (extObjects == null))
+		extObjects = new ExternalObjects (properties,time,extObjClasses);
+	if (extObjectsExist)
+		extObjects.setEdges (edges);
+	reporter = createReporter (reporterProperties);
+	WeightManagerForDataGenerator wm = null;
+	if (extObjectsExist)
+		wm = new WeightManagerForDataGenerator (edgeClasses,objClasses,extObjects);
+	else
+		wm = new WeightManagerForDataGenerator (edgeClasses,objClasses,null);
+	RoutingContext routingContext = null;
+	if (sharedNetwork) {
+		routingContext = net.createRoutingContext();
+		routingContext.setWeightManager (wm);
+		routingContext.setLandmarks (net.getLandmarks(wm,getNumOfLandmarks(),Landmarks.AVOID));
+	}
+	else {
+		edges.setWeightManager (wm);
+		net.prepareLandmarks (getNumOfLandmarks(),Landmarks.AVOID);
+	}
+	ReRoute reroute = createReRoute(properties,time,dataspace);
+	ObjectGenerator objGen = createObjectGenerator (properties,time,dataspace,nodes,objClasses,getNumOfObjPerTime(),getNumOfObjAtBeginning());
+	MovingObjects movingObjects = new MovingObjects (wm,net,objGen,reporter,reroute);
+	movingObjects.setRoutingContext (routingContext);
+	objGen.useComponents (net.getCompactGraph(),properties.getProperty("largestComponent") != null);
+	if (properties.getProperty("networkDestinations") != null)
+		objGen.setNetwork (net,wm);
+	RouteCache routeCache = new RouteCache (properties);
+	movingObjects.setRouteCache (routeCache);
+	movingObjects.setReportDecisionFirst (properties.getProperty("reportDecisionFirst") != null);
+	if (RandomGenerator.useStreams(properties))
+		movingObjects.setRandomStream (RandomGenerator.getStream(properties,RandomGenerator.MOVEMENT));
+	int numOfThreads = DataGenerator.getProperty(properties,"threads",0);
+	if (numOfThreads > 0)
+		movingObjects.setNumOfThreads (numOfThreads,RandomGenerator.getStream(properties,RandomGenerator.MOVEMENT));
+	else if (properties.getProperty("objectStore") != null)
+		movingObjects.setObjectStore (new MovingObjectStore(movingObjects,DataGenerator.getProperty(properties,"objectStore",10000)));
+	else if (properties.getProperty("eventDriven") != null)
+		movingObjects.setEventDrivenMovement (new EventDrivenMovement(movingObjects,RandomGenerator.getStream(properties,RandomGenerator.MOVEMENT)));
+	// restore the state of the checkpoint
+	ExternalObjects currExtObjects = extObjectsExist ? extObjects : null;
+	int numOfTimeStamps = 0;
+	if (checkpoint != null)
+		try {
+			if (reporter.getOutputPosition() != outputOffset)
+				throw new IOException("the output cannot be resumed");
+			numOfTimeStamps = readCheckpoint(checkpoint,movingObjects,objGen,extObjGen,currExtObjects,reroute);
+		}
+		catch (IOException ex) {
+			System.err.println("Error occured by reading the checkpoint "+getCheckpointFile()+": "+ex.getMessage());
+			reporter.close();
+			return;
+		}
+	if (properties.getProperty("weightTables") != null)
+		movingObjects.createWeightTable();
+	// the time starts
+	util.Timer.reset(1);
+	util.Timer.reset(2);
+	util.Timer.start(1);
+	int actTime = time.getCurrTime();
+	// checkpoints are written before the hierarchy is customized; it is customized again when resuming
+	int customizationInterval = getCustomizationInterval();
+	int checkpointInterval = getCheckpointInterval();
+	if ((customizationInterval > 0) && (checkpointInterval % customizationInterval != 0))
+		checkpointInterval += customizationInterval-checkpointInterval%customizationInterval;
+	// store the network with the preprocessing for the next start
+	if (properties.getProperty("snapshot") != null) {
+		if (customizationInterval > 0)
+			net.getContractionHierarchy();
+		net.saveSnapshot();
+	}
+	CheckpointWriter checkpointWriter = null;
+	if (checkpointInterval > 0) {
+		checkpointWriter = new CheckpointWriter(getCheckpointFile());
+		checkpointWriter.start();
+	}
+	int firstTimeStamp = numOfTimeStamps;
+	// traverse the time
+	while (!time.isMaximumTimeExceeded()) {
+		// write a checkpoint
+		if ((checkpointWriter != null) && (numOfTimeStamps > firstTimeStamp) && (numOfTimeStamps % checkpointInterval == 0))
+			try {
+				checkpointWriter.write(writeCheckpoint(numOfTimeStamps,movingObjects,objGen,extObjGen,currExtObjects,reroute));
+			}
+			catch (IOException ex) {
+				System.err.println("Error occured by writing the checkpoint "+getCheckpointFile()+": "+ex.getMessage());
+				checkpointWriter.close();
+				checkpointWriter = null;
+			}
+		// adapt the contraction hierarchy to the current weights
+		if ((customizationInterval > 0) && (numOfTimeStamps % customizationInterval == 0))
+			movingObjects.customizeHierarchy();
+		numOfTimeStamps++;
+		// move and report all external objects, remove the desd objects
+		if (extObjectsExist) {
+			extObjects.moveAndResizeAndRemoveObjects(actTime,extObjGen,reporter);
+			movingObjects.weightsChanged();
+		}
+		// move and report all moving objects, remove the objects reaching the destination
+		movingObjects.move(actTime);
+		// generate new external objects
+		int numOfNewExtObjects = extObjGen.numberOfNewObjects(actTime);
+		for (int i=0; i<numOfNewExtObjects; i++) {
+			ExternalObject extObj = extObjGen.computeExternalObject(actTime);
+			extObj.addToContainer (extObjects);
+			extObj.reportNewObject (reporter);
+		}
+		if (numOfNewExtObjects > 0)
+			movingObjects.weightsChanged();
+		// generate new moving objects
+		int numOfNewObjects = objGen.numberOfNewObjects(actTime);
+		for (int i=0; i<numOfNewObjects; i++) {
+			// for each new moving object, determine its properties and create it, ...
+			int id = objGen.computeId(actTime);
+			objGen.selectRandomStream(id,actTime);
+			int objClass = objGen.computeObjectClass(actTime);
+			Node start = objGen.computeStartingNode(actTime,objClass);
+			Node dest = objGen.computeDestinationNode(actTime,start,objGen.computeLengthOfRoute(actTime,objClass),objClass);
+			MovingObject obj = new MovingObject (id,objClass,start,dest,actTime);
+			obj.addToContainer (movingObjects);
+			// and compute the (first) route; unconnected nodes are replaced without routing,
+			// the destination of a retry is drawn around its new starting node
+			Node actStart = start;
+			while (! (objGen.isConnected(actStart,dest) && obj.computeRoute(objGen.fetchRoute()))) {
+				objGen.announceRetry();
+				actStart = objGen.computeStartingNode(actTime,objClass);
+				dest = objGen.computeDestinationNode(actTime,actStart,objGen.computeLengthOfRoute(actTime,objClass),objClass);
+				obj.setStart(actStart);
+				obj.setDestination(dest);
+			}
+			obj.reportNewObject (reporter);
+		}
+		// to the next time stamp
+		time.increaseCurrTime();
+		actTime = time.getCurrTime();
+		if (actTime % 25 == 0)
+			System.gc();
+		reportProgress (actTime);
+	}
+	util.Timer.stop(1);
+	if (checkpointWriter != null)
+		checkpointWriter.close();
+	// report and remove all still existing objects
+	movingObjects.removeObjects();
+	if (extObjectsExist)
+		extObjects.removeObjects();
+	// report statistics
+	long totalTime = util.Timer.get(1);
+	long routingTime = util.Timer.get(2);
+	int numOfRoutes = movingObjects.getTotalNumOfObjects()+reroute.getNumberOfRoutesByEvent()+reroute.getNumberOfRoutesByComparison();
+	int dx = dataspace.getMaxX()-dataspace.getMinX();
+	int dy = dataspace.getMaxY()-dataspace.getMinY();
+	reporter.reportInt("data space width: ",dx);
+	reporter.reportInt("data space height: ",dy);
+	reporter.reportInt("number of nodes: ",nodes.numOfNodes());
+	reporter.reportInt("number of edges: ",edges.numOfEdges());
+	reporter.reportInt("maximum time: ",time.getMaxTime());
+	reporter.reportInt("# moving objects: ",movingObjects.getTotalNumOfObjects());
+	reporter.reportInt("# points: ",reporter.getNumberOfReportedPoints());
+	reporter.reportInt("# traversed nodes: ",movingObjects.getTotalNumberOfTraversedNodes());
+	reporter.reportDouble("# nodes/obj: ",((double)movingObjects.getTotalNumberOfTraversedNodes())/movingObjects.getTotalNumOfObjects());
+	reporter.reportDouble("# traversed degree: ",movingObjects.getTotalDegreeOfTraversedNodes());
+	double nodeDegree = (double)(movingObjects.getTotalDegreeOfTraversedNodes()-movingObjects.getTotalNumberOfTraversedNodes())/movingObjects.getTotalNumberOfTraversedNodes();
+	reporter.reportDouble("# node degree: ",nodeDegree);
+	reporter.reportInt("# all routes: ",numOfRoutes);
+	reporter.reportInt("# routes by event: ",reroute.getNumberOfRoutesByEvent());
+	reporter.reportInt("# routes by comparison: ",reroute.getNumberOfRoutesByComparison());
+	reporter.reportInt("total time in ms: ",totalTime);
+	reporter.reportDouble("total time/obj: ",((double)totalTime/movingObjects.getTotalNumOfObjects()));
+	reporter.reportDouble("total time/point: ",((double)totalTime/reporter.getNumberOfReportedPoints()));
+	reporter.reportDouble("routing time in ms: ",routingTime);
+	reporter.reportDouble("insert time: ",IndexedHeap.insertTimer.get());
+	reporter.reportDouble("fetch time:  ",IndexedHeap.fetchTimer.get());
+	reporter.reportDouble("change time: ",IndexedHeap.changeTimer.get());
+	reporter.reportDouble("routing time/obj: ",((double)routingTime/movingObjects.getTotalNumOfObjects()));
+	reporter.reportDouble("routing time/point: ",((double)routingTime/reporter.getNumberOfReportedPoints()));
+	reporter.reportDouble("routing time/node: ",((double)routingTime/movingObjects.getTotalNumberOfTraversedNodes()));
+	reporter.reportDouble("routing time/node/nodedegr: ",((double)routingTime/movingObjects.getTotalNumberOfTraversedNodes()/nodeDegree));
+	reporter.reportDouble("routing time/routing: ",((double)routingTime/numOfRoutes));
+	reporter.reportInt("route cache hits: ",routeCache.getNumberOfHits());
+	reporter.reportInt("route cache misses: ",routeCache.getNumberOfMisses());
+	reporter.reportInt("route cache evictions: ",routeCache.getNumberOfEvictions());
+	reporter.reportInt("# weight epochs: ",routeCache.getEpoch()+1);
+	if (extObjectsExist) {
+		reporter.reportInt("# computed decreases: ",extObjects.getNumOfComputedDecreases());
+		reporter.reportInt("# real decreases: ",extObjects.getNumOfRealDecreases());
+		reporter.reportInt("time for external objects in ms: ",extObjects.getUsedTime());
+	}
+	long totalDistance = 0;
+	for (Enumeration e = edges.elements(); e.hasMoreElements();) {
+		Edge edge = (Edge)e.nextElement();
+		totalDistance += edge.getLength();
+	}
+	int avDistance = (int)(totalDistance/edges.numOfEdges());
+	reporter.reportInt("average edge length: ",avDistance);
+	reporter.reportInt("average route length: ",objGen.getAverageRouteLength());
+	reporter.reportInt("# retries of new objects: ",objGen.getNumOfRetries());
+	reporter.reportInt("# rejected unconnected pairs: ",objGen.getNumOfRejectedPairs());
+	reporter.close();
+}
+
+/**
+ * Calls the constructor of EdgeClasses.
+ * @return an object of the class EdgeClasses
+ * @param properties the properties of the generator
+ */
+public EdgeClasses createEdgeClasses (Properties properties) {
+	return new EdgeClasses (properties);
+}
+
+/**
+ * Calls the constructor of ExternalObjectClasses.
+ * @return an object of ExternalObjectClasses
+ * @param properties properties of the generator
+ * @param time the time object
+ * @param ds the data space
+ * @param numOfClasses number of external object classes
+ */
+public ExternalObjectClasses createExternalObjectClasses (Properties properties, Time time, DataSpace ds, int numOfClasses) {
+	return new ExternalObjectClasses (properties,time,ds,numOfClasses);
+}
+
+/**
+ * Calls the constructor of ExternalObjectGenerator.
+ * @return an external object generator
+ * @param properties properties of the generator
+ * @param time the time object
+ * @param dataspace the dataspace
+ * @param classes the classes of external objects
+ * @param numOfExtObjPerTime number of external objects per time
+ * @param numAtBeginning number of external objects at the beginning
+ */
+public ExternalObjectGenerator createExternalObjectGenerator (Properties properties, Time time, DataSpace dataspace, ExternalObjectClasses classes, int numOfExtObjPerTime, int numAtBeginning) {
+	return new ExternalObjectGenerator (properties,time,dataspace,classes,numOfExtObjPerTime,numAtBeginning);
+}
+
+/**
+ * Calls the constructor of ObjectClasses.
+ * @return an object of ObjectClasses
+ * @param properties properties of the generator
+ * @param time the time object
+ * @param ds the data space
+ * @param numOfClasses number of object classes
+ * @param reportProb report probability (0-1000)
+ * @param maxSpeedDivisor maximum speed divisor
+ */
+public ObjectClasses createObjectClasses (Properties properties, Time time, DataSpace ds, int numOfClasses, int reportProb, int maxSpeedDivisor) {
+	return new ObjectClasses (properties,time,ds,numOfClasses,reportProb,maxSpeedDivisor);
+}
+
+/**
+ * Calls the constructor of ObjectGenerator.
+ * @return an object generator
+ * @param properties properties of the generator
+ * @param time the time object
+ * @param ds the dataspace
+ * @param nodes the nodes of the network
+ * @param objClasses description of the object classes
+ * @param numOfObjPerTime indicator for the number of moving objects per time
+ * @param numOfObjAtBeginning indicator for the number of moving objects at the beginning
+ */
+public ObjectGenerator createObjectGenerator (Properties properties, Time time, DataSpace ds, Nodes nodes, ObjectClasses objClasses, int numOfObjPerTime, int numOfObjAtBeginning) {
+	if ("constant".equals(properties.getProperty("objectGenerator")))
+		return new ConstantObjectGenerator (properties,time,ds,nodes,objClasses,numOfObjPerTime,numOfObjAtBeginning);
+	return new ObjectGenerator (properties,time,ds,nodes,objClasses,numOfObjPerTime,numOfObjAtBeginning);
+}
+
+/**
+ * Calls the constructor of the reporter selected by the property "reporter"
+ * (default: PositionReporter) without drawable objects.
+ * @return the reporter
+ * @param properties properties of the generator
+ */
+public Reporter createReporter (Properties properties) {
+	String variant = properties.getProperty("reporter");
+	if ("node".equals(variant))
+		return new NodeReporter (properties,null);
+	if ("oracle".equals(variant))
+		return new OracleReporter (properties,null);
+	return new PositionReporter (properties,null);
+}
+
+/**
+ * Checks the properties selecting the mode of the movement and the variants of the generator.
+ * At most one of the modes "threads" (&gt; 0), "objectStore" and "eventDriven" may be selected;
+ * the values of "objectGenerator" and "reporter" must be known.
+ * @return description of the error or null if the properties are consistent
+ * @param properties properties of the generator
+ */
+public static String checkProperties (Properties properties) {
+	String modes = null;
+	int numOfModes = 0;
+	if (DataGenerator.getProperty(properties,"threads",0) > 0) {
+		modes = "threads";
+		numOfModes++;
+	}
+	if (properties.getProperty("objectStore") != null) {
+		modes = (modes == null) ? "objectStore" : modes+", objectStore";
+		numOfModes++;
+	}
+	if (properties.getProperty("eventDriven") != null) {
+		modes = (modes == null) ? "eventDriven" : modes+", eventDriven";
+		numOfModes++;
+	}
+	if (numOfModes > 1)
+		return "conflicting modes of the movement ("+modes+"); select at most one of them";
+	String variant = properties.getProperty("objectGenerator");
+	if ((variant != null) && !variant.equals("default") && !variant.equals("constant"))
+		return "unknown object generator \""+variant+"\" (default, constant)";
+	variant = properties.getProperty("reporter");
+	if ((variant != null) && !variant.equals("position") && !variant.equals("node") && !variant.equals("oracle"))
+		return "unknown reporter \""+variant+"\" (position, node, oracle)";
+	return null;
+}
+
+/**
+ * Calls the constructor of ReRoute.
+ * @return an object of ReRoute
+ * @param properties properties of the generator
+ * @param time the time object
+ * @param ds the data space
+ */
+public ReRoute createReRoute (Properties properties, Time time, DataSpace ds) {
+	return new ReRoute (properties,time,ds);
+}
+
+/**
+ * Returns the name of the checkpoint file given by the property "checkpointFile".
+ * @return file name
+ */
+protected String getCheckpointFile () {
+	return properties.getProperty("checkpointFile","generator.chk");
+}
+
+/**
+ * Returns the number of time stamps after which a checkpoint is written.
+ * The number is given by the property "checkpointInterval"; 0 (the default) means
+ * that no checkpoints are written.
+ * @return interval
+ */
+protected int getCheckpointInterval () {
+	return DataGenerator.getProperty(properties,"checkpointInterval",0);
+}
+
+/**
+ * Returns the number of time stamps after which the contraction hierarchy is customized again.
+ * The number is given by the property "customizationInterval"; 0 (the default) means
+ * that the routes are computed without the contraction hierarchy.
+ * @return interval
+ */
+protected int getCustomizationInterval () {
+	return DataGenerator.getProperty(properties,"customizationInterval",0);
+}
+
+/**
+ * Returns the data space.
+ * @return data space (null before the initialization)
+ */
+public DataSpace getDataSpace () {
+	return dataspace;
+}
+
+/**
+ * Returns the classes of external objects.
+ * @return external object classes (null before the initialization)
+ */
+public ExternalObjectClasses getExternalObjectClasses () {
+	return extObjClasses;
+}
+
+/**
+ * Returns the external objects.
+ * @return external objects (null if no external objects have been generated)
+ */
+public ExternalObjects getExternalObjects () {
+	return extObjects;
+}
+
+/**
+ * Returns the maximum time given by the property "maxTime".
+ * @return maximum time
+ */
+protected int getMaxTime () {
+	return getParameter("maxTime",20,DataGenerator.MIN_MAXTIME,DataGenerator.MAX_MAXTIME);
+}
+
+/**
+ * Returns the maximum speed divisor given by the property "maxSpeedDivisor".
+ * @return maximum speed divisor
+ */
+protected int getMaxSpeedDivisor () {
+	return getParameter("maxSpeedDivisor",50,1,1000);
+}
+
+/**
+ * Returns the number of external objects at the beginning given by the property "extObjBegin".
+ * @return number of external objects
+ */
+protected int getNumOfExtObjAtBeginning () {
+	return getParameter("extObjBegin",0,0,DataGenerator.MAX_EXTOBJBEGIN);
+}
+
+/**
+ * Returns the number of external object classes given by the property "extObjClasses".
+ * @return number of classes
+ */
+protected int getNumOfExtObjClasses () {
+	return getParameter("extObjClasses",3,1,DataGenerator.MAX_EXTOBJCLASSES);
+}
+
+/**
+ * Returns the number of external objects per time given by the property "extObjPerTime".
+ * @return number of external objects
+ */
+protected int getNumOfExtObjPerTime () {
+	return getParameter("extObjPerTime",0,0,DataGenerator.MAX_EXTOBJPERTIME);
+}
+
+/**
+ * Returns the number of landmarks used for the route computation.
+ * The number is given by the property "landmarks" (e.g. Landmarks.DEFAULT_NUMBER);
+ * without the property, no landmarks are computed or stored.
+ * @return number of landmarks (0: no landmarks)
+ */
+protected int getNumOfLandmarks () {
+	return DataGenerator.getProperty(properties,"landmarks",0);
+}
+
+/**
+ * Returns the number of moving objects at the beginning given by the property "objBegin".
+ * @return number of moving objects
+ */
+protected int getNumOfObjAtBeginning () {
+	return getParameter("objBegin",5,0,DataGenerator.MAX_OBJBEGIN);
+}
+
+/**
+ * Returns the number of moving object classes given by the property "objClasses".
+ * @return number of classes
+ */
+protected int getNumOfObjClasses () {
+	return getParameter("objClasses",6,1,DataGenerator.MAX_OBJCLASSES);
+}
+
+/**
+ * Returns the number of moving objects per time given by the property "objPerTime".
+ * @return number of moving objects
+ */
+protected int getNumOfObjPerTime () {
+	return getParameter("objPerTime",5,0,DataGenerator.MAX_OBJPERTIME);
+}
+
+/**
+ * Returns the object classes.
+ * @return object classes (null before the initialization)
+ */
+public ObjectClasses getObjectClasses () {
+	return objClasses;
+}
+
+/**
+ * Returns an integer property limited to an interval.
+ * @return the value
+ * @param key name of the key
+ * @param defaultValue the default value
+ * @param min minimum allowed value
+ * @param max maximum allowed value
+ */
+protected int getParameter (String key, int defaultValue, int min, int max) {
+	int value = DataGenerator.getProperty(properties,key,defaultValue);
+	if (value < min)
+		return min;
+	else if (value > max)
+		return max;
+	return value;
+}
+
+/**
+ * Returns the reporter of the last computation.
+ * @return reporter (null before the first computation)
+ */
+public Reporter getReporter () {
+	return reporter;
+}
+
+/**
+ * Returns the report probability given by the property "reportProbability".
+ * @return report probability (0-1000)
+ */
+protected int getReportProbability () {
+	return getParameter("reportProbability",1000,0,1000);
+}
+
+/**
+ * Returns the time object.
+ * @return time object (null before the initialization)
+ */
+public Time getTime () {
+	return time;
+}
+
+/**
+ * Initializes the classes that are kept for further computations.
+ * Order of initialization: <ol>
+ * <li>EdgeClasses (if not set)
+ * <li>Time
+ * <li>DataSpace
+ * <li>ObjectClasses
+ * <li>ExternalObjectClasses
+ * </ol>
+ */
+public void initialize () {
+	if (edgeClasses == null)
+		edgeClasses = createEdgeClasses (properties);
+	time = new Time (properties,getMaxTime());
+	if (dataspace == null)
+		dataspace = new DataSpace (net.getNodes());
+	objClasses = createObjectClasses (properties,time,dataspace,getNumOfObjClasses(),getReportProbability(),getMaxSpeedDivisor());
+	extObjClasses = createExternalObjectClasses (properties,time,dataspace,getNumOfExtObjClasses());
+}
+
+/**
+ * Reads a network from the network files.
+ * @return the network or null
+ * @param basename base name of the network files (without ".node" / ".edge")
+ */
+public static Network loadNetwork (String basename) {
+	Network net = new Network();
+	if (!net.createByNetworkFiles (basename,null))
+		return null;
+	return net;
+}
+
+/**
+ * Restores the state of the generation from a checkpoint written by writeCheckpoint.
+ * The output position and the random generators must have been read before.
+ * @return the number of computed time stamps
+ * @param in the input
+ * @param movingObjects the container of the moving objects
+ * @param objGen the object generator
+ * @param extObjGen the generator of external objects
+ * @param extObjects the external objects (null if there are no external objects)
+ * @param reroute the rerouting decider
+ * @exception IOException if an I/O error occurs or the checkpoint does not match
+ */
+private int readCheckpoint (DataInput in, MovingObjects movingObjects, ObjectGenerator objGen, ExternalObjectGenerator extObjGen, ExternalObjects extObjects, ReRoute reroute) throws IOException {
+	Edges edges = net.getEdges();
+	time.setCurrTime(in.readInt());
+	int numOfTimeStamps = in.readInt();
+	if ((in.readInt() != net.getNodes().numOfNodes()) || (in.readInt() != edges.numOfEdges()))
+		throw new IOException("the checkpoint belongs to another network");
+	reporter.readCheckpoint(in);
+	objGen.readCheckpoint(in);
+	extObjGen.readCheckpoint(in);
+	reroute.readCheckpoint(in);
+	movingObjects.getEdgeUsage().read(in);
+	movingObjects.readCheckpoint(in);
+	if (in.readBoolean() != (extObjects != null))
+		throw new IOException("the external objects do not match");
+	if (extObjects != null)
+		extObjects.readCheckpoint(in);
+	return numOfTimeStamps;
+}
+
+/**
+ * Reports the progress of the generation. Is called after each time stamp.
+ * @param time actual time
+ */
+protected void reportProgress (int time) {
+}
+
+/**
+ * Sets the data space. Must be called before the first computation if the
+ * data space should not be derived from the nodes of the network.
+ * @param dataspace the data space
+ */
+public void setDataSpace (DataSpace dataspace) {
+	this.dataspace = dataspace;
+}
+
+/**
+ * Sets the edge classes. Must be called before the first computation if the
+ * edge classes already exist.
+ * @param edgeClasses the edge classes
+ */
+public void setEdgeClasses (EdgeClasses edgeClasses) {
+	this.edgeClasses = edgeClasses;
+}
+
+/**
+ * Determines whether the network is shared by several engines computing concurrently.
+ * In this case, the engine does not change the network.
+ * @param sharedNetwork is the network shared?
+ */
+public void setSharedNetwork (boolean sharedNetwork) {
+	this.sharedNetwork = sharedNetwork;
+}
+
+/**
+ * Writes the state of the generation at the beginning of a time stamp:
+ * the output position, the random generators, the time, the counters, the usage
+ * of the edges, the moving objects and the external objects.
+ * @return the checkpoint
+ * @param numOfTimeStamps the number of computed time stamps
+ * @param movingObjects the container of the moving objects
+ * @param objGen the object generator
+ * @param extObjGen the generator of external objects
+ * @param extObjects the external objects (null if there are no external objects)
+ * @param reroute the rerouting decider
+ * @exception IOException if the state cannot be written
+ */
+private byte[] writeCheckpoint (int numOfTimeStamps, MovingObjects movingObjects, ObjectGenerator objGen, ExternalObjectGenerator extObjGen, ExternalObjects extObjects, ReRoute reroute) throws IOException {
+	long outputPosition = reporter.getOutputPosition();
+	if (outputPosition < 0)
+		throw new IOException("the output of the reporter cannot be resumed");
+	Edges edges = net.getEdges();
+	ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+	DataOutputStream out = new DataOutputStream(bytes);
+	out.writeInt(CHECKPOINT_MAGIC);
+	out.writeInt(CHECKPOINT_VERSION);
+	out.writeLong(outputPosition);
+	RandomGenerator.writeState(out);
+	out.writeInt(time.getCurrTime());
+	out.writeInt(numOfTimeStamps);
+	out.writeInt(net.getNodes().numOfNodes());
+	out.writeInt(edges.numOfEdges());
+	reporter.writeCheckpoint(out);
+	objGen.writeCheckpoint(out);
+	extObjGen.writeCheckpoint(out);
+	reroute.writeCheckpoint(out);
+	movingObjects.getEdgeUsage().write(out);
+	movingObjects.writeCheckpoint(out);
+	out.writeBoolean(extObjects != null);
+	if (extObjects != null)
+		extObjects.writeCheckpoint(out);
+	out.close();
+	return bytes.toByteArray();
+}
+
+/**
+ * main entrypoint - computes a dataset without user interface.
+ * @param args args[0] = name of the property file, args[1] = base name of the network files (optional)
+ */
+public static void main (String[] args) {
+	if (args.length < 1) {
+		System.err.println("usage: java generator2.GenerationEngine propertyfile [network]");
+		System.exit(DataGenerator.PROPERTY_FILE_ERROR);
+	}
+	// read properties
+	Properties properties = new Properties();
+	try {
+		InputStream in = new FileInputStream(args[0]);
+		properties.load(in);
+		in.close();
+	}
+	catch (IOException ioex) {
+		System.err.println("GenerationEngine.main: "+ioex);
+		System.exit(DataGenerator.PROPERTY_FILE_ERROR);
+	}
+	String error = checkProperties(properties);
+	if (error != null) {
+		System.err.println("GenerationEngine.main: "+error);
+		System.exit(DataGenerator.PROPERTY_FILE_ERROR);
+	}
+	// read network
+	String filename = args.length > 1 ? args[1] : properties.getProperty("urlne");
+	if (filename == null) {
+		System.err.println("no network file determined");
+		System.exit(DataGenerator.NETWORKFILE_ERROR);
+	}
+	Network net = loadNetwork(filename);
+	if (net == null)
+		System.exit(DataGenerator.NETWORKFILE_ERROR);
+	// compute
+	GenerationEngine engine = new GenerationEngine (properties,net) {
+		protected void reportProgress (int time) {
+			if (time % 100 == 0)
+				System.err.println("time: "+time);
+		}
+	};
+	engine.compute();
+}
+
+}
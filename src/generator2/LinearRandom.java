@@ -0,0 +1,126 @@
+package generator2;
+
+import java.io.*;
+import java.util.Random;
+
+/**
+ * Random generator computing the same numbers as java.util.Random.
+ * In contrast to java.util.Random, the state of the generator (including a
+ * buffered Gaussian value) can be written and restored, e.g. by a checkpoint.
+ * The class extends java.util.Random and can be used wherever such a generator is expected.
+ *
+ * @version 1.01	17.10.2026	serialVersionUID
+ * @version 1.00	17.10.2026	first version
+ * @author FH Oldenburg
+ */
+public class LinearRandom extends Random {
+
+	/**
+	 * Version of the serialized form (computed from the first version).
+	 */
+	private static final long serialVersionUID = 6671495803239003908L;
+	/**
+	 * Multiplier of the linear congruential formula.
+	 */
+	private static final long MULTIPLIER = 0x5DEECE66DL;
+	/**
+	 * Addend of the linear congruential formula.
+	 */
+	private static final long ADDEND = 0xBL;
+	/**
+	 * Mask of the 48 bits of the state.
+	 */
+	private static final long MASK = (1L << 48) - 1;
+
+	/**
+	 * The state.
+	 */
+	private long state;
+	/**
+	 * Is a Gaussian value buffered?
+	 */
+	private boolean haveNextGaussian;
+	/**
+	 * The buffered Gaussian value.
+	 */
+	private double nextGaussian;
+
+/**
+ * LinearRandom constructor with a random seed.
+ */
+public LinearRandom () {
+	this(new Random().nextLong());
+}
+
+/**
+ * LinearRandom constructor.
+ * @param seed the seed
+ */
+public LinearRandom (long seed) {
+	super(seed);
+}
+
+/**
+ * Generates the next random bits.
+ * @return random bits
+ * @param bits number of bits (1..32)
+ */
+protected int next (int bits) {
+	state = (state*MULTIPLIER + ADDEND) & MASK;
+	return (int)(state >>> (48-bits));
+}
+
+/**
+ * Generates the next Gaussian value (polar method as in java.util.Random).
+ * @return Gaussian value with mean 0 and standard deviation 1
+ */
+public double nextGaussian () {
+	if (haveNextGaussian) {
+		haveNextGaussian = false;
+		return nextGaussian;
+	}
+	double v1, v2, s;
+	do {
+		v1 = 2*nextDouble()-1;
+		v2 = 2*nextDouble()-1;
+		s = v1*v1 + v2*v2;
+	} while ((s >= 1) || (s == 0));
+	double multiplier = StrictMath.sqrt(-2*StrictMath.log(s)/s);
+	nextGaussian = v2*multiplier;
+	haveNextGaussian = true;
+	return v1*multiplier;
+}
+
+/**
+ * Reads the state of the generator.
+ * @param in the input
+ * @exception IOException if an I/O error occurs
+ */
+public void readState (DataInput in) throws IOException {
+	state = in.readLong() & MASK;
+	haveNextGaussian = in.readBoolean();
+	nextGaussian = in.readDouble();
+}
+
+/**
+ * Sets the seed of the generator.
+ * @param seed the seed
+ */
+public synchronized void setSeed (long seed) {
+	super.setSeed(seed);
+	state = (seed ^ MULTIPLIER) & MASK;
+	haveNextGaussian = false;
+}
+
+/**
+ * Writes the state of the generator.
+ * @param out the output
+ * @exception IOException if an I/O error occurs
+ */
+public void writeState (DataOutput out) throws IOException {
+	out.writeLong(state);
+	out.writeBoolean(haveNextGaussian);
+	out.writeDouble(nextGaussian);
+}
+
+}
@@ -0,0 +1,173 @@
+package generator2;
+
+import routing.*;
+
+/**
+ * Access of a moving object to the shared state during its movement.
+ * This class implements the serial movement: the edge usage is changed at once
+ * and the positions are reported directly. If a random stream is set, the decisions
+ * about re-routing and reporting are made by the sub-stream of the stream identified
+ * by the id of the moving object and the time (see prepare); otherwise, the shared
+ * random generators of the ReRoute object of the container and of the reporter are used
+ * as by former versions. During a parallel movement, each thread uses its own context
+ * (see ParallelMovementContext).
+ *
+ * @version 1.20	17.10.2026	random streams of the objects for re-routing and reporting
+ * @version 1.10	17.10.2026	weights computed by the weight manager of the container
+ * @version 1.00	17.10.2026	first version
+ * @author FH Oldenburg
+ */
+public class MovementContext {
+
+	/**
+	 * the container of the moving objects
+	 */
+	protected MovingObjects container = null;
+	/**
+	 * the reporter
+	 */
+	protected Reporter reporter = null;
+	/**
+	 * the random stream of the movement (null: shared random generators)
+	 */
+	protected RandomStream stream = null;
+	/**
+	 * the random stream of the current object
+	 */
+	protected RandomStream random = null;
+
+/**
+ * MovementContext constructor.
+ * @param container the container of the moving objects
+ * @param reporter the reporter
+ */
+public MovementContext (MovingObjects container, Reporter reporter) {
+	this(container,reporter,null);
+}
+/**
+ * MovementContext constructor.
+ * @param container the container of the moving objects
+ * @param reporter the reporter
+ * @param stream the random stream of the movement (null: shared random generators)
+ */
+public MovementContext (MovingObjects container, Reporter reporter, RandomStream stream) {
+	this.container = container;
+	this.reporter = reporter;
+	this.stream = stream;
+}
+/**
+ * Decides whether a route should be recomputed because of the speed on an edge.
+ * @return recompute?
+ * @param lastTime time when the last route was computed
+ * @param actTime actual time
+ * @param origSpeed speed of the edge when the last route was computed
+ * @param actSpeed actual speed of the edge
+ */
+protected boolean computeNewRouteByComparison (int lastTime, int actTime, int origSpeed, int actSpeed) {
+	if (random != null)
+		return container.getReRoute().computeNewRouteByComparison (lastTime,actTime,origSpeed,actSpeed,random);
+	return container.getReRoute().computeNewRouteByComparison (lastTime,actTime,origSpeed,actSpeed);
+}
+/**
+ * Decides whether a route should be recomputed because of an event.
+ * @return recompute?
+ * @param lastTime time when the last route was computed
+ * @param actTime actual time
+ */
+protected boolean computeNewRouteByEvent (int lastTime, int actTime) {
+	if (random != null)
+		return container.getReRoute().computeNewRouteByEvent (lastTime,actTime,random);
+	return container.getReRoute().computeNewRouteByEvent (lastTime,actTime);
+}
+/**
+ * Computes the fastest route between two nodes.
+ * @return the route or null
+ * @param objClass the object class
+ * @param start starting node
+ * @param dest destination node
+ */
+protected Route computeRoute (int objClass, Node start, Node dest) {
+	return container.computeRoute (objClass,start,dest);
+}
+/**
+ * Decrements the usage of an edge.
+ * @param edge the edge
+ */
+protected void decUsage (Edge edge) {
+	container.decUsage(edge);
+}
+/**
+ * Returns the reporter.
+ * @return reporter
+ */
+protected Reporter getReporter () {
+	return reporter;
+}
+/**
+ * Returns the current weight of an edge for the actual object class.
+ * @return weight
+ * @param edge the edge
+ */
+protected double getWeight (Edge edge) {
+	return container.getWeightManager().getWeight(edge);
+}
+/**
+ * Returns the weight manager.
+ * @return weight manager
+ */
+protected WeightManagerForDataGenerator getWeightManager () {
+	return container.getWeightManager();
+}
+/**
+ * Increments the number of traversed nodes and their degree.
+ * @param nodes number of nodes
+ * @param degree total degree
+ */
+protected void incTraversed (int nodes, int degree) {
+	container.incTraversedNodesBy(nodes);
+	container.incTraversedDegreeBy(degree);
+}
+/**
+ * Increments the usage of an edge.
+ * @param edge the edge
+ */
+protected void incUsage (Edge edge) {
+	container.incUsage(edge);
+}
+/**
+ * Selects the random stream of an object at a time stamp for the decisions about
+ * re-routing and reporting. Does nothing if no random stream is set.
+ * @param id the id of the moving object
+ * @param time the time stamp
+ */
+void prepare (int id, int time) {
+	if (stream == null)
+		return;
+	random = stream.split(id).split(time);
+	getReporter().setRandom(random);
+}
+/**
+ * Restores the shared random generator of the reporter after the objects have been moved,
+ * e.g. for the external objects. Does nothing if no random stream is set.
+ */
+void restore () {
+	if (stream == null)
+		return;
+	random = null;
+	reporter.setRandom(RandomGenerator.getForReport(reporter.properties));
+}
+/**
+ * Starts a timer (see util.Timer).
+ * @param timer number of the timer
+ */
+protected void startTimer (int timer) {
+	util.Timer.start(timer);
+}
+/**
+ * Stops a timer (see util.Timer).
+ * @param timer number of the timer
+ */
+protected void stopTimer (int timer) {
+	util.Timer.stop(timer);
+}
+}
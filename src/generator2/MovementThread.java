@@ -0,0 +1,63 @@
+package generator2;
+
+/**
+ * Thread moving a contiguous part of the moving objects during a time stamp.
+ *
+ * @version 1.10	17.10.2026	random stream selected by the id of the object
+ * @version 1.00	17.10.2026	first version
+ * @author FH Oldenburg
+ */
+class MovementThread extends Thread {
+
+	/**
+	 * the movement context of the thread
+	 */
+	private ParallelMovementContext mc = null;
+	/**
+	 * the moving objects sorted by their ids
+	 */
+	private MovingObject[] obj = null;
+	/**
+	 * first index of the part
+	 */
+	private int from = 0;
+	/**
+	 * index after the last index of the part
+	 */
+	private int to = 0;
+	/**
+	 * the time stamp
+	 */
+	private int time = 0;
+
+/**
+ * Constructor.
+ * @param  mc  the movement context of the thread
+ * @param  obj  the moving objects sorted by their ids
+ * @param  from  first index of the part
+ * @param  to  index after the last index of the part
+ * @param  time  the time stamp
+ */
+MovementThread (ParallelMovementContext mc, MovingObject[] obj, int from, int to, int time) {
+	this.mc = mc;
+	this.obj = obj;
+	this.from = from;
+	this.to = to;
+	this.time = time;
+}
+
+/**
+ * Moves the objects of the part. Objects reaching their destination are
+ * recorded in the report buffer and set to null.
+ */
+public void run () {
+	for (int i=from; i<to; i++) {
+		mc.prepare(obj[i].getId(),time);
+		if (obj[i].move(time,mc)) {
+			mc.getReportBuffer().reportEnd(obj[i]);
+			obj[i] = null;
+		}
+	}
+}
+
+}
@@ -1,10 +1,22 @@
 package generator2;
 
+import java.io.*;
 import routing.*;
 
 /**
  * Class representing a moving object.
  *
+ * @version 3.20	17.10.2026	first route may be given
+ * @version 3.10	17.10.2026	object classes and weights given by the container (shared network)
+ * @version 3.00	17.10.2026	state can be written and read (for checkpoints)
+ * @version 2.90	17.10.2026	report decision before the reporting of a position
+ * @version 2.80	17.10.2026	addToEventDrivenMovement added
+ * @version 2.70	17.10.2026	addToStore added
+ * @version 2.60	17.10.2026	movement by a context (serial or parallel)
+ * @version 2.50	17.10.2026	packed route traversed by a position
+ * @version 2.40	17.10.2026	routes computed by the container (route cache), usage changed by the container
+ * @version 2.30	17.10.2026	routes computed by the contraction hierarchy if customized
+ * @version 2.20	17.10.2026	routes computed by bidirectional A* (computeFastestWay2)
  * @version 2.10	26.08.2003	computeRoute returns boolean result, setXXXNode added, modified reporting
  * @version 2.00	04.09.2001	revision for generator v2.0
  * @version 1.50	11.04.2001	getDestinationNode added
@@ -18,11 +30,6 @@ import routing.*;
 
 public class MovingObject {
 
-	/**
-	 * Description of the object classes.
-	 */
-	private static ObjectClasses objClasses = null;
-
 	/**
 	 * The container of the object.
 	 */
@@ -61,13 +68,17 @@ public class MovingObject {
 	 */
 	private int repNum = 0;
 	/**
-	 * The remaining route.
+	 * The route.
+	 */
+	private Route route = null;
+	/**
+	 * The position of the current edge in the route.
 	 */
-	private PathEdge route = null;
+	private int pos = 0;
 	/**
-	 * The part of the route traversed during the last time period.
+	 * The position of the current edge at the beginning of the last time period.
 	 */
-	private PathEdge lastRoute = null;
+	private int lastPos = 0;
 	/**
 	 * The last traversed node.
 	 */
@@ -118,6 +129,35 @@ public MovingObject (int id, int objClass, Node start, Node dest, int time) {
 	lastY = start.getY();
 }
 
+/**
+ * Reads a moving object written by write.
+ * The object must be added to its container afterwards.
+ * @param  in  the input
+ * @param  net  the network
+ * @exception IOException if an I/O error occurs
+ */
+MovingObject (DataInput in, Network net) throws IOException {
+	Nodes nodes = net.getNodes();
+	id = in.readInt();
+	objClass = in.readInt();
+	start = nodes.getNode(in.readInt());
+	dest = nodes.getNode(in.readInt());
+	lastNode = nodes.getNode(in.readInt());
+	startTime = in.readInt();
+	lastTime = in.readInt();
+	actTime = in.readInt();
+	repNum = in.readInt();
+	edgeNum = in.readInt();
+	pos = in.readInt();
+	lastPos = in.readInt();
+	relDist = in.readDouble();
+	doneDist = in.readDouble();
+	lastX = in.readDouble();
+	lastY = in.readDouble();
+	if (in.readBoolean())
+		route = new Route(net.getCompactGraph(),in);
+}
+
 /**
  * Adds the moving object to the container.
  * @param container container
@@ -126,11 +166,27 @@ public void addToContainer (MovingObjects container) {
 	if (container != null) {
 		this.container = container;
 		container.add(this);
-		if (objClasses == null)
-			objClasses = container.getObjectClasses();
 	}
 }
 
+/**
+ * Transfers the state of the moving object to the event-driven movement.
+ * Afterwards, the object is moved by the events and this instance is not used anymore.
+ * @param edm the event-driven movement
+ */
+void addToEventDrivenMovement (EventDrivenMovement edm) {
+	edm.add(id,objClass,start,dest,lastNode,lastTime,actTime,repNum,edgeNum,route,pos,lastPos,relDist,doneDist);
+}
+
+/**
+ * Transfers the state of the moving object to a store.
+ * Afterwards, the object is moved by the store and this instance is not used anymore.
+ * @param store the store
+ */
+void addToStore (MovingObjectStore store) {
+	store.add(id,objClass,start,dest,lastNode,lastTime,actTime,repNum,edgeNum,route,pos,lastPos,relDist,doneDist,lastX,lastY);
+}
+
 /**
  * Computes the distance between two points.
  * @return  distance
@@ -149,18 +205,19 @@ public static double computeDistance (double x1, double y1, double x2, double y2
  * Computes and reports next point on the route.
  * @return destination reached?
  * @param newTime new time
- * @param reporter reporter
+ * @param mc the movement context
  */
-private boolean computeNextPoint (int newTime, Reporter reporter) {
-	if (route == null)
+private boolean computeNextPoint (int newTime, MovementContext mc) {
+	if ((route == null) || (pos >= route.getNumOfEdges()))
 		return true;
+	Reporter reporter = mc.getReporter();
 	// decrease usage of the edge traversed during the last time period
-	Edge actEdge = route.getEdge();
-	decreaseUsage (route);
-	lastRoute = route;
+	Edge actEdge = route.getEdge(pos);
+	decreaseUsage (pos,mc);
+	lastPos = pos;
 	// if event then re-route
-	if (container.getReRoute().computeNewRouteByEvent (lastTime,actTime)) {
-		reroute(actEdge);
+	if (mc.computeNewRouteByEvent (lastTime,actTime)) {
+		reroute(actEdge,mc);
 	}
 	// traverse path
 	double remainingTime = 1;
@@ -170,7 +227,7 @@ private boolean computeNextPoint (int newTime, Reporter reporter) {
 	double actDist = actEdge.getLength();
 	if (actDist == 0)	// in the case of identical nodes
 		actDist = 1;
-	double actWeight = actEdge.getWeight();
+	double actWeight = mc.getWeight(actEdge);
 	double speed = actDist/actWeight;
 	double maxDistOnEdge = remainingTime*speed;
 	while (true) {
@@ -178,14 +235,16 @@ private boolean computeNextPoint (int newTime, Reporter reporter) {
 		if (relDist+maxDistOnEdge < actDist) {
 			relDist += maxDistOnEdge;
 			computePoint(actEdge,lastNode,relDist);
-			util.Timer.stop(1);
 			doneDist += computeDistance(llx,lly,lastX,lastY);
+			if (container.isReportDecisionFirst() && !reporter.decideReport(getReportProbability()))
+				return false;
+			mc.stopTimer(1);
 			int oldRepNum = repNum;
-			Node nextNode = route.getDestinationNode();
- 			repNum = reporter.reportMovingObject(newTime,id,repNum,objClass,lastX,lastY,speed,doneDist,nextNode.getX(),nextNode.getY(),objClasses.getReportProbability(objClass));
+			Node nextNode = route.getDestinationNode(pos);
+ 			repNum = reporter.reportMovingObject(newTime,id,repNum,objClass,lastX,lastY,speed,doneDist,nextNode.getX(),nextNode.getY(),getReportProbability());
  			if (repNum != oldRepNum)
  				doneDist = 0;
-			util.Timer.start(1);
+			mc.startTimer(1);
 			return false;
 		}
 		// case 2: next node is reached
@@ -198,35 +257,35 @@ private boolean computeNextPoint (int newTime, Reporter reporter) {
 			lly = lastNode.getY();
 			// case 2a next node is destination
 			if (lastNode == dest) {
-				decreaseUsage (null);
+				decreaseUsage (route.getNumOfEdges(),mc);
 				arrivalTime = newTime-remainingTime;
 				return true;
 			}
 			// else: fetch next edge
-			route = route.getNext();
-			if (route == null) {
+			pos++;
+			if (pos >= route.getNumOfEdges()) {
 				//System.err.println("computeNextPoint: route == null! (2)"+id+" at "+newTime);
 				dest = lastNode;
-				decreaseUsage (null);
+				decreaseUsage (route.getNumOfEdges(),mc);
 				arrivalTime = newTime-remainingTime;
 				return true;
 			}
-			actEdge = route.getEdge();
-			actEdge.incUsage();
+			actEdge = route.getEdge(pos);
+			mc.incUsage(actEdge);
 			// update edge characteristics
 			actDist = actEdge.getLength();
 			if (actDist == 0)	// in the case of identical nodes
 				actDist = 1;
-			actWeight = actEdge.getWeight();
+			actWeight = mc.getWeight(actEdge);
 			speed = actDist/actWeight;
 			maxDistOnEdge = remainingTime*speed;
 			// report
-			util.Timer.stop(1);
-			reporter.reportEdge(newTime-remainingTime,id,++edgeNum,objClass,actEdge.getId(),actEdge.getEdgeClass(),route.getStartingNode().getX(),route.getStartingNode().getY(),speed,route.getDestinationNode().getX(),route.getDestinationNode().getY(),objClasses.getReportProbability(objClass));
-			util.Timer.start(1);
+			mc.stopTimer(1);
+			reporter.reportEdge(newTime-remainingTime,id,++edgeNum,objClass,actEdge.getId(),actEdge.getEdgeClass(),route.getStartingNode(pos).getX(),route.getStartingNode(pos).getY(),speed,route.getDestinationNode(pos).getX(),route.getDestinationNode(pos).getY(),getReportProbability());
+			mc.startTimer(1);
 			// if significant speed change then re-route
-			if (container.getReRoute().computeNewRouteByComparison (lastTime,actTime,(int)(0x7fffffff/route.getOrigWeight()),(int)(0x7fffffff/actWeight))) {
-				reroute(actEdge);
+			if (mc.computeNewRouteByComparison (lastTime,actTime,(int)(0x7fffffff/route.getOrigWeight(pos)),(int)(0x7fffffff/actWeight))) {
+				reroute(actEdge,mc);
 			}
 		}
 	}
@@ -266,19 +325,32 @@ private void computePoint (Edge edge, Node start, double portion) {
  * @return  computation successful?
  */
 public boolean computeRoute() {
+	return computeRoute(null);
+}
+
+/**
+ * Computes a new route from the current position of the object to its destination.
+ * A given route is used instead if it leads from the current position to the destination.
+ * @return  computation successful?
+ * @param  given  the given route (may be null)
+ */
+public boolean computeRoute (Route given) {
 	if (container != null) {
 		container.getWeightManager().setActualObjectClass(objClass);
 		util.Timer.start(2);
-		route = container.getNetwork().computeFastWay2 (start,dest);
+		if ((given != null) && (given.getStartingNode() == start) && (given.getDestinationNode() == dest))
+			route = given;
+		else
+			route = container.computeRoute (objClass,start,dest);
 		util.Timer.stop(2);
+		pos = 0;
+		lastPos = 0;
 		if (route != null) {
-			if ((route.getNext() == null) || (route.getNext().getNext() == null))
+			if (route.getNumOfEdges() < 3)
 				return false;
-			route.getEdge().incUsage();
-			if (container != null) {
-				container.incTraversedNodesBy(route.computeNumber());
-				container.incTraversedDegreeBy(route.computeDegree());
-			}
+			container.incUsage(route.getEdge(pos));
+			container.incTraversedNodesBy(route.getNumOfEdges());
+			container.incTraversedDegreeBy(route.getDegree());
 		}
 		else
 			return false;
@@ -287,28 +359,34 @@ public boolean computeRoute() {
 }
 
 /**
- * Decreases the usage in the path until one path edge is reached.
- * @param actPathEdge the path edge which stops the operation
+ * Decreases the usage of the edges traversed since the beginning of the last time period
+ * until a position of the route is reached.
+ * @param stopPos the position which stops the operation
  */
-protected void decreaseUsage (PathEdge actPathEdge) {
-	PathEdge path = lastRoute;
-	if (path != null) {
-		Edge travEdge = path.getEdge();
-		while ((path != null) && (path != actPathEdge)) {
-			travEdge.decUsage();
-			path = path.getNext();
-			if (path != null)
-				travEdge = path.getEdge();
-		}
-	}
+protected void decreaseUsage (int stopPos) {
+	if (route != null)
+		for (int i=lastPos; i<stopPos; i++)
+			container.decUsage(route.getEdge(i));
+}
+
+/**
+ * Decreases the usage of the edges traversed since the beginning of the last time period
+ * until a position of the route is reached.
+ * @param stopPos the position which stops the operation
+ * @param mc the movement context
+ */
+private void decreaseUsage (int stopPos, MovementContext mc) {
+	if (route != null)
+		for (int i=lastPos; i<stopPos; i++)
+			mc.decUsage(route.getEdge(i));
 }
 
 /**
- * Return the current path edge where the object is.
- * @return current path edge
+ * Return the current edge where the object is.
+ * @return current edge
  */
-protected PathEdge getActPathEdge () {
-	return route;
+protected Edge getActEdge () {
+	return route.getEdge(pos);
 }
 
 /**
@@ -335,6 +413,14 @@ public int getObjectClass() {
 	return objClass;
 }
 
+/**
+ * Returns the report probability of the object class.
+ * @return report probability (0..1000)
+ */
+private int getReportProbability () {
+	return container.getObjectClasses().getReportProbability(objClass);
+}
+
 /**
  * Returns the report number of the object.
  * @return report number
@@ -359,17 +445,36 @@ protected Node getStartingNode () {
  * @param reporter reporter
  */
 public boolean move (int newTime, Reporter reporter) {
-	if (container != null) {
-		container.getWeightManager().setActualObjectClass(objClass);
-		while (actTime < newTime) {
-			actTime++;
-			if (computeNextPoint(actTime,reporter))
-				return true;
-		}
+	if (container != null)
+		return move (newTime,new MovementContext(container,reporter));
+	return false;
+}
+
+/**
+ * Moves the object to the position at the new time using a movement context.
+ * The position(s) are reported by the reporter of the context.
+ * @return has the object reached its destination?
+ * @param newTime new time
+ * @param mc the movement context
+ */
+boolean move (int newTime, MovementContext mc) {
+	mc.getWeightManager().setActualObjectClass(objClass);
+	while (actTime < newTime) {
+		actTime++;
+		if (computeNextPoint(actTime,mc))
+			return true;
 	}
 	return false;
 }
 
+/**
+ * Return the position of the current edge in the route.
+ * @return position
+ */
+protected int getRoutePosition () {
+	return pos;
+}
+
 /**
  * Reports that the moving object has reached its destination.
  * @param reporter reporter
@@ -377,7 +482,7 @@ public boolean move (int newTime, Reporter reporter) {
 public void reportEnd (Reporter reporter) {
 	util.Timer.stop(1);
 	if (reporter != null) {
- 		reporter.reportDisappearingObject (arrivalTime,id,repNum,objClass,dest.getX(),dest.getY(),doneDist,objClasses.getReportProbability(objClass));
+ 		reporter.reportDisappearingObject (arrivalTime,id,repNum,objClass,dest.getX(),dest.getY(),doneDist,getReportProbability());
 	}
 	util.Timer.start(1);
 }
@@ -389,13 +494,13 @@ public void reportEnd (Reporter reporter) {
 public void reportNewObject (Reporter reporter) {
 	util.Timer.stop(1);
 	if (reporter != null) {
-		Edge currEdge = route.getEdge();
+		Edge currEdge = route.getEdge(pos);
 		double actDist = currEdge.getLength();
-		double actWeight = currEdge.getWeight();
+		double actWeight = container.getWeightManager().getWeight(currEdge);
 		double speed = actDist/actWeight;
-		Node nextNode = route.getDestinationNode();
-		repNum = reporter.reportNewMovingObject (startTime,id,objClass,start.getX(),start.getY(),speed,nextNode.getX(),nextNode.getY(),objClasses.getReportProbability(objClass));
-		reporter.reportEdge(startTime,id,++edgeNum,objClass,currEdge.getId(),currEdge.getEdgeClass(),route.getStartingNode().getX(),route.getStartingNode().getY(),speed,route.getDestinationNode().getX(),route.getDestinationNode().getY(),objClasses.getReportProbability(objClass));
+		Node nextNode = route.getDestinationNode(pos);
+		repNum = reporter.reportNewMovingObject (startTime,id,objClass,start.getX(),start.getY(),speed,nextNode.getX(),nextNode.getY(),getReportProbability());
+		reporter.reportEdge(startTime,id,++edgeNum,objClass,currEdge.getId(),currEdge.getEdgeClass(),route.getStartingNode(pos).getX(),route.getStartingNode(pos).getY(),speed,route.getDestinationNode(pos).getX(),route.getDestinationNode(pos).getY(),getReportProbability());
 	}
 	util.Timer.start(1);
 }
@@ -403,20 +508,60 @@ public void reportNewObject (Reporter reporter) {
 /**
  * Reroutes the object.
  * @param actPath current edge
+ * @param mc the movement context
  */
-private void reroute (Edge actEdge) {
-	container.getWeightManager().setActualObjectClass(objClass);
-	util.Timer.start(2);
-	PathEdge newPath = container.getNetwork().computeFastWay2 (actEdge.getOppositeNode(lastNode),dest);
-	util.Timer.stop(2);
-	if ((newPath != null) && (container != null)) {
-		route.setNext(newPath);
-		container.incTraversedNodesBy(route.computeNumber());
-		container.incTraversedDegreeBy(route.computeDegree());
+private void reroute (Edge actEdge, MovementContext mc) {
+	mc.getWeightManager().setActualObjectClass(objClass);
+	mc.startTimer(2);
+	Route newRoute = mc.computeRoute (objClass,actEdge.getOppositeNode(lastNode),dest);
+	mc.stopTimer(2);
+	if ((newRoute != null) && (container != null)) {
+		// keep the edges whose usage is still to be decreased
+		route = route.reroute(lastPos,pos,newRoute);
+		pos -= lastPos;
+		lastPos = 0;
+		mc.incTraversed(1+newRoute.getNumOfEdges(),route.getStartingNode(pos).getNumOfEdges()+newRoute.getDegree());
 	}
 	lastTime = actTime;
 }
 
+/**
+ * Writes the state of the moving object; the nodes are written by their dense indices.
+ * @param  out  the output
+ * @exception IOException if an I/O error occurs
+ */
+void write (DataOutput out) throws IOException {
+	write(out,id,objClass,start.getIndex(),dest.getIndex(),lastNode.getIndex(),startTime,lastTime,actTime,repNum,edgeNum,route,pos,lastPos,relDist,doneDist,lastX,lastY);
+}
+
+/**
+ * Writes the state of a moving object in the format read by the constructor MovingObject(DataInput,Network).
+ * Used by write and by MovingObjectStore.
+ * @exception IOException if an I/O error occurs
+ */
+static void write (DataOutput out, int id, int objClass, int start, int dest, int lastNode, int startTime, int lastTime, int actTime, int repNum, int edgeNum,
+		Route route, int pos, int lastPos, double relDist, double doneDist, double lastX, double lastY) throws IOException {
+	out.writeInt(id);
+	out.writeInt(objClass);
+	out.writeInt(start);
+	out.writeInt(dest);
+	out.writeInt(lastNode);
+	out.writeInt(startTime);
+	out.writeInt(lastTime);
+	out.writeInt(actTime);
+	out.writeInt(repNum);
+	out.writeInt(edgeNum);
+	out.writeInt(pos);
+	out.writeInt(lastPos);
+	out.writeDouble(relDist);
+	out.writeDouble(doneDist);
+	out.writeDouble(lastX);
+	out.writeDouble(lastY);
+	out.writeBoolean(route != null);
+	if (route != null)
+		route.write(out);
+}
+
 /**
  * Sets the destination node.
  * @param  node  the new destination node
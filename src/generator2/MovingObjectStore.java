@@ -0,0 +1,475 @@
+package generator2;
+
+import java.io.*;
+import routing.*;
+
+/**
+ * Storage of the moving objects in parallel arrays.
+ * Instead of a MovingObject instance, each object occupies a slot of the arrays;
+ * the nodes are stored by their dense indices. The slots of removed objects are
+ * reused by a free list. The objects are moved in the same order as by
+ * MovingObjects without store, i.e. the result is identical.
+ * A MovingObject is only created for an object that reaches its destination
+ * (for ObjectGenerator.reachDestination).
+ *
+ * @version 1.30	17.10.2026	random stream of the object selected by the movement context
+ * @version 1.20	17.10.2026	objects can be written (for checkpoints)
+ * @version 1.10	17.10.2026	report decision before the reporting of a position
+ * @version 1.00	17.10.2026	first version
+ * @author FH Oldenburg
+ */
+public class MovingObjectStore {
+
+	/**
+	 * the container of the moving objects
+	 */
+	private MovingObjects container = null;
+	/**
+	 * the nodes of the network
+	 */
+	private Nodes nodes = null;
+	/**
+	 * description of the object classes
+	 */
+	private ObjectClasses objClasses = null;
+
+	/**
+	 * number of stored objects
+	 */
+	private int num = 0;
+	/**
+	 * number of used slots (including free slots)
+	 */
+	private int numOfSlots = 0;
+	/**
+	 * the slots in the order of movement
+	 */
+	private int[] order = null;
+	/**
+	 * the free slots
+	 */
+	private int[] free = null;
+	/**
+	 * number of free slots
+	 */
+	private int numOfFree = 0;
+
+	/**
+	 * identifiers
+	 */
+	private int[] id = null;
+	/**
+	 * object classes
+	 */
+	private int[] objClass = null;
+	/**
+	 * indices of the starting nodes
+	 */
+	private int[] start = null;
+	/**
+	 * indices of the destination nodes
+	 */
+	private int[] dest = null;
+	/**
+	 * indices of the last traversed nodes
+	 */
+	private int[] lastNode = null;
+	/**
+	 * times when the last routes were computed
+	 */
+	private int[] lastTime = null;
+	/**
+	 * current times
+	 */
+	private int[] actTime = null;
+	/**
+	 * report numbers
+	 */
+	private int[] repNum = null;
+	/**
+	 * numbers of passed edges
+	 */
+	private int[] edgeNum = null;
+	/**
+	 * positions of the current edges in the routes
+	 */
+	private int[] pos = null;
+	/**
+	 * positions of the current edges at the beginning of the last time period
+	 */
+	private int[] lastPos = null;
+	/**
+	 * relative distances on the current edges
+	 */
+	private double[] relDist = null;
+	/**
+	 * distances since the last reports
+	 */
+	private double[] doneDist = null;
+	/**
+	 * last computed x-positions
+	 */
+	private double[] lastX = null;
+	/**
+	 * last computed y-positions
+	 */
+	private double[] lastY = null;
+	/**
+	 * the routes
+	 */
+	private Route[] route = null;
+
+/**
+ * MovingObjectStore constructor.
+ * @param container the container of the moving objects
+ * @param capacity initial number of slots
+ */
+public MovingObjectStore (MovingObjects container, int capacity) {
+	this.container = container;
+	this.nodes = container.getNetwork().getNodes();
+	this.objClasses = container.getObjectClasses();
+	if (capacity < 16)
+		capacity = 16;
+	order = new int[capacity];
+	free = new int[capacity];
+	id = new int[capacity];
+	objClass = new int[capacity];
+	start = new int[capacity];
+	dest = new int[capacity];
+	lastNode = new int[capacity];
+	lastTime = new int[capacity];
+	actTime = new int[capacity];
+	repNum = new int[capacity];
+	edgeNum = new int[capacity];
+	pos = new int[capacity];
+	lastPos = new int[capacity];
+	relDist = new double[capacity];
+	doneDist = new double[capacity];
+	lastX = new double[capacity];
+	lastY = new double[capacity];
+	route = new Route[capacity];
+}
+/**
+ * Adds an object. Called by MovingObject.addToStore.
+ * @return the slot
+ */
+int add (int id, int objClass, Node start, Node dest, Node lastNode, int lastTime, int actTime, int repNum, int edgeNum,
+		Route route, int pos, int lastPos, double relDist, double doneDist, double lastX, double lastY) {
+	int s;
+	if (numOfFree > 0)
+		s = free[--numOfFree];
+	else {
+		if (numOfSlots == this.id.length)
+			enlarge();
+		s = numOfSlots++;
+	}
+	this.id[s] = id;
+	this.objClass[s] = objClass;
+	this.start[s] = start.getIndex();
+	this.dest[s] = dest.getIndex();
+	this.lastNode[s] = lastNode.getIndex();
+	this.lastTime[s] = lastTime;
+	this.actTime[s] = actTime;
+	this.repNum[s] = repNum;
+	this.edgeNum[s] = edgeNum;
+	this.route[s] = route;
+	this.pos[s] = pos;
+	this.lastPos[s] = lastPos;
+	this.relDist[s] = relDist;
+	this.doneDist[s] = doneDist;
+	this.lastX[s] = lastX;
+	this.lastY[s] = lastY;
+	order[num++] = s;
+	return s;
+}
+/**
+ * Computes and reports next point on the route of an object.
+ * Corresponds to MovingObject.computeNextPoint.
+ * @return destination reached?
+ * @param s the slot
+ * @param newTime new time
+ * @param mc the movement context
+ */
+private boolean computeNextPoint (int s, int newTime, MovementContext mc) {
+	if ((route[s] == null) || (pos[s] >= route[s].getNumOfEdges()))
+		return true;
+	Reporter reporter = mc.getReporter();
+	int c = objClass[s];
+	Node node = nodes.getNode(lastNode[s]);
+	// decrease usage of the edge traversed during the last time period
+	Edge actEdge = route[s].getEdge(pos[s]);
+	decreaseUsage (s,pos[s],mc);
+	lastPos[s] = pos[s];
+	// if event then re-route
+	if (mc.computeNewRouteByEvent (lastTime[s],actTime[s])) {
+		reroute(s,actEdge,node,mc);
+	}
+	// traverse path
+	double remainingTime = 1;
+	double llx = lastX[s];
+	double lly = lastY[s];
+	double rel = relDist[s];
+	double done = doneDist[s];
+	// set edge characteristics
+	double actDist = actEdge.getLength();
+	if (actDist == 0)	// in the case of identical nodes
+		actDist = 1;
+	double actWeight = mc.getWeight(actEdge);
+	double speed = actDist/actWeight;
+	double maxDistOnEdge = remainingTime*speed;
+	while (true) {
+		// case 1: next node is not reached
+		if (rel+maxDistOnEdge < actDist) {
+			rel += maxDistOnEdge;
+			computePoint(s,actEdge,node,rel);
+			done += MovingObject.computeDistance(llx,lly,lastX[s],lastY[s]);
+			relDist[s] = rel;
+			lastNode[s] = node.getIndex();
+			if (container.isReportDecisionFirst() && !reporter.decideReport(objClasses.getReportProbability(c))) {
+				doneDist[s] = done;
+				return false;
+			}
+			mc.stopTimer(1);
+			int oldRepNum = repNum[s];
+			Node nextNode = route[s].getDestinationNode(pos[s]);
+			repNum[s] = reporter.reportMovingObject(newTime,id[s],repNum[s],c,lastX[s],lastY[s],speed,done,nextNode.getX(),nextNode.getY(),objClasses.getReportProbability(c));
+			if (repNum[s] != oldRepNum)
+				done = 0;
+			mc.startTimer(1);
+			doneDist[s] = done;
+			return false;
+		}
+		// case 2: next node is reached
+		else {
+			remainingTime -= (actDist-rel)*actWeight/actDist;
+			rel = 0;
+			node = actEdge.getOppositeNode(node);
+			done += MovingObject.computeDistance(llx,lly,node.getX(),node.getY());
+			llx = node.getX();
+			lly = node.getY();
+			int numOfEdges = route[s].getNumOfEdges();
+			// case 2a next node is destination
+			if (node.getIndex() == dest[s]) {
+				decreaseUsage (s,numOfEdges,mc);
+				finish(s,node,done,newTime-remainingTime);
+				return true;
+			}
+			// else: fetch next edge
+			pos[s]++;
+			if (pos[s] >= numOfEdges) {
+				dest[s] = node.getIndex();
+				decreaseUsage (s,numOfEdges,mc);
+				finish(s,node,done,newTime-remainingTime);
+				return true;
+			}
+			Route r = route[s];
+			int p = pos[s];
+			actEdge = r.getEdge(p);
+			mc.incUsage(actEdge);
+			// update edge characteristics
+			actDist = actEdge.getLength();
+			if (actDist == 0)	// in the case of identical nodes
+				actDist = 1;
+			actWeight = mc.getWeight(actEdge);
+			speed = actDist/actWeight;
+			maxDistOnEdge = remainingTime*speed;
+			// report
+			mc.stopTimer(1);
+			reporter.reportEdge(newTime-remainingTime,id[s],++edgeNum[s],c,actEdge.getId(),actEdge.getEdgeClass(),r.getStartingNode(p).getX(),r.getStartingNode(p).getY(),speed,r.getDestinationNode(p).getX(),r.getDestinationNode(p).getY(),objClasses.getReportProbability(c));
+			mc.startTimer(1);
+			// if significant speed change then re-route
+			if (mc.computeNewRouteByComparison (lastTime[s],actTime[s],(int)(0x7fffffff/r.getOrigWeight(p)),(int)(0x7fffffff/actWeight))) {
+				reroute(s,actEdge,node,mc);
+			}
+		}
+	}
+}
+/**
+ * Computes the position (lastX,lastY) of an object on an edge.
+ * @param s the slot
+ * @param edge the edge
+ * @param from the node which the object traversed last
+ * @param portion distance from the node
+ */
+private void computePoint (int s, Edge edge, Node from, double portion) {
+	Node to = edge.getNode2();
+	if (from == edge.getNode1())
+		from = edge.getNode1();
+	else {
+		from = edge.getNode2();
+		to = edge.getNode1();
+	}
+	double length = edge.getLength();
+	if (length == 0)
+		length = 1;
+	lastX[s] = from.getX()+(to.getX()-from.getX())*portion/length;
+	lastY[s] = from.getY()+(to.getY()-from.getY())*portion/length;
+}
+/**
+ * Decreases the usage of the edges traversed by an object since the beginning of
+ * the last time period until a position of the route is reached.
+ * @param s the slot
+ * @param stopPos the position which stops the operation
+ * @param mc the movement context
+ */
+private void decreaseUsage (int s, int stopPos, MovementContext mc) {
+	Route r = route[s];
+	if (r != null)
+		for (int i=lastPos[s]; i<stopPos; i++)
+			mc.decUsage(r.getEdge(i));
+}
+/**
+ * Doubles the number of slots.
+ */
+private void enlarge () {
+	int n = 2*id.length;
+	order = enlarge(order,n);
+	free = enlarge(free,n);
+	id = enlarge(id,n);
+	objClass = enlarge(objClass,n);
+	start = enlarge(start,n);
+	dest = enlarge(dest,n);
+	lastNode = enlarge(lastNode,n);
+	lastTime = enlarge(lastTime,n);
+	actTime = enlarge(actTime,n);
+	repNum = enlarge(repNum,n);
+	edgeNum = enlarge(edgeNum,n);
+	pos = enlarge(pos,n);
+	lastPos = enlarge(lastPos,n);
+	relDist = enlarge(relDist,n);
+	doneDist = enlarge(doneDist,n);
+	lastX = enlarge(lastX,n);
+	lastY = enlarge(lastY,n);
+	Route[] r = new Route[n];
+	System.arraycopy(route,0,r,0,route.length);
+	route = r;
+}
+/**
+ * Enlarges an int array.
+ * @return the new array
+ * @param a the old array
+ * @param n the new size
+ */
+private static int[] enlarge (int[] a, int n) {
+	int[] res = new int[n];
+	System.arraycopy(a,0,res,0,a.length);
+	return res;
+}
+/**
+ * Enlarges a double array.
+ * @return the new array
+ * @param a the old array
+ * @param n the new size
+ */
+private static double[] enlarge (double[] a, int n) {
+	double[] res = new double[n];
+	System.arraycopy(a,0,res,0,a.length);
+	return res;
+}
+/**
+ * Reports that an object has reached its destination and informs the object generator.
+ * Corresponds to MovingObject.reportEnd.
+ * @param s the slot
+ * @param node the destination
+ * @param done the distance since the last report
+ * @param arrivalTime the arrival time
+ */
+private void finish (int s, Node node, double done, double arrivalTime) {
+	Reporter reporter = container.getReporter();
+	util.Timer.stop(1);
+	if (reporter != null)
+		reporter.reportDisappearingObject (arrivalTime,id[s],repNum[s],objClass[s],node.getX(),node.getY(),done,objClasses.getReportProbability(objClass[s]));
+	util.Timer.start(1);
+	ObjectGenerator objGen = container.getObjectGenerator();
+	if (objGen != null)
+		objGen.reachDestination(new MovingObject(id[s],objClass[s],nodes.getNode(start[s]),node,actTime[s]));
+}
+/**
+ * Returns the number of stored objects.
+ * @return number of objects
+ */
+public int getNumberOfObjects () {
+	return num;
+}
+/**
+ * Moves all objects. The positions are reported; the objects which have reached
+ * their destination are removed.
+ * @param time the current time stamp
+ * @param mc the movement context
+ */
+public void move (int time, MovementContext mc) {
+	for (int i=num-1; i>=0; i--) {
+		int s = order[i];
+		mc.getWeightManager().setActualObjectClass(objClass[s]);
+		mc.prepare(id[s],time);
+		while (actTime[s] < time) {
+			actTime[s]++;
+			if (computeNextPoint(s,actTime[s],mc)) {
+				remove(i);
+				break;
+			}
+		}
+	}
+}
+/**
+ * Removes the object at a position of the order and frees its slot.
+ * @param i the position
+ */
+private void remove (int i) {
+	int s = order[i];
+	route[s] = null;
+	free[numOfFree++] = s;
+	order[i] = order[--num];
+}
+/**
+ * Removes all objects and decreases the usage of their edges.
+ * Corresponds to MovingObjects.removeObjects.
+ */
+public void removeObjects () {
+	for (int i=0; i<num; i++) {
+		int s = order[i];
+		decreaseUsage(s,pos[s],container.getSerialContext());
+		container.decUsage(route[s].getEdge(pos[s]));
+		route[s] = null;
+	}
+	num = 0;
+	numOfSlots = 0;
+	numOfFree = 0;
+}
+/**
+ * Reroutes an object.
+ * Corresponds to MovingObject.reroute.
+ * @param s the slot
+ * @param actEdge current edge
+ * @param node the node which the object traversed last
+ * @param mc the movement context
+ */
+private void reroute (int s, Edge actEdge, Node node, MovementContext mc) {
+	mc.getWeightManager().setActualObjectClass(objClass[s]);
+	mc.startTimer(2);
+	Route newRoute = mc.computeRoute (objClass[s],actEdge.getOppositeNode(node),nodes.getNode(dest[s]));
+	mc.stopTimer(2);
+	if (newRoute != null) {
+		// keep the edges whose usage is still to be decreased
+		route[s] = route[s].reroute(lastPos[s],pos[s],newRoute);
+		pos[s] -= lastPos[s];
+		lastPos[s] = 0;
+		mc.incTraversed(1+newRoute.getNumOfEdges(),route[s].getStartingNode(pos[s]).getNumOfEdges()+newRoute.getDegree());
+	}
+	lastTime[s] = actTime[s];
+}
+/**
+ * Writes the number of objects and the objects in the order of movement
+ * in the format of MovingObject.write. The starting time is not stored; the
+ * current time is written instead.
+ * @param out the output
+ * @exception IOException if an I/O error occurs
+ */
+void write (DataOutput out) throws IOException {
+	out.writeInt(num);
+	for (int i=0; i<num; i++) {
+		int s = order[i];
+		MovingObject.write(out,id[s],objClass[s],start[s],dest[s],lastNode[s],actTime[s],lastTime[s],actTime[s],repNum[s],edgeNum[s],route[s],pos[s],lastPos[s],relDist[s],doneDist[s],lastX[s],lastY[s]);
+	}
+}
+}
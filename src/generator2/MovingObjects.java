@@ -1,11 +1,24 @@
 package generator2;
 
+import java.io.*;
 import java.util.*;
 import routing.*;
 
 /**
  * Container class for all current moving objects.
  *
+ * @version 3.10	17.10.2026	random streams of the objects for the serial movement
+ * @version 3.00	17.10.26	optional table of the weights per object class
+ * @version 2.90	17.10.26	own usage of the edges and optional own routing context (shared network)
+ * @version 2.80	17.10.26	state can be written and read (for checkpoints)
+ * @version 2.70	17.10.26	optional report decision before the reporting of a position
+ * @version 2.60	17.10.26	optional event-driven movement
+ * @version 2.50	17.10.26	optional storage of the objects in parallel arrays
+ * @version 2.41	17.10.26	random streams for the parallel movement
+ * @version 2.40	17.10.26	parallel movement added
+ * @version 2.30	17.10.26	packed routes
+ * @version 2.20	17.10.26	route cache and weight epochs added
+ * @version 2.10	17.10.26	metrics of the contraction hierarchy added
  * @version 2.00	04.09.01	revision for generator v2.0
  * @version 1.20	11.04.01	object generator added
  * @version 1.11	10.10.00	calling reportEnd
@@ -46,6 +59,54 @@ public class MovingObjects {
 	 * re-routing decider
 	 */
 	private ReRoute reroute = null;
+	/**
+	 * customized metrics of the contraction hierarchy for each object class (null if not used)
+	 */
+	private HierarchyMetric[] metric = null;
+	/**
+	 * cache of the computed routes (may be null)
+	 */
+	private RouteCache routeCache = null;
+	/**
+	 * usage of the edges by the objects of this container
+	 */
+	private EdgeUsage usage = null;
+	/**
+	 * routing context of the serial movement (null: default context of the network)
+	 */
+	private RoutingContext routingContext = null;
+	/**
+	 * description of the edge classes
+	 */
+	private EdgeClasses edgeClasses = null;
+	/**
+	 * context of the serial movement
+	 */
+	private MovementContext serialContext = null;
+	/**
+	 * contexts of the threads of the parallel movement (null: serial movement)
+	 */
+	private ParallelMovementContext[] parallelContext = null;
+	/**
+	 * storage of the objects in parallel arrays (null: objects stored in objs)
+	 */
+	private MovingObjectStore store = null;
+	/**
+	 * event-driven movement of the objects (null: stepwise movement)
+	 */
+	private EventDrivenMovement events = null;
+	/**
+	 * sum of the usage deltas of all threads indexed by the dense edge index
+	 */
+	private int[] delta = null;
+	/**
+	 * dense indices of the edges with usage deltas (may contain duplicates)
+	 */
+	private int[] touched = null;
+	/**
+	 * is the report of a position decided before its reporting?
+	 */
+	private boolean reportDecisionFirst = false;
 
 	/**
 	 * number of moving objects
@@ -75,11 +136,15 @@ public class MovingObjects {
 public MovingObjects (WeightManagerForDataGenerator wm, Network net, ObjectGenerator objGen, Reporter reporter, ReRoute reroute) {
 	this.wm = wm;
 	this.objClasses = wm.getObjectClasses();
+	this.edgeClasses = wm.getEdgeClasses();
 	this.net = net;
+	this.usage = new EdgeUsage(net.getEdges());
+	wm.setEdgeUsage(usage);
 	this.objGen = objGen;
 	this.reporter = reporter;
 	this.reroute = reroute;
 	objs = new Vector (10000,10000);
+	serialContext = new MovementContext(this,reporter);
 }
 /**
  * Adds a moving object to the container.
@@ -90,6 +155,166 @@ protected void add (MovingObject obj) {
 	num++;
 	totalNum++;
 }
+/**
+ * Computes the fastest route between two nodes for an object class.
+ * If a route cache is set, routes computed in the current weight epoch are reused.
+ * The weight manager must be set to the object class before.
+ * @return the route or null
+ * @param objClass the object class
+ * @param start starting node
+ * @param dest destination node
+ */
+protected Route computeRoute (int objClass, Node start, Node dest) {
+	return computeRoute (null,objClass,start,dest);
+}
+/**
+ * Computes the fastest route between two nodes for an object class using a routing context.
+ * If a route cache is set, routes computed in the current weight epoch are reused.
+ * The weight manager of the context must be set to the object class before.
+ * @return the route or null
+ * @param ctx the routing context (null: routing context of the container or default context of the network)
+ * @param objClass the object class
+ * @param start starting node
+ * @param dest destination node
+ */
+protected Route computeRoute (RoutingContext ctx, int objClass, Node start, Node dest) {
+	Route route = null;
+	if (routeCache != null) {
+		route = routeCache.get(start,dest,objClass);
+		if (route != null)
+			return route;
+	}
+	if (ctx == null)
+		ctx = routingContext;
+	if (ctx == null)
+		route = net.computeRoute (getHierarchyMetric(objClass),start,dest);
+	else
+		route = net.computeRoute (ctx,getHierarchyMetric(objClass),start,dest);
+	if (routeCache != null)
+		routeCache.put(start,dest,objClass,route);
+	return route;
+}
+/**
+ * Creates the table of the weights of all edges for all object classes in the weight manager.
+ * The table is shared with the threads of the parallel movement; it is refreshed
+ * for each edge whose speed changes by its usage, i.e. during the serial movement
+ * at once and during the parallel movement after the threads have finished, and
+ * for the edges whose decrease by external objects has changed by weightsChanged.
+ */
+public void createWeightTable () {
+	wm.createWeightTable(net.getEdges());
+	if (parallelContext != null)
+		for (int t=0; t<parallelContext.length; t++)
+			parallelContext[t].getWeightManager().setWeightTable(wm.getWeightTable());
+	if (wm.getExternalObjects() != null)
+		wm.getExternalObjects().recordChangedEdges();
+}
+/**
+ * Customizes the contraction hierarchy of the network by the current weights.
+ * For each object class, a separate metric is computed.
+ */
+public void customizeHierarchy () {
+	ContractionHierarchy cch = net.getContractionHierarchy();
+	if (metric == null)
+		metric = new HierarchyMetric[objClasses.getNumber()];
+	for (int c=0; c<metric.length; c++) {
+		wm.setActualObjectClass(c);
+		metric[c] = cch.customize(wm,metric[c]);
+	}
+	if (routeCache != null)
+		routeCache.advanceEpoch();
+}
+/**
+ * Decrements the usage of an edge.
+ * If the speed on the edge changes, the weight epoch is advanced.
+ * @param edge the edge
+ */
+protected void decUsage (Edge edge) {
+	int oldSpeed = edgeClasses.deceleratedSpeed(edge.getEdgeClass(),usage.get(edge));
+	usage.dec(edge);
+	if (edgeClasses.deceleratedSpeed(edge.getEdgeClass(),usage.get(edge)) != oldSpeed)
+		speedChanged(edge);
+}
+/**
+ * Reports that a moving object has reached its destination and informs the object generator.
+ * The object must have been removed from the container before.
+ * @param obj the moving object
+ */
+protected void finish (MovingObject obj) {
+	obj.reportEnd(reporter);
+	if (objGen != null)
+		objGen.reachDestination(obj);
+}
+/**
+ * Returns the usage of the edges by the objects of this container.
+ * @return usage
+ */
+public EdgeUsage getEdgeUsage () {
+	return usage;
+}
+/**
+ * Returns the customized metric of the contraction hierarchy for an object class.
+ * @return metric or null if the hierarchy is not used
+ * @param objClass the object class
+ */
+public HierarchyMetric getHierarchyMetric (int objClass) {
+	if ((metric == null) || (objClass < 0) || (objClass >= metric.length))
+		return null;
+	return metric[objClass];
+}
+/**
+ * Returns the route cache.
+ * @return route cache or null
+ */
+public RouteCache getRouteCache () {
+	return routeCache;
+}
+/**
+ * Returns the routing context of the serial movement.
+ * @return routing context or null if the default context of the network is used
+ */
+public RoutingContext getRoutingContext () {
+	return routingContext;
+}
+/**
+ * Increments the usage of an edge.
+ * If the speed on the edge changes, the weight epoch is advanced.
+ * @param edge the edge
+ */
+protected void incUsage (Edge edge) {
+	int oldSpeed = edgeClasses.deceleratedSpeed(edge.getEdgeClass(),usage.get(edge));
+	usage.inc(edge);
+	if (edgeClasses.deceleratedSpeed(edge.getEdgeClass(),usage.get(edge)) != oldSpeed)
+		speedChanged(edge);
+}
+/**
+ * Returns the object generator.
+ * @return object generator (may be null)
+ */
+public ObjectGenerator getObjectGenerator () {
+	return objGen;
+}
+/**
+ * Returns the reporter.
+ * @return reporter
+ */
+public Reporter getReporter () {
+	return reporter;
+}
+/**
+ * Returns the context of the serial movement.
+ * @return movement context
+ */
+protected MovementContext getSerialContext () {
+	return serialContext;
+}
+/**
+ * Returns the store of the objects.
+ * @return store or null
+ */
+public MovingObjectStore getStore () {
+	return store;
+}
 /**
  * Returns the network.
  * @return network
@@ -153,19 +378,139 @@ public void incTraversedDegreeBy (int value) {
 public void incTraversedNodesBy (int value) {
 	travNodes += value;
 }
+/**
+ * Returns whether the report of a position is decided before its reporting.
+ * @return decision first?
+ */
+public boolean isReportDecisionFirst () {
+	return reportDecisionFirst;
+}
 /**
  * Moves all objects. The positions during the route of the objects, which have reached
  * the destination node, are reported; these objects are removed from the container.
  * @param time the current time stamp
  */
 public void move (int time) {
+	if (parallelContext != null) {
+		moveInParallel(time);
+		return;
+	}
+	if (events != null) {
+		transferToStore();
+		events.move(time);
+		return;
+	}
+	if (store != null) {
+		transferToStore();
+		store.move(time,serialContext);
+		serialContext.restore();
+		return;
+	}
 	for (int i=num-1; i>=0; i--) {
 		MovingObject obj = (MovingObject)objs.elementAt(i);
-		if (obj.move (time,reporter)) {
+		serialContext.prepare(obj.getId(),time);
+		if (obj.move (time,serialContext)) {
 			obj.reportEnd(reporter);
 			remove(i);
 		}
 	}
+	serialContext.restore();
+}
+/**
+ * Moves all objects by several threads. Each thread moves a contiguous part of the
+ * objects sorted by their ids. The threads read the edge usage of the last time stamp;
+ * afterwards, the usage deltas, the counters and the recorded reports of the threads
+ * are merged in the order of the ids.
+ * @param time the current time stamp
+ */
+private void moveInParallel (int time) {
+	MovingObject[] obj = new MovingObject[num];
+	objs.copyInto(obj);
+	Arrays.sort(obj,new Comparator() {
+		public int compare (Object o1, Object o2) {
+			int id1 = ((MovingObject)o1).getId();
+			int id2 = ((MovingObject)o2).getId();
+			return (id1 < id2) ? -1 : ((id1 == id2) ? 0 : 1);
+		}
+	});
+	// move the parts
+	int numOfThreads = parallelContext.length;
+	MovementThread[] thread = new MovementThread[numOfThreads];
+	for (int t=0; t<numOfThreads; t++) {
+		thread[t] = new MovementThread(parallelContext[t],obj,(int)((long)num*t/numOfThreads),(int)((long)num*(t+1)/numOfThreads),time);
+		if (t > 0)
+			thread[t].start();
+	}
+	thread[0].run();
+	for (int t=1; t<numOfThreads; t++)
+		try {
+			thread[t].join();
+		}
+		catch (InterruptedException ex) {
+			System.err.println("MovingObjects.moveInParallel: "+ex);
+		}
+	// remove the objects that have reached their destination
+	objs.removeAllElements();
+	for (int i=0; i<obj.length; i++)
+		if (obj[i] != null)
+			objs.addElement(obj[i]);
+	num = objs.size();
+	// merge the results of the threads
+	int numOfTouched = 0;
+	for (int t=0; t<numOfThreads; t++) {
+		ParallelMovementContext mc = parallelContext[t];
+		travNodes += mc.travNodes;
+		travDegree += mc.travDegree;
+		mc.travNodes = 0;
+		mc.travDegree = 0;
+		mc.getReportBuffer().replay(reporter,this);
+		for (int k=0; k<mc.numOfTouched; k++) {
+			int e = mc.touched[k];
+			if (mc.delta[e] == 0)
+				continue;
+			if (delta[e] == 0) {
+				if (numOfTouched == touched.length) {
+					int[] tt = new int[2*touched.length];
+					System.arraycopy(touched,0,tt,0,numOfTouched);
+					touched = tt;
+				}
+				touched[numOfTouched++] = e;
+			}
+			delta[e] += mc.delta[e];
+			mc.delta[e] = 0;
+		}
+		mc.numOfTouched = 0;
+	}
+	// change the usage; each edge whose speed has changed is announced once
+	Edges edges = net.getEdges();
+	for (int k=0; k<numOfTouched; k++) {
+		int e = touched[k];
+		if (delta[e] == 0)
+			continue;
+		Edge edge = edges.getEdge(e);
+		int oldSpeed = edgeClasses.deceleratedSpeed(edge.getEdgeClass(),usage.get(edge));
+		usage.set(edge,usage.get(edge)+delta[e]);
+		delta[e] = 0;
+		if (edgeClasses.deceleratedSpeed(edge.getEdgeClass(),usage.get(edge)) != oldSpeed)
+			speedChanged(edge);
+	}
+}
+/**
+ * Reads the state written by writeCheckpoint. The objects are added to the container
+ * in the written order; the usage of their edges is not changed.
+ * @param in the input
+ * @exception IOException if an I/O error occurs
+ */
+public void readCheckpoint (DataInput in) throws IOException {
+	int totalNum = in.readInt();
+	int travNodes = in.readInt();
+	int travDegree = in.readInt();
+	int n = in.readInt();
+	for (int i=0; i<n; i++)
+		new MovingObject(in,net).addToContainer(this);
+	this.totalNum = totalNum;
+	this.travNodes = travNodes;
+	this.travDegree = travDegree;
 }
 /**
  * Removes the moving object at a given index.
@@ -186,13 +531,171 @@ public void remove (int index) {
  * Then, all objects are removed from the container.
  */
 public void removeObjects() {
+	if (events != null) {
+		transferToStore();
+		events.removeObjects();
+		return;
+	}
+	if (store != null) {
+		transferToStore();
+		store.removeObjects();
+		return;
+	}
 	for (int i=0; i<num; i++) {
 		MovingObject obj = (MovingObject)objs.elementAt(i);
-		obj.decreaseUsage (obj.getActPathEdge());
-		obj.getActPathEdge().getEdge().decUsage();
+		obj.decreaseUsage (obj.getRoutePosition());
+		decUsage(obj.getActEdge());
+		objs.setElementAt(null,i);
+	}
+	num = 0;
+	objs.setSize(num);
+}
+/**
+ * Sets the event-driven movement of the objects.
+ * It is used instead of the stepwise serial movement (i.e. if the number of threads is 0);
+ * the generated dataset has the same characteristics but is not identical.
+ * @param events the event-driven movement (null: stepwise movement)
+ */
+public void setEventDrivenMovement (EventDrivenMovement events) {
+	transferToStore();
+	this.events = events;
+}
+/**
+ * Sets the number of threads moving the objects.
+ * With 0 threads, the objects are moved serially in the order of the container and
+ * may observe the usage changes of the objects moved before. With n > 0 threads,
+ * all objects observe the edge usage of the last time stamp and the random decisions
+ * of an object are made by the sub-stream of the given stream identified by its id
+ * and the time; the result is then identical for each number of threads.
+ * @param numOfThreads number of threads (0: serial movement)
+ * @param stream random stream of the parallel movement
+ */
+public void setNumOfThreads (int numOfThreads, RandomStream stream) {
+	if (numOfThreads <= 0) {
+		parallelContext = null;
+		return;
+	}
+	parallelContext = new ParallelMovementContext[numOfThreads];
+	for (int t=0; t<numOfThreads; t++)
+		parallelContext[t] = new ParallelMovementContext(this,reporter,stream);
+	delta = new int[net.getEdges().numOfEdges()];
+	touched = new int[1024];
+}
+/**
+ * Sets the random stream of the serial movement. The decisions of an object about
+ * re-routing and reporting are then made by the sub-stream identified by its id and
+ * the time; they do not depend on the order of the objects or on the other objects.
+ * Without a stream, the shared random generators of the ReRoute object and of the
+ * reporter are used as by former versions.
+ * @param stream random stream of the serial movement (null: shared random generators)
+ */
+public void setRandomStream (RandomStream stream) {
+	serialContext = new MovementContext(this,reporter,stream);
+}
+/**
+ * Sets the storage of the objects in parallel arrays.
+ * The store is used by the serial movement (i.e. if the number of threads is 0);
+ * the result of the movement is not changed.
+ * @param store the store (null: the objects are stored as instances of MovingObject)
+ */
+public void setObjectStore (MovingObjectStore store) {
+	transferToStore();
+	this.store = store;
+}
+/**
+ * Sets the route cache.
+ * @param routeCache route cache (null: no caching)
+ */
+public void setRouteCache (RouteCache routeCache) {
+	this.routeCache = routeCache;
+}
+/**
+ * Sets the routing context of the serial movement, e.g. if the network is shared
+ * by several generations. The weight manager and the landmarks of the context are
+ * also used by the threads of the parallel movement; therefore, the context must be
+ * set before the number of threads.
+ * @param routingContext routing context (null: default context of the network)
+ */
+public void setRoutingContext (RoutingContext routingContext) {
+	this.routingContext = routingContext;
+}
+/**
+ * Sets whether the report of a position is decided before its reporting.
+ * In this case, the stepwise movement does not look up the next node and does not
+ * call the reporter for a position that is not reported; the result is not changed.
+ * @param reportDecisionFirst decision first?
+ */
+public void setReportDecisionFirst (boolean reportDecisionFirst) {
+	this.reportDecisionFirst = reportDecisionFirst;
+}
+/**
+ * Announces a change of the speed on an edge by its usage.
+ * @param edge the edge
+ */
+private void speedChanged (Edge edge) {
+	wm.updateWeights(edge);
+	if ((routeCache != null) && (metric == null))
+		routeCache.announceWeightChange();
+	if (events != null)
+		events.speedChanged(edge);
+}
+/**
+ * Transfers the objects added since the last movement to the store or to the event-driven movement.
+ */
+private void transferToStore () {
+	if ((store == null) && (events == null))
+		return;
+	for (int i=0; i<num; i++) {
+		if (events != null)
+			((MovingObject)objs.elementAt(i)).addToEventDrivenMovement(events);
+		else
+			((MovingObject)objs.elementAt(i)).addToStore(store);
 		objs.setElementAt(null,i);
 	}
 	num = 0;
 	objs.setSize(num);
 }
-}
\ No newline at end of file
+/**
+ * Announces a change of the weights, e.g. by external objects.
+ * The change is announced to the route cache unless the routes are computed by the
+ * contraction hierarchy, whose weights only change by customizeHierarchy.
+ * The objects of the event-driven movement are re-timed.
+ */
+public void weightsChanged () {
+	if ((wm.getWeightTable() != null) && (wm.getExternalObjects() != null)) {
+		Edges edges = net.getEdges();
+		int[] changed = wm.getExternalObjects().fetchChangedEdges();
+		if (changed == null)
+			for (int e=0; e<edges.numOfEdges(); e++)
+				wm.updateWeights(edges.getEdge(e));
+		else
+			for (int i=0; i<changed.length; i++)
+				wm.updateWeights(edges.getEdge(changed[i]));
+	}
+	if ((routeCache != null) && (metric == null))
+		routeCache.announceWeightChange();
+	if (events != null)
+		events.weightsChanged();
+}
+/**
+ * Writes the counters and the objects in the order of their movement.
+ * The objects of the event-driven movement cannot be written.
+ * @param out the output
+ * @exception IOException if an I/O error occurs
+ */
+public void writeCheckpoint (DataOutput out) throws IOException {
+	if (events != null)
+		throw new IOException("the event-driven movement cannot be written");
+	transferToStore();
+	out.writeInt(totalNum);
+	out.writeInt(travNodes);
+	out.writeInt(travDegree);
+	if (store != null)
+		store.write(out);
+	else {
+		out.writeInt(num);
+		for (int i=0; i<num; i++)
+			((MovingObject)objs.elementAt(i)).write(out);
+	}
+}
+}
@@ -0,0 +1,201 @@
+package generator2;
+
+import java.util.Random;
+import routing.*;
+
+/**
+ * Uniform grid over the nodes of a network.
+ * Each cell stores the positions of its nodes in the node array of the object
+ * generator; the size of the cells is chosen such that there are about
+ * NODES_PER_CELL nodes per cell. The grid samples a node uniformly among the nodes
+ * whose distance to a point lies in a given range (an annulus around the point);
+ * only the cells intersecting the annulus are inspected.
+ * It is not changed after its construction.
+ *
+ * @version 1.00	17.10.2026	first version
+ * @author FH Oldenburg
+ */
+class NodeGrid {
+
+	/**
+	 * intended number of nodes per cell
+	 */
+	private static final int NODES_PER_CELL = 8;
+
+	/**
+	 * the nodes
+	 */
+	private Node[] node = null;
+	/**
+	 * x-coordinates of the nodes
+	 */
+	private int[] nodeX = null;
+	/**
+	 * y-coordinates of the nodes
+	 */
+	private int[] nodeY = null;
+	/**
+	 * minimum x-coordinate of the grid
+	 */
+	private int minX = 0;
+	/**
+	 * minimum y-coordinate of the grid
+	 */
+	private int minY = 0;
+	/**
+	 * width and height of a cell
+	 */
+	private int cellSize = 1;
+	/**
+	 * number of columns
+	 */
+	private int numOfColumns = 1;
+	/**
+	 * number of rows
+	 */
+	private int numOfRows = 1;
+	/**
+	 * position of the first entry of each cell in entry (the last element is the number of entries)
+	 */
+	private int[] firstEntry = null;
+	/**
+	 * positions of the nodes of the cells in the node array
+	 */
+	private int[] entry = null;
+	/**
+	 * buffer for the candidates of a query
+	 */
+	private int[] candidate = new int[64];
+
+/**
+ * NodeGrid constructor.
+ * @param  node  the nodes of the network
+ */
+NodeGrid (Node[] node) {
+	this.node = node;
+	int numOfNodes = node.length;
+	nodeX = new int[numOfNodes];
+	nodeY = new int[numOfNodes];
+	int maxX = 0;
+	int maxY = 0;
+	for (int i=0; i<numOfNodes; i++) {
+		nodeX[i] = node[i].getX();
+		nodeY[i] = node[i].getY();
+		if ((i == 0) || (nodeX[i] < minX))
+			minX = nodeX[i];
+		if ((i == 0) || (nodeY[i] < minY))
+			minY = nodeY[i];
+		if ((i == 0) || (nodeX[i] > maxX))
+			maxX = nodeX[i];
+		if ((i == 0) || (nodeY[i] > maxY))
+			maxY = nodeY[i];
+	}
+	if (numOfNodes > 0) {
+		double area = (double)(maxX-minX+1)*(maxY-minY+1);
+		cellSize = Math.max((int)Math.ceil(Math.sqrt(area*NODES_PER_CELL/numOfNodes)),1);
+		numOfColumns = (maxX-minX)/cellSize+1;
+		numOfRows = (maxY-minY)/cellSize+1;
+	}
+	// count the entries of the cells, then fill them
+	firstEntry = new int[numOfColumns*numOfRows+1];
+	for (int i=0; i<numOfNodes; i++)
+		firstEntry[getCell(i)+1]++;
+	for (int c=0; c<numOfColumns*numOfRows; c++)
+		firstEntry[c+1] += firstEntry[c];
+	entry = new int[numOfNodes];
+	int[] next = new int[numOfColumns*numOfRows];
+	System.arraycopy(firstEntry,0,next,0,next.length);
+	for (int i=0; i<numOfNodes; i++)
+		entry[next[getCell(i)]++] = i;
+}
+
+/**
+ * Returns the cell of a node.
+ * @return  the cell
+ * @param  i  the position of the node in the node array
+ */
+private int getCell (int i) {
+	return ((nodeY[i]-minY)/cellSize)*numOfColumns+(nodeX[i]-minX)/cellSize;
+}
+
+/**
+ * Returns the squared distance of a coordinate to an interval.
+ * @return  squared distance (0 if the coordinate lies in the interval)
+ * @param  c  the coordinate
+ * @param  min  the minimum of the interval
+ * @param  max  the maximum of the interval
+ */
+private static double minDist2 (double c, double min, double max) {
+	double d = 0;
+	if (c < min)
+		d = min-c;
+	else if (c > max)
+		d = c-max;
+	return d*d;
+}
+
+/**
+ * Returns the squared distance of a coordinate to the farthest end of an interval.
+ * @return  squared distance
+ * @param  c  the coordinate
+ * @param  min  the minimum of the interval
+ * @param  max  the maximum of the interval
+ */
+private static double maxDist2 (double c, double min, double max) {
+	double d = Math.max(Math.abs(c-min),Math.abs(max-c));
+	return d*d;
+}
+
+/**
+ * Selects a node uniformly among the nodes whose distance to a point lies between
+ * minDist and maxDist. The given node is excluded.
+ * @return  the node or null if no node lies in the annulus
+ * @param  x  the x-coordinate of the point
+ * @param  y  the y-coordinate of the point
+ * @param  minDist  the minimum distance
+ * @param  maxDist  the maximum distance
+ * @param  random  the random generator
+ * @param  exclude  the excluded node (may be null)
+ */
+Node sampleAnnulus (int x, int y, double minDist, double maxDist, Random random, Node exclude) {
+	double min2 = minDist*minDist;
+	double max2 = maxDist*maxDist;
+	int num = 0;
+	int firstRow = Math.max((int)Math.floor((y-maxDist-minY)/cellSize),0);
+	int lastRow = Math.min((int)Math.floor((y+maxDist-minY)/cellSize),numOfRows-1);
+	for (int row=firstRow; row<=lastRow; row++) {
+		double y1 = minY+(double)row*cellSize;
+		double dy2 = minDist2(y,y1,y1+cellSize-1);
+		if (dy2 > max2)
+			continue;
+		double dx = Math.sqrt(max2-dy2);
+		int firstCol = Math.max((int)Math.floor((x-dx-minX)/cellSize),0);
+		int lastCol = Math.min((int)Math.floor((x+dx-minX)/cellSize),numOfColumns-1);
+		for (int col=firstCol; col<=lastCol; col++) {
+			double x1 = minX+(double)col*cellSize;
+			// skip the cells outside of the annulus
+			if ((minDist2(x,x1,x1+cellSize-1)+dy2 > max2) || (maxDist2(x,x1,x1+cellSize-1)+maxDist2(y,y1,y1+cellSize-1) < min2))
+				continue;
+			int cell = row*numOfColumns+col;
+			for (int k=firstEntry[cell]; k<firstEntry[cell+1]; k++) {
+				int i = entry[k];
+				double ex = nodeX[i]-x;
+				double ey = nodeY[i]-y;
+				double d2 = ex*ex+ey*ey;
+				if ((d2 < min2) || (d2 > max2) || node[i].equals(exclude))
+					continue;
+				if (num == candidate.length) {
+					int[] old = candidate;
+					candidate = new int[2*old.length];
+					System.arraycopy(old,0,candidate,0,num);
+				}
+				candidate[num++] = i;
+			}
+		}
+	}
+	if (num == 0)
+		return null;
+	return node[candidate[Math.abs(random.nextInt()%num)]];
+}
+
+}
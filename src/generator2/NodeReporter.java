@@ -11,6 +11,7 @@ import drawables.DrawableObjects;
  * Class for reporting the passed nodes into a file.
  * Requires SDK 1.2 or higher.
  *
+ * @version 1.10	17.10.2026	output cannot be resumed (getOutputPosition)
  * @version 1.00	27.08.2003	first version
  * @author FH Oldenburg
  */
@@ -138,6 +139,14 @@ public void close() {
 	}
 }
 
+/**
+ * The output cannot be resumed because the nodes are collected until the reporter is closed.
+ * @return -1
+ */
+public long getOutputPosition () {
+	return -1;
+}
+
 /**
  * Reports the characteristic properties of a dispappering object at a time stamp
  * @param  time  the arrival time (with fraction)
@@ -6,6 +6,7 @@ import java.util.*;
 /**
  * Definition of the properties of the classes of moving objects.
  *
+ * @version 2.20	17.10.2026	object class computed by a given random generator
  * @version 2.10	13.09.2003	maxSpeed, portion and getMaxSpeed become double
  * @version 2.01	27.08.2003	using RandomGenerator
  * @version 2.00	04.09.2001	revision for generator v2.0
@@ -105,6 +106,16 @@ public ObjectClasses (Properties properties, Time time, DataSpace ds, int numOfC
  * @param  time  current time stamp
  */
 public int computeNewObjectClass (int time) {
+	return computeNewObjectClass (time,random);
+}
+
+/**
+ * Computes the object class of a new moving object using a given random generator.
+ * @return  object class
+ * @param  time  current time stamp
+ * @param  random  the random generator
+ */
+public int computeNewObjectClass (int time, Random random) {
 	double value = random.nextDouble();
 	int res = num-1;
 	for (int i=0; i<num; i++)
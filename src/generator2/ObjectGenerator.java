@@ -1,5 +1,6 @@
 package generator2;
 
+import java.io.*;
 import java.util.*;
 import routing.*;
 
@@ -7,6 +8,13 @@ import routing.*;
  * Class for defining the properties of moving objects. An example is the computations of new starting and
  * destination nodes.
  *
+ * @version 2.71	17.10.2026	array of the nodes in the former order of Nodes.elements (seed-stable datasets)
+ * @version 2.70	17.10.2026	unconnected pairs of nodes rejected, nodes of the largest component, retries counted
+ * @version 2.60	17.10.2026	destination by a search in the network (setNetwork)
+ * @version 2.50	17.10.2026	destination sampled in an annulus by the property "destinationTolerance"
+ * @version 2.40	17.10.2026	identifiers counted by each generator (shared network)
+ * @version 2.30	17.10.2026	state can be written and read (for checkpoints)
+ * @version 2.20	17.10.2026	random stream for each new object
  * @version 2.10	27.08.2003	distance becomes double, use RandomGenerator
  * @version 2.00	04.09.2001	revision for generator v2.0
  * @version 1.30	11.04.2001	reachDestination added
@@ -22,7 +30,7 @@ public class ObjectGenerator {
 	/**
 	 * The value of the next identifier.
 	 */
-	static protected int currId = 0;
+	protected int currId = 0;
 
 	/**
 	 * Properties of the generator.
@@ -46,7 +54,7 @@ public class ObjectGenerator {
 	 */
 	protected Nodes nodes = null;
 	/**
-	 * The nodes of the network as an array.
+	 * The nodes of the network as an array (in the former order of Nodes.elements, see orderNodes).
 	 */
 	protected Node node[] = null;
 
@@ -75,6 +83,50 @@ public class ObjectGenerator {
 	 * The random generator.
 	 */
 	protected Random random = null;
+	/**
+	 * The random stream of the moving objects (null if not used).
+	 */
+	protected RandomStream stream = null;
+	/**
+	 * The grid over the nodes for sampling the destinations (null: destinations by random trials).
+	 */
+	protected NodeGrid nodeGrid = null;
+	/**
+	 * The tolerated relative deviation of the distance of the destination from the length of the route.
+	 */
+	protected double tolerance = 0;
+	/**
+	 * The network searched for destinations (null: destinations by the distance as the crow flies).
+	 */
+	protected Network net = null;
+	/**
+	 * The routing context of the search for destinations.
+	 */
+	protected RoutingContext routingContext = null;
+	/**
+	 * The weight manager of the search for destinations.
+	 */
+	protected WeightManagerForDataGenerator wm = null;
+	/**
+	 * The route to the last destination found by the search (null: none).
+	 */
+	protected Route route = null;
+	/**
+	 * The graph giving the connected components of the nodes (null: components not considered).
+	 */
+	protected CompactGraph graph = null;
+	/**
+	 * Are the nodes restricted to the largest component?
+	 */
+	protected boolean largestComponentOnly = false;
+	/**
+	 * The number of pairs of nodes rejected because they are not connected.
+	 */
+	protected int numOfRejectedPairs = 0;
+	/**
+	 * The number of retries for computing the first route of a new object.
+	 */
+	protected int numOfRetries = 0;
 
 /**
  * ObjectGenerator constructor.
@@ -95,19 +147,38 @@ public ObjectGenerator (Properties properties, Time time, DataSpace ds, Nodes no
 	this.objClasses = objClasses;
 	this.dataspace = ds;
 	// transfer node to array
-	node = new Node[nodes.numOfNodes()];
-	int i=0;
-	for (Enumeration e = nodes.elements(); e.hasMoreElements();)
-		node[i++] = (Node)e.nextElement();
+	node = orderNodes(nodes);
 	// initialize other variables
 	double dx = dataspace.getMaxX()-dataspace.getMinX();
 	double dy = dataspace.getMaxY()-dataspace.getMinY();
 	maxLength = (Math.sqrt(dx*dx+dy*dy) / 5);
 	random = RandomGenerator.get(properties);
+	if (RandomGenerator.useStreams(properties))
+		stream = RandomGenerator.getStream(properties,RandomGenerator.OBJECTS);
+	int tol = DataGenerator.getProperty(properties,"destinationTolerance",0);
+	if (tol > 0)
+		tolerance = tol/100.0;
+	if ((tol > 0) && (properties.getProperty("DSO") == null))
+		nodeGrid = new NodeGrid(node);
+}
+
+/**
+ * Announces that a new object gets new nodes because its first route
+ * could not be computed.
+ */
+public void announceRetry () {
+	numOfRetries++;
 }
 
 /**
  * Computes a new destination node of a route.
+ * If the network is set (see setNetwork), the node is selected uniformly among the
+ * nodes whose fastest route from the starting node has a length deviating at most by
+ * the tolerance from the given length; the route can be fetched by fetchRoute.
+ * Otherwise, if the property "destinationTolerance" (in per cent) is set and the network-based
+ * approach is used, the node is selected uniformly among the nodes whose distance to
+ * the starting node deviates at most by the tolerance from the length. Otherwise, or
+ * if there is no such node, the best of up to 50 random nodes is selected.
  * @return starting node
  * @param time the time stamp
  * @param startingNode the starting node of the route
@@ -115,6 +186,25 @@ public ObjectGenerator (Properties properties, Time time, DataSpace ds, Nodes no
  * @param objClass the class of the object
  */
 public Node computeDestinationNode(int time, Node startingNode, int length, int objClass) {
+	route = null;
+	if ((net != null) && (length > 0)) {
+		wm.setActualObjectClass(objClass);
+		route = net.computeRouteToRandomDestination(routingContext,startingNode,length*(1-tolerance),length*(1+tolerance),random);
+		if (route != null) {
+			Node dest = route.getDestinationNode();
+			numOfGeneratedNodes++;
+			totalLength += dest.distanceTo(startingNode);
+			return dest;
+		}
+	}
+	if ((nodeGrid != null) && (length > 0)) {
+		Node dest = nodeGrid.sampleAnnulus(startingNode.getX(),startingNode.getY(),length*(1-tolerance),length*(1+tolerance),random,startingNode);
+		if (dest != null) {
+			numOfGeneratedNodes++;
+			totalLength += dest.distanceTo(startingNode);
+			return dest;
+		}
+	}
 	// may be changed ...
 	Node bestNode = computeNode(time,objClass,false);
 	while (bestNode.equals(startingNode))
@@ -173,9 +263,13 @@ private Node computeNode (int time, int objClass, boolean start) {
 	if (properties.getProperty("DSO") != null) {
 		int dx = dataspace.getMaxX()-dataspace.getMinX();
 		int dy = dataspace.getMaxY()-dataspace.getMinY();
-		int x = Math.abs(random.nextInt())%(dx+1) + dataspace.getMinX();
-		int y = Math.abs(random.nextInt())%(dy+1) + dataspace.getMinY();
-		return nodes.findNearest (x,y);
+		Node res = null;
+		do {
+			int x = Math.abs(random.nextInt())%(dx+1) + dataspace.getMinX();
+			int y = Math.abs(random.nextInt())%(dy+1) + dataspace.getMinY();
+			res = nodes.findNearest (x,y);
+		} while (largestComponentOnly && (graph.getComponent(res.getIndex()) != graph.getLargestComponent()));
+		return res;
 	}
 	// the network-based approach
 	else {
@@ -196,7 +290,7 @@ private Node computeNode (int time, int objClass, boolean start) {
  * @param  currTime  the current time
  */
 public int computeObjectClass (int currTime) {
-	return objClasses.computeNewObjectClass (currTime);
+	return objClasses.computeNewObjectClass (currTime,random);
 }
 
 /**
@@ -209,6 +303,67 @@ public Node computeStartingNode (int time, int objClass) {
 	return computeNode (time,objClass,true);
 }
 
+/**
+ * Returns the route to the last destination computed by the search in the network
+ * and forgets it.
+ * @return the route or null if the last destination has not been found by the search
+ */
+public Route fetchRoute () {
+	Route res = route;
+	route = null;
+	return res;
+}
+
+/**
+ * Returns the nodes in the order in which Nodes.elements enumerated them before
+ * Nodes was indexed by a LongIntHashMap, i.e. in the order of a Hashtable(10000) into
+ * which the nodes are inserted in the order of their dense indices. The random nodes
+ * are drawn from this array; the order keeps the datasets generated for a seed unchanged.
+ * @return the nodes
+ * @param nodes the nodes of the network
+ */
+protected static Node[] orderNodes (Nodes nodes) {
+	Hashtable table = new Hashtable(10000);
+	for (int i=0; i<nodes.numOfNodes(); i++)
+		table.put(nodes.getNode(i),nodes.getNode(i));
+	Node[] res = new Node[nodes.numOfNodes()];
+	int i = 0;
+	for (Enumeration e = table.elements(); e.hasMoreElements();)
+		res[i++] = (Node)e.nextElement();
+	return res;
+}
+
+/**
+ * Selects the random generator for the properties of a new object.
+ * If random streams are used (see RandomGenerator.useStreams), the class, the
+ * nodes and the length of the route are computed by a stream identified by the
+ * id and the time; otherwise, the shared random generator is used.
+ * Must be called after computeId.
+ * @param  id  the id of the new object
+ * @param  time  the time stamp
+ */
+public void selectRandomStream (int id, int time) {
+	if (stream != null)
+		random = stream.split(id).split(time);
+}
+
+/**
+ * Sets the network that is searched for the destinations. The destination is then
+ * selected by the length of its fastest route for the weights of the weight manager
+ * (see computeDestinationNode); the default tolerance is 10 per cent.
+ * The search uses an own routing context.
+ * @param net the network
+ * @param wm the weight manager of the moving objects
+ */
+public void setNetwork (Network net, WeightManagerForDataGenerator wm) {
+	this.net = net;
+	this.wm = wm;
+	routingContext = net.createRoutingContext();
+	routingContext.setWeightManager(wm);
+	if (tolerance == 0)
+		tolerance = 0.1;
+}
+
 /**
  * Returns the average distance of routes.
  * @return the average distance of routes
@@ -220,6 +375,36 @@ public int getAverageRouteLength () {
 		return 0;
 }
 
+/**
+ * Returns the number of pairs of nodes rejected because they are not connected.
+ * @return number of pairs
+ */
+public int getNumOfRejectedPairs () {
+	return numOfRejectedPairs;
+}
+
+/**
+ * Returns the number of retries for computing the first route of a new object.
+ * @return number of retries
+ */
+public int getNumOfRetries () {
+	return numOfRetries;
+}
+
+/**
+ * Tests whether there is a route between two nodes; not connected pairs are counted.
+ * Without components (see useComponents), each pair is regarded as connected.
+ * @return connected?
+ * @param start the starting node
+ * @param dest the destination node
+ */
+public boolean isConnected (Node start, Node dest) {
+	if ((graph == null) || (graph.getComponent(start.getIndex()) == graph.getComponent(dest.getIndex())))
+		return true;
+	numOfRejectedPairs++;
+	return false;
+}
+
 /**
  * Returns the number of new objects at a time stamp.
  * @return number of objects
@@ -243,4 +428,55 @@ public int numberOfNewObjects (int time) {
 public void reachDestination (MovingObject obj) {
 }
 
+
+/**
+ * Reads the state written by writeCheckpoint.
+ * @param  in  the input
+ * @exception IOException if an I/O error occurs
+ */
+public void readCheckpoint (DataInput in) throws IOException {
+	currId = in.readInt();
+	numOfGeneratedNodes = in.readInt();
+	totalLength = in.readDouble();
+	numOfRejectedPairs = in.readInt();
+	numOfRetries = in.readInt();
+}
+
+/**
+ * Writes the state of the generator, i.e. the next id and the statistics of the routes.
+ * Subclasses with a further state must extend this method and readCheckpoint.
+ * @param  out  the output
+ * @exception IOException if an I/O error occurs
+ */
+public void writeCheckpoint (DataOutput out) throws IOException {
+	out.writeInt(currId);
+	out.writeInt(numOfGeneratedNodes);
+	out.writeDouble(totalLength);
+	out.writeInt(numOfRejectedPairs);
+	out.writeInt(numOfRetries);
+}
+
+/**
+ * Sets the graph giving the connected components of the nodes. Afterwards, pairs of
+ * nodes in different components are rejected by isConnected. If the nodes are
+ * restricted to the largest component, the starting and destination nodes are
+ * selected among its nodes.
+ * @param graph the compact graph of the network
+ * @param largestComponentOnly restrict the nodes to the largest component?
+ */
+public void useComponents (CompactGraph graph, boolean largestComponentOnly) {
+	this.graph = graph;
+	this.largestComponentOnly = largestComponentOnly;
+	if (!largestComponentOnly)
+		return;
+	int c = graph.getLargestComponent();
+	Node[] old = node;
+	node = new Node[graph.getComponentSize(c)];
+	int i = 0;
+	for (int k=0; k<old.length; k++)
+		if (graph.getComponent(old[k].getIndex()) == c)
+			node[i++] = old[k];
+	if (nodeGrid != null)
+		nodeGrid = new NodeGrid(node);
+}
 }
\ No newline at end of file
@@ -10,6 +10,7 @@ import drawables.DrawableObjects;
  * Class for reporting the computed moving objects into an Oracle database.
  * Requires classes111.zip or classes12.zip in the classpath.
  *
+ * @version 1.20	17.10.2026	output cannot be resumed (getOutputPosition)
  * @version 1.10	16.08.2003	additional parameters reported
  * @version 1.00	03.09.2001	first version
  * @author FH Oldenburg
@@ -72,6 +73,14 @@ public void close() {
 		catch (Exception ex) {}
 }
 
+/**
+ * The output into the database cannot be resumed.
+ * @return -1
+ */
+public long getOutputPosition () {
+	return -1;
+}
+
 /**
  * Returns the connection to the database.
  * @param properties properties of the generator
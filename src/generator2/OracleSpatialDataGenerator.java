@@ -13,6 +13,7 @@ import spatialdb.*;
  * See the additional documentation for the necessary table definitions and the supported properties in the property file.
  * Requires classes12.zip and sdoapi.zip in the classpath.
  *
+ * @version	1.02	17.10.2026	existing nodes found by Nodes.findNode
  * @version	1.01	03.09.2003	constructing of DrawableObject-objects removed, makeAbsolute called
  * @version	1.00	03.01.2001	first version
  * @author FH Oldenburg
@@ -44,8 +45,8 @@ private Edge computeEdge (long id, int edgeClass, Node n1, Node n2, Edges edges)
  * @param nodes container of nodes
  */
 private Node computeNode (long id, int x, int y, Nodes nodes) {
-	Node cn = nodes.findNearest (x,y);
-	if ((cn != null) && (x==cn.getX()) && (y==cn.getY()))
+	Node cn = nodes.findNode (x,y);
+	if (cn != null)
 		return cn;
 	Node actNode = nodes.newNode (id,x,y,null);
 	drawableObjects.addDrawable(actNode);
@@ -0,0 +1,169 @@
+package generator2;
+
+import java.util.*;
+import routing.*;
+
+/**
+ * Movement context of a thread moving a part of the objects in parallel to other threads.
+ * During a time stamp, the edge usage is not changed: all threads read the usage
+ * of the end of the last time stamp, and the changes are collected as deltas,
+ * which are merged by MovingObjects after all threads have finished.
+ * The routes are computed by an own routing context and weight manager,
+ * the decisions about re-routing and reporting are made by a random stream
+ * that is split for each object and time stamp, and the reports are recorded by
+ * a ReportBuffer. Therefore, the result does not depend on the number of threads.
+ *
+ * @version 1.40	17.10.2026	random streams selected by MovementContext
+ * @version 1.30	17.10.2026	table of the weights of the container
+ * @version 1.20	17.10.2026	usage of the edges and landmarks of the container
+ * @version 1.10	17.10.2026	random streams
+ * @version 1.00	17.10.2026	first version
+ * @author FH Oldenburg
+ */
+class ParallelMovementContext extends MovementContext {
+
+	/**
+	 * the weight manager of the thread
+	 */
+	private WeightManagerForDataGenerator wm = null;
+	/**
+	 * the routing context of the thread
+	 */
+	private RoutingContext ctx = null;
+	/**
+	 * the recorded reports
+	 */
+	private ReportBuffer buffer = null;
+	/**
+	 * changes of the usage indexed by the dense edge index
+	 */
+	int[] delta = null;
+	/**
+	 * dense indices of the changed edges (may contain duplicates)
+	 */
+	int[] touched = new int[1024];
+	/**
+	 * number of entries in touched
+	 */
+	int numOfTouched = 0;
+	/**
+	 * number of traversed nodes
+	 */
+	int travNodes = 0;
+	/**
+	 * degree of traversed nodes
+	 */
+	int travDegree = 0;
+
+/**
+ * ParallelMovementContext constructor.
+ * @param container the container of the moving objects
+ * @param reporter the actual reporter
+ * @param stream the random stream of the movement
+ */
+ParallelMovementContext (MovingObjects container, Reporter reporter, RandomStream stream) {
+	super(container,reporter,stream);
+	WeightManagerForDataGenerator orig = container.getWeightManager();
+	wm = new WeightManagerForDataGenerator(orig.getEdgeClasses(),orig.getObjectClasses(),orig.getExternalObjects());
+	wm.setEdgeUsage(orig.getEdgeUsage());
+	wm.setWeightTable(orig.getWeightTable());
+	ctx = container.getNetwork().createRoutingContext();
+	ctx.setWeightManager(wm);
+	RoutingContext serialCtx = container.getRoutingContext();
+	if (serialCtx != null)
+		ctx.setLandmarks(serialCtx.getLandmarks(container.getNetwork().getLandmarks()));
+	buffer = new ReportBuffer(reporter.properties);
+	delta = new int[container.getNetwork().getEdges().numOfEdges()];
+}
+/**
+ * Changes the usage delta of an edge.
+ * @param edge the edge
+ * @param d the change
+ */
+private void changeUsage (Edge edge, int d) {
+	int i = edge.getIndex();
+	if (delta[i] == 0) {
+		if (numOfTouched == touched.length) {
+			int[] t = new int[2*touched.length];
+			System.arraycopy(touched,0,t,0,numOfTouched);
+			touched = t;
+		}
+		touched[numOfTouched++] = i;
+	}
+	delta[i] += d;
+}
+/**
+ * Computes the fastest route between two nodes by the routing context of the thread.
+ * @return the route or null
+ * @param objClass the object class
+ * @param start starting node
+ * @param dest destination node
+ */
+protected Route computeRoute (int objClass, Node start, Node dest) {
+	return container.computeRoute (ctx,objClass,start,dest);
+}
+/**
+ * Decrements the usage delta of an edge.
+ * @param edge the edge
+ */
+protected void decUsage (Edge edge) {
+	changeUsage(edge,-1);
+}
+/**
+ * Returns the report buffer.
+ * @return report buffer
+ */
+ReportBuffer getReportBuffer () {
+	return buffer;
+}
+/**
+ * Returns the reporter of the thread, i.e. the report buffer.
+ * @return reporter
+ */
+protected Reporter getReporter () {
+	return buffer;
+}
+/**
+ * Returns the weight of an edge computed by the weight manager of the thread.
+ * @return weight
+ * @param edge the edge
+ */
+protected double getWeight (Edge edge) {
+	return wm.getWeight(edge);
+}
+/**
+ * Returns the weight manager of the thread.
+ * @return weight manager
+ */
+protected WeightManagerForDataGenerator getWeightManager () {
+	return wm;
+}
+/**
+ * Increments the number of traversed nodes and their degree.
+ * @param nodes number of nodes
+ * @param degree total degree
+ */
+protected void incTraversed (int nodes, int degree) {
+	travNodes += nodes;
+	travDegree += degree;
+}
+/**
+ * Increments the usage delta of an edge.
+ * @param edge the edge
+ */
+protected void incUsage (Edge edge) {
+	changeUsage(edge,1);
+}
+/**
+ * Does nothing; the timers are not used by the threads.
+ * @param timer number of the timer
+ */
+protected void startTimer (int timer) {
+}
+/**
+ * Does nothing; the timers are not used by the threads.
+ * @param timer number of the timer
+ */
+protected void stopTimer (int timer) {
+}
+}
@@ -7,7 +7,10 @@ import drawables.DrawableObjects;
 
 /**
  * Class for reporting the positions of moving objects into a file.
+ * If the property "outputOffset" is set, the existing file is truncated to this
+ * length and continued (for resuming from a checkpoint).
  *
+ * @version 2.20	17.10.2026	output can be continued at a position ("outputOffset")
  * @version 2.10	27.08.2003	additional parameters reported
  * @version 2.01	17.09.2001	repNum added to file
  * @version 2.00	03.09.2001	separated from the class "Reporter"
@@ -15,6 +18,10 @@ import drawables.DrawableObjects;
  */
 public class PositionReporter extends Reporter {
 
+	/**
+	 * The file output stream.
+	 */
+	protected FileOutputStream fOut = null;
 	/**
 	 * The data output stream.
 	 */
@@ -32,15 +39,29 @@ public class PositionReporter extends Reporter {
 public PositionReporter (Properties properties, DrawableObjects objects) {
 	super (properties,objects);
 	String name = properties.getProperty("outputFile");
+	String offset = properties.getProperty("outputOffset");
 	if (name != null)
 		try {
+			if (offset != null) {
+				long length = Long.parseLong(offset);
+				RandomAccessFile file = new RandomAccessFile(name,"rw");
+				if (file.length() < length) {
+					file.close();
+					throw new IOException("output file shorter than "+length+" bytes");
+				}
+				file.setLength(length);
+				file.close();
+				this.fOut = new FileOutputStream(name,true);
+			}
+			else
+				this.fOut = new FileOutputStream(name);
 			if (name.endsWith(".mpf"))
-				this.dOut = new DataOutputStream(new FileOutputStream(name));
+				this.dOut = new DataOutputStream(fOut);
 			else
-				this.pOut = new PrintWriter(new FileOutputStream(name));
+				this.pOut = new PrintWriter(fOut);
 		}
 		catch (Exception ioe) {
-			System.err.println("Error occured by creating the output file "+name);
+			System.err.println("Error occured by creating the output file "+name+": "+ioe.getMessage());
 		}
 }
 
@@ -57,6 +78,24 @@ public void close() {
 	}
 }
 
+/**
+ * Returns the position in the output file after flushing it.
+ * @return position (0 if no file is written) or -1 in the case of an error
+ */
+public long getOutputPosition () {
+	if (fOut == null)
+		return 0;
+	try {
+		if (pOut != null)
+			pOut.flush();
+		if (dOut != null)
+			dOut.flush();
+		return fOut.getChannel().position();
+	} catch (IOException ex) {
+		return -1;
+	}
+}
+
 /**
  * Prints the given point to the print writer.
  * @param  out  the print writer
@@ -1,45 +1,161 @@
 package generator2;
 
+import java.io.*;
 import java.util.Properties;
 import java.util.Random;
 
 /**
  * Class for providing the random generator.
+ * Besides the three shared generators, splittable random streams (see RandomStream)
+ * can be requested for a purpose and an object id; they are derived from the seed
+ * independently of the order of their use. Whether the object generators and the
+ * serial movement use such streams is controlled by the property "randomStreams";
+ * without it, the shared generators are used as by former versions, e.g. for
+ * reproducing datasets generated by them. The parallel and the event-driven movement
+ * always use streams.
+ * The states of the generators for the data generation and for reporting and of the
+ * root of the random streams can be written and restored (see writeState).
+ * The generators are shared by all threads except the threads of a scope (see setScope);
+ * a scope has its own generators, e.g. for each of several generations sharing a network.
  * 
+ * @version 1.41	17.10.2026	streams also for the serial movement
+ * @version 1.40	17.10.2026	scopes with own generators
+ * @version 1.30	17.10.2026	states of the generators can be written and restored
+ * @version 1.20	17.10.2026	geometric distribution
+ * @version 1.10	17.10.2026	random streams added
  * @version 1.00	27.08.2003	first version
  * @author FH Oldenburg
  */
 public class RandomGenerator {
 
+	/**
+	 * The generators shared by the threads without scope.
+	 */
+	private static final RandomGenerator shared = new RandomGenerator();
+	/**
+	 * The scope of the current thread; it is inherited by the threads started by the thread.
+	 */
+	private static final InheritableThreadLocal scope = new InheritableThreadLocal();
+
 	/**
 	 * The random generator for the data generation.
 	 */
-	static protected Random r = null;
+	protected Random r = null;
 	/**
 	 * The random generator for reporting.
 	 */
-	static protected Random rep = null;
+	protected Random rep = null;
 	/**
 	 * The random generator for visualization.
 	 */
-	static protected Random viz = null;
+	protected Random viz = null;
+	/**
+	 * The root of the random streams.
+	 */
+	protected RandomStream root = null;
+
+	/**
+	 * Purpose "generation of moving objects".
+	 */
+	public static final int OBJECTS = 1;
+	/**
+	 * Purpose "generation of external objects".
+	 */
+	public static final int EXTERNAL_OBJECTS = 2;
+	/**
+	 * Purpose "movement of the objects" (re-routing and reporting).
+	 */
+	public static final int MOVEMENT = 3;
+
+	/**
+	 * Returns the generators of the current thread.
+	 * @return  the generators of the scope of the thread or the shared generators
+	 */
+	private static RandomGenerator current () {
+		RandomGenerator g = (RandomGenerator)scope.get();
+		if (g != null)
+			return g;
+		return shared;
+	}
 	
 	/**
 	 * Returns the random generator for data generation.
 	 * @param  properties  the properties of the generator
 	 */
 	static public Random get (Properties properties) {
-		if (r != null)
-			return r;
+		RandomGenerator g = current();
+		if (g.r != null)
+			return g.r;
 		if (properties.getProperty ("seed") != null)
 			try {
-				r = new Random(Long.parseLong(properties.getProperty ("seed")));
+				g.r = new LinearRandom(Long.parseLong(properties.getProperty ("seed")));
 			} catch (Exception ex) {
-				r = new Random();
+				g.r = new LinearRandom();
 			}
 		else
-			r = new Random();
-		return r;
+			g.r = new LinearRandom();
+		return g.r;
+	}
+
+	/**
+	 * Returns the random stream for a purpose.
+	 * @return  the stream
+	 * @param  properties  the properties of the generator
+	 * @param  purpose  the purpose (e.g. OBJECTS)
+	 */
+	static public synchronized RandomStream getStream (Properties properties, int purpose) {
+		RandomGenerator g = current();
+		if (g.root == null) {
+			if (properties.getProperty ("seed") != null)
+				try {
+					g.root = new RandomStream(Long.parseLong(properties.getProperty ("seed")));
+				} catch (Exception ex) {
+					g.root = new RandomStream(new Random().nextLong());
+				}
+			else
+				g.root = new RandomStream(new Random().nextLong());
+		}
+		return g.root.split(purpose);
+	}
+
+	/**
+	 * Returns the random stream for a purpose and an object.
+	 * @return  the stream
+	 * @param  properties  the properties of the generator
+	 * @param  purpose  the purpose (e.g. OBJECTS)
+	 * @param  id  the object id
+	 */
+	static public RandomStream getStream (Properties properties, int purpose, long id) {
+		return getStream(properties,purpose).split(id);
+	}
+
+	/**
+	 * Draws the number of failed trials before the first success of a Bernoulli experiment,
+	 * i.e. the number of skipped time stamps if an event happens at a time stamp with
+	 * a given probability.
+	 * @return  number of failed trials (Integer.MAX_VALUE: never successful)
+	 * @param  random  the random generator
+	 * @param  p  probability of success (0..1)
+	 */
+	static public int nextGeometric (Random random, double p) {
+		if (p >= 1)
+			return 0;
+		if (p <= 0)
+			return Integer.MAX_VALUE;
+		double g = Math.floor(Math.log(1.0-random.nextDouble())/Math.log(1.0-p));
+		if (g >= Integer.MAX_VALUE)
+			return Integer.MAX_VALUE;
+		return (int)g;
+	}
+
+	/**
+	 * Should the object generators and the serial movement use random streams?
+	 * Given by the property "randomStreams".
+	 * @return  use of streams?
+	 * @param  properties  the properties of the generator
+	 */
+	static public boolean useStreams (Properties properties) {
+		return properties.getProperty ("randomStreams") != null;
 	}
 
 	/**
@@ -47,17 +163,18 @@ public class RandomGenerator {
 	 * @param  properties  the properties of the generator
 	 */
 	static public Random getForReport (Properties properties) {
-		if (rep != null)
-			return rep;
+		RandomGenerator g = current();
+		if (g.rep != null)
+			return g.rep;
 		if (properties.getProperty ("seed") != null)
 			try {
-				rep = new Random(Long.parseLong(properties.getProperty ("seed")));
+				g.rep = new LinearRandom(Long.parseLong(properties.getProperty ("seed")));
 			} catch (Exception ex) {
-				rep = new Random();
+				g.rep = new LinearRandom();
 			}
 		else
-			rep = new Random();
-		return rep;
+			g.rep = new LinearRandom();
+		return g.rep;
 	}
 
 	/**
@@ -65,17 +182,75 @@ public class RandomGenerator {
 	 * @param  properties  the properties of the generator
 	 */
 	static public Random getForVisualization (Properties properties) {
-		if (viz != null)
-			return viz;
+		RandomGenerator g = current();
+		if (g.viz != null)
+			return g.viz;
 		if (properties.getProperty ("seed") != null)
 			try {
-				viz = new Random(Long.parseLong(properties.getProperty ("seed")));
+				g.viz = new Random(Long.parseLong(properties.getProperty ("seed")));
 			} catch (Exception ex) {
-				viz = new Random();
+				g.viz = new Random();
 			}
 		else
-			viz = new Random();
-		return viz;
+			g.viz = new Random();
+		return g.viz;
+	}
+
+	/**
+	 * Reads the states of the generators for the data generation and for reporting
+	 * and of the root of the random streams written by writeState. A generator that
+	 * does not exist yet is created. The streams split before are not changed.
+	 * @param  in  the input
+	 * @exception IOException if an I/O error occurs
+	 */
+	static public void readState (DataInput in) throws IOException {
+		RandomGenerator g = current();
+		if (in.readBoolean()) {
+			if (!(g.r instanceof LinearRandom))
+				g.r = new LinearRandom();
+			((LinearRandom)g.r).readState(in);
+		}
+		if (in.readBoolean()) {
+			if (!(g.rep instanceof LinearRandom))
+				g.rep = new LinearRandom();
+			((LinearRandom)g.rep).readState(in);
+		}
+		if (in.readBoolean()) {
+			if (g.root == null)
+				g.root = new RandomStream(0);
+			g.root.readState(in);
+		}
+	}
+
+	/**
+	 * Sets the scope of the current thread. The scope is inherited by the threads
+	 * started afterwards by the current thread.
+	 * @param  g  the generators of the scope (null: the shared generators are used)
+	 */
+	static public void setScope (RandomGenerator g) {
+		if (g != null)
+			scope.set(g);
+		else
+			scope.remove();
+	}
+
+	/**
+	 * Writes the states of the generators for the data generation and for reporting
+	 * and of the root of the random streams.
+	 * @param  out  the output
+	 * @exception IOException if an I/O error occurs
+	 */
+	static public void writeState (DataOutput out) throws IOException {
+		RandomGenerator g = current();
+		out.writeBoolean(g.r instanceof LinearRandom);
+		if (g.r instanceof LinearRandom)
+			((LinearRandom)g.r).writeState(out);
+		out.writeBoolean(g.rep instanceof LinearRandom);
+		if (g.rep instanceof LinearRandom)
+			((LinearRandom)g.rep).writeState(out);
+		out.writeBoolean(g.root != null);
+		if (g.root != null)
+			g.root.writeState(out);
 	}
 
 }
@@ -0,0 +1,109 @@
+package generator2;
+
+import java.io.*;
+import java.util.Random;
+
+/**
+ * Splittable random generator (SplitMix64).
+ * A stream can be split into independent streams identified by keys, e.g. a purpose
+ * and an object id. Splitting does not change the state of the stream; therefore,
+ * the numbers of a sub-stream do not depend on the order in which other sub-streams
+ * are created or used. The class extends java.util.Random and can be used wherever
+ * such a generator is expected.
+ *
+ * @version 1.11	17.10.2026	serialVersionUID
+ * @version 1.10	17.10.2026	state can be written and restored
+ * @version 1.00	17.10.2026	first version
+ * @author FH Oldenburg
+ */
+public class RandomStream extends Random {
+
+	/**
+	 * Version of the serialized form (computed from the version 1.10).
+	 */
+	private static final long serialVersionUID = 7763930135279088565L;
+	/**
+	 * Increment of the state (golden ratio).
+	 */
+	private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+	/**
+	 * The state.
+	 */
+	private long state;
+
+/**
+ * RandomStream constructor.
+ * @param seed the seed
+ */
+public RandomStream (long seed) {
+	super(seed);
+}
+
+/**
+ * Mixes the bits of a value (variant 13 of the MurmurHash3 finalizer).
+ * @return mixed value
+ * @param z the value
+ */
+private static long mix64 (long z) {
+	z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+	z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+	return z ^ (z >>> 31);
+}
+
+/**
+ * Generates the next random bits.
+ * @return random bits
+ * @param bits number of bits (1..32)
+ */
+protected int next (int bits) {
+	return (int)(nextLong() >>> (64-bits));
+}
+
+/**
+ * Generates the next random long value.
+ * @return random value
+ */
+public long nextLong () {
+	state += GOLDEN_GAMMA;
+	return mix64(state);
+}
+
+/**
+ * Reads the state of the stream.
+ * @param in the input
+ * @exception IOException if an I/O error occurs
+ */
+public void readState (DataInput in) throws IOException {
+	state = in.readLong();
+}
+
+/**
+ * Sets the seed of the stream.
+ * @param seed the seed
+ */
+public synchronized void setSeed (long seed) {
+	super.setSeed(seed);
+	state = seed;
+}
+
+/**
+ * Creates the sub-stream identified by a key.
+ * The state of this stream is not changed.
+ * @return the sub-stream
+ * @param key the key
+ */
+public RandomStream split (long key) {
+	return new RandomStream(mix64(state ^ mix64(key+GOLDEN_GAMMA)));
+}
+
+/**
+ * Writes the state of the stream.
+ * @param out the output
+ * @exception IOException if an I/O error occurs
+ */
+public void writeState (DataOutput out) throws IOException {
+	out.writeLong(state);
+}
+
+}
@@ -1,10 +1,14 @@
 package generator2;
 
+import java.io.*;
 import java.util.*;
 
 /**
  * Class which decides about the re-routing.
  * 
+ * @version 2.30	17.10.2026	counters can be written and read (for checkpoints)
+ * @version 2.20	17.10.2026	time of the next re-routing by an event for the event-driven movement
+ * @version 2.10	17.10.2026	decisions with a given random generator for the parallel movement
  * @version 2.01	27.08.2003	use of RandomGenerator
  * @version 2.00	04.09.2001	revision for generator v2.0
  * @version 1.10	29.04.2000	time object added
@@ -83,13 +87,30 @@ public ReRoute (Properties properties, Time time, DataSpace ds) {
  * @param actTime actual speed of the edge
  */
 public boolean computeNewRouteByComparison (int lastTime, int actTime, int origSpeed, int actSpeed) {
+	return computeNewRouteByComparison (lastTime,actTime,origSpeed,actSpeed,random);
+}
+/**
+ * Decides whether a route should be recomputed or not because of the comparison
+ * of the speed on an edge using a given random generator.
+ * Called concurrently during the parallel movement (see MovingObjects.setNumOfThreads);
+ * subclasses changing the decision must override this method.
+ * @return recompute?
+ * @param lastTime time when the last route was computed
+ * @param actTime actual time
+ * @param origSpeed speed of the edge when the last route was computed
+ * @param actTime actual speed of the edge
+ * @param random the random generator
+ */
+public boolean computeNewRouteByComparison (int lastTime, int actTime, int origSpeed, int actSpeed, Random random) {
 	// implementation to be changed
 	if ((actTime-lastTime < timeLimit) || (actSpeed > origSpeed/speedThreshold))
 		return false;
 	int randNum = Math.abs(random.nextInt())%speedProbability;
 	if (randNum > 0)
 		return false;
-	numOfRoutesByComparison++;
+	synchronized (this) {
+		numOfRoutesByComparison++;
+	}
 	return true;
 }
 /**
@@ -99,15 +120,53 @@ public boolean computeNewRouteByComparison (int lastTime, int actTime, int origS
  * @param actTime actual time
  */
 public boolean computeNewRouteByEvent (int lastTime, int actTime) {
+	return computeNewRouteByEvent (lastTime,actTime,random);
+}
+/**
+ * Decides whether a route should be recomputed or not because of an event
+ * using a given random generator.
+ * Called concurrently during the parallel movement (see MovingObjects.setNumOfThreads);
+ * subclasses changing the decision must override this method.
+ * @return recompute?
+ * @param lastTime time when the last route was computed
+ * @param actTime actual time
+ * @param random the random generator
+ */
+public boolean computeNewRouteByEvent (int lastTime, int actTime, Random random) {
 	// implementation to be changed
 	if (actTime-lastTime < timeLimit)
 		return false;
 	int randNum = Math.abs(random.nextInt())%eventProbability;
 	if (randNum > 0)
 		return false;
-	numOfRoutesByEvent++;
+	synchronized (this) {
+		numOfRoutesByEvent++;
+	}
 	return true;
 }
+/**
+ * Returns the next time stamp at which a route is recomputed because of an event.
+ * Is used by the event-driven movement (see EventDrivenMovement) instead of calling
+ * computeNewRouteByEvent at each time stamp; the probability of the event is the same.
+ * Subclasses changing computeNewRouteByEvent must override this method.
+ * @return time stamp (Integer.MAX_VALUE: never)
+ * @param lastTime time when the last route was computed
+ * @param actTime actual time
+ * @param random the random generator
+ */
+public int computeTimeOfRouteByEvent (int lastTime, int actTime, Random random) {
+	int first = Math.max(actTime+1,lastTime+timeLimit);
+	int skipped = RandomGenerator.nextGeometric(random,1.0/eventProbability);
+	if (skipped >= Integer.MAX_VALUE-first)
+		return Integer.MAX_VALUE;
+	return first+skipped;
+}
+/**
+ * Counts a re-routing by an event announced by computeTimeOfRouteByEvent.
+ */
+protected synchronized void countRouteByEvent () {
+	numOfRoutesByEvent++;
+}
 /**
  * Returns how often has "computeNewRouteByComparison" returned "true".
  * @return number
@@ -122,4 +181,22 @@ public int getNumberOfRoutesByComparison() {
 public int getNumberOfRoutesByEvent() {
 	return numOfRoutesByEvent;
 }
+/**
+ * Reads the counters written by writeCheckpoint.
+ * @param  in  the input
+ * @exception IOException if an I/O error occurs
+ */
+public void readCheckpoint (DataInput in) throws IOException {
+	numOfRoutesByComparison = in.readInt();
+	numOfRoutesByEvent = in.readInt();
+}
+/**
+ * Writes the counters of the computed routes.
+ * @param  out  the output
+ * @exception IOException if an I/O error occurs
+ */
+public void writeCheckpoint (DataOutput out) throws IOException {
+	out.writeInt(numOfRoutesByComparison);
+	out.writeInt(numOfRoutesByEvent);
+}
 }
\ No newline at end of file
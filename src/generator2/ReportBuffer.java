@@ -0,0 +1,198 @@
+package generator2;
+
+import java.util.*;
+
+/**
+ * Reporter recording the reports of the moving objects during a parallel movement.
+ * Whether a position is reported is decided at once by the random generator
+ * of the moving object; the recorded reports are replayed to the actual reporter
+ * after all threads have finished the time stamp.
+ *
+ * @version 1.10	17.10.2026	random generator set by Reporter.setRandom
+ * @version 1.00	17.10.2026	first version
+ * @author FH Oldenburg
+ */
+class ReportBuffer extends Reporter {
+
+	/**
+	 * Type of a recorded moving object.
+	 */
+	private static final byte MOVE = 0;
+	/**
+	 * Type of a recorded edge.
+	 */
+	private static final byte EDGE = 1;
+	/**
+	 * Type of an object that has reached its destination.
+	 */
+	private static final byte END = 2;
+
+	/**
+	 * number of recorded reports
+	 */
+	private int num = 0;
+	/**
+	 * type of the reports
+	 */
+	private byte[] type = new byte[1024];
+	/**
+	 * time, x, y (or x1, y1), speed and distance of the reports
+	 */
+	private double[] dValue = new double[5*1024];
+	/**
+	 * object id and edge id of the reports
+	 */
+	private long[] lValue = new long[2*1024];
+	/**
+	 * report number, object class, next x, next y (or x2, y2), probability and edge class of the reports
+	 */
+	private int[] iValue = new int[6*1024];
+	/**
+	 * the objects that have reached their destination
+	 */
+	private Vector ended = new Vector();
+
+/**
+ * ReportBuffer constructor.
+ * @param  properties  properties of the generator
+ */
+ReportBuffer (Properties properties) {
+	super(properties,null);
+	this.visualize = false;
+}
+
+/**
+ * Adds a report and enlarges the arrays if necessary.
+ * @return index of the report
+ * @param  t  type of the report
+ */
+private int add (byte t) {
+	if (num == type.length) {
+		type = enlarge(type);
+		double[] d = new double[2*dValue.length];
+		System.arraycopy(dValue,0,d,0,dValue.length);
+		dValue = d;
+		long[] l = new long[2*lValue.length];
+		System.arraycopy(lValue,0,l,0,lValue.length);
+		lValue = l;
+		int[] i = new int[2*iValue.length];
+		System.arraycopy(iValue,0,i,0,iValue.length);
+		iValue = i;
+	}
+	type[num] = t;
+	return num++;
+}
+
+/**
+ * Doubles the size of a byte array.
+ * @return the new array
+ * @param  a  the old array
+ */
+private static byte[] enlarge (byte[] a) {
+	byte[] res = new byte[2*a.length];
+	System.arraycopy(a,0,res,0,a.length);
+	return res;
+}
+
+/**
+ * Records that a moving object has reached its destination.
+ * @param  obj  the moving object
+ */
+void reportEnd (MovingObject obj) {
+	int i = add(END);
+	iValue[6*i] = ended.size();
+	ended.addElement(obj);
+}
+
+/**
+ * Records the coordinates of a traversed edge.
+ * @param  time  time stamp (with fraction) when the edge is entried
+ * @param  objId  the id of the moving object id
+ * @param  edgeRepNum  the edge report number
+ * @param  objClass  object class
+ * @param  edgeId  the edge id
+ * @param  edgeClass  the edge class
+ * @param  x1  the first (= current) x-coordinate
+ * @param  y1  the first (= current) y-coordinate
+ * @param  speed  current speed
+ * @param  x2  the second (= later) x-coordinate
+ * @param  y2  the second (= later) y-coordinate
+ * @param  reportProbability (0..1000)
+ */
+public void reportEdge (double time, long objId, int edgeRepNum, int objClass, long edgeId, int edgeClass, int x1, int y1, double speed, int x2, int y2, int reportProbability) {
+	int i = add(EDGE);
+	dValue[5*i] = time;
+	dValue[5*i+1] = x1;
+	dValue[5*i+2] = y1;
+	dValue[5*i+3] = speed;
+	lValue[2*i] = objId;
+	lValue[2*i+1] = edgeId;
+	iValue[6*i] = edgeRepNum;
+	iValue[6*i+1] = objClass;
+	iValue[6*i+2] = x2;
+	iValue[6*i+3] = y2;
+	iValue[6*i+4] = reportProbability;
+	iValue[6*i+5] = edgeClass;
+}
+
+/**
+ * Decides by the random generator of the moving object whether the position is reported;
+ * a reported position is recorded.
+ * @return  new report number
+ * @param  time  time stamp
+ * @param  id  object id
+ * @param  repNum  report number
+ * @param  objClass  object class
+ * @param  x  x-coordinate
+ * @param  y  y-coordinate
+ * @param  speed  current speed
+ * @param  doneDist  the distance since the last reporting
+ * @param  nextNodeX  x-coordinate of the next node
+ * @param  nextNodeY  y-coordinate of the next node
+ * @param  reportProbability  value between (0..1000)
+ */
+public int reportMovingObject (int time, long id, int repNum, int objClass, double x, double y, double speed, double doneDist, int nextNodeX, int nextNodeY, int reportProbability) {
+	if (!isReported(reportProbability))
+		return repNum;
+	int i = add(MOVE);
+	dValue[5*i] = time;
+	dValue[5*i+1] = x;
+	dValue[5*i+2] = y;
+	dValue[5*i+3] = speed;
+	dValue[5*i+4] = doneDist;
+	lValue[2*i] = id;
+	iValue[6*i] = repNum;
+	iValue[6*i+1] = objClass;
+	iValue[6*i+2] = nextNodeX;
+	iValue[6*i+3] = nextNodeY;
+	iValue[6*i+4] = reportProbability;
+	return repNum+1;
+}
+
+/**
+ * Replays the recorded reports to a reporter and clears the buffer.
+ * The positions are replayed with the report probability 1000 because the
+ * decision has been made already. For the objects that have reached their
+ * destination, MovingObjects.finish is called.
+ * @param  reporter  the actual reporter
+ * @param  container  the container of the moving objects
+ */
+void replay (Reporter reporter, MovingObjects container) {
+	for (int i=0; i<num; i++) {
+		switch (type[i]) {
+			case MOVE:
+				reporter.reportMovingObject((int)dValue[5*i],lValue[2*i],iValue[6*i],iValue[6*i+1],dValue[5*i+1],dValue[5*i+2],dValue[5*i+3],dValue[5*i+4],iValue[6*i+2],iValue[6*i+3],1000);
+				break;
+			case EDGE:
+				reporter.reportEdge(dValue[5*i],lValue[2*i],iValue[6*i],iValue[6*i+1],lValue[2*i+1],iValue[6*i+5],(int)dValue[5*i+1],(int)dValue[5*i+2],dValue[5*i+3],iValue[6*i+2],iValue[6*i+3],iValue[6*i+4]);
+				break;
+			case END:
+				container.finish((MovingObject)ended.elementAt(iValue[6*i]));
+				break;
+		}
+	}
+	num = 0;
+	ended.removeAllElements();
+}
+
+}
@@ -1,6 +1,7 @@
 package generator2;
 
 import java.awt.Rectangle;
+import java.io.*;
 import java.util.*;
 
 import drawables.*;
@@ -9,6 +10,9 @@ import drawables.*;
  * Abstract class for reporting the computed moving objects.
  * Non-abstract subclasses are generator2.DefaultReporter and generator2.OracleReporter.
  *
+ * @version 2.40	17.10.2026	random generator of the moving object can be set (setRandom)
+ * @version 2.30	17.10.2026	counters can be written and read, output position (for checkpoints)
+ * @version 2.20	17.10.2026	report decision in advance (decideReport)
  * @version 2.10	27.08.2003	additional parameters reported, use of RandomGenerator
  * @version 2.00	06.07.2001	complete revision
  * @version 1.50	15.06.2001	report of external objects added
@@ -69,6 +73,10 @@ public class Reporter {
 	 * The random generator.
 	 */
 	protected Random random;
+	/**
+	 * Has the report of the next moving object already been decided by decideReport?
+	 */
+	private boolean decided = false;
 
 /**
  * Reporter constructor.
@@ -90,6 +98,55 @@ public Reporter (Properties properties, DrawableObjects objects) {
 public void close() {
 }
 
+/**
+ * Determines whether a position is reported. If the report has been decided
+ * by decideReport, the decision is used; otherwise, it is drawn.
+ * @return  is the position reported?
+ * @param  reportProbability  value between (0..1000)
+ */
+protected boolean isReported (int reportProbability) {
+	if (decided) {
+		decided = false;
+		return true;
+	}
+	if (reportProbability == 0)
+		return false;
+	return Math.abs(random.nextInt())%1000 < reportProbability;
+}
+
+/**
+ * Decides whether the next position of a moving object will be reported.
+ * If the result is true, the following call of reportMovingObject reports the position
+ * without deciding again; if it is false, reportMovingObject need not be called.
+ * The random generator is used as by reportMovingObject; therefore, the reported
+ * positions are the same whether the decision is made in advance or not.
+ * @return  will the position be reported?
+ * @param  reportProbability  value between (0..1000)
+ */
+public boolean decideReport (int reportProbability) {
+	decided = false;
+	decided = isReported(reportProbability);
+	return decided;
+}
+
+/**
+ * Sets the random generator deciding about the reports.
+ * @param  random  the random generator of the moving object
+ */
+void setRandom (Random random) {
+	this.random = random;
+}
+
+/**
+ * Returns the position in the output after flushing it. The output can be
+ * resumed at this position by the property "outputOffset" (see PositionReporter).
+ * The reporter writes no output; the position is 0.
+ * @return position or -1 if the output cannot be resumed
+ */
+public long getOutputPosition () {
+	return 0;
+}
+
 /**
  * Returns the number of reported edges.
  * @return number of reported edges
@@ -106,6 +163,16 @@ public int getNumberOfReportedPoints() {
 	return numOfPoints;
 }
 
+/**
+ * Reads the counters written by writeCheckpoint.
+ * @param  in  the input
+ * @exception IOException if an I/O error occurs
+ */
+public void readCheckpoint (DataInput in) throws IOException {
+	numOfPoints = in.readInt();
+	numOfEdges = in.readInt();
+}
+
 /**
  * Removes the reported moving objects.
  */
@@ -208,9 +275,7 @@ public void reportMovingExternalObject (int time, long id, int repNum, int objCl
  * @param  reportProbability  value between (0..1000)
  */
 public int reportMovingObject (int time, long id, int repNum, int objClass, double x, double y, double speed, double doneDist, int nextNodeX, int nextNodeY, int reportProbability) {
-	if (reportProbability == 0)
-		return repNum;
-	if (Math.abs(random.nextInt())%1000 >= reportProbability)
+	if (!isReported(reportProbability))
 		return repNum;
 	numOfPoints++;
 	repNum++;
@@ -279,4 +344,13 @@ protected void visualizeMovingObject (int x, int y, int objClass, int time) {
 	objects.addDrawable(symbol);
 }
 
+/**
+ * Writes the counters of the reporter.
+ * @param  out  the output
+ * @exception IOException if an I/O error occurs
+ */
+public void writeCheckpoint (DataOutput out) throws IOException {
+	out.writeInt(numOfPoints);
+	out.writeInt(numOfEdges);
+}
 }
\ No newline at end of file
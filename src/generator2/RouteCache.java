@@ -0,0 +1,221 @@
+package generator2;
+
+import java.util.*;
+import routing.*;
+
+/**
+ * Bounded cache for computed routes.
+ * A route is identified by its starting node, its destination node, the object class
+ * and the weight epoch. The epoch is advanced by the container of the moving objects
+ * whenever the weights of the edges change in a way that may affect the routes;
+ * entries of older epochs are never found again and are evicted first.
+ * The least recently used entry is removed if the maximum size is exceeded.
+ * The size is given by the property "routeCacheSize"; 0 (the default) switches the cache off.
+ * The property "routeCacheTolerance" gives the number of weight changes that are
+ * ignored before the epoch is advanced; with the default 0, a cached route is identical
+ * to a recomputed one.
+ * The cache may be used by several threads.
+ *
+ * @version 1.20	17.10.2026	get and put synchronized
+ * @version 1.10	17.10.2026	packed routes stored without copying
+ * @version 1.00	17.10.2026	first version
+ * @author FH Oldenburg
+ */
+public class RouteCache {
+
+	/**
+	 * Key of a cached route.
+	 */
+	private static class Key {
+		/**
+		 * index of the starting node
+		 */
+		private int start;
+		/**
+		 * index of the destination node
+		 */
+		private int dest;
+		/**
+		 * object class
+		 */
+		private int objClass;
+		/**
+		 * weight epoch
+		 */
+		private int epoch;
+		/**
+		 * Key constructor.
+		 * @param start index of the starting node
+		 * @param dest index of the destination node
+		 * @param objClass object class
+		 * @param epoch weight epoch
+		 */
+		private Key (int start, int dest, int objClass, int epoch) {
+			this.start = start;
+			this.dest = dest;
+			this.objClass = objClass;
+			this.epoch = epoch;
+		}
+		/**
+		 * Compares two keys.
+		 * @return equal?
+		 * @param obj the other key
+		 */
+		public boolean equals (Object obj) {
+			if (!(obj instanceof Key))
+				return false;
+			Key key = (Key)obj;
+			return (start == key.start) && (dest == key.dest) && (objClass == key.objClass) && (epoch == key.epoch);
+		}
+		/**
+		 * Computes the hash code of the key.
+		 * @return hash code
+		 */
+		public int hashCode () {
+			int h = start*0x9E3779B9 + dest;
+			h = h*31 + objClass;
+			return h*31 + epoch;
+		}
+	}
+
+	/**
+	 * Default maximum number of cached routes.
+	 */
+	public static final int DEFAULT_SIZE = 0;
+
+	/**
+	 * maximum number of cached routes
+	 */
+	private int maxSize = DEFAULT_SIZE;
+	/**
+	 * number of weight changes ignored before the epoch is advanced
+	 */
+	private int tolerance = 0;
+	/**
+	 * number of weight changes since the last epoch
+	 */
+	private int numOfChanges = 0;
+	/**
+	 * the cached routes in access order
+	 */
+	private LinkedHashMap routes = null;
+	/**
+	 * current weight epoch
+	 */
+	private int epoch = 0;
+	/**
+	 * number of hits
+	 */
+	private int numOfHits = 0;
+	/**
+	 * number of misses
+	 */
+	private int numOfMisses = 0;
+	/**
+	 * number of evicted routes
+	 */
+	private int numOfEvictions = 0;
+
+/**
+ * RouteCache constructor.
+ * @param properties properties of the generator
+ */
+public RouteCache (Properties properties) {
+	this (DataGenerator.getProperty(properties,"routeCacheSize",DEFAULT_SIZE));
+	tolerance = DataGenerator.getProperty(properties,"routeCacheTolerance",0);
+}
+/**
+ * RouteCache constructor.
+ * @param maxSize maximum number of cached routes (0: no caching)
+ */
+public RouteCache (int maxSize) {
+	this.maxSize = maxSize;
+	routes = new LinkedHashMap (16,0.75f,true) {
+		protected boolean removeEldestEntry (Map.Entry eldest) {
+			if (size() <= RouteCache.this.maxSize)
+				return false;
+			numOfEvictions++;
+			return true;
+		}
+	};
+}
+/**
+ * Advances the weight epoch. The routes cached before are not returned anymore.
+ */
+public void advanceEpoch () {
+	epoch++;
+	numOfChanges = 0;
+}
+/**
+ * Announces a change of the weights.
+ * The epoch is advanced if the number of changes exceeds the tolerance.
+ */
+public void announceWeightChange () {
+	if (++numOfChanges > tolerance)
+		advanceEpoch();
+}
+/**
+ * Returns a cached route computed in the current epoch.
+ * @return the route or null if not cached
+ * @param start starting node
+ * @param dest destination node
+ * @param objClass object class
+ */
+public synchronized Route get (Node start, Node dest, int objClass) {
+	if (maxSize <= 0)
+		return null;
+	Route route = (Route)routes.get(new Key(start.getIndex(),dest.getIndex(),objClass,epoch));
+	if (route == null) {
+		numOfMisses++;
+		return null;
+	}
+	numOfHits++;
+	return route;
+}
+/**
+ * Returns the current weight epoch.
+ * @return epoch
+ */
+public int getEpoch () {
+	return epoch;
+}
+/**
+ * Returns the number of evicted routes.
+ * @return number of evictions
+ */
+public int getNumberOfEvictions () {
+	return numOfEvictions;
+}
+/**
+ * Returns the number of successful look-ups.
+ * @return number of hits
+ */
+public int getNumberOfHits () {
+	return numOfHits;
+}
+/**
+ * Returns the number of unsuccessful look-ups.
+ * @return number of misses
+ */
+public int getNumberOfMisses () {
+	return numOfMisses;
+}
+/**
+ * Returns the number of currently cached routes.
+ * @return size
+ */
+public int getSize () {
+	return routes.size();
+}
+/**
+ * Stores a route computed in the current epoch.
+ * @param start starting node
+ * @param dest destination node
+ * @param objClass object class
+ * @param route the route
+ */
+public synchronized void put (Node start, Node dest, int objClass, Route route) {
+	if ((maxSize > 0) && (route != null))
+		routes.put(new Key(start.getIndex(),dest.getIndex(),objClass,epoch),route);
+}
+}
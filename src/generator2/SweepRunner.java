@@ -0,0 +1,399 @@
+package generator2;
+
+import java.io.*;
+import java.util.*;
+import routing.*;
+
+/**
+ * Runner computing several datasets on one network (parameter sweep).
+ * The network is loaded once and shared by the runs; each run is computed by an own
+ * GenerationEngine with its own usage of the edges, object generator, rerouting decider,
+ * reporter and random generators (see GenerationEngine.setSharedNetwork and
+ * RandomGenerator.setScope). Therefore, the dataset of a run is identical to the dataset
+ * computed by GenerationEngine with the same properties.
+ * The runs are computed concurrently. The number of concurrent runs is limited by the
+ * property "sweepThreads" (default: number of processors) and by a memory budget given in
+ * MB by the property "sweepMemory" (default: 3/4 of the free memory after loading the network).
+ * A run is only started if its estimated memory (see estimateMemory) fits into the rest of
+ * the budget; a run exceeding the whole budget is computed alone.
+ * <p>
+ * The runner can be started as Java application:
+ * <pre>java generator2.SweepRunner sweepfile [network]</pre>
+ * where network is the base name of the network files (default: property "urlne").
+ * The properties of the sweep file without prefix are valid for all runs; the property
+ * "run.n.key" sets the property "key" of the run n (n = 1, 2, ...). Each run needs its own
+ * output file; the checkpoint file of a run with checkpoints is "generator.n.chk" by default.
+ *
+ * @version 1.21	17.10.2026	runs kept by arrays
+ * @version 1.20	17.10.2026	table of the weights considered
+ * @version 1.10	17.10.2026	decreases of the edges by external objects considered
+ * @version 1.00	17.10.2026	first version
+ * @author FH Oldenburg
+ */
+public class SweepRunner {
+
+	/**
+	 * Prefix of the properties of a single run.
+	 */
+	public static final String RUN_PREFIX = "run.";
+	/**
+	 * Bytes of a MB.
+	 */
+	private static final long MB = 1024*1024;
+	/**
+	 * Estimated memory of a moving or external object including its route in bytes.
+	 */
+	private static final int BYTES_PER_OBJECT = 512;
+	/**
+	 * Estimated memory of a routing context per node in bytes.
+	 */
+	private static final int BYTES_PER_NODE = 128;
+	/**
+	 * Estimated memory of the usage and the usage deltas per edge in bytes.
+	 */
+	private static final int BYTES_PER_EDGE = 8;
+	/**
+	 * Estimated memory of a metric of the contraction hierarchy per edge in bytes.
+	 */
+	private static final int BYTES_PER_METRIC_EDGE = 48;
+	/**
+	 * Estimated memory of the grid and the decrease by external objects per edge in bytes.
+	 */
+	private static final int BYTES_PER_DECREASE_EDGE = 24;
+	/**
+	 * Estimated memory of the counters per edge and class of external objects in bytes.
+	 */
+	private static final int BYTES_PER_COUNTER = 4;
+	/**
+	 * Memory of a weight in the table per edge and object class in bytes.
+	 */
+	private static final int BYTES_PER_WEIGHT = 8;
+	/**
+	 * Estimated memory of a cached route in bytes.
+	 */
+	private static final int BYTES_PER_ROUTE = 256;
+
+	/**
+	 * the shared network
+	 */
+	private Network net = null;
+	/**
+	 * maximum number of concurrent runs
+	 */
+	private int maxNumOfRuns = 1;
+	/**
+	 * the memory budget in bytes
+	 */
+	private long memoryBudget = 0;
+	/**
+	 * the names of the runs
+	 */
+	private String[] names = new String[16];
+	/**
+	 * the engines of the runs (null after the computation of the run)
+	 */
+	private GenerationEngine[] engines = new GenerationEngine[16];
+	/**
+	 * number of runs
+	 */
+	private int numOfRuns = 0;
+	/**
+	 * the estimated memory of the runs in bytes
+	 */
+	private long[] estimate = null;
+	/**
+	 * index of the next run to be started
+	 */
+	private int nextRun = 0;
+	/**
+	 * number of active runs
+	 */
+	private int numOfActiveRuns = 0;
+	/**
+	 * estimated memory of the active runs in bytes
+	 */
+	private long reservedMemory = 0;
+
+/**
+ * SweepRunner constructor.
+ * @param net the shared network
+ * @param maxNumOfRuns maximum number of concurrent runs
+ * @param memoryBudget the memory budget of the runs in bytes
+ */
+public SweepRunner (Network net, int maxNumOfRuns, long memoryBudget) {
+	this.net = net;
+	this.maxNumOfRuns = Math.max(maxNumOfRuns,1);
+	this.memoryBudget = memoryBudget;
+}
+
+/**
+ * Adds a run.
+ * @param name the name of the run
+ * @param properties the properties of the run
+ * @exception IllegalArgumentException if the output or checkpoint file is used by another run
+ */
+public void addRun (String name, Properties properties) {
+	for (int i=0; i<numOfRuns; i++) {
+		Properties other = engines[i].properties;
+		if (isSameFile(properties,other,"outputFile"))
+			throw new IllegalArgumentException(name+" and "+names[i]+" use the same output file");
+		if ((properties.getProperty("checkpointInterval") != null) && (other.getProperty("checkpointInterval") != null) && isSameFile(properties,other,"checkpointFile"))
+			throw new IllegalArgumentException(name+" and "+names[i]+" use the same checkpoint file");
+	}
+	if (numOfRuns == engines.length) {
+		String[] n = new String[2*numOfRuns];
+		System.arraycopy(names,0,n,0,numOfRuns);
+		names = n;
+		GenerationEngine[] e = new GenerationEngine[2*numOfRuns];
+		System.arraycopy(engines,0,e,0,numOfRuns);
+		engines = e;
+	}
+	names[numOfRuns] = name;
+	engines[numOfRuns++] = createEngine(name,properties);
+}
+
+/**
+ * Adds the runs of a sweep. The properties without prefix are valid for all runs;
+ * the property "run.n.key" sets the property "key" of the run n. If there is no
+ * property with prefix, a single run is added.
+ * @param sweep the properties of the sweep
+ */
+public void addRuns (Properties sweep) {
+	Properties common = new Properties();
+	// the properties of the runs sorted by their numbers
+	int[] runNumber = new int[16];
+	Properties[] runProperties = new Properties[16];
+	int num = 0;
+	Object[] keys = sweep.keySet().toArray();
+	for (int k=0; k<keys.length; k++) {
+		String key = (String)keys[k];
+		String value = sweep.getProperty(key);
+		int dot = key.startsWith(RUN_PREFIX) ? key.indexOf('.',RUN_PREFIX.length()) : -1;
+		if (dot > 0)
+			try {
+				int run = Integer.parseInt(key.substring(RUN_PREFIX.length(),dot));
+				int r = 0;
+				while ((r < num) && (runNumber[r] < run))
+					r++;
+				if ((r == num) || (runNumber[r] != run)) {
+					if (num == runNumber.length) {
+						int[] n = new int[2*num];
+						System.arraycopy(runNumber,0,n,0,num);
+						runNumber = n;
+						Properties[] p = new Properties[2*num];
+						System.arraycopy(runProperties,0,p,0,num);
+						runProperties = p;
+					}
+					System.arraycopy(runNumber,r,runNumber,r+1,num-r);
+					System.arraycopy(runProperties,r,runProperties,r+1,num-r);
+					runNumber[r] = run;
+					runProperties[r] = new Properties(common);
+					num++;
+				}
+				runProperties[r].setProperty(key.substring(dot+1),value);
+				continue;
+			}
+			catch (NumberFormatException ex) {
+			}
+		common.setProperty(key,value);
+	}
+	if (num == 0) {
+		runNumber[0] = 1;
+		runProperties[0] = new Properties(common);
+		num = 1;
+	}
+	for (int r=0; r<num; r++) {
+		int n = runNumber[r];
+		Properties properties = runProperties[r];
+		if (n < 1)
+			continue;
+		if ((properties.getProperty("checkpointInterval") != null) && (properties.getProperty("checkpointFile") == null))
+			properties.setProperty("checkpointFile","generator."+n+".chk");
+		addRun("run "+n,properties);
+	}
+}
+
+/**
+ * Computes all runs. The method returns after the last run has finished.
+ */
+public void compute () {
+	estimate = new long[numOfRuns];
+	for (int i=0; i<numOfRuns; i++)
+		estimate[i] = estimateMemory(engines[i]);
+	nextRun = 0;
+	// the compact graph is built before the runs start
+	net.getCompactGraph();
+	Thread[] threads = new Thread[Math.min(maxNumOfRuns,numOfRuns)];
+	for (int t=0; t<threads.length; t++) {
+		threads[t] = new Thread() {
+			public void run () {
+				computeRuns();
+			}
+		};
+		threads[t].start();
+	}
+	for (int t=0; t<threads.length; t++)
+		try {
+			threads[t].join();
+		}
+		catch (InterruptedException ex) {
+			System.err.println("SweepRunner.compute: "+ex);
+		}
+}
+
+/**
+ * Computes runs until all runs have been started. Is called by each thread of the runner.
+ * A run gets its own random generators and waits until its estimated memory fits
+ * into the budget.
+ */
+private void computeRuns () {
+	while (true) {
+		int run = 0;
+		long memory = 0;
+		synchronized (this) {
+			if (nextRun >= numOfRuns)
+				return;
+			run = nextRun++;
+			memory = estimate[run];
+			while ((numOfActiveRuns > 0) && (reservedMemory+memory > memoryBudget))
+				try {
+					wait();
+				}
+				catch (InterruptedException ex) {
+				}
+			numOfActiveRuns++;
+			reservedMemory += memory;
+		}
+		String name = names[run];
+		System.err.println(name+" started (estimated memory: "+(memory/MB)+" MB)");
+		long startTime = System.currentTimeMillis();
+		RandomGenerator.setScope(new RandomGenerator());
+		try {
+			engines[run].compute();
+			System.err.println(name+" finished after "+(System.currentTimeMillis()-startTime)+" ms");
+		}
+		catch (RuntimeException ex) {
+			System.err.println(name+" failed: "+ex);
+		}
+		finally {
+			RandomGenerator.setScope(null);
+			engines[run] = null;
+			synchronized (this) {
+				numOfActiveRuns--;
+				reservedMemory -= memory;
+				notifyAll();
+			}
+		}
+	}
+}
+
+/**
+ * Creates the engine of a run. The engine shares the network and reports its progress.
+ * @return the engine
+ * @param name the name of the run
+ * @param properties the properties of the run
+ */
+protected GenerationEngine createEngine (final String name, Properties properties) {
+	GenerationEngine engine = new GenerationEngine (properties,net) {
+		protected void reportProgress (int time) {
+			if (time % 100 == 0)
+				System.err.println(name+": time "+time);
+		}
+	};
+	engine.setSharedNetwork(true);
+	return engine;
+}
+
+/**
+ * Estimates the memory required by a run in addition to the shared network.
+ * The estimation can be replaced by the property "runMemory" (in MB). Otherwise, it
+ * considers all objects created during the run (i.e. an upper bound of the existing
+ * objects), the routing contexts and usage deltas of the threads, the metrics of the
+ * contraction hierarchy, the decreases of the edges by external objects, the table of
+ * the weights and the route cache.
+ * @return estimated memory in bytes
+ * @param engine the engine of the run
+ */
+protected long estimateMemory (GenerationEngine engine) {
+	Properties properties = engine.properties;
+	int runMemory = DataGenerator.getProperty(properties,"runMemory",0);
+	if (runMemory > 0)
+		return runMemory*MB;
+	long numOfObjects = engine.getNumOfObjAtBeginning()+(long)engine.getNumOfObjPerTime()*engine.getMaxTime();
+	long numOfExtObjects = engine.getNumOfExtObjAtBeginning()+(long)engine.getNumOfExtObjPerTime()*engine.getMaxTime();
+	int numOfContexts = 1+Math.max(DataGenerator.getProperty(properties,"threads",0),0);
+	long memory = (numOfObjects+numOfExtObjects)*BYTES_PER_OBJECT;
+	memory += (long)net.getNodes().numOfNodes()*BYTES_PER_NODE*numOfContexts;
+	memory += (long)net.getEdges().numOfEdges()*BYTES_PER_EDGE*numOfContexts;
+	if (engine.getCustomizationInterval() > 0)
+		memory += (long)net.getEdges().numOfEdges()*BYTES_PER_METRIC_EDGE*engine.getNumOfObjClasses();
+	if (numOfExtObjects > 0)
+		memory += (long)net.getEdges().numOfEdges()*(BYTES_PER_DECREASE_EDGE+BYTES_PER_COUNTER*engine.getNumOfExtObjClasses());
+	if (properties.getProperty("weightTables") != null)
+		memory += (long)net.getEdges().numOfEdges()*BYTES_PER_WEIGHT*engine.getNumOfObjClasses();
+	memory += (long)Math.max(DataGenerator.getProperty(properties,"routeCacheSize",RouteCache.DEFAULT_SIZE),0)*BYTES_PER_ROUTE;
+	return memory;
+}
+
+/**
+ * Tests whether two runs use the same file.
+ * @return same file?
+ * @param p1 the properties of the first run
+ * @param p2 the properties of the second run
+ * @param key the key of the file name
+ */
+private static boolean isSameFile (Properties p1, Properties p2, String key) {
+	String name1 = p1.getProperty(key);
+	String name2 = p2.getProperty(key);
+	if ((name1 == null) || (name2 == null))
+		return false;
+	return new File(name1).getAbsoluteFile().equals(new File(name2).getAbsoluteFile());
+}
+
+/**
+ * main entrypoint - computes the runs of a sweep without user interface.
+ * @param args args[0] = name of the sweep file, args[1] = base name of the network files (optional)
+ */
+public static void main (String[] args) {
+	if (args.length < 1) {
+		System.err.println("usage: java generator2.SweepRunner sweepfile [network]");
+		System.exit(DataGenerator.PROPERTY_FILE_ERROR);
+	}
+	// read properties
+	Properties sweep = new Properties();
+	try {
+		InputStream in = new FileInputStream(args[0]);
+		sweep.load(in);
+		in.close();
+	}
+	catch (IOException ioex) {
+		System.err.println("SweepRunner.main: "+ioex);
+		System.exit(DataGenerator.PROPERTY_FILE_ERROR);
+	}
+	// read network
+	String filename = args.length > 1 ? args[1] : sweep.getProperty("urlne");
+	if (filename == null) {
+		System.err.println("no network file determined");
+		System.exit(DataGenerator.NETWORKFILE_ERROR);
+	}
+	Network net = GenerationEngine.loadNetwork(filename);
+	if (net == null)
+		System.exit(DataGenerator.NETWORKFILE_ERROR);
+	// the budget is derived from the memory that is free after loading the network
+	Runtime rt = Runtime.getRuntime();
+	System.gc();
+	long free = rt.maxMemory()-(rt.totalMemory()-rt.freeMemory());
+	long budget = DataGenerator.getProperty(sweep,"sweepMemory",(int)(free/4*3/MB))*MB;
+	SweepRunner runner = new SweepRunner (net,DataGenerator.getProperty(sweep,"sweepThreads",rt.availableProcessors()),budget);
+	try {
+		runner.addRuns(sweep);
+	}
+	catch (IllegalArgumentException ex) {
+		System.err.println("SweepRunner.main: "+ex.getMessage());
+		System.exit(DataGenerator.PROPERTY_FILE_ERROR);
+	}
+	// compute
+	runner.compute();
+}
+
+}
@@ -5,6 +5,10 @@ import routing.*;
 /**
  * Class for weighting the edges.
  * 
+ * @version	2.40	17.10.2026	weights can be materialized in a table per object class
+ * @version	2.30	17.10.2026	usage of the edges given by an EdgeUsage
+ * @version	2.20	17.10.2026	getExternalObjects added
+ * @version	2.10	17.10.2026	getMinimumWeight added
  * @version	2.00	16.08.2003	long becomes double
  * @version	1.20	30.04.2000	support of external objects
  * @version	1.10	02.03.2000	distances as long
@@ -25,6 +29,14 @@ public class WeightManagerForDataGenerator implements WeightManager {
 	 * description of the object classes
 	 */
 	private ExternalObjects extObjects = null;
+	/**
+	 * usage of the edges (null: usage stored in the edges)
+	 */
+	private EdgeUsage usage = null;
+	/**
+	 * weights of the edges per object class indexed by the dense edge index (null: weights computed on demand)
+	 */
+	private double[][] table = null;
 	/**
 	 * class of the actual moving object
 	 */
@@ -41,6 +53,17 @@ public WeightManagerForDataGenerator (EdgeClasses edgeClasses, ObjectClasses obj
 	this.objClasses = objClasses;
 	this.extObjects = extObjects;
 }
+/**
+ * Creates the table of the weights of all edges for all object classes.
+ * Afterwards, the weights are read from the table; the table must be refreshed
+ * by updateWeights for each edge whose usage or decrease by external objects changes.
+ * @param edges the edges of the network
+ */
+public void createWeightTable (Edges edges) {
+	table = new double[objClasses.getNumber()][edges.numOfEdges()];
+	for (int e=0; e<edges.numOfEdges(); e++)
+		updateWeights(edges.getEdge(e));
+}
 /**
  * Computes the weight for a distance assuming edge class 0.
  * The class of the actual moving object must be set before by setActualObjectClass!
@@ -70,6 +93,36 @@ public double computeWeight (double distance, double speed) {
 public EdgeClasses getEdgeClasses () {
 	return edgeClasses;
 }
+/**
+ * Returns the usage of the edges.
+ * @return usage or null if the usage is stored in the edges
+ */
+public EdgeUsage getEdgeUsage () {
+	return usage;
+}
+/**
+ * Returns the container of the external objects.
+ * @return external objects (may be null)
+ */
+public ExternalObjects getExternalObjects () {
+	return extObjects;
+}
+/**
+ * Returns the smallest weight the edge may get.
+ * Neither the usage nor external objects can make the edge faster than its maximum speed,
+ * and no object is faster than the objects of class 0.
+ * @return minimum weight
+ * @param edge the edge
+ * @param forwards forwards direction?
+ */
+public double getMinimumWeight (Edge edge, boolean forwards) {
+	double objWeight = computeWeight(edge.getLength(),objClasses.getMaxSpeed(0));
+	double edgeWeight = computeWeight(edge.getLength(),edgeClasses.getMaxSpeed(edge.getEdgeClass()));
+	if (edgeWeight > objWeight)
+		return edgeWeight;
+	else
+		return objWeight;
+}
 /**
  * Returns the description of the object classes.
  * @return description of the object classes
@@ -84,19 +137,22 @@ public ObjectClasses getObjectClasses () {
  * @param edge the edge
  */
 public double getWeight(Edge edge) {
-	return getWeight(edge,edge.getLength());
+	if ((table != null) && (actObjClass >= 0) && (actObjClass < table.length))
+		return table[actObjClass][edge.getIndex()];
+	return getWeight(edge,edge.getLength(),actObjClass);
 }
 /**
  * Computes the weight of the edge considering the usage, external
  * objects and the maximum object speed.
- * The class of the actual moving object must be set before by setActualObjectClass!
  * @return directed weight
  * @param  edge  the edge
  * @param  edgeLength  the length of the edge
+ * @param  objClass  the object class
  */
-private double getWeight (Edge edge, double edgeLength) {
-	double objWeight = computeWeight(edgeLength,objClasses.getMaxSpeed(actObjClass));
-	double edgeWeight = computeWeight(edgeLength,edgeClasses.deceleratedSpeed(edge.getEdgeClass(),edge.getUsage()));
+private double getWeight (Edge edge, double edgeLength, int objClass) {
+	double objWeight = computeWeight(edgeLength,objClasses.getMaxSpeed(objClass));
+	int edgeUsage = (usage != null) ? usage.get(edge) : edge.getUsage();
+	double edgeWeight = computeWeight(edgeLength,edgeClasses.deceleratedSpeed(edge.getEdgeClass(),edgeUsage));
 	if (extObjects != null) {
 		int decFactor = extObjects.computeDecrease(edge);
 		if (decFactor < 100) {
@@ -118,7 +174,14 @@ private double getWeight (Edge edge, double edgeLength) {
  * @param forwards forwards direction?
  */
 public double getWeight(Edge edge, boolean forwards) {
-	return getWeight(edge,edge.getLength());
+	return getWeight(edge);
+}
+/**
+ * Returns the table of the weights.
+ * @return the table or null if the weights are computed on demand
+ */
+public double[][] getWeightTable () {
+	return table;
 }
 /**
  * Sets the class of the actual moving object.
@@ -127,4 +190,29 @@ public double getWeight(Edge edge, boolean forwards) {
 public void setActualObjectClass (int actObjClass) {
 	this.actObjClass = actObjClass;
 }
+/**
+ * Sets the usage of the edges considered by the weights.
+ * @param usage usage (null: usage stored in the edges)
+ */
+public void setEdgeUsage (EdgeUsage usage) {
+	this.usage = usage;
+}
+/**
+ * Sets the table of the weights, e.g. the table of another weight manager of the same generation.
+ * @param table the table (null: weights computed on demand)
+ */
+public void setWeightTable (double[][] table) {
+	this.table = table;
+}
+/**
+ * Recomputes the weights of an edge for all object classes in the table.
+ * @param edge the edge
+ */
+public void updateWeights (Edge edge) {
+	if (table == null)
+		return;
+	int i = edge.getIndex();
+	for (int c=0; c<table.length; c++)
+		table[c][i] = getWeight(edge,edge.getLength(),c);
+}
 }
\ No newline at end of file
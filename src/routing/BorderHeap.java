@@ -4,7 +4,10 @@ import util.CPUTimer;
 
 /**
  * A heap for border elements.
+ * Network uses IndexedHeap instead; this heap is kept for comparison (see HeapBenchmark).
  *
+ * @version	2.20	17.10.2026	heap positions stored as int in the heap; replaced by IndexedHeap in Network
+ * @version	2.10	17.10.2026	distances are taken from a RoutingContext
  * @version	2.00	21.08.2003	completely revised
  * @version	1.01	09.03.2000	distance error corrected
  * @version	1.00	01.02.2000	first version
@@ -38,6 +41,18 @@ public class BorderHeap {
 	 * The number of entries.
 	 */
 	private int num = 0;
+	/**
+	 * The routing context holding the distances and heap positions.
+	 */
+	private RoutingContext ctx = null;
+	/**
+	 * Positions of the nodes in the heap concerning path 1 and 2.
+	 */
+	private int[][] heapPos = new int[2][0];
+	/**
+	 * Are the operations measured by the (static) timers?
+	 */
+	private boolean timed = false;
 	/**
 	 * Fetch timer.
 	 */
@@ -53,8 +68,12 @@ public class BorderHeap {
 
 /**
  * Creates a new heap.
+ * @param  ctx  the routing context holding the distances and heap positions
+ * @param  timed  should the operations be measured by the static timers?
  */
-public BorderHeap () {
+public BorderHeap (RoutingContext ctx, boolean timed) {
+	this.ctx = ctx;
+	this.timed = timed;
 }
 
 /**
@@ -63,13 +82,15 @@ public BorderHeap () {
  * @param  way  the direction of the distance
  */
 public void adaptToDecreasedDistance (Node node, int way) {
-	changeTimer.start();
-	int k = node.heapPos[way-1];
+	if (timed)
+		changeTimer.start();
+	int k = heapPos[way-1][node.index];
 	if ((k < 1) || (k > num))
 		System.err.println("adaptToDecreasedDistance: heapPos "+0+"wrong!");
 	else
 		upheap(k);
-	changeTimer.stop();
+	if (timed)
+		changeTimer.stop();
 }
 
 /**
@@ -80,14 +101,14 @@ private void downheap (int k) {
 	if (k > num)
 		return;
 	BorderElement v = elements[k];
-	double vValue = v.dist+v.node.getDistanceOfWay(v.way);
+	double vValue = v.dist+ctx.getDistanceOfWay(v.node,v.way);
 	while (k <= num/2) {
 		int j = k+k;
 		BorderElement aj = elements[j];
-		double ajValue = aj.dist+aj.node.getDistanceOfWay(aj.way);
+		double ajValue = aj.dist+ctx.getDistanceOfWay(aj.node,aj.way);
 		if (j < num) {
 			BorderElement aj1 = elements[j+1];
-			double aj1Value = aj1.dist+aj1.node.getDistanceOfWay(aj1.way);
+			double aj1Value = aj1.dist+ctx.getDistanceOfWay(aj1.node,aj1.way);
 			if (ajValue > aj1Value) {
 				j++;
 				aj = aj1;
@@ -111,12 +132,14 @@ private void downheap (int k) {
 public boolean fetchFirst () {
 	if (num == 0)
 		return false;
-	fetchTimer.start();
+	if (timed)
+		fetchTimer.start();
 	retElement = elements[1];
 	elements[1] = elements[num];
 	num--;
 	downheap(1);
-	fetchTimer.stop();
+	if (timed)
+		fetchTimer.stop();
 	return true;
 }
 
@@ -126,7 +149,8 @@ public boolean fetchFirst () {
  */
 public void insert (Node node, int way, double distance) {
 	// enlarge Heap if necessary
-	insertTimer.start();
+	if (timed)
+		insertTimer.start();
 	if (num+1 == elements.length) {
 		BorderElement newElements[] = new BorderElement[elements.length*2];
 		for (int i=0; i<elements.length; i++)
@@ -137,7 +161,8 @@ public void insert (Node node, int way, double distance) {
 	num++;
 	elements[num] = new BorderElement(node,way,distance);
 	upheap (num);
-	insertTimer.stop();
+	if (timed)
+		insertTimer.stop();
 }
 
 /**
@@ -154,7 +179,7 @@ public void reset () {
  * @return  the distance
  */
 public double returnDistance () {
-	return retElement.dist+retElement.node.getDistanceOfWay(retElement.way);
+	return retElement.dist+ctx.getDistanceOfWay(retElement.node,retElement.way);
 }
 
 /**
@@ -178,7 +203,15 @@ public int returnWay () {
  * @param  k  position in the heap
  */
 private void setHeapPos (int k) {
-	elements[k].node.heapPos[elements[k].way-1] = (short)k;
+	int[] pos = heapPos[elements[k].way-1];
+	int index = elements[k].node.index;
+	if (index >= pos.length) {
+		int[] newPos = new int[Math.max(index+1,2*pos.length)];
+		System.arraycopy(pos,0,newPos,0,pos.length);
+		pos = newPos;
+		heapPos[elements[k].way-1] = pos;
+	}
+	pos[index] = k;
 }
 
 /**
@@ -187,10 +220,10 @@ private void setHeapPos (int k) {
  */
 private void upheap (int k) {
 	BorderElement v = elements[k];
-	double vValue = v.dist+v.node.getDistanceOfWay(v.way);
+	double vValue = v.dist+ctx.getDistanceOfWay(v.node,v.way);
 	while (k > 1) {
 		BorderElement a = elements[k/2];
-		double aValue = a.dist+a.node.getDistanceOfWay(v.way);
+		double aValue = a.dist+ctx.getDistanceOfWay(a.node,a.way);
 		if (aValue <= vValue)
 			break;
 		elements[k] = elements[k/2];
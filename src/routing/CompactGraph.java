@@ -0,0 +1,388 @@
+package routing;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Compact representation of a network in compressed-sparse-row format.
+ * The arcs of node i are stored at the positions firstArc[i] to firstArc[i+1]-1
+ * in the same order as the edges of the node. Nodes and edges are numbered by
+ * their dense indices. The graph is a read-only snapshot; it is rebuilt by
+ * Network.getCompactGraph after the nodes or edges have been modified.
+ * The graph also stores the connected component of each node. Since the arcs of
+ * an edge exist at both of its nodes and the route searches traverse the arcs in
+ * both directions, the connected components are also the strongly connected ones:
+ * a route between two nodes exists exactly if they belong to the same component.
+ *
+ * @version	1.20	17.10.2026	stored in and read from network snapshots
+ * @version	1.10	17.10.2026	connected components added
+ * @version	1.00	17.10.2026	first version
+ * @author FH Oldenburg
+ */
+public class CompactGraph {
+
+	/**
+	 * Number of nodes.
+	 */
+	protected int numOfNodes = 0;
+	/**
+	 * Number of edges.
+	 */
+	protected int numOfEdges = 0;
+	/**
+	 * Index of the first arc of each node; firstArc[numOfNodes] is the number of arcs.
+	 */
+	protected int[] firstArc = null;
+	/**
+	 * Target node of each arc.
+	 */
+	protected int[] arcTarget = null;
+	/**
+	 * Edge of each arc.
+	 */
+	protected int[] arcEdge = null;
+	/**
+	 * Position of the edge of each arc in the edge list of the target node.
+	 */
+	protected int[] arcReverse = null;
+	/**
+	 * Is the edge of each arc traversed in its direction?
+	 */
+	protected boolean[] arcForwards = null;
+	/**
+	 * x-coordinates of the nodes.
+	 */
+	protected int[] x = null;
+	/**
+	 * y-coordinates of the nodes.
+	 */
+	protected int[] y = null;
+	/**
+	 * Lengths of the edges.
+	 */
+	protected double[] length = null;
+	/**
+	 * Classes of the edges.
+	 */
+	protected short[] edgeClass = null;
+	/**
+	 * Identifiers of the edges.
+	 */
+	protected long[] edgeId = null;
+	/**
+	 * The nodes.
+	 */
+	protected Node[] node = null;
+	/**
+	 * The edges.
+	 */
+	protected Edge[] edge = null;
+	/**
+	 * Connected component of each node.
+	 */
+	protected int[] component = null;
+	/**
+	 * Number of nodes of each component.
+	 */
+	protected int[] componentSize = null;
+	/**
+	 * The component with the most nodes.
+	 */
+	protected int largestComponent = -1;
+	/**
+	 * Modification counter of the nodes at construction time.
+	 */
+	private int nodesModCount = 0;
+	/**
+	 * Modification counter of the edges at construction time.
+	 */
+	private int edgesModCount = 0;
+
+/**
+ * Builds the compact graph from the containers of a network.
+ * @param  nodes  the nodes
+ * @param  edges  the edges
+ */
+public CompactGraph (Nodes nodes, Edges edges) {
+	copyNodesAndEdges(nodes,edges);
+	firstArc = new int[numOfNodes+1];
+	for (int i=0; i<numOfNodes; i++)
+		firstArc[i+1] = firstArc[i]+node[i].getNumOfEdges();
+	// arcs
+	int numOfArcs = firstArc[numOfNodes];
+	arcTarget = new int[numOfArcs];
+	arcEdge = new int[numOfArcs];
+	arcReverse = new int[numOfArcs];
+	arcForwards = new boolean[numOfArcs];
+	for (int i=0; i<numOfNodes; i++) {
+		Node actNode = node[i];
+		for (int j=0; j<actNode.getNumOfEdges(); j++) {
+			int a = firstArc[i]+j;
+			Edge actEdge = actNode.getEdge(j);
+			Node oppositeNode = actEdge.getOppositeNode(actNode);
+			arcTarget[a] = oppositeNode.index;
+			arcEdge[a] = actEdge.index;
+			arcForwards[a] = actEdge.isStartingFrom(actNode);
+			// the last occurrence corresponds to RoutingContext.setWay
+			arcReverse[a] = -1;
+			for (int k=0; k<oppositeNode.getNumOfEdges(); k++)
+				if (oppositeNode.getEdge(k) == actEdge)
+					arcReverse[a] = k;
+		}
+	}
+	computeComponents();
+}
+
+/**
+ * Reads the arcs and the components of the graph from a network snapshot.
+ * The nodes and edges must have been created in the order of the snapshot.
+ * @param  nodes  the nodes
+ * @param  edges  the edges
+ * @param  buf  the snapshot at the position of the graph
+ */
+CompactGraph (Nodes nodes, Edges edges, ByteBuffer buf) {
+	copyNodesAndEdges(nodes,edges);
+	firstArc = NetworkSnapshot.readInts(buf,numOfNodes+1);
+	int numOfArcs = firstArc[numOfNodes];
+	arcTarget = NetworkSnapshot.readInts(buf,numOfArcs);
+	arcEdge = NetworkSnapshot.readInts(buf,numOfArcs);
+	arcReverse = NetworkSnapshot.readInts(buf,numOfArcs);
+	arcForwards = NetworkSnapshot.readBooleans(buf,numOfArcs);
+	component = NetworkSnapshot.readInts(buf,numOfNodes);
+	componentSize = NetworkSnapshot.readInts(buf,buf.getInt());
+	largestComponent = buf.getInt();
+}
+
+/**
+ * Computes the connected components by breadth-first searches.
+ */
+private void computeComponents () {
+	component = new int[numOfNodes];
+	Arrays.fill(component,-1);
+	int[] size = new int[16];
+	int num = 0;
+	int[] queue = new int[numOfNodes];
+	for (int s=0; s<numOfNodes; s++) {
+		if (component[s] >= 0)
+			continue;
+		if (num == size.length) {
+			int[] old = size;
+			size = new int[2*old.length];
+			System.arraycopy(old,0,size,0,num);
+		}
+		int head = 0;
+		int tail = 0;
+		component[s] = num;
+		queue[tail++] = s;
+		while (head < tail) {
+			int n = queue[head++];
+			for (int a=firstArc[n]; a<firstArc[n+1]; a++)
+				if (component[arcTarget[a]] < 0) {
+					component[arcTarget[a]] = num;
+					queue[tail++] = arcTarget[a];
+				}
+		}
+		size[num] = tail;
+		if ((largestComponent < 0) || (tail > size[largestComponent]))
+			largestComponent = num;
+		num++;
+	}
+	componentSize = new int[num];
+	System.arraycopy(size,0,componentSize,0,num);
+}
+
+/**
+ * Copies the nodes and the edges with their attributes from the containers.
+ * @param  nodes  the nodes
+ * @param  edges  the edges
+ */
+private void copyNodesAndEdges (Nodes nodes, Edges edges) {
+	nodesModCount = nodes.getModCount();
+	edgesModCount = edges.getModCount();
+	numOfNodes = nodes.numOfNodes();
+	numOfEdges = edges.numOfEdges();
+	// nodes
+	node = new Node[numOfNodes];
+	x = new int[numOfNodes];
+	y = new int[numOfNodes];
+	for (int i=0; i<numOfNodes; i++) {
+		node[i] = nodes.getNode(i);
+		x[i] = node[i].getX();
+		y[i] = node[i].getY();
+	}
+	// edges
+	edge = new Edge[numOfEdges];
+	length = new double[numOfEdges];
+	edgeClass = new short[numOfEdges];
+	edgeId = new long[numOfEdges];
+	for (int i=0; i<numOfEdges; i++) {
+		edge[i] = edges.getEdge(i);
+		length[i] = edge[i].getLength();
+		edgeClass[i] = (short)edge[i].getEdgeClass();
+		edgeId[i] = edge[i].getID();
+	}
+}
+
+/**
+ * Computes the Euclidean distance between two nodes (as Node.distanceTo).
+ * @return  the distance
+ * @param  n1  index of the first node
+ * @param  n2  index of the second node
+ */
+public double distance (int n1, int n2) {
+	long xDist = Math.abs(x[n1]-x[n2]);
+	long yDist = Math.abs(y[n1]-y[n2]);
+	return Math.sqrt(xDist*xDist + yDist*yDist);
+}
+
+/**
+ * Returns the edge of an arc.
+ * @return  the edge
+ * @param  a  index of the arc
+ */
+public Edge getArcEdge (int a) {
+	return edge[arcEdge[a]];
+}
+
+/**
+ * Returns the target node of an arc.
+ * @return  index of the target node
+ * @param  a  index of the arc
+ */
+public int getArcTarget (int a) {
+	return arcTarget[a];
+}
+
+/**
+ * Returns the connected component of a node.
+ * @return  the component
+ * @param  n  index of the node
+ */
+public int getComponent (int n) {
+	return component[n];
+}
+
+/**
+ * Returns the number of nodes of a component.
+ * @return  number of nodes
+ * @param  c  the component
+ */
+public int getComponentSize (int c) {
+	return componentSize[c];
+}
+
+/**
+ * Returns the edge with the given index.
+ * @return  the edge
+ * @param  e  index of the edge
+ */
+public Edge getEdge (int e) {
+	return edge[e];
+}
+
+/**
+ * Returns the index of the first arc of a node.
+ * @return  index of the first arc
+ * @param  n  index of the node
+ */
+public int getFirstArc (int n) {
+	return firstArc[n];
+}
+
+/**
+ * Returns the index behind the last arc of a node.
+ * @return  index behind the last arc
+ * @param  n  index of the node
+ */
+public int getLastArc (int n) {
+	return firstArc[n+1];
+}
+
+/**
+ * Returns the component with the most nodes.
+ * @return  the component or -1 if the graph is empty
+ */
+public int getLargestComponent () {
+	return largestComponent;
+}
+
+/**
+ * Returns the node with the given index.
+ * @return  the node
+ * @param  n  index of the node
+ */
+public Node getNode (int n) {
+	return node[n];
+}
+
+/**
+ * Returns the number of arcs (twice the number of edges).
+ * @return  number of arcs
+ */
+public int getNumOfArcs () {
+	return firstArc[numOfNodes];
+}
+
+/**
+ * Returns the number of connected components.
+ * @return  number of components
+ */
+public int getNumOfComponents () {
+	return componentSize.length;
+}
+
+/**
+ * Returns the number of edges.
+ * @return  number of edges
+ */
+public int getNumOfEdges () {
+	return numOfEdges;
+}
+
+/**
+ * Returns the number of nodes.
+ * @return  number of nodes
+ */
+public int getNumOfNodes () {
+	return numOfNodes;
+}
+
+/**
+ * Is the edge of the arc traversed in its direction?
+ * @return  forwards?
+ * @param  a  index of the arc
+ */
+public boolean isArcForwards (int a) {
+	return arcForwards[a];
+}
+
+/**
+ * Tests whether the graph still corresponds to the given containers.
+ * @return  up to date?
+ * @param  nodes  the nodes
+ * @param  edges  the edges
+ */
+public boolean isUpToDate (Nodes nodes, Edges edges) {
+	return (nodes.getModCount() == nodesModCount) && (edges.getModCount() == edgesModCount);
+}
+
+/**
+ * Writes the arcs and the components of the graph into a network snapshot.
+ * @param  out  the output
+ * @exception  IOException  if an I/O error occurs
+ */
+void writeSnapshot (DataOutput out) throws IOException {
+	int numOfArcs = firstArc[numOfNodes];
+	NetworkSnapshot.writeInts(out,firstArc,numOfNodes+1);
+	NetworkSnapshot.writeInts(out,arcTarget,numOfArcs);
+	NetworkSnapshot.writeInts(out,arcEdge,numOfArcs);
+	NetworkSnapshot.writeInts(out,arcReverse,numOfArcs);
+	NetworkSnapshot.writeBooleans(out,arcForwards,numOfArcs);
+	NetworkSnapshot.writeInts(out,component,numOfNodes);
+	out.writeInt(componentSize.length);
+	NetworkSnapshot.writeInts(out,componentSize,componentSize.length);
+	out.writeInt(largestComponent);
+}
+
+}
@@ -0,0 +1,754 @@
+package routing;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+
+/**
+ * Customizable contraction hierarchy (CCH) of a network.
+ * The node order is computed by a geometric nested dissection of the CompactGraph;
+ * the shortcuts are given by the chordal completion of the graph concerning this order.
+ * Both depend only on the topology of the network. The weights are added afterwards
+ * by customize, which is fast enough to be repeated whenever the weights of the edges
+ * have changed. The cells of the dissection are customized in parallel.
+ * A query walks along the elimination tree from the start and from the stop node upwards
+ * and requires neither a heap nor a priority order.
+ *
+ * @version	1.11	17.10.2026	subcells of a dissection no longer lost when the cell arrays are enlarged
+ * @version	1.10	17.10.2026	stored in and read from network snapshots
+ * @version	1.00	17.10.2026	first version
+ * @author FH Oldenburg
+ */
+public class ContractionHierarchy {
+
+	/**
+	 * Maximum number of nodes of a cell that is not dissected further.
+	 */
+	private static final int LEAF_SIZE = 16;
+
+	/**
+	 * The graph.
+	 */
+	protected CompactGraph graph = null;
+	/**
+	 * Number of nodes.
+	 */
+	protected int numOfNodes = 0;
+	/**
+	 * Rank of each node.
+	 */
+	protected int[] rank = null;
+	/**
+	 * Node of each rank.
+	 */
+	protected int[] nodeOfRank = null;
+	/**
+	 * Index of the first upward arc of each node; the arcs of a node are sorted by the rank of their targets.
+	 */
+	protected int[] firstUp = null;
+	/**
+	 * Target (node of higher rank) of each arc.
+	 */
+	protected int[] arcTarget = null;
+	/**
+	 * Source (node of lower rank) of each arc.
+	 */
+	protected int[] arcSource = null;
+	/**
+	 * Parent of each node in the elimination tree (-1 for the roots).
+	 */
+	protected int[] parent = null;
+	/**
+	 * Index of the first downward arc of each node in downArc.
+	 */
+	private int[] firstDown = null;
+	/**
+	 * The arcs ending at each node.
+	 */
+	private int[] downArc = null;
+	/**
+	 * Index of the first original arc of each arc in origArc.
+	 */
+	private int[] firstOrig = null;
+	/**
+	 * Arcs of the CompactGraph (starting at the source) represented by each arc.
+	 */
+	private int[] origArc = null;
+
+	/**
+	 * Number of cells of the dissection.
+	 */
+	private int numOfCells = 0;
+	/**
+	 * First rank of each cell.
+	 */
+	private int[] cellLo = null;
+	/**
+	 * First rank of the separator of each cell.
+	 */
+	private int[] cellSep = null;
+	/**
+	 * Rank behind the last rank of each cell.
+	 */
+	private int[] cellHi = null;
+	/**
+	 * First subcell of each cell (-1 for leaves).
+	 */
+	private int[] cellLeft = null;
+	/**
+	 * Second subcell of each cell (-1 for leaves).
+	 */
+	private int[] cellRight = null;
+	/**
+	 * The cell containing all nodes.
+	 */
+	private int rootCell = 0;
+	/**
+	 * Depth of the dissection up to which the cells are customized by separate threads.
+	 */
+	private int parallelDepth = 0;
+	/**
+	 * Next rank to be assigned during the dissection.
+	 */
+	private int nextRank = 0;
+
+/**
+ * Computes the node order and the shortcuts of a graph.
+ * @param  g  the graph
+ */
+public ContractionHierarchy (CompactGraph g) {
+	graph = g;
+	numOfNodes = g.numOfNodes;
+	int numOfThreads = Runtime.getRuntime().availableProcessors();
+	while ((1 << parallelDepth) < numOfThreads)
+		parallelDepth++;
+	computeOrder();
+	computeShortcuts();
+}
+
+/**
+ * Reads the node order and the shortcuts of a graph from a network snapshot.
+ * @param  g  the graph
+ * @param  buf  the snapshot at the position of the hierarchy
+ */
+ContractionHierarchy (CompactGraph g, ByteBuffer buf) {
+	graph = g;
+	numOfNodes = g.numOfNodes;
+	int numOfThreads = Runtime.getRuntime().availableProcessors();
+	while ((1 << parallelDepth) < numOfThreads)
+		parallelDepth++;
+	rank = NetworkSnapshot.readInts(buf,numOfNodes);
+	nodeOfRank = NetworkSnapshot.readInts(buf,numOfNodes);
+	firstUp = NetworkSnapshot.readInts(buf,numOfNodes+1);
+	int numOfArcs = firstUp[numOfNodes];
+	arcTarget = NetworkSnapshot.readInts(buf,numOfArcs);
+	arcSource = NetworkSnapshot.readInts(buf,numOfArcs);
+	parent = NetworkSnapshot.readInts(buf,numOfNodes);
+	firstDown = NetworkSnapshot.readInts(buf,numOfNodes+1);
+	downArc = NetworkSnapshot.readInts(buf,numOfArcs);
+	firstOrig = NetworkSnapshot.readInts(buf,numOfArcs+1);
+	origArc = NetworkSnapshot.readInts(buf,firstOrig[numOfArcs]);
+	numOfCells = buf.getInt();
+	cellLo = NetworkSnapshot.readInts(buf,numOfCells);
+	cellSep = NetworkSnapshot.readInts(buf,numOfCells);
+	cellHi = NetworkSnapshot.readInts(buf,numOfCells);
+	cellLeft = NetworkSnapshot.readInts(buf,numOfCells);
+	cellRight = NetworkSnapshot.readInts(buf,numOfCells);
+	rootCell = buf.getInt();
+	nextRank = numOfNodes;
+}
+
+/**
+ * Adds a node to a growing list.
+ * @return  the (possibly enlarged) list
+ * @param  list  the list
+ * @param  size  number of entries of the list
+ * @param  v  the node
+ */
+private static int[] add (int[] list, int size, int v) {
+	if (list == null)
+		list = new int[4];
+	else if (size == list.length) {
+		int[] newList = new int[2*size];
+		System.arraycopy(list,0,newList,0,size);
+		list = newList;
+	}
+	list[size] = v;
+	return list;
+}
+
+/**
+ * Computes the nested dissection order of the nodes.
+ */
+private void computeOrder () {
+	rank = new int[numOfNodes];
+	nodeOfRank = new int[numOfNodes];
+	// a cell with more than LEAF_SIZE nodes has two subcells with at most half of its nodes,
+	// so there are at most numOfNodes/8 such cells and numOfNodes/4+1 cells in total
+	int capacity = numOfNodes/4+1;
+	cellLo = new int[capacity];
+	cellSep = new int[capacity];
+	cellHi = new int[capacity];
+	cellLeft = new int[capacity];
+	cellRight = new int[capacity];
+	int[] perm = new int[numOfNodes];
+	for (int i=0; i<numOfNodes; i++)
+		perm[i] = i;
+	int[] mark = new int[numOfNodes];
+	nextRank = 0;
+	rootCell = dissect(perm,0,numOfNodes,mark);
+}
+
+/**
+ * Computes the shortcuts (chordal completion) and the arc arrays.
+ */
+private void computeShortcuts () {
+	// upper neighbors in the graph
+	int[][] up = new int[numOfNodes][];
+	int[] upNum = new int[numOfNodes];
+	for (int v=0; v<numOfNodes; v++)
+		for (int a=graph.firstArc[v]; a<graph.firstArc[v+1]; a++) {
+			int w = graph.arcTarget[a];
+			if (rank[w] > rank[v])
+				up[v] = add(up[v],upNum[v]++,w);
+		}
+	// elimination in the order of the ranks
+	for (int r=0; r<numOfNodes; r++) {
+		int v = nodeOfRank[r];
+		if (upNum[v] == 0)
+			continue;
+		// sort by rank and remove duplicates
+		int[] ranks = new int[upNum[v]];
+		for (int i=0; i<upNum[v]; i++)
+			ranks[i] = rank[up[v][i]];
+		java.util.Arrays.sort(ranks);
+		int num = 0;
+		for (int i=0; i<ranks.length; i++)
+			if ((num == 0) || (ranks[i] != ranks[num-1]))
+				ranks[num++] = ranks[i];
+		up[v] = new int[num];
+		for (int i=0; i<num; i++)
+			up[v][i] = nodeOfRank[ranks[i]];
+		upNum[v] = num;
+		// the neighbors become neighbors of the lowest neighbor
+		int u = up[v][0];
+		for (int i=1; i<num; i++)
+			up[u] = add(up[u],upNum[u]++,up[v][i]);
+	}
+	// upward arcs
+	firstUp = new int[numOfNodes+1];
+	for (int v=0; v<numOfNodes; v++)
+		firstUp[v+1] = firstUp[v]+upNum[v];
+	int numOfArcs = firstUp[numOfNodes];
+	arcTarget = new int[numOfArcs];
+	arcSource = new int[numOfArcs];
+	parent = new int[numOfNodes];
+	for (int v=0; v<numOfNodes; v++) {
+		parent[v] = -1;
+		if (upNum[v] > 0)
+			parent[v] = up[v][0];
+		for (int i=0; i<upNum[v]; i++) {
+			arcTarget[firstUp[v]+i] = up[v][i];
+			arcSource[firstUp[v]+i] = v;
+		}
+	}
+	// downward arcs
+	firstDown = new int[numOfNodes+1];
+	for (int a=0; a<numOfArcs; a++)
+		firstDown[arcTarget[a]+1]++;
+	for (int v=0; v<numOfNodes; v++)
+		firstDown[v+1] += firstDown[v];
+	downArc = new int[numOfArcs];
+	int[] pos = new int[numOfNodes];
+	for (int v=0; v<numOfNodes; v++)
+		pos[v] = firstDown[v];
+	for (int a=0; a<numOfArcs; a++)
+		downArc[pos[arcTarget[a]]++] = a;
+	// original arcs
+	firstOrig = new int[numOfArcs+1];
+	int[] origOf = new int[graph.getNumOfArcs()];
+	for (int v=0; v<numOfNodes; v++)
+		for (int a=graph.firstArc[v]; a<graph.firstArc[v+1]; a++) {
+			origOf[a] = -1;
+			if (rank[graph.arcTarget[a]] > rank[v]) {
+				origOf[a] = findArc(v,graph.arcTarget[a]);
+				firstOrig[origOf[a]+1]++;
+			}
+		}
+	for (int a=0; a<numOfArcs; a++)
+		firstOrig[a+1] += firstOrig[a];
+	origArc = new int[firstOrig[numOfArcs]];
+	pos = new int[numOfArcs];
+	for (int a=0; a<numOfArcs; a++)
+		pos[a] = firstOrig[a];
+	for (int a=0; a<origOf.length; a++)
+		if (origOf[a] >= 0)
+			origArc[pos[origOf[a]]++] = a;
+}
+
+/**
+ * Customizes the hierarchy by the current weights of a weight manager.
+ * The weights are requested sequentially; the shortcuts are computed in parallel.
+ * @return  the metric
+ * @param  wm  the weight manager
+ * @param  metric  a metric of this hierarchy whose arrays are reused or null
+ */
+public HierarchyMetric customize (WeightManager wm, HierarchyMetric metric) {
+	int numOfEdges = graph.getNumOfEdges();
+	if ((metric == null) || (metric.hierarchy != this))
+		metric = new HierarchyMetric(this);
+	for (int e=0; e<numOfEdges; e++) {
+		metric.forwardWeight[e] = wm.getWeight(graph.edge[e],true);
+		metric.backwardWeight[e] = wm.getWeight(graph.edge[e],false);
+	}
+	customizeCell(metric,rootCell,0);
+	return metric;
+}
+
+/**
+ * Customizes the nodes of a cell.
+ * The subcells are independent of each other and are customized in parallel
+ * up to the parallel depth; afterwards, the separator is customized.
+ * @param  metric  the metric
+ * @param  c  the cell
+ * @param  depth  depth of the cell
+ */
+void customizeCell (HierarchyMetric metric, int c, int depth) {
+	if (cellLeft[c] >= 0) {
+		if (depth < parallelDepth) {
+			HierarchyCustomization thread = new HierarchyCustomization(this,metric,cellLeft[c],depth+1);
+			thread.start();
+			customizeCell(metric,cellRight[c],depth+1);
+			try {
+				thread.join();
+			}
+			catch (InterruptedException ex) {
+				System.err.println("ContractionHierarchy.customizeCell: "+ex);
+			}
+		}
+		else {
+			customizeCell(metric,cellLeft[c],depth+1);
+			customizeCell(metric,cellRight[c],depth+1);
+		}
+	}
+	for (int r=cellSep[c]; r<cellHi[c]; r++)
+		customizeNode(metric,nodeOfRank[r]);
+}
+
+/**
+ * Computes the weights of the upward arcs of a node.
+ * All arcs of the nodes of lower rank must have been customized before.
+ * @param  m  the metric
+ * @param  u  the node
+ */
+private void customizeNode (HierarchyMetric m, int u) {
+	// weights of the original edges
+	for (int a=firstUp[u]; a<firstUp[u+1]; a++) {
+		m.up[a] = Double.POSITIVE_INFINITY;
+		m.down[a] = Double.POSITIVE_INFINITY;
+		m.upVia[a] = -1;
+		m.downVia[a] = -1;
+		for (int o=firstOrig[a]; o<firstOrig[a+1]; o++) {
+			int ga = origArc[o];
+			int e = graph.arcEdge[ga];
+			double f = graph.arcForwards[ga] ? m.forwardWeight[e] : m.backwardWeight[e];
+			double b = graph.arcForwards[ga] ? m.backwardWeight[e] : m.forwardWeight[e];
+			if (f < m.up[a]) {
+				m.up[a] = f;
+				m.upOrig[a] = ga;
+			}
+			if (b < m.down[a]) {
+				m.down[a] = b;
+				m.downOrig[a] = ga;
+			}
+		}
+	}
+	// lower triangles: the arcs of x behind (x,u) form a subset of the arcs of u
+	for (int d=firstDown[u]; d<firstDown[u+1]; d++) {
+		int b = downArc[d];
+		int x = arcSource[b];
+		int p = firstUp[u];
+		for (int q=b+1; q<firstUp[x+1]; q++) {
+			int w = arcTarget[q];
+			while (arcTarget[p] != w)
+				p++;
+			double t = m.down[b]+m.up[q];
+			if (t < m.up[p]) {
+				m.up[p] = t;
+				m.upVia[p] = x;
+			}
+			t = m.down[q]+m.up[b];
+			if (t < m.down[p]) {
+				m.down[p] = t;
+				m.downVia[p] = x;
+			}
+		}
+	}
+}
+
+/**
+ * Computes the fastest way between two nodes using a customized metric.
+ * @return  the computed path (null if there is no path)
+ * @param  ctx  the routing context of the query
+ * @param  m  the metric
+ * @param  start  the starting node
+ * @param  stop  the destination node
+ */
+public PathEdge computeFastestWay (RoutingContext ctx, HierarchyMetric m, Node start, Node stop) {
+	if ((start == null) || (stop == null) || (start.equals(stop)))
+		return null;
+	ctx.prepareHierarchySearch(numOfNodes);
+	double[] df = ctx.hierarchyDistance[0];
+	double[] db = ctx.hierarchyDistance[1];
+	int[] pf = ctx.hierarchyArc[0];
+	int[] pb = ctx.hierarchyArc[1];
+	int s = start.index;
+	int t = stop.index;
+	// upwards from the start
+	df[s] = 0;
+	for (int v=s; v>=0; v=parent[v])
+		if (df[v] < Double.POSITIVE_INFINITY)
+			for (int a=firstUp[v]; a<firstUp[v+1]; a++) {
+				double d = df[v]+m.up[a];
+				if (d < df[arcTarget[a]]) {
+					df[arcTarget[a]] = d;
+					pf[arcTarget[a]] = a;
+				}
+			}
+	// upwards from the destination
+	db[t] = 0;
+	for (int v=t; v>=0; v=parent[v])
+		if (db[v] < Double.POSITIVE_INFINITY)
+			for (int a=firstUp[v]; a<firstUp[v+1]; a++) {
+				double d = db[v]+m.down[a];
+				if (d < db[arcTarget[a]]) {
+					db[arcTarget[a]] = d;
+					pb[arcTarget[a]] = a;
+				}
+			}
+	// best meeting node
+	int meet = -1;
+	double best = Double.POSITIVE_INFINITY;
+	for (int v=t; v>=0; v=parent[v])
+		if (df[v]+db[v] < best) {
+			best = df[v]+db[v];
+			meet = v;
+		}
+	// path
+	PathEdge res = null;
+	if (meet >= 0) {
+		int[] stack = ctx.hierarchyStack;
+		// from the meeting node downwards to the start (collected in reverse order)
+		PathEdge first = null;
+		for (int v=meet; v!=s; v=arcSource[pf[v]]) {
+			int num = 0;
+			stack = push(stack,num++,2*pf[v]);
+			while (num > 0) {
+				int item = stack[--num];
+				int a = item >> 1;
+				boolean upwards = (item & 1) == 0;
+				int x = upwards ? m.upVia[a] : m.downVia[a];
+				if (x < 0) {
+					first = createPathEdge(m,upwards ? m.upOrig[a] : m.downOrig[a],upwards,first);
+					continue;
+				}
+				// reverse order: the last part is needed first
+				int ax = findArc(x,arcSource[a]);
+				int aw = findArc(x,arcTarget[a]);
+				if (upwards) {
+					stack = push(stack,num++,2*ax+1);
+					stack = push(stack,num++,2*aw);
+				}
+				else {
+					stack = push(stack,num++,2*aw+1);
+					stack = push(stack,num++,2*ax);
+				}
+			}
+		}
+		// from the meeting node downwards to the destination
+		PathEdge last = null;
+		for (int v=meet; v!=t; v=arcSource[pb[v]]) {
+			int num = 0;
+			stack = push(stack,num++,2*pb[v]+1);
+			while (num > 0) {
+				int item = stack[--num];
+				int a = item >> 1;
+				boolean upwards = (item & 1) == 0;
+				int x = upwards ? m.upVia[a] : m.downVia[a];
+				if (x < 0) {
+					PathEdge pe = createPathEdge(m,upwards ? m.upOrig[a] : m.downOrig[a],upwards,null);
+					if (last == null)
+						res = pe;
+					else
+						last.next = pe;
+					last = pe;
+					continue;
+				}
+				// normal order: the first part is needed first
+				int ax = findArc(x,arcSource[a]);
+				int aw = findArc(x,arcTarget[a]);
+				if (upwards) {
+					stack = push(stack,num++,2*aw);
+					stack = push(stack,num++,2*ax+1);
+				}
+				else {
+					stack = push(stack,num++,2*ax);
+					stack = push(stack,num++,2*aw+1);
+				}
+			}
+		}
+		ctx.hierarchyStack = stack;
+		// concatenate
+		if (first == null)
+			first = res;
+		else {
+			PathEdge pe = first;
+			while (pe.next != null)
+				pe = pe.next;
+			pe.next = res;
+		}
+		res = first;
+	}
+	// reset the search states
+	for (int v=s; v>=0; v=parent[v]) {
+		df[v] = Double.POSITIVE_INFINITY;
+		db[v] = Double.POSITIVE_INFINITY;
+	}
+	for (int v=t; v>=0; v=parent[v]) {
+		df[v] = Double.POSITIVE_INFINITY;
+		db[v] = Double.POSITIVE_INFINITY;
+	}
+	return res;
+}
+
+/**
+ * Creates a path element for an arc of the CompactGraph.
+ * @return  the path element
+ * @param  m  the metric
+ * @param  ga  the arc of the CompactGraph (starting at the node of lower rank)
+ * @param  upwards  is the arc traversed from the node of lower rank to the node of higher rank?
+ * @param  next  the next path element
+ */
+private PathEdge createPathEdge (HierarchyMetric m, int ga, boolean upwards, PathEdge next) {
+	int e = graph.arcEdge[ga];
+	boolean forwards = (graph.arcForwards[ga] == upwards);
+	return new PathEdge(graph.edge[e],forwards,forwards ? m.forwardWeight[e] : m.backwardWeight[e],next);
+}
+
+/**
+ * Splits the nodes perm[from] to perm[to-1] recursively and assigns their ranks.
+ * The nodes are divided at the median of the coordinate with the larger extent.
+ * The smaller set of boundary nodes becomes the separator, which gets the highest ranks.
+ * @return  the cell of the nodes
+ * @param  perm  array of nodes
+ * @param  from  first position
+ * @param  to  position behind the last position
+ * @param  mark  marks of the nodes
+ */
+private int dissect (int[] perm, int from, int to, int[] mark) {
+	int c = newCell();
+	int size = to-from;
+	cellLo[c] = nextRank;
+	cellLeft[c] = -1;
+	cellRight[c] = -1;
+	if (size <= LEAF_SIZE) {
+		cellSep[c] = nextRank;
+		for (int i=from; i<to; i++)
+			assignRank(perm[i]);
+		cellHi[c] = nextRank;
+		return c;
+	}
+	// sort by the coordinate with the larger extent
+	int minX = Integer.MAX_VALUE, maxX = Integer.MIN_VALUE, minY = Integer.MAX_VALUE, maxY = Integer.MIN_VALUE;
+	for (int i=from; i<to; i++) {
+		int v = perm[i];
+		minX = Math.min(minX,graph.x[v]);
+		maxX = Math.max(maxX,graph.x[v]);
+		minY = Math.min(minY,graph.y[v]);
+		maxY = Math.max(maxY,graph.y[v]);
+	}
+	boolean byX = ((long)maxX-minX >= (long)maxY-minY);
+	long[] key = new long[size];
+	for (int i=0; i<size; i++) {
+		int v = perm[from+i];
+		key[i] = ((long)(byX ? graph.x[v] : graph.y[v]) << 32) | v;
+	}
+	java.util.Arrays.sort(key);
+	for (int i=0; i<size; i++)
+		perm[from+i] = (int)key[i];
+	int mid = from+size/2;
+	// boundary nodes of both halves (mark: 1 = first half, 2 = second half)
+	for (int i=from; i<to; i++)
+		mark[perm[i]] = (i < mid) ? 1 : 2;
+	int numA = 0, numB = 0;
+	for (int i=from; i<to; i++)
+		if (isBoundary(perm[i],mark,3-mark[perm[i]])) {
+			if (i < mid)
+				numA++;
+			else
+				numB++;
+		}
+	// the boundary nodes of the half with fewer boundary nodes become the separator (mark 3)
+	int sepSide = (numA <= numB) ? 1 : 2;
+	for (int i=from; i<to; i++)
+		if ((mark[perm[i]] == sepSide) && isBoundary(perm[i],mark,3-sepSide))
+			mark[perm[i]] = 3;
+	// rearrange: first half, second half, separator
+	int[] tmp = new int[size];
+	int n1 = 0, n2 = 0, nSep = 0;
+	for (int i=from; i<to; i++)
+		if (mark[perm[i]] == 1)
+			tmp[n1++] = perm[i];
+	for (int i=from; i<to; i++)
+		if (mark[perm[i]] == 2)
+			tmp[n1+n2++] = perm[i];
+	for (int i=from; i<to; i++)
+		if (mark[perm[i]] == 3)
+			tmp[n1+n2+nSep++] = perm[i];
+	for (int i=from; i<to; i++)
+		mark[perm[i]] = 0;
+	System.arraycopy(tmp,0,perm,from,size);
+	// subcells and separator
+	// newCell may replace the cell arrays during the recursion
+	int left = dissect(perm,from,from+n1,mark);
+	int right = dissect(perm,from+n1,from+n1+n2,mark);
+	cellLeft[c] = left;
+	cellRight[c] = right;
+	cellSep[c] = nextRank;
+	for (int i=to-nSep; i<to; i++)
+		assignRank(perm[i]);
+	cellHi[c] = nextRank;
+	return c;
+}
+
+/**
+ * Assigns the next rank to a node.
+ * @param  v  the node
+ */
+private void assignRank (int v) {
+	rank[v] = nextRank;
+	nodeOfRank[nextRank] = v;
+	nextRank++;
+}
+
+/**
+ * Finds the arc between a node and a node of higher rank.
+ * @return  the arc or -1
+ * @param  v  the node of lower rank
+ * @param  w  the node of higher rank
+ */
+protected int findArc (int v, int w) {
+	int lo = firstUp[v];
+	int hi = firstUp[v+1]-1;
+	int r = rank[w];
+	while (lo <= hi) {
+		int mid = (lo+hi) >>> 1;
+		int rm = rank[arcTarget[mid]];
+		if (rm < r)
+			lo = mid+1;
+		else if (rm > r)
+			hi = mid-1;
+		else
+			return mid;
+	}
+	return -1;
+}
+
+/**
+ * Returns the graph of the hierarchy.
+ * @return  the graph
+ */
+public CompactGraph getGraph () {
+	return graph;
+}
+
+/**
+ * Returns the number of arcs (edges and shortcuts).
+ * @return  number of arcs
+ */
+public int getNumOfArcs () {
+	return firstUp[numOfNodes];
+}
+
+/**
+ * Tests whether a node has a neighbor with the given mark.
+ * @return  has neighbor?
+ * @param  v  the node
+ * @param  mark  marks of the nodes
+ * @param  value  the mark
+ */
+private boolean isBoundary (int v, int[] mark, int value) {
+	for (int a=graph.firstArc[v]; a<graph.firstArc[v+1]; a++)
+		if (mark[graph.arcTarget[a]] == value)
+			return true;
+	return false;
+}
+
+/**
+ * Creates a new cell.
+ * @return  the cell
+ */
+private int newCell () {
+	if (numOfCells == cellLo.length) {
+		int len = 2*numOfCells;
+		cellLo = enlarge(cellLo,len);
+		cellSep = enlarge(cellSep,len);
+		cellHi = enlarge(cellHi,len);
+		cellLeft = enlarge(cellLeft,len);
+		cellRight = enlarge(cellRight,len);
+	}
+	return numOfCells++;
+}
+
+/**
+ * Returns an enlarged copy of an array.
+ * @return  the new array
+ * @param  old  the old array
+ * @param  len  the new length
+ */
+private static int[] enlarge (int[] old, int len) {
+	int[] res = new int[len];
+	System.arraycopy(old,0,res,0,old.length);
+	return res;
+}
+
+/**
+ * Writes the node order and the shortcuts into a network snapshot.
+ * @param  out  the output
+ * @exception  IOException  if an I/O error occurs
+ */
+void writeSnapshot (DataOutput out) throws IOException {
+	int numOfArcs = firstUp[numOfNodes];
+	NetworkSnapshot.writeInts(out,rank,numOfNodes);
+	NetworkSnapshot.writeInts(out,nodeOfRank,numOfNodes);
+	NetworkSnapshot.writeInts(out,firstUp,numOfNodes+1);
+	NetworkSnapshot.writeInts(out,arcTarget,numOfArcs);
+	NetworkSnapshot.writeInts(out,arcSource,numOfArcs);
+	NetworkSnapshot.writeInts(out,parent,numOfNodes);
+	NetworkSnapshot.writeInts(out,firstDown,numOfNodes+1);
+	NetworkSnapshot.writeInts(out,downArc,numOfArcs);
+	NetworkSnapshot.writeInts(out,firstOrig,numOfArcs+1);
+	NetworkSnapshot.writeInts(out,origArc,firstOrig[numOfArcs]);
+	out.writeInt(numOfCells);
+	NetworkSnapshot.writeInts(out,cellLo,numOfCells);
+	NetworkSnapshot.writeInts(out,cellSep,numOfCells);
+	NetworkSnapshot.writeInts(out,cellHi,numOfCells);
+	NetworkSnapshot.writeInts(out,cellLeft,numOfCells);
+	NetworkSnapshot.writeInts(out,cellRight,numOfCells);
+	out.writeInt(rootCell);
+}
+
+/**
+ * Pushes an entry onto a stack.
+ * @return  the (possibly enlarged) stack
+ * @param  stack  the stack
+ * @param  num  number of entries of the stack
+ * @param  item  the entry
+ */
+private static int[] push (int[] stack, int num, int item) {
+	if (num == stack.length)
+		stack = enlarge(stack,2*num+16);
+	stack[num] = item;
+	return stack;
+}
+
+}
@@ -8,6 +8,7 @@ import util.*;
 /**
  * Class representing edges.
  * 
+ * @version	4.10	17.10.2026	dense index added
  * @version	4.00	17.08.2003	superclass DrawableLine replaced by Drawable, length become double, weight removed, additional constructor
  * @version	3.30	03.07.2001	getContainer renamed to getEdgeContainer
  * @version	3.20	24.05.2901	marking added
@@ -56,6 +57,10 @@ public class Edge extends Drawable implements Comparable {
 	 * Link to the container.
 	 */
 	private Edges edges = null;	
+	/**
+	 * Dense index of the edge in its container (-1 if not contained).
+	 */
+	protected int index = -1;
 
 /**
  * Constructor.
@@ -199,6 +204,13 @@ public Edges getEdgeContainer () {
 public long getID () {
 	return id;
 }
+/**
+ * Returns the dense index of the edge in its container.
+ * @return index or -1
+ */
+public int getIndex () {
+	return index;
+}
 /**
  * Gibt die Lnge der Kante zurck.
  * @return Lnge
@@ -401,6 +413,8 @@ public void setEdgeClass (short edgeClass) {
 	}
 	this.edgeClass = edgeClass;
 	setPresentation(DrawablePresentation.get("Edge"+edgeClass));
+	if (edges != null)
+		edges.modCount++;
 }
 /**
  * Set a new ID.
@@ -4,11 +4,14 @@ import java.awt.*;
 import java.io.*;
 import java.util.*;
 import drawables.*;
+import util.LongIntHashMap;
 import util.Num;
 
 /**
  * Container class for edges.
  * 
+ * @version 1.40	17.10.26	ids indexed by a LongIntHashMap instead of a Hashtable, enumeration in the dense order
+ * @version 1.30	17.10.26	dense edge index and modification counter added
  * @version 1.20	24.05.01	Marking added
  * @version 1.12	28.06.00	Timer removed
  * @version	1.11	24.04.00	superclass corrected, support of edge with null-strings
@@ -19,9 +22,9 @@ import util.Num;
 public class Edges {
 	
 	/**
-	 * Container
+	 * Dense indices of the edges by their ids
 	 */
-	protected Hashtable hashTable =  null;
+	private LongIntHashMap index = null;
 	/**
 	 * Highest id of a node
 	 */
@@ -35,15 +38,23 @@ public class Edges {
 	 * Number of edge classes (a change requires also to adapt speed, minscale and the class Node!)
 	 */
 	private int numOfClasses = 7;
-	/**
-	 * Edge used for searching
-	 */
-	private Edge searchEdge = new Edge (0);
 
 	/**
 	 * Value of the mark which corresponds to unmarked
 	 */
 	protected int nullMark = 0;
+	/**
+	 * Edges in the order of their dense index
+	 */
+	private Edge[] edge = new Edge[10000];
+	/**
+	 * Number of edges in the dense array
+	 */
+	private int num = 0;
+	/**
+	 * Counter of structural modifications
+	 */
+	protected int modCount = 0;
 
 	/**
 	 * Speed of the edge classes
@@ -58,7 +69,7 @@ public class Edges {
  * Konstruktor.
  */
 public Edges() {
-	hashTable = new Hashtable (10000);
+	index = new LongIntHashMap (10000);
 }
 /**
  * Clears all marks.
@@ -67,21 +78,48 @@ public void clearAllMarks () {
 	nullMark++;
 }
 /**
- * Gibt Enumeration ber alle Kanten zurck.
+ * Gibt Enumeration ber alle Kanten in der Reihenfolge ihrer dichten Indizes zurck.
  * @return Enumeration der Kanten
  */
 public Enumeration elements () {
-	return hashTable.elements();
+	return new Enumeration() {
+		private int next = 0;
+		public boolean hasMoreElements () {
+			return next < num;
+		}
+		public Object nextElement () {
+			if (next >= num)
+				throw new NoSuchElementException("Edges.elements");
+			return edge[next++];
+		}
+	};
 }
 /**
  * Gibt die Kante zurck, dieer die angegebene ID besitzt.
  * Gibt es keine solche Kante, wird null zurckgegeben.
+ * Mehrere Threads knnen gleichzeitig suchen, solange die Kanten nicht verndert werden.
  * @return ggf. gefundene Kante
  * @param id ID der Kante
  */
 public Edge get (long id) {
-	searchEdge.setID (id);
-	return (Edge) hashTable.get (searchEdge);
+	int i = index.get(id);
+	return (i == LongIntHashMap.NOT_FOUND) ? null : edge[i];
+}
+/**
+ * Returns the edge with the given dense index.
+ * @return the edge
+ * @param index dense index (0 <= index < numOfEdges())
+ */
+public Edge getEdge (int index) {
+	return edge[index];
+}
+/**
+ * Returns the counter of structural modifications.
+ * It is incremented whenever an edge is inserted or removed or the class of an edge is changed.
+ * @return modification counter
+ */
+public int getModCount () {
+	return modCount;
 }
 /**
  * Returns the next free identifier.
@@ -139,7 +177,15 @@ public Edge newEdge (long id, int edgeClass, Node node1, Node node2, String name
 	if (edge != null)
 		return edge;
 	edge = new Edge (id, edgeClass, node1, node2, name, this);
-	hashTable.put (edge,edge);
+	if (num >= this.edge.length) {
+		Edge[] newArray = new Edge[2*this.edge.length];
+		System.arraycopy(this.edge,0,newArray,0,num);
+		this.edge = newArray;
+	}
+	edge.index = num++;
+	this.edge[edge.index] = edge;
+	index.put(id,edge.index);
+	modCount++;
 	node1.addEdge (edge);
 	node2.addEdge (edge);
 	if (id > maxId)
@@ -151,7 +197,7 @@ public Edge newEdge (long id, int edgeClass, Node node1, Node node2, String name
  * @return Anzahl
  */
 public int numOfEdges () {
-	return hashTable.size();
+	return num;
 }
 /**
  * Liest eine Kante vom DataInput.
@@ -191,7 +237,18 @@ public boolean removeEdge (Edge edge) {
 		return false;
 	edge.getNode1().removeEdge (edge);
 	edge.getNode2().removeEdge (edge);
-	hashTable.remove (edge);
+	if ((edge.index >= 0) && (this.edge[edge.index] == edge)) {
+		index.remove(edge.getID());
+		// move the last edge into the gap
+		num--;
+		this.edge[edge.index] = this.edge[num];
+		this.edge[edge.index].index = edge.index;
+		if (edge.index < num)
+			index.put(this.edge[num].getID(),edge.index);
+		this.edge[num] = null;
+		edge.index = -1;
+	}
+	modCount++;
 	return true;
 }
 /**
@@ -0,0 +1,187 @@
+package routing;
+
+import java.util.Random;
+
+/**
+ * Microbenchmark comparing BorderHeap and IndexedHeap.
+ * A Dijkstra-like sequence of insert, decrease-key and fetch operations is generated
+ * once and then replayed on both heaps. The sums of the fetched keys are printed
+ * in order to check that both heaps return the same elements.
+ * Usage: java routing.HeapBenchmark [number of items] [number of runs] [arity]
+ *
+ * @version	1.00	17.10.2026	first version
+ * @author FH Oldenburg
+ */
+public class HeapBenchmark {
+
+	/**
+	 * Operation type: insert.
+	 */
+	private static final byte INSERT = 0;
+	/**
+	 * Operation type: decrease key.
+	 */
+	private static final byte DECREASE = 1;
+	/**
+	 * Operation type: fetch first.
+	 */
+	private static final byte FETCH = 2;
+
+	/**
+	 * Number of operations.
+	 */
+	private int numOfOps = 0;
+	/**
+	 * Types of the operations.
+	 */
+	private byte[] opType = null;
+	/**
+	 * Items of the operations.
+	 */
+	private int[] opItem = null;
+	/**
+	 * Keys of the operations.
+	 */
+	private double[] opKey = null;
+
+/**
+ * Generates the sequence of operations.
+ * Each fetched item relaxes three random items: new items are inserted,
+ * items in the heap get a smaller key with a probability of 50%.
+ * @param  numOfItems  number of items
+ * @param  seed  seed of the random generator
+ */
+public HeapBenchmark (int numOfItems, long seed) {
+	Random random = new Random(seed);
+	int capacity = 8*numOfItems;
+	opType = new byte[capacity];
+	opItem = new int[capacity];
+	opKey = new double[capacity];
+	byte[] state = new byte[numOfItems];	// 0 = new, 1 = in heap, 2 = fetched
+	double[] key = new double[numOfItems];
+	IndexedHeap heap = new IndexedHeap();
+	add(INSERT,0,0.0);
+	heap.insert(0,0.0);
+	state[0] = 1;
+	while (heap.fetchFirst() && (numOfOps+4 < capacity)) {
+		int i = heap.returnItem();
+		double dist = heap.returnKey();
+		add(FETCH,i,dist);
+		state[i] = 2;
+		for (int r=0; r<3; r++) {
+			int j = random.nextInt(numOfItems);
+			double k = dist+random.nextDouble();
+			if (state[j] == 0) {
+				add(INSERT,j,k);
+				heap.insert(j,k);
+				key[j] = k;
+				state[j] = 1;
+			}
+			else if ((state[j] == 1) && (k < key[j]) && random.nextBoolean()) {
+				add(DECREASE,j,k);
+				heap.decreaseKey(j,k);
+				key[j] = k;
+			}
+		}
+	}
+}
+
+/**
+ * Adds an operation.
+ * @param  type  type of the operation
+ * @param  item  the item
+ * @param  key  the key
+ */
+private void add (byte type, int item, double key) {
+	opType[numOfOps] = type;
+	opItem[numOfOps] = item;
+	opKey[numOfOps] = key;
+	numOfOps++;
+}
+
+/**
+ * Replays the operations on a BorderHeap.
+ * @return  sum of the fetched keys
+ * @param  nodes  nodes representing the items
+ * @param  ctx  routing context of the heap
+ */
+public double runBorderHeap (Nodes nodes, RoutingContext ctx) {
+	ctx.clearAllMarks();
+	BorderHeap heap = new BorderHeap(ctx,false);
+	double sum = 0;
+	for (int o=0; o<numOfOps; o++) {
+		Node node = nodes.getNode(opItem[o]);
+		switch (opType[o]) {
+			case INSERT:
+				ctx.setDistanceOfWay(node,1,opKey[o]);
+				heap.insert(node,1,0);
+				break;
+			case DECREASE:
+				ctx.setDistanceOfWay(node,1,opKey[o]);
+				heap.adaptToDecreasedDistance(node,1);
+				break;
+			case FETCH:
+				heap.fetchFirst();
+				sum += heap.returnDistance();
+				break;
+		}
+	}
+	return sum;
+}
+
+/**
+ * Replays the operations on an IndexedHeap.
+ * @return  sum of the fetched keys
+ * @param  arity  the arity of the heap
+ */
+public double runIndexedHeap (int arity) {
+	IndexedHeap heap = new IndexedHeap(arity,false);
+	double sum = 0;
+	for (int o=0; o<numOfOps; o++) {
+		switch (opType[o]) {
+			case INSERT:
+				heap.insert(opItem[o],opKey[o]);
+				break;
+			case DECREASE:
+				heap.decreaseKey(opItem[o],opKey[o]);
+				break;
+			case FETCH:
+				heap.fetchFirst();
+				sum += heap.returnKey();
+				break;
+		}
+	}
+	return sum;
+}
+
+/**
+ * Runs the benchmark.
+ * @param  args  number of items, number of runs, arity
+ */
+public static void main (String[] args) {
+	int numOfItems = 1000000;
+	int runs = 5;
+	int arity = IndexedHeap.DEFAULT_ARITY;
+	if (args.length > 0)
+		numOfItems = Integer.parseInt(args[0]);
+	if (args.length > 1)
+		runs = Integer.parseInt(args[1]);
+	if (args.length > 2)
+		arity = Integer.parseInt(args[2]);
+	HeapBenchmark bench = new HeapBenchmark(numOfItems,1);
+	System.out.println("operations: "+bench.numOfOps);
+	Nodes nodes = new Nodes(1);
+	for (int i=0; i<numOfItems; i++)
+		nodes.newNode(i+1,0,0,null);
+	RoutingContext ctx = new RoutingContext(nodes);
+	for (int r=0; r<runs; r++) {
+		long t0 = System.currentTimeMillis();
+		double sum1 = bench.runBorderHeap(nodes,ctx);
+		long t1 = System.currentTimeMillis();
+		double sum2 = bench.runIndexedHeap(arity);
+		long t2 = System.currentTimeMillis();
+		System.out.println("run "+r+": BorderHeap "+(t1-t0)+" ms, IndexedHeap("+arity+") "+(t2-t1)+" ms, key sums "+(sum1 == sum2 ? "equal" : "differ: "+sum1+" / "+sum2));
+	}
+}
+
+}
@@ -0,0 +1,110 @@
+package routing;
+
+import java.util.Random;
+
+/**
+ * Regression check of the contraction hierarchy.
+ * For randomized grids of several sizes, the lengths of the routes computed by the
+ * customized contraction hierarchy are compared with the lengths of the routes computed
+ * by the bidirectional A*-search (Network.computeFastestWay2). The grids have jittered
+ * coordinates, random edge classes and randomly missing edges.
+ * Usage: java routing.HierarchyCheck [number of pairs] [grid size ...]
+ *
+ * @version	1.00	17.10.2026	first version
+ * @author FH Oldenburg
+ */
+public class HierarchyCheck {
+
+/**
+ * Creates a randomized grid network.
+ * @return  the network
+ * @param  size  number of nodes per row and column
+ * @param  random  the random generator
+ */
+public static Network createGrid (int size, Random random) {
+	Network net = new Network();
+	Nodes nodes = net.getNodes();
+	Edges edges = net.getEdges();
+	for (int i=0; i<size; i++)
+		for (int j=0; j<size; j++)
+			nodes.newNode(i*size+j+1,j*1000+random.nextInt(600)-300,i*1000+random.nextInt(600)-300,null);
+	long id = 1;
+	for (int i=0; i<size; i++)
+		for (int j=0; j<size; j++) {
+			Node node = nodes.get(i*size+j+1);
+			if ((j+1 < size) && (random.nextInt(100) < 85))
+				edges.newEdge(id++,random.nextInt(edges.getNumOfClasses()),node,nodes.get(i*size+j+2),null);
+			if ((i+1 < size) && (random.nextInt(100) < 85))
+				edges.newEdge(id++,random.nextInt(edges.getNumOfClasses()),node,nodes.get((i+1)*size+j+1),null);
+		}
+	return net;
+}
+
+/**
+ * Computes the length of a path by the weights of its edges in the direction of traversal.
+ * @return  the length (-1 if there is no path)
+ * @param  path  the path
+ */
+private static double length (PathEdge path) {
+	if (path == null)
+		return -1;
+	double res = 0;
+	for (; path != null; path = path.getNext())
+		res += path.getEdge().getWeight(path.getForwards());
+	return res;
+}
+
+/**
+ * Compares the routes of the hierarchy and of the A*-search between random pairs of connected nodes.
+ * @return  number of pairs with different lengths
+ * @param  net  the network
+ * @param  numOfPairs  number of pairs
+ * @param  random  the random generator
+ */
+public static int check (Network net, int numOfPairs, Random random) {
+	Nodes nodes = net.getNodes();
+	HierarchyMetric metric = net.getContractionHierarchy().customize(net.getEdges().getWeightManager(),null);
+	int errors = 0;
+	for (int p=0; p<numOfPairs; p++) {
+		Node start = nodes.getNode(random.nextInt(nodes.numOfNodes()));
+		Node stop = nodes.getNode(random.nextInt(nodes.numOfNodes()));
+		if (start.equals(stop) || !net.isConnected(start,stop))
+			continue;
+		double l1 = length(net.computeFastestWay(metric,start,stop));
+		double l2 = length(net.computeFastestWay2(start,stop));
+		if (Math.abs(l1-l2) > 1e-6*Math.max(1,l2)) {
+			System.out.println("  "+start.getID()+" -> "+stop.getID()+": hierarchy "+l1+", A* "+l2);
+			errors++;
+		}
+	}
+	return errors;
+}
+
+/**
+ * Runs the check.
+ * @param  args  number of pairs, grid sizes
+ */
+public static void main (String[] args) {
+	int numOfPairs = 200;
+	int[] sizes = {10,25,40,60,80};
+	if (args.length > 0)
+		numOfPairs = Integer.parseInt(args[0]);
+	if (args.length > 1) {
+		sizes = new int[args.length-1];
+		for (int i=1; i<args.length; i++)
+			sizes[i-1] = Integer.parseInt(args[i]);
+	}
+	int errors = 0;
+	for (int s=0; s<sizes.length; s++) {
+		Random random = new Random(sizes[s]);
+		Network net = createGrid(sizes[s],random);
+		int e = check(net,numOfPairs,random);
+		System.out.println("grid "+sizes[s]+"x"+sizes[s]+": "+net.getNodes().numOfNodes()+" nodes, "+net.getEdges().numOfEdges()+" edges, "+e+" differences");
+		errors += e;
+	}
+	System.out.println(errors == 0 ? "hierarchy and A* agree" : errors+" differences");
+	if (errors > 0)
+		System.exit(1);
+}
+
+}
@@ -0,0 +1,49 @@
+package routing;
+
+/**
+ * Thread customizing a cell of a contraction hierarchy.
+ *
+ * @version	1.00	17.10.2026	first version
+ * @author FH Oldenburg
+ */
+class HierarchyCustomization extends Thread {
+
+	/**
+	 * The hierarchy.
+	 */
+	private ContractionHierarchy hierarchy = null;
+	/**
+	 * The metric to be computed.
+	 */
+	private HierarchyMetric metric = null;
+	/**
+	 * The cell.
+	 */
+	private int cell = 0;
+	/**
+	 * Depth of the cell.
+	 */
+	private int depth = 0;
+
+/**
+ * Constructor.
+ * @param  hierarchy  the hierarchy
+ * @param  metric  the metric to be computed
+ * @param  cell  the cell
+ * @param  depth  depth of the cell
+ */
+HierarchyCustomization (ContractionHierarchy hierarchy, HierarchyMetric metric, int cell, int depth) {
+	this.hierarchy = hierarchy;
+	this.metric = metric;
+	this.cell = cell;
+	this.depth = depth;
+}
+
+/**
+ * Customizes the cell.
+ */
+public void run () {
+	hierarchy.customizeCell(metric,cell,depth);
+}
+
+}
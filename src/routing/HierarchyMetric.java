@@ -0,0 +1,77 @@
+package routing;
+
+/**
+ * Weights of a customized contraction hierarchy.
+ * The weights of the arcs are computed by ContractionHierarchy.customize from the
+ * weights of the edges; for each arc and direction, the middle node of the shortcut
+ * or the original arc is stored in order to unpack the computed paths.
+ *
+ * @version	1.00	17.10.2026	first version
+ * @author FH Oldenburg
+ */
+public class HierarchyMetric {
+
+	/**
+	 * The hierarchy the metric belongs to.
+	 */
+	protected ContractionHierarchy hierarchy = null;
+	/**
+	 * Weight of each arc from the node of lower rank to the node of higher rank.
+	 */
+	protected double[] up = null;
+	/**
+	 * Weight of each arc from the node of higher rank to the node of lower rank.
+	 */
+	protected double[] down = null;
+	/**
+	 * Middle node of each upward shortcut (-1: original arc).
+	 */
+	protected int[] upVia = null;
+	/**
+	 * Middle node of each downward shortcut (-1: original arc).
+	 */
+	protected int[] downVia = null;
+	/**
+	 * Arc of the CompactGraph used by each upward original arc.
+	 */
+	protected int[] upOrig = null;
+	/**
+	 * Arc of the CompactGraph used by each downward original arc.
+	 */
+	protected int[] downOrig = null;
+	/**
+	 * Weights of the edges in their direction.
+	 */
+	protected double[] forwardWeight = null;
+	/**
+	 * Weights of the edges against their direction.
+	 */
+	protected double[] backwardWeight = null;
+
+/**
+ * Creates an empty metric of a hierarchy.
+ * @param  hierarchy  the hierarchy
+ */
+public HierarchyMetric (ContractionHierarchy hierarchy) {
+	this.hierarchy = hierarchy;
+	int numOfArcs = hierarchy.getNumOfArcs();
+	up = new double[numOfArcs];
+	down = new double[numOfArcs];
+	upVia = new int[numOfArcs];
+	downVia = new int[numOfArcs];
+	upOrig = new int[numOfArcs];
+	downOrig = new int[numOfArcs];
+	int numOfEdges = hierarchy.getGraph().getNumOfEdges();
+	forwardWeight = new double[numOfEdges];
+	backwardWeight = new double[numOfEdges];
+}
+
+/**
+ * Returns the hierarchy the metric belongs to.
+ * @return  the hierarchy
+ */
+public ContractionHierarchy getHierarchy () {
+	return hierarchy;
+}
+
+}
@@ -0,0 +1,291 @@
+package routing;
+
+import util.CPUTimer;
+
+/**
+ * An indexed d-ary min-heap of int items with double keys.
+ * Items are numbers between 0 and the capacity; the position of each item in the
+ * heap is recorded, so the key of a contained item can be decreased in O(log n).
+ * Keys and items are stored in parallel primitive arrays. Apart from growing
+ * the arrays, no operation allocates memory, and the heap has no size limit.
+ *
+ * @version	1.20	17.10.2026	remove added
+ * @version	1.10	17.10.2026	getFirstKey added
+ * @version	1.00	17.10.2026	first version
+ * @author FH Oldenburg
+ */
+public class IndexedHeap {
+
+	/**
+	 * Default number of children of a heap element.
+	 */
+	public static final int DEFAULT_ARITY = 4;
+
+	/**
+	 * Number of children of a heap element.
+	 */
+	private int arity = DEFAULT_ARITY;
+	/**
+	 * The keys in heap order.
+	 */
+	private double[] key = new double[256];
+	/**
+	 * The items in heap order.
+	 */
+	private int[] item = new int[256];
+	/**
+	 * Position of each item in the heap (-1 if not contained).
+	 */
+	private int[] pos = new int[0];
+	/**
+	 * The number of entries.
+	 */
+	private int num = 0;
+	/**
+	 * The item returned by fetchFirst.
+	 */
+	private int retItem = -1;
+	/**
+	 * The key of the item returned by fetchFirst.
+	 */
+	private double retKey = 0;
+	/**
+	 * Are the operations measured by the (static) timers?
+	 */
+	private boolean timed = false;
+	/**
+	 * Fetch timer.
+	 */
+	static public CPUTimer fetchTimer = new CPUTimer();
+	/**
+	 * Insert timer.
+	 */
+	static public CPUTimer insertTimer = new CPUTimer();
+	/**
+	 * Change timer.
+	 */
+	static public CPUTimer changeTimer = new CPUTimer();
+
+/**
+ * Creates a new 4-ary heap.
+ */
+public IndexedHeap () {
+}
+
+/**
+ * Creates a new heap.
+ * @param  arity  number of children of a heap element (at least 2)
+ * @param  timed  should the operations be measured by the static timers?
+ */
+public IndexedHeap (int arity, boolean timed) {
+	this.arity = Math.max(2,arity);
+	this.timed = timed;
+}
+
+/**
+ * Tests whether the item is contained in the heap.
+ * @return  contained?
+ * @param  i  the item
+ */
+public boolean contains (int i) {
+	return (i < pos.length) && (pos[i] >= 0);
+}
+
+/**
+ * Decreases the key of a contained item.
+ * A key that is not smaller than the current key is ignored.
+ * @param  i  the item
+ * @param  k  the new key
+ */
+public void decreaseKey (int i, double k) {
+	if (timed)
+		changeTimer.start();
+	int p = pos[i];
+	if (p < 0)
+		System.err.println("IndexedHeap.decreaseKey: item "+i+" not in heap!");
+	else if (k < key[p])
+		upheap(p,i,k);
+	if (timed)
+		changeTimer.stop();
+}
+
+/**
+ * Moves an element down in the heap.
+ * @param  p  the start position
+ * @param  i  the item to be placed
+ * @param  k  the key of the item
+ */
+private void downheap (int p, int i, double k) {
+	while (true) {
+		int c = p*arity+1;
+		if (c >= num)
+			break;
+		// smallest child
+		int last = Math.min(c+arity,num);
+		int minC = c;
+		double minK = key[c];
+		for (c++; c<last; c++)
+			if (key[c] < minK) {
+				minC = c;
+				minK = key[c];
+			}
+		if (k <= minK)
+			break;
+		key[p] = minK;
+		item[p] = item[minC];
+		pos[item[p]] = p;
+		p = minC;
+	}
+	key[p] = k;
+	item[p] = i;
+	pos[i] = p;
+}
+
+/**
+ * Ensures that items up to the given capacity can be stored.
+ * @param  capacity  the number of possible items
+ */
+public void ensureCapacity (int capacity) {
+	if (pos.length < capacity) {
+		int[] newPos = new int[Math.max(capacity,2*pos.length)];
+		System.arraycopy(pos,0,newPos,0,pos.length);
+		for (int i=pos.length; i<newPos.length; i++)
+			newPos[i] = -1;
+		pos = newPos;
+	}
+}
+
+/**
+ * Gets and removes the first element of the heap.
+ * The element can be accessed by returnItem and returnKey.
+ * @return  element found?
+ */
+public boolean fetchFirst () {
+	if (num == 0)
+		return false;
+	if (timed)
+		fetchTimer.start();
+	retItem = item[0];
+	retKey = key[0];
+	pos[retItem] = -1;
+	num--;
+	if (num > 0)
+		downheap(0,item[num],key[num]);
+	if (timed)
+		fetchTimer.stop();
+	return true;
+}
+
+/**
+ * Returns the smallest key without removing its element.
+ * @return  the smallest key or Double.MAX_VALUE if the heap is empty
+ */
+public double getFirstKey () {
+	if (num == 0)
+		return Double.MAX_VALUE;
+	return key[0];
+}
+
+/**
+ * Returns the number of entries.
+ * @return  number of entries
+ */
+public int getNumOfEntries () {
+	return num;
+}
+
+/**
+ * Inserts a new item into the heap.
+ * @param  i  the item (not contained in the heap)
+ * @param  k  its key
+ */
+public void insert (int i, double k) {
+	if (timed)
+		insertTimer.start();
+	ensureCapacity(i+1);
+	if (num == key.length) {
+		double[] newKey = new double[2*key.length];
+		System.arraycopy(key,0,newKey,0,num);
+		key = newKey;
+		int[] newItem = new int[2*item.length];
+		System.arraycopy(item,0,newItem,0,num);
+		item = newItem;
+	}
+	upheap(num++,i,k);
+	if (timed)
+		insertTimer.stop();
+}
+
+/**
+ * Is the heap empty?
+ * @return  empty?
+ */
+public boolean isEmpty () {
+	return num == 0;
+}
+
+/**
+ * Removes an item from the heap; nothing happens if it is not contained.
+ * @param  i  the item
+ */
+public void remove (int i) {
+	if (!contains(i))
+		return;
+	int p = pos[i];
+	pos[i] = -1;
+	num--;
+	if (p == num)
+		return;
+	if ((p > 0) && (key[(p-1)/arity] > key[num]))
+		upheap(p,item[num],key[num]);
+	else
+		downheap(p,item[num],key[num]);
+}
+
+/**
+ * Removes all elements from the heap.
+ */
+public void reset () {
+	for (int p=0; p<num; p++)
+		pos[item[p]] = -1;
+	num = 0;
+}
+
+/**
+ * Returns the item fetched by fetchFirst.
+ * @return  the item
+ */
+public int returnItem () {
+	return retItem;
+}
+
+/**
+ * Returns the key of the item fetched by fetchFirst.
+ * @return  the key
+ */
+public double returnKey () {
+	return retKey;
+}
+
+/**
+ * Moves an element up in the heap.
+ * @param  p  the start position
+ * @param  i  the item to be placed
+ * @param  k  the key of the item
+ */
+private void upheap (int p, int i, double k) {
+	while (p > 0) {
+		int parent = (p-1)/arity;
+		if (key[parent] <= k)
+			break;
+		key[p] = key[parent];
+		item[p] = item[parent];
+		pos[item[p]] = p;
+		p = parent;
+	}
+	key[p] = k;
+	item[p] = i;
+	pos[i] = p;
+}
+
+}
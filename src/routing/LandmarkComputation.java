@@ -0,0 +1,33 @@
+package routing;
+
+/**
+ * Thread computing distance tables of landmarks.
+ * The thread computes missing tables until all tables of the landmarks exist.
+ *
+ * @version	1.00	17.10.2026	first version
+ * @author FH Oldenburg
+ */
+class LandmarkComputation extends Thread {
+
+	/**
+	 * The landmarks whose tables are computed.
+	 */
+	private Landmarks landmarks = null;
+
+/**
+ * Constructor.
+ * @param  landmarks  the landmarks whose tables are computed
+ */
+LandmarkComputation (Landmarks landmarks) {
+	this.landmarks = landmarks;
+}
+
+/**
+ * Computes tables as long as tables are missing.
+ */
+public void run () {
+	while (landmarks.computeNextTable())
+		;
+}
+
+}
@@ -0,0 +1,520 @@
+package routing;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+/**
+ * Landmarks for A* searches based on the triangle inequality (ALT).
+ * For each landmark L, the distances d(L,v) from L to all nodes v and d(v,L) from all
+ * nodes to L are precomputed. The weights of the edges are the minimum weights given by
+ * WeightManager.getMinimumWeight; therefore, the resulting bounds remain valid if the
+ * edges become slower during the generation. The landmarks are selected either by the
+ * farthest or by the avoid heuristic. The distance tables are computed by several threads
+ * and may be stored in a file next to the network files.
+ * An object refers to the CompactGraph it has been computed for; it must not be used
+ * for another graph.
+ *
+ * @version	1.11	17.10.2026	DEFAULT_NUMBER only suggested, the generators use no landmarks by default
+ * @version	1.10	17.10.2026	stored in and read from network snapshots
+ * @version	1.00	17.10.2026	first version
+ * @author FH Oldenburg
+ */
+public class Landmarks {
+
+	/**
+	 * Selection by the farthest heuristic.
+	 */
+	public static final int FARTHEST = 0;
+	/**
+	 * Selection by the avoid heuristic.
+	 */
+	public static final int AVOID = 1;
+	/**
+	 * Suggested number of landmarks; the generators use landmarks only on request.
+	 */
+	public static final int DEFAULT_NUMBER = 16;
+	/**
+	 * Extension of landmark files.
+	 */
+	public static final String EXTENSION = ".lmk";
+	/**
+	 * Identification of landmark files.
+	 */
+	private static final int MAGIC = 0x4C4D4B31;
+
+	/**
+	 * The graph the landmarks belong to.
+	 */
+	private CompactGraph graph = null;
+	/**
+	 * Fingerprint of the graph and the minimum weights.
+	 */
+	private long fingerprint = 0;
+	/**
+	 * Number of landmarks.
+	 */
+	private int num = 0;
+	/**
+	 * Dense indices of the landmark nodes.
+	 */
+	private int[] landmark = null;
+	/**
+	 * Distances from the landmarks to the nodes: fromLandmark[l][v] = d(L,v).
+	 */
+	private double[][] fromLandmark = null;
+	/**
+	 * Distances from the nodes to the landmarks: toLandmark[l][v] = d(v,L).
+	 */
+	private double[][] toLandmark = null;
+	/**
+	 * Minimum weight of each arc in its direction.
+	 */
+	private double[] arcWeight = null;
+	/**
+	 * Minimum weight of each arc against its direction.
+	 */
+	private double[] reverseArcWeight = null;
+	/**
+	 * Next table to be computed by a LandmarkComputation thread.
+	 */
+	private int nextTable = 0;
+
+/**
+ * Selects the landmarks and computes their distance tables.
+ * @param  g  the graph
+ * @param  wm  weight manager providing the minimum weights
+ * @param  num  number of landmarks
+ * @param  selection  FARTHEST or AVOID
+ */
+public Landmarks (CompactGraph g, WeightManager wm, int num, int selection) {
+	this.graph = g;
+	computeArcWeights(wm);
+	fingerprint = computeFingerprint(g,arcWeight,reverseArcWeight);
+	this.num = Math.min(num,g.numOfNodes);
+	landmark = new int[this.num];
+	fromLandmark = new double[this.num][];
+	toLandmark = new double[this.num][];
+	if (this.num == 0)
+		return;
+	// selection; the heuristics require the tables from the landmarks
+	Random random = new Random(g.numOfNodes);
+	for (int l=0; l<this.num; l++) {
+		int root = random.nextInt(g.numOfNodes);
+		if ((selection == AVOID) && (l > 0))
+			landmark[l] = selectAvoid(l,root);
+		else
+			landmark[l] = selectFarthest(l,root);
+		fromLandmark[l] = new double[g.numOfNodes];
+		dijkstra(landmark[l],arcWeight,fromLandmark[l],null,null);
+	}
+	// backward tables
+	computeTables(Runtime.getRuntime().availableProcessors());
+}
+
+/**
+ * Constructor used by read.
+ * @param  g  the graph
+ * @param  num  number of landmarks
+ */
+private Landmarks (CompactGraph g, int num) {
+	this.graph = g;
+	this.num = num;
+	landmark = new int[num];
+	fromLandmark = new double[num][];
+	toLandmark = new double[num][];
+}
+
+/**
+ * Computes the minimum weights of the arcs.
+ * @param  wm  the weight manager
+ */
+private void computeArcWeights (WeightManager wm) {
+	int numOfArcs = graph.getNumOfArcs();
+	arcWeight = new double[numOfArcs];
+	reverseArcWeight = new double[numOfArcs];
+	for (int a=0; a<numOfArcs; a++) {
+		Edge e = graph.edge[graph.arcEdge[a]];
+		arcWeight[a] = wm.getMinimumWeight(e,graph.arcForwards[a]);
+		reverseArcWeight[a] = wm.getMinimumWeight(e,!graph.arcForwards[a]);
+	}
+}
+
+/**
+ * Computes the fingerprint of a graph and the minimum weights of a weight manager.
+ * @return  the fingerprint
+ * @param  g  the graph
+ * @param  wm  the weight manager
+ */
+public static long computeFingerprint (CompactGraph g, WeightManager wm) {
+	Landmarks lm = new Landmarks(g,0);
+	lm.computeArcWeights(wm);
+	return computeFingerprint(g,lm.arcWeight,lm.reverseArcWeight);
+}
+
+/**
+ * Computes the fingerprint of a graph and the minimum weights of its arcs.
+ * @return  the fingerprint
+ * @param  g  the graph
+ * @param  arcWeight  minimum weights of the arcs in their direction
+ * @param  reverseArcWeight  minimum weights of the arcs against their direction
+ */
+private static long computeFingerprint (CompactGraph g, double[] arcWeight, double[] reverseArcWeight) {
+	long h = g.numOfNodes;
+	for (int n=0; n<g.numOfNodes; n++)
+		h = 31*h + g.node[n].getID();
+	for (int a=0; a<arcWeight.length; a++) {
+		h = 31*h + g.arcTarget[a];
+		h = 31*h + Double.doubleToLongBits(arcWeight[a]);
+		h = 31*h + Double.doubleToLongBits(reverseArcWeight[a]);
+	}
+	return h;
+}
+
+/**
+ * Computes the missing distance tables by several threads.
+ * @param  numOfThreads  number of threads
+ */
+private void computeTables (int numOfThreads) {
+	nextTable = 0;
+	LandmarkComputation[] thread = new LandmarkComputation[Math.max(1,Math.min(numOfThreads,2*num))];
+	for (int t=0; t<thread.length; t++) {
+		thread[t] = new LandmarkComputation(this);
+		thread[t].start();
+	}
+	for (int t=0; t<thread.length; t++)
+		try {
+			thread[t].join();
+		}
+		catch (InterruptedException ex) {
+			System.err.println("Landmarks.computeTables: "+ex);
+		}
+}
+
+/**
+ * Computes a missing distance table.
+ * Called by LandmarkComputation.
+ * @return  was a table computed? (false if all tables exist)
+ */
+boolean computeNextTable () {
+	int t;
+	synchronized (this) {
+		while ((nextTable < 2*num) && (((nextTable%2 == 0) ? fromLandmark : toLandmark)[nextTable/2] != null))
+			nextTable++;
+		if (nextTable >= 2*num)
+			return false;
+		t = nextTable++;
+	}
+	double[] dist = new double[graph.numOfNodes];
+	if (t%2 == 0) {
+		dijkstra(landmark[t/2],arcWeight,dist,null,null);
+		fromLandmark[t/2] = dist;
+	}
+	else {
+		dijkstra(landmark[t/2],reverseArcWeight,dist,null,null);
+		toLandmark[t/2] = dist;
+	}
+	return true;
+}
+
+/**
+ * Computes the distances from a source node by the algorithm of Dijkstra.
+ * Unreachable nodes get the distance Double.MAX_VALUE.
+ * @param  source  dense index of the source node
+ * @param  weight  weights of the arcs (reverseArcWeight computes the distances to the source)
+ * @param  dist  array for the distances
+ * @param  parentArc  array for the arcs of the shortest path tree or null
+ * @param  order  array for the nodes in the order of their computation or null
+ * @return  number of reached nodes
+ */
+private int dijkstra (int source, double[] weight, double[] dist, int[] parentArc, int[] order) {
+	IndexedHeap heap = new IndexedHeap();
+	heap.ensureCapacity(graph.numOfNodes);
+	boolean[] done = new boolean[graph.numOfNodes];
+	for (int n=0; n<graph.numOfNodes; n++)
+		dist[n] = Double.MAX_VALUE;
+	if (parentArc != null)
+		for (int n=0; n<graph.numOfNodes; n++)
+			parentArc[n] = -1;
+	dist[source] = 0;
+	heap.insert(source,0);
+	int numReached = 0;
+	while (heap.fetchFirst()) {
+		int n = heap.returnItem();
+		done[n] = true;
+		if (order != null)
+			order[numReached] = n;
+		numReached++;
+		for (int a=graph.firstArc[n]; a<graph.firstArc[n+1]; a++) {
+			int m = graph.arcTarget[a];
+			if (done[m])
+				continue;
+			double d = dist[n]+weight[a];
+			if (d < dist[m]) {
+				if (dist[m] == Double.MAX_VALUE)
+					heap.insert(m,d);
+				else
+					heap.decreaseKey(m,d);
+				dist[m] = d;
+				if (parentArc != null)
+					parentArc[m] = a;
+			}
+		}
+	}
+	return numReached;
+}
+
+/**
+ * Returns the fingerprint of the graph and the minimum weights.
+ * @return  the fingerprint
+ */
+public long getFingerprint () {
+	return fingerprint;
+}
+
+/**
+ * Returns the graph the landmarks belong to.
+ * @return  the graph
+ */
+public CompactGraph getGraph () {
+	return graph;
+}
+
+/**
+ * Returns a landmark node.
+ * @return  the node
+ * @param  l  number of the landmark
+ */
+public Node getLandmark (int l) {
+	return graph.node[landmark[l]];
+}
+
+/**
+ * Returns the number of landmarks.
+ * @return  number of landmarks
+ */
+public int getNumOfLandmarks () {
+	return num;
+}
+
+/**
+ * Computes a lower bound of the weight of the fastest path between two nodes.
+ * @return  the lower bound (at least 0)
+ * @param  from  dense index of the first node
+ * @param  to  dense index of the second node
+ */
+public double lowerBound (int from, int to) {
+	double res = 0;
+	for (int l=0; l<num; l++) {
+		double[] fl = fromLandmark[l];
+		double[] tl = toLandmark[l];
+		// d(from,to) >= d(from,L)-d(to,L) and d(from,to) >= d(L,to)-d(L,from)
+		if ((tl[from] != Double.MAX_VALUE) && (tl[to] != Double.MAX_VALUE) && (tl[from]-tl[to] > res))
+			res = tl[from]-tl[to];
+		if ((fl[to] != Double.MAX_VALUE) && (fl[from] != Double.MAX_VALUE) && (fl[to]-fl[from] > res))
+			res = fl[to]-fl[from];
+	}
+	return res;
+}
+
+/**
+ * Reads landmarks from a file.
+ * @return  the landmarks or null if the file does not exist or belongs to another graph or weighting
+ * @param  filename  name of the file
+ * @param  g  the graph
+ * @param  fingerprint  the fingerprint of the graph and the minimum weights
+ */
+public static Landmarks read (String filename, CompactGraph g, long fingerprint) {
+	DataInputStream in = null;
+	try {
+		in = new DataInputStream(new BufferedInputStream(new FileInputStream(filename)));
+		if ((in.readInt() != MAGIC) || (in.readInt() != g.numOfNodes) || (in.readLong() != fingerprint))
+			return null;
+		Landmarks lm = new Landmarks(g,in.readInt());
+		lm.fingerprint = fingerprint;
+		for (int l=0; l<lm.num; l++)
+			lm.landmark[l] = in.readInt();
+		for (int l=0; l<lm.num; l++) {
+			lm.fromLandmark[l] = new double[g.numOfNodes];
+			lm.toLandmark[l] = new double[g.numOfNodes];
+			for (int n=0; n<g.numOfNodes; n++)
+				lm.fromLandmark[l][n] = in.readDouble();
+			for (int n=0; n<g.numOfNodes; n++)
+				lm.toLandmark[l][n] = in.readDouble();
+		}
+		return lm;
+	}
+	catch (IOException ex) {
+		return null;
+	}
+	finally {
+		try {
+			if (in != null)
+				in.close();
+		}
+		catch (IOException ex) {
+		}
+	}
+}
+
+/**
+ * Reads landmarks from a network snapshot.
+ * @return  the landmarks
+ * @param  buf  the snapshot at the position of the landmarks
+ * @param  g  the graph
+ */
+static Landmarks readSnapshot (ByteBuffer buf, CompactGraph g) {
+	long fingerprint = buf.getLong();
+	Landmarks lm = new Landmarks(g,buf.getInt());
+	lm.fingerprint = fingerprint;
+	lm.landmark = NetworkSnapshot.readInts(buf,lm.num);
+	for (int l=0; l<lm.num; l++) {
+		lm.fromLandmark[l] = NetworkSnapshot.readDoubles(buf,g.numOfNodes);
+		lm.toLandmark[l] = NetworkSnapshot.readDoubles(buf,g.numOfNodes);
+	}
+	return lm;
+}
+
+/**
+ * Writes the landmarks into a file.
+ * @return  successful?
+ * @param  filename  name of the file
+ */
+public boolean save (String filename) {
+	try {
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(filename)));
+		out.writeInt(MAGIC);
+		out.writeInt(graph.numOfNodes);
+		out.writeLong(fingerprint);
+		out.writeInt(num);
+		for (int l=0; l<num; l++)
+			out.writeInt(landmark[l]);
+		for (int l=0; l<num; l++) {
+			for (int n=0; n<graph.numOfNodes; n++)
+				out.writeDouble(fromLandmark[l][n]);
+			for (int n=0; n<graph.numOfNodes; n++)
+				out.writeDouble(toLandmark[l][n]);
+		}
+		out.close();
+		return true;
+	}
+	catch (IOException ex) {
+		System.err.println("Landmarks.save: "+ex);
+		return false;
+	}
+}
+
+/**
+ * Writes the landmarks into a network snapshot.
+ * @param  out  the output
+ * @exception  IOException  if an I/O error occurs
+ */
+void writeSnapshot (DataOutput out) throws IOException {
+	out.writeLong(fingerprint);
+	out.writeInt(num);
+	NetworkSnapshot.writeInts(out,landmark,num);
+	for (int l=0; l<num; l++) {
+		NetworkSnapshot.writeDoubles(out,fromLandmark[l],graph.numOfNodes);
+		NetworkSnapshot.writeDoubles(out,toLandmark[l],graph.numOfNodes);
+	}
+}
+
+/**
+ * Selects a landmark by the avoid heuristic.
+ * The shortest path tree from the root is computed. Each node is weighted by the
+ * difference between its distance and the lower bound given by the landmarks selected
+ * before. Starting at the root, the child with the largest weight sum of its subtree
+ * is followed; subtrees containing a landmark are ignored. The reached leaf becomes
+ * the new landmark.
+ * @return  dense index of the new landmark
+ * @param  l  number of the landmarks selected before
+ * @param  root  dense index of the root
+ */
+private int selectAvoid (int l, int root) {
+	int n = graph.numOfNodes;
+	double[] dist = new double[n];
+	int[] parentArc = new int[n];
+	int[] order = new int[n];
+	int numReached = dijkstra(root,arcWeight,dist,parentArc,order);
+	// mark the landmarks
+	boolean[] hasLandmark = new boolean[n];
+	for (int i=0; i<l; i++)
+		hasLandmark[landmark[i]] = true;
+	// bottom-up computation of the sizes of the subtrees
+	double[] size = new double[n];
+	int[] bestChild = new int[n];
+	for (int i=0; i<numReached; i++) {
+		int v = order[i];
+		double bound = 0;
+		for (int k=0; k<l; k++)
+			if (fromLandmark[k][v] != Double.MAX_VALUE)
+				bound = Math.max(bound,fromLandmark[k][v]-fromLandmark[k][root]);
+		size[v] = dist[v]-bound;
+		bestChild[v] = -1;
+	}
+	for (int i=numReached-1; i>0; i--) {
+		int v = order[i];
+		if (hasLandmark[v])
+			size[v] = 0;
+		int parent = findSource(parentArc[v]);
+		size[parent] += size[v];
+		hasLandmark[parent] |= hasLandmark[v];
+		if ((size[v] > 0) && ((bestChild[parent] < 0) || (size[v] > size[bestChild[parent]])))
+			bestChild[parent] = v;
+	}
+	// descend to a leaf
+	int v = root;
+	while (bestChild[v] >= 0)
+		v = bestChild[v];
+	if ((v == root) || hasLandmark[v])
+		return selectFarthest(l,root);
+	return v;
+}
+
+/**
+ * Returns the source node of an arc.
+ * @return  dense index of the source node
+ * @param  a  index of the arc
+ */
+private int findSource (int a) {
+	int lo = 0;
+	int hi = graph.numOfNodes-1;
+	while (lo < hi) {
+		int mid = (lo+hi+1)/2;
+		if (graph.firstArc[mid] <= a)
+			lo = mid;
+		else
+			hi = mid-1;
+	}
+	return lo;
+}
+
+/**
+ * Selects a landmark by the farthest heuristic.
+ * The first landmark is the node farthest from the root; each further landmark
+ * is the node farthest from the landmarks selected before.
+ * @return  dense index of the new landmark
+ * @param  l  number of the landmarks selected before
+ * @param  root  dense index of the root
+ */
+private int selectFarthest (int l, int root) {
+	int n = graph.numOfNodes;
+	double[] minDist = new double[n];
+	if (l == 0)
+		dijkstra(root,arcWeight,minDist,null,null);
+	else
+		for (int v=0; v<n; v++) {
+			minDist[v] = Double.MAX_VALUE;
+			for (int k=0; k<l; k++)
+				minDist[v] = Math.min(minDist[v],fromLandmark[k][v]);
+		}
+	int best = -1;
+	for (int v=0; v<n; v++)
+		if ((minDist[v] != Double.MAX_VALUE) && ((best < 0) || (minDist[v] > minDist[best])))
+			best = v;
+	if (best < 0)
+		return root;
+	return best;
+}
+
+}
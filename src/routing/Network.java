@@ -2,6 +2,7 @@ package routing;
 
 import java.io.*;
 import java.net.*;
+import java.nio.*;
 import java.util.*;
 import java.util.zip.*;
 import drawables.*;
@@ -10,6 +11,21 @@ import util.*;
 /**
  * Class representing a network.
  * 
+ * @version	1.54	17.10.2026	computeFastWay2 berechnet den schnellsten Weg (computeFastestWay2)
+ * @version	1.53	17.10.2026	Snapshot: Knoten und Kanten direkt aus dem abgebildeten Speicher
+ * @version	1.52	17.10.2026	NetworkFileReader: Kanten zu bereits vorhandenen Knoten
+ * @version	1.51	17.10.2026	Snapshot-Dateien (saveSnapshot)
+ * @version	1.50	17.10.2026	Einlesen der Netzwerk-Dateien durch NetworkFileReader, gepufferte Streams
+ * @version	1.49	17.10.2026	isConnected added
+ * @version	1.48	17.10.2026	computeRouteToRandomDestination added
+ * @version	1.47	17.10.2026	Landmarks fr einen Kantenbewerter, Landmarks des Routing-Kontexts
+ * @version	1.46	17.10.2026	computeRoute (packed routes) added
+ * @version	1.45	17.10.2026	customizable contraction hierarchy added
+ * @version	1.44	17.10.2026	landmarks (ALT) used as estimates
+ * @version	1.43	17.10.2026	computeFastestWay2 (bidirectional A*) added
+ * @version	1.42	17.10.2026	BorderHeap replaced by IndexedHeap
+ * @version	1.41	17.10.2026	searches run on a CompactGraph
+ * @version	1.40	17.10.2026	search states moved to RoutingContext, route queries may run concurrently
  * @version	1.30	19.08.2003	considered that computeFastWay2 sometimes has a wrong starting node, distance becomes double, adapted to BorderHeap
  * @version	1.22	28.06.2000	adapted to Drawables, Timer removed
  * @version	1.21	30.04.2000	optimized
@@ -29,9 +45,45 @@ public class Network {
 	 */
 	protected Edges edges = null;
 	/**
-	 * 	Heap fr den Rand
+	 * 	Routing context used by the methods without context parameter
 	 */
-	private BorderHeap border = new BorderHeap();
+	private RoutingContext defaultContext = null;
+	/**
+	 * 	Kompakte Darstellung des Netzwerks (wird bei Bedarf neu aufgebaut)
+	 */
+	private volatile CompactGraph graph = null;
+	/**
+	 * 	Landmarks fr die Abschtzung der Restgewichte (oder null)
+	 */
+	private volatile Landmarks landmarks = null;
+	/**
+	 * 	Bereits bereitgestellte Landmarks fr verschiedene Kantenbewerter (siehe getLandmarks)
+	 */
+	private Vector landmarkSets = new Vector();
+	/**
+	 * 	Kontraktionshierarchie (wird bei Bedarf neu aufgebaut)
+	 */
+	private ContractionHierarchy hierarchy = null;
+	/**
+	 * 	Basisname der Netzwerk-Dateien (oder null, falls nicht aus lokalen Dateien gelesen)
+	 */
+	private String filename = null;
+	/**
+	 * 	Kompakte Darstellung des aus den Netzwerk-Dateien eingelesenen Netzwerks (oder null)
+	 */
+	private CompactGraph loadedGraph = null;
+	/**
+	 * 	Existiert ein aktueller Snapshot der Netzwerk-Dateien?
+	 */
+	private boolean snapshotExists = false;
+	/**
+	 * 	Im Snapshot gespeicherte Landmarks (oder null)
+	 */
+	private Landmarks snapshotLandmarks = null;
+	/**
+	 * 	Im Snapshot gespeicherte Kontraktionshierarchie (oder null)
+	 */
+	private ContractionHierarchy snapshotHierarchy = null;
 	
 	/**
 	 * 	Distanz-Wert fr unendlich
@@ -49,22 +101,14 @@ public class Network {
 	 * 	allgemeine Knoten-Markierung fr Wege
 	 */
 	private static final int WAY = 1;
-	/**
-	 * 	Knoten-Markierung fr Weg1
-	 */
-	private int WAY1 = NWAY1;
-	/**
-	 * 	Knoten-Markierung fr Weg2
-	 */
-	private int WAY2 = NWAY2;
-	/**
-	 * 	Knoten-Markierung fertige Wege
-	 */
-	private int FINAL = 4;
 	/**
 	 * 	Knoten-Markierung beste Wege
 	 */
 	private final int BEST = 8;
+	/**
+	 * 	Knoten-Markierung endgltige Knoten von Weg 2 (computeFastestWay2)
+	 */
+	private static final int FINAL2 = 16;
 
 /**
  * Constructor.
@@ -75,125 +119,358 @@ public Network () {
 	nodes = new Nodes(edges);
 }
 
+/**
+ * Creates a new routing context for this network.
+ * Each thread that routes concurrently to other threads requires its own context.
+ * @return the new context
+ */
+public RoutingContext createRoutingContext () {
+	return new RoutingContext(nodes);
+}
+
+/**
+ * Berechnet nach Dijkstra den schnellsten Weg von einem Start- zu einem Endknoten.
+ * Die Suche verwendet den Standard-Kontext des Netzwerks.
+ * @return berechneter Weg
+ * @param start Startknoten
+ * @param stop Stopknoten
+ */
+public synchronized PathEdge computeFastestWay (Node start, Node stop) {
+	return computeFastestWay (getDefaultContext(),start,stop);
+}
+
 /**
  * Berechnet nach Dijkstra den schnellsten Weg von einem Start- zu einem Endknoten.
  * @return berechneter Weg
+ * @param ctx Routing-Kontext der Suche
  * @param start Startknoten
  * @param stop Stopknoten
  */
-public PathEdge computeFastestWay (Node start, Node stop) {
+public PathEdge computeFastestWay (RoutingContext ctx, Node start, Node stop) {
 	if ((start == null) || (stop == null) || (start.equals(stop)))
 		return null;
 	// Initialisierung
-	nodes.clearAllMarks();
-	start.clearWays();
-	start.mark(FINAL);
-	start.mark(BEST);
-	start.setDistanceOfWay(WAY,0);
-	border.reset();
+	CompactGraph g = getCompactGraph();
+	ctx.clearAllMarks();
+	ctx.clearWays(start);
+	ctx.mark(start,ctx.FINAL);
+	ctx.mark(start,BEST);
+	ctx.setDistanceOfWay(start,WAY,0);
+	ctx.heap.reset();
 	// Durchlauf
-	enlargeBorder (border, start,stop, WAY, false);
-	boolean elementFound = border.fetchFirst();
+	enlargeBorder (ctx, g, start.index,stop.index, WAY, false);
+	boolean elementFound = ctx.heap.fetchFirst();
 	Node actNode = null;
-	while (elementFound && (!stop.equals(actNode = border.returnNode()))) {
-		actNode.mark (WAY);
-		enlargeBorder (border, actNode,stop, WAY, false);
-		elementFound = border.fetchFirst();
+	while (elementFound && (!stop.equals(actNode = g.node[ctx.getFetchedNode()]))) {
+		ctx.mark(actNode,WAY);
+		enlargeBorder (ctx, g, actNode.index,stop.index, WAY, false);
+		elementFound = ctx.heap.fetchFirst();
 	}
 	// Ergebnis erzeugen
-	return computeResultPath (actNode,false);
+	return computeResultPath (ctx,actNode,false);
 }
 
 /**
- * Berechnet einen schnellen Weg (oft den schnellsten) zwischen 2 Knoten.
- * Die Berechnung wird nur vom Startknoten aus durchgefhrt.
+ * Berechnet den schnellsten Weg mit Hilfe einer angepassten Kontraktionshierarchie.
+ * Die Suche verwendet den Standard-Kontext des Netzwerks.
  * @return berechneter Weg
+ * @param metric Gewichte der Kontraktionshierarchie (null: computeFastestWay2)
  * @param start Startknoten
  * @param stop Stopknoten
  */
-public PathEdge computeFastWay (Node start, Node stop) {
-	if ((start == null) || (stop == null) || (start.equals(stop)))
+public synchronized PathEdge computeFastestWay (HierarchyMetric metric, Node start, Node stop) {
+	return computeFastestWay (getDefaultContext(),metric,start,stop);
+}
+
+/**
+ * Berechnet den schnellsten Weg mit Hilfe einer angepassten Kontraktionshierarchie.
+ * Die Gewichte entsprechen dem Stand bei der letzten Anpassung (ContractionHierarchy.customize).
+ * Gehrt die Hierarchie nicht zum aktuellen Netzwerk oder fehlt die Metrik,
+ * wird computeFastestWay2 verwendet.
+ * @return berechneter Weg
+ * @param ctx Routing-Kontext der Suche
+ * @param metric Gewichte der Kontraktionshierarchie (null: computeFastestWay2)
+ * @param start Startknoten
+ * @param stop Stopknoten
+ */
+public PathEdge computeFastestWay (RoutingContext ctx, HierarchyMetric metric, Node start, Node stop) {
+	if ((metric == null) || (metric.getHierarchy().getGraph() != getCompactGraph()))
+		return computeFastestWay2 (ctx,start,stop);
+	return metric.getHierarchy().computeFastestWay (ctx,metric,start,stop);
+}
+
+/**
+ * Berechnet den schnellsten Weg als kompakte Route.
+ * Die Suche verwendet den Standard-Kontext des Netzwerks.
+ * @return berechnete Route (null, falls es keinen Weg gibt)
+ * @param metric Gewichte der Kontraktionshierarchie (null: bidirektionale A*-Suche)
+ * @param start Startknoten
+ * @param stop Stopknoten
+ */
+public synchronized Route computeRoute (HierarchyMetric metric, Node start, Node stop) {
+	return computeRoute (getDefaultContext(),metric,start,stop);
+}
+
+/**
+ * Berechnet den schnellsten Weg als kompakte Route.
+ * Die Route entspricht dem Ergebnis von computeFastestWay (ctx,metric,start,stop);
+ * bei der A*-Suche wird sie jedoch ohne PathEdge-Objekte direkt aus den Wegen erzeugt.
+ * @return berechnete Route (null, falls es keinen Weg gibt)
+ * @param ctx Routing-Kontext der Suche
+ * @param metric Gewichte der Kontraktionshierarchie (null: bidirektionale A*-Suche)
+ * @param start Startknoten
+ * @param stop Stopknoten
+ */
+public Route computeRoute (RoutingContext ctx, HierarchyMetric metric, Node start, Node stop) {
+	CompactGraph g = getCompactGraph();
+	if ((metric != null) && (metric.getHierarchy().getGraph() == g)) {
+		PathEdge path = metric.getHierarchy().computeFastestWay (ctx,metric,start,stop);
+		if (path == null)
+			return null;
+		return new Route (g,path);
+	}
+	if (!searchFastestWay2 (ctx,start,stop))
+		return null;
+	return computeResultRoute (ctx,g,ctx.getConnectionNode());
+}
+
+/**
+ * Whlt zufllig einen Zielknoten, dessen schnellster Weg vom Startknoten eine Lnge
+ * (Summe der Kantenlngen) zwischen minLength und maxLength besitzt, und gibt diesen
+ * Weg als Route zurck. Dazu werden die Knoten nach Dijkstra in der Reihenfolge ihres
+ * Gewichts abgeschlossen (Weg NWAY1); jeder abgeschlossene Knoten im Lngenband wird
+ * durch Reservoir-Sampling mit gleicher Wahrscheinlichkeit gewhlt. Der Rand NWAY2
+ * enthlt fr jeden erreichten, nicht abgeschlossenen Knoten die kleinste Lnge eines
+ * Weges ber einen abgeschlossenen Knoten; die Suche endet, sobald diese Lnge maxLength
+ * bersteigt, da danach kein Knoten im Band mehr abgeschlossen werden kann.
+ * Die Route entspricht der Route von computeRoute bis auf die Wahl zwischen gleich schnellen Wegen.
+ * @return Route zum gewhlten Zielknoten (null, falls kein Knoten im Band liegt)
+ * @param ctx Routing-Kontext der Suche
+ * @param start Startknoten
+ * @param minLength minimale Lnge des Weges
+ * @param maxLength maximale Lnge des Weges
+ * @param random Zufallsgenerator
+ */
+public Route computeRouteToRandomDestination (RoutingContext ctx, Node start, double minLength, double maxLength, Random random) {
+	if (start == null)
 		return null;
 	// Initialisierung
-	nodes.clearAllMarks();
-	start.clearWays();
-	start.mark(FINAL);
-	start.mark(BEST);
-	start.setDistanceOfWay(WAY,0);
-	border.reset();
-	// Durchlauf
-	enlargeBorder (border, start,stop, WAY, true);
-	boolean elementFound = border.fetchFirst();
-	Node actNode = null;
-	while (elementFound && (!stop.equals(actNode = border.returnNode()))) {
-		actNode.mark(FINAL);
-		enlargeBorder (border, actNode,stop, WAY, true);
-		elementFound = border.fetchFirst();
+	CompactGraph g = getCompactGraph();
+	WeightManager wm = ctx.getWeightManager(edges);
+	ctx.clearAllMarks();
+	ctx.useSeparateBorders();
+	ctx.heap.reset();
+	ctx.clearWays(start);
+	ctx.mark(start,NWAY1);
+	ctx.setDistanceOfWay(start,NWAY1,0);
+	ctx.setDistanceOfWay(start,NWAY2,0);
+	ctx.insertIntoBorder(start.index,NWAY1,0);
+	int dest = -1;
+	int numOfCandidates = 0;
+	// Durchlauf; bis auf den Startknoten ist jeder Knoten des Randes NWAY1 auch im Rand NWAY2
+	while (!ctx.heap.isEmpty() && (ctx.reverseHeap.isEmpty() || (ctx.reverseHeap.getFirstKey() <= maxLength))) {
+		ctx.heap.fetchFirst();
+		int actNode = ctx.getFetchedNode();
+		ctx.mark(actNode,ctx.FINAL);
+		// Lnge des Weges bestimmen und den Knoten aus dem Rand NWAY2 entfernen
+		if (actNode != start.index) {
+			int a = g.firstArc[actNode]+ctx.getWayPosition(actNode,NWAY1);
+			ctx.setDistanceOfWay(actNode,NWAY2,ctx.getDistanceOfWay(g.arcTarget[a],NWAY2)+g.length[g.arcEdge[a]]);
+			ctx.removeFromBorder(actNode,NWAY2);
+			double length = ctx.getDistanceOfWay(actNode,NWAY2);
+			if ((length >= minLength) && (length <= maxLength)) {
+				numOfCandidates++;
+				if (random.nextInt(numOfCandidates) == 0)
+					dest = actNode;
+			}
+		}
+		// Rand erweitern
+		for (int a=g.firstArc[actNode]; a<g.firstArc[actNode+1]; a++) {
+			int oppositeNode = g.arcTarget[a];
+			if (ctx.isMarked(oppositeNode,ctx.FINAL))
+				continue;
+			double dist = ctx.getDistanceOfWay(actNode,NWAY1)+wm.getWeight(g.edge[g.arcEdge[a]],g.arcForwards[a]);
+			double length = ctx.getDistanceOfWay(actNode,NWAY2)+g.length[g.arcEdge[a]];
+			if (!ctx.isMarked(oppositeNode,NWAY1)) {
+				ctx.setDistanceOfWay(oppositeNode,NWAY1,dist);
+				ctx.setWayPosition(oppositeNode,NWAY1,g.arcReverse[a]);
+				ctx.mark(oppositeNode,NWAY1);
+				ctx.insertIntoBorder(oppositeNode,NWAY1,0);
+				ctx.setDistanceOfWay(oppositeNode,NWAY2,length);
+				ctx.insertIntoBorder(oppositeNode,NWAY2,0);
+				continue;
+			}
+			if (dist < ctx.getDistanceOfWay(oppositeNode,NWAY1)) {
+				ctx.setDistanceOfWay(oppositeNode,NWAY1,dist);
+				ctx.setWayPosition(oppositeNode,NWAY1,g.arcReverse[a]);
+				ctx.adaptToDecreasedDistance(oppositeNode,NWAY1);
+			}
+			if (length < ctx.getDistanceOfWay(oppositeNode,NWAY2)) {
+				ctx.setDistanceOfWay(oppositeNode,NWAY2,length);
+				ctx.adaptToDecreasedDistance(oppositeNode,NWAY2);
+			}
+		}
 	}
-	// Ergebnis erzeugen
-	return computeResultPath (actNode,false);
+	if (dest < 0)
+		return null;
+	return computeResultRoute (ctx,g,dest);
 }
 
 /**
  * Berechnet einen schnellen Weg (oft den schnellsten) zwischen 2 Knoten.
- * Im Gegensatz zu computeFastWay wird die Berechnung von beiden Knoten
- * gleichberechtigt durchgefhrt.
+ * Die Suche verwendet den Standard-Kontext des Netzwerks.
  * @return berechneter Weg
  * @param start Startknoten
  * @param stop Stopknoten
  */
-public PathEdge computeFastWay2 (Node start, Node stop) {
+public synchronized PathEdge computeFastWay (Node start, Node stop) {
+	return computeFastWay (getDefaultContext(),start,stop);
+}
+
+/**
+ * Berechnet einen schnellen Weg (oft den schnellsten) zwischen 2 Knoten.
+ * Die Berechnung wird nur vom Startknoten aus durchgefhrt.
+ * @return berechneter Weg
+ * @param ctx Routing-Kontext der Suche
+ * @param start Startknoten
+ * @param stop Stopknoten
+ */
+public PathEdge computeFastWay (RoutingContext ctx, Node start, Node stop) {
 	if ((start == null) || (stop == null) || (start.equals(stop)))
 		return null;
 	// Initialisierung
-	nodes.clearAllMarks();
-	start.clearWays();
-	start.mark(WAY1);
-	start.setDistanceOfWay(WAY1,0);
-	stop.clearWays();
-	stop.mark(WAY2);
-	stop.setDistanceOfWay(WAY2,0);
-	border.reset();
+	CompactGraph g = getCompactGraph();
+	ctx.clearAllMarks();
+	ctx.clearWays(start);
+	ctx.mark(start,ctx.FINAL);
+	ctx.mark(start,BEST);
+	ctx.setDistanceOfWay(start,WAY,0);
+	ctx.heap.reset();
 	// Durchlauf
-	enlargeBorder (border, start,stop, WAY1, true);
-	enlargeBorder (border, stop,start, WAY2, true);
-	boolean elementFound = border.fetchFirst();
+	enlargeBorder (ctx, g, start.index,stop.index, WAY, true);
+	boolean elementFound = ctx.heap.fetchFirst();
 	Node actNode = null;
-	while (elementFound) {
-		//System.out.print("markiere: "); element.debugPrint(); System.out.println();
-		actNode = border.returnNode();
-		// Fall 1: Knoten gehrt zu WAY1
-		if (actNode.isMarked(WAY1)) {
-			actNode.mark(FINAL);
-			// falls er auch zu WAY2 gehrt, sind beide Wege nun aufeinander getroffen => fertig
-			if (actNode.isMarked(WAY2))
-				break;
-			enlargeBorder (border, actNode,stop, WAY1, true);
-		}	
-		// Fall 2: Knoten gehrt zu WAY2
-		else if (actNode.isMarked(WAY2)) {
-			actNode.mark(FINAL);
-			enlargeBorder (border, actNode,start,WAY2, true);
-		}	
-		// Fall 3: gibt es nicht!
-		else
-			System.err.println("Fehler: Knoten falsch markiert!");
-		elementFound = border.fetchFirst();
+	while (elementFound && (!stop.equals(actNode = g.node[ctx.getFetchedNode()]))) {
+		ctx.mark(actNode,ctx.FINAL);
+		enlargeBorder (ctx, g, actNode.index,stop.index, WAY, true);
+		elementFound = ctx.heap.fetchFirst();
 	}
 	// Ergebnis erzeugen
-	PathEdge res = computeResultPath (actNode,true);
-	if (res == null)
+	return computeResultPath (ctx,actNode,false);
+}
+
+/**
+ * Berechnet einen schnellen Weg zwischen 2 Knoten
+ * von beiden Knoten aus. Die Suche verwendet den Standard-Kontext des Netzwerks.
+ * @return berechneter Weg
+ * @param start Startknoten
+ * @param stop Stopknoten
+ */
+public synchronized PathEdge computeFastWay2 (Node start, Node stop) {
+	return computeFastWay2 (getDefaultContext(),start,stop);
+}
+
+/**
+ * Berechnet einen schnellen Weg zwischen 2 Knoten.
+ * Die frhere bidirektionale Suche brach ab, sobald sich beide Rnder trafen; ihr Weg
+ * war daher nicht immer der schnellste und begann manchmal nicht am Startknoten, so dass
+ * auf computeFastWay ausgewichen werden musste. Seit Version 1.54 wird stattdessen der
+ * schnellste Weg durch computeFastestWay2 berechnet; neue Aufrufer sollten diese Methode
+ * direkt verwenden.
+ * @return berechneter Weg (null, falls es keinen Weg gibt)
+ * @param ctx Routing-Kontext der Suche
+ * @param start Startknoten
+ * @param stop Stopknoten
+ */
+public PathEdge computeFastWay2 (RoutingContext ctx, Node start, Node stop) {
+	return computeFastestWay2 (ctx,start,stop);
+}
+
+/**
+ * Berechnet den schnellsten Weg zwischen 2 Knoten durch eine bidirektionale A*-Suche.
+ * Die Suche verwendet den Standard-Kontext des Netzwerks.
+ * @return berechneter Weg
+ * @param start Startknoten
+ * @param stop Stopknoten
+ */
+public synchronized PathEdge computeFastestWay2 (Node start, Node stop) {
+	return computeFastestWay2 (getDefaultContext(),start,stop);
+}
+
+/**
+ * Berechnet den schnellsten Weg zwischen 2 Knoten durch eine bidirektionale A*-Suche.
+ * Beide Suchen verwenden die gemittelten Potentiale pf(v) = (h(v,stop)-h(start,v))/2
+ * bzw. -pf(v), wobei h die mit WeightManager.computeWeight (also mit der maximalen
+ * Geschwindigkeit) bewertete Luftliniendistanz ist. Dadurch sind die reduzierten
+ * Kantengewichte in beiden Richtungen gleich und nicht negativ. Die Suche endet, sobald
+ * die Summe der kleinsten Schlssel beider Rnder die Lnge der besten bisher gefundenen
+ * Verbindung erreicht; der Weg fhrt daher immer vom Start- zum Stopknoten.
+ * @return berechneter Weg (null, falls es keinen Weg gibt)
+ * @param ctx Routing-Kontext der Suche
+ * @param start Startknoten
+ * @param stop Stopknoten
+ */
+public PathEdge computeFastestWay2 (RoutingContext ctx, Node start, Node stop) {
+	if (!searchFastestWay2 (ctx,start,stop))
 		return null;
-	if (res.getStartingNode() != start) {
-		res = computeFastWay (start,stop);
-		if (res == null)
-			return null;
-		if (res.getStartingNode() != start) {
-			//System.err.println("### start wrong ###");
-			return null;
+	return computeResultPath (ctx,getCompactGraph().node[ctx.getConnectionNode()],true);
+}
+
+/**
+ * Fhrt die bidirektionale A*-Suche von computeFastestWay2 durch.
+ * Der Verbindungsknoten beider Wege steht anschlieend im Kontext (getConnectionNode).
+ * @return wurde ein Weg gefunden?
+ * @param ctx Routing-Kontext der Suche
+ * @param start Startknoten
+ * @param stop Stopknoten
+ */
+protected boolean searchFastestWay2 (RoutingContext ctx, Node start, Node stop) {
+	if ((start == null) || (stop == null) || (start.equals(stop)))
+		return false;
+	// Initialisierung
+	CompactGraph g = getCompactGraph();
+	WeightManager wm = ctx.getWeightManager(edges);
+	ctx.clearAllMarks();
+	ctx.useSeparateBorders();
+	ctx.heap.reset();
+	ctx.clearWays(start);
+	ctx.mark(start,NWAY1);
+	ctx.setDistanceOfWay(start,NWAY1,0);
+	ctx.clearWays(stop);
+	ctx.mark(stop,NWAY2);
+	ctx.setDistanceOfWay(stop,NWAY2,0);
+	double startPotential = computePotential(ctx,g,wm,start.index,start.index,stop.index);
+	double stopPotential = computePotential(ctx,g,wm,stop.index,start.index,stop.index);
+	ctx.insertIntoBorder(start.index,NWAY1,0);
+	ctx.insertIntoBorder(stop.index,NWAY2,0);
+	// Durchlauf: es wird jeweils der Rand mit dem kleineren Schlssel erweitert
+	while (ctx.heap.getFirstKey()+ctx.reverseHeap.getFirstKey() < ctx.getConnectionDistance()-startPotential+stopPotential) {
+		if (ctx.heap.getFirstKey() <= ctx.reverseHeap.getFirstKey()) {
+			ctx.heap.fetchFirst();
+			int actNode = ctx.getFetchedNode();
+			ctx.mark(actNode,ctx.FINAL);
+			enlargeBorder (ctx,g,wm,actNode,start.index,stop.index,NWAY1,startPotential,stopPotential);
+		}
+		else {
+			ctx.reverseHeap.fetchFirst();
+			int actNode = ctx.reverseHeap.returnItem() >> 1;
+			ctx.mark(actNode,FINAL2);
+			enlargeBorder (ctx,g,wm,actNode,start.index,stop.index,NWAY2,startPotential,stopPotential);
 		}
 	}
-	return res;
+	return ctx.getConnectionNode() >= 0;
+}
+
+/**
+ * Berechnet die Wege zwischen 2 Knoten, die nicht um den angegebenen Prozentsatz
+ * schlechter sind als der krzeste Weg. Die Suche verwendet den Standard-Kontext des Netzwerks.
+ * @return berechneter Weg
+ * @param start Startknoten
+ * @param stop Stopknoten
+ * @param threshold Prozentsatz, um den ein Weg schlechter sein darf
+ */
+public synchronized PathEdge computeFastWays (Node start, Node stop, int threshold) {
+	return computeFastWays (getDefaultContext(),start,stop,threshold);
 }
 
 /**
@@ -203,83 +480,85 @@ public PathEdge computeFastWay2 (Node start, Node stop) {
  * - keine Zyklen <BR>
  * - keine Rckwege (kann evtl. auch ungnstige Querverbindungen treffen <BR>
  * @return berechneter Weg
+ * @param ctx Routing-Kontext der Suche
  * @param start Startknoten
  * @param stop Stopknoten
  * @param threshold Prozentsatz, um den ein Weg schlechter sein darf
  */
-public PathEdge computeFastWays (Node start, Node stop, int threshold) {
+public PathEdge computeFastWays (RoutingContext ctx, Node start, Node stop, int threshold) {
 	// Prfen, ob Weg berechenbar
 	if ((start == null) || (stop == null) || (start.equals(stop)))
 		return null;
 	// Initialisierung
-	border.reset();					// Rand
+	ctx.heap.reset();					// Rand
 	PathEdge resPath = null;					// Ergebnis
 	double shortestDistance = maxDistance;		// Distanz des krzesten Wegs
 	// Knoten initilisieren und markieren
-	nodes.clearAllMarks();
-	start.clearWays();
-	start.mark(WAY1);
-	start.setDistanceOfWay(NWAY1,0);
-	stop.clearWays();
-	stop.mark(WAY2);
-	stop.setDistanceOfWay(NWAY2,0);
+	CompactGraph g = getCompactGraph();
+	ctx.clearAllMarks();
+	ctx.clearWays(start);
+	ctx.mark(start,ctx.WAY1);
+	ctx.setDistanceOfWay(start,NWAY1,0);
+	ctx.clearWays(stop);
+	ctx.mark(stop,ctx.WAY2);
+	ctx.setDistanceOfWay(stop,NWAY2,0);
 	// zweifacher Durchlauf
 	for (int numOfLoops=1; true; numOfLoops++) {
 		System.out.println ("** Durchlauf "+numOfLoops+" **");
 		// Start- und Zielknoten in Rand aufnehmen
-		enlargeBorder (border, start,stop, WAY1, threshold,shortestDistance,resPath);
-		enlargeBorder (border, stop,start, WAY2, threshold,shortestDistance,resPath);
+		enlargeBorder (ctx, g, start,stop, ctx.WAY1, threshold,shortestDistance,resPath);
+		enlargeBorder (ctx, g, stop,start, ctx.WAY2, threshold,shortestDistance,resPath);
 		// Abarbeiten und Ergnzen des Randes
-		boolean elementFound = border.fetchFirst();
+		boolean elementFound = ctx.heap.fetchFirst();
 		while (elementFound) {
 			// Prfen, ob Weg zu lang => ggf. Durchlauf abbrechen
-			if (border.returnDistance()*100/(100+threshold) > shortestDistance)
+			if (ctx.heap.returnKey()*100/(100+threshold) > shortestDistance)
 				break;
-			Node actNode = border.returnNode();
-			actNode.mark(FINAL);
+			Node actNode = g.node[ctx.getFetchedNode()];
+			ctx.mark(actNode,ctx.FINAL);
 			// Fall 1: Knoten gehrt zu NWAY1
-			if (actNode.isMarked(WAY1)) {
+			if (ctx.isMarked(actNode,ctx.WAY1)) {
 				// Fall 1a: BEST-Knoten => diesen im ersten Durchlauf ignorieren
-				if ( (numOfLoops == 1) && (actNode.isMarked(BEST)) ) {
+				if ( (numOfLoops == 1) && (ctx.isMarked(actNode,BEST)) ) {
 					//System.out.print("BEST: "); actNode.debugPrint(NWAY1); System.out.println();
 				}
 				// Fall 1b: Knoten gehrt auch zu NWAY2
-				else if (actNode.isMarked(WAY2)) {
+				else if (ctx.isMarked(actNode,ctx.WAY2)) {
 					// im ersten Durchgang ggf. Wege berechnen
 					if (numOfLoops == 1) {
 						// Es handelt sich um den ersten Weg
 						if (resPath == null) {
-							resPath = computeResultPath (actNode,true);
+							resPath = computeResultPath (ctx,actNode,true);
 							if (resPath == null)
 								return null;	// Sollte nicht vorkommen
-							shortestDistance = actNode.getDistanceOfWay(NWAY1)+actNode.getDistanceOfWay(NWAY2);
+							shortestDistance = ctx.getDistanceOfWay(actNode,NWAY1)+ctx.getDistanceOfWay(actNode,NWAY2);
 						}
 						// oder einen weiteren, hinreichend kurzen Weg
-						else if ((actNode.getDistanceOfWay(NWAY1)+actNode.getDistanceOfWay(NWAY2))*100/(100+threshold) <= shortestDistance) {
-							resPath.addPath (computeResultPath(actNode,true));
+						else if ((ctx.getDistanceOfWay(actNode,NWAY1)+ctx.getDistanceOfWay(actNode,NWAY2))*100/(100+threshold) <= shortestDistance) {
+							resPath.addPath (computeResultPath (ctx,actNode,true));
 							// mglicherweise ist dieser Pfad sogar krzer!
-							if (actNode.getDistanceOfWay(NWAY1)+actNode.getDistanceOfWay(NWAY2) < shortestDistance)
-								shortestDistance = actNode.getDistanceOfWay(NWAY1)+actNode.getDistanceOfWay(NWAY2);	
+							if (ctx.getDistanceOfWay(actNode,NWAY1)+ctx.getDistanceOfWay(actNode,NWAY2) < shortestDistance)
+								shortestDistance = ctx.getDistanceOfWay(actNode,NWAY1)+ctx.getDistanceOfWay(actNode,NWAY2);	
 						}
 					}	
 				}
 				// Fall 1c: Knoten gehrt nur zu NWAY1 => Rand vergrssern
 				else {
-					enlargeBorder (border, actNode,stop, WAY1, threshold,shortestDistance,resPath);
+					enlargeBorder (ctx, g, actNode,stop, ctx.WAY1, threshold,shortestDistance,resPath);
 				}
 			}
 			// Fall 2: Knoten gehrt nur zu NWAY2 => Rand vergrssern
-			else if (actNode.isMarked(WAY2)) {
-				enlargeBorder (border, actNode,start,WAY2, threshold,shortestDistance,resPath);
+			else if (ctx.isMarked(actNode,ctx.WAY2)) {
+				enlargeBorder (ctx, g, actNode,start,ctx.WAY2, threshold,shortestDistance,resPath);
 			}
 			// Fall 3: Knoten gehrt weder zu NWAY1 noch zu NWAY2 => Fehler
 			else {
-				actNode.debugPrint(WAY1); actNode.debugPrint(WAY2); System.err.println(" ist falsch markiert!");
+				ctx.debugPrint(actNode,ctx.WAY1); ctx.debugPrint(actNode,ctx.WAY2); System.err.println(" ist falsch markiert!");
 			}	
-			elementFound = border.fetchFirst();
+			elementFound = ctx.heap.fetchFirst();
 			// wenn Knoten mehrfach kommt, ihn berspringen
-			while ( (elementFound) && (actNode.equals(border.returnNode())) ) {
-				elementFound = border.fetchFirst();
+			while ( (elementFound) && (actNode.equals(g.node[ctx.getFetchedNode()])) ) {
+				elementFound = ctx.heap.fetchFirst();
 			}
 		} // while
 	
@@ -287,19 +566,19 @@ public PathEdge computeFastWays (Node start, Node stop, int threshold) {
 		if (numOfLoops == 2)
 			break;
 		// Knotenmarkierungen neu setzen
-		WAY1 = BEST*2;
-		WAY2 = WAY1*2;
-		FINAL = WAY2*2;
-		start.mark(WAY1);
-		stop.mark(WAY2);
+		ctx.WAY1 = BEST*2;
+		ctx.WAY2 = ctx.WAY1*2;
+		ctx.FINAL = ctx.WAY2*2;
+		ctx.mark(start,ctx.WAY1);
+		ctx.mark(stop,ctx.WAY2);
 		// Neuer Rand
-		border.reset();
+		ctx.heap.reset();
 	} // for
 	
 	// Markierungswerte zurcksetzen
-	WAY1 = NWAY1;
-	WAY2 = NWAY2;
-	FINAL = WAY2*2;
+	ctx.WAY1 = NWAY1;
+	ctx.WAY2 = NWAY2;
+	ctx.FINAL = ctx.WAY2*2;
 	// Ergebnis zurckgeben
 	return resPath;
 }
@@ -315,47 +594,47 @@ public PathEdge computeFastWays (Node start, Node stop, int threshold) {
  * @param shortestDistance Lnge des krzesten Weges
  * @param resPath Ergebnispfad mit allen bislang berechneter Wege
  */
-protected void computeNewConnection (BorderHeap border, Node start, Edge actEdge, Node stop, int wayMark, int threshold, double shortestDistance, PathEdge resPath) {
+protected void computeNewConnection (RoutingContext ctx, Node start, Edge actEdge, Node stop, int wayMark, int threshold, double shortestDistance, PathEdge resPath) {
 	// Vorbereitungen
-	int way = wayMark / WAY1;
+	int way = wayMark / ctx.WAY1;
 	int theOtherWay = NWAY1;
 	if (way == NWAY1)
 		theOtherWay = NWAY2;
 	Node oppositeNode = actEdge.getOppositeNode (start);
-	boolean bothBest = oppositeNode.isMarked(BEST) && start.isMarked(BEST);
+	boolean bothBest = ctx.isMarked(oppositeNode,BEST) && ctx.isMarked(start,BEST);
 	// Endpunkt der Verbindung feststellen und die Weglnge dahin berechnen
 	long addDistance = 0;
-	while (!oppositeNode.isMarked(BEST)) {
-		Edge nextEdge = oppositeNode.getWayEdge(way);
+	while (!ctx.isMarked(oppositeNode,BEST)) {
+		Edge nextEdge = ctx.getWayEdge(oppositeNode,way);
 		if (nextEdge == null)
 			break;
-		addDistance += nextEdge.getWeight();
-		oppositeNode = oppositeNode.getWayEdge(way).getOppositeNode (oppositeNode);
+		addDistance += ctx.getWeight(nextEdge);
+		oppositeNode = ctx.getWayEdge(oppositeNode,way).getOppositeNode (oppositeNode);
 	}
 	// Ausgangspunkt feststellen
 	Node searchNode = start;
-	while (!searchNode.isMarked(BEST)) {
-		Edge nextEdge = searchNode.getWayEdge(way);
+	while (!ctx.isMarked(searchNode,BEST)) {
+		Edge nextEdge = ctx.getWayEdge(searchNode,way);
 		if (nextEdge == null)
 			break;
-		searchNode = searchNode.getWayEdge(way).getOppositeNode (searchNode);
+		searchNode = ctx.getWayEdge(searchNode,way).getOppositeNode (searchNode);
 	}
 	// Falls beide zuvor BEST-Knoten, prfen ob Verbindung in Resultat vorliegt
 	if (bothBest) {
 		bothBest = (resPath.findEdge (actEdge) != null);
 		if (!bothBest) {
-			System.out.print("bothBest: "); searchNode.debugPrint(way); System.out.print(" -> "); oppositeNode.debugPrint(way); System.out.print(" bislang nicht in Lsung."); System.out.println();
+			System.out.print("bothBest: "); ctx.debugPrint(searchNode,way); System.out.print(" -> "); ctx.debugPrint(oppositeNode,way); System.out.print(" bislang nicht in Lsung."); System.out.println();
 		}
 	}	
 
 	// Falls man ber die Verbindung vorangekommen ist und den Schwellenwert nicht berschreitet: Pfad als Ergebnis aufnehmen
-	if ( (searchNode.getDistanceOfWay(way) < oppositeNode.getDistanceOfWay(way)) &&
+	if ( (ctx.getDistanceOfWay(searchNode,way) < ctx.getDistanceOfWay(oppositeNode,way)) &&
 		(!bothBest)) {
-		double actWeight = actEdge.getWeight();
-		if ((start.getDistanceOfWay(way)+actWeight+addDistance+oppositeNode.getDistanceOfWay(theOtherWay))*100/(threshold+100) <= shortestDistance) {
+		double actWeight = ctx.getWeight(actEdge);
+		if ((ctx.getDistanceOfWay(start,way)+actWeight+addDistance+ctx.getDistanceOfWay(oppositeNode,theOtherWay))*100/(threshold+100) <= shortestDistance) {
 			if (addDistance > 0)
-				resPath.addPath (computeResultPathBackwards (actEdge.getOppositeNode(start),way));
-			resPath.addPath (computeResultPath (start,way,actEdge.getOppositeNode(start).getDistanceOfWay(theOtherWay)+actEdge.getWeight()));
+				resPath.addPath (computeResultPathBackwards (ctx,actEdge.getOppositeNode(start),way));
+			resPath.addPath (computeResultPath (ctx,start,way,ctx.getDistanceOfWay(actEdge.getOppositeNode(start),theOtherWay)+ctx.getWeight(actEdge)));
 			resPath.addPath (new PathEdge (actEdge,actEdge.isStartingFrom(start),actWeight));
 		}
 	}	
@@ -370,7 +649,7 @@ protected void computeNewConnection (BorderHeap border, Node start, Edge actEdge
  * @param way Index des gewnschten Weges
  * @param distOfOtherWay Distanz des anderen Weges bei actNode
  */
-protected PathEdge computeResultPath (Node actNode, int way, double distOfOtherWay) {
+protected PathEdge computeResultPath (RoutingContext ctx, Node actNode, int way, double distOfOtherWay) {
 	// Vorbereitung
 	if (actNode == null)
 		return null;
@@ -379,15 +658,15 @@ protected PathEdge computeResultPath (Node actNode, int way, double distOfOtherW
 		theOtherWay = NWAY2;
 	// Berechnung des Weges
 	PathEdge path = null;
-	Edge actEdge = actNode.getWayEdge(way);
-	while ((!actNode.isMarked(BEST)) && (actEdge != null)) {
-		actNode.mark (BEST);
-		actNode.setDistanceOfWay (theOtherWay,distOfOtherWay);
-		double actWeight = actEdge.getWeight(actEdge.isDirectedTo(actNode));
+	Edge actEdge = ctx.getWayEdge(actNode,way);
+	while ((!ctx.isMarked(actNode,BEST)) && (actEdge != null)) {
+		ctx.mark(actNode,BEST);
+		ctx.setDistanceOfWay(actNode,theOtherWay,distOfOtherWay);
+		double actWeight = ctx.getWeight(actEdge,actEdge.isDirectedTo(actNode));
 		path = new PathEdge (actEdge,actEdge.isDirectedTo(actNode),actWeight,path);
 		distOfOtherWay += actWeight;
 		actNode = actEdge.getOppositeNode (actNode);
-		actEdge = actNode.getWayEdge(way);
+		actEdge = ctx.getWayEdge(actNode,way);
 	}	
 	return path;
 }
@@ -401,30 +680,30 @@ protected PathEdge computeResultPath (Node actNode, int way, double distOfOtherW
  * @param firstNode Ausgangsknoten
  * @param computeWAY2 Soll auch der mit NWAY2-Weg berechnet werden?
  */
-protected PathEdge computeResultPath (Node firstNode, boolean computeNWAY2) {
+protected PathEdge computeResultPath (RoutingContext ctx, Node firstNode, boolean computeNWAY2) {
 	// Fall, da Knoten nicht gesetzt, abfangen
 	if (firstNode == null)
 		return null;
 		
 	// Berechnung NWAY1
-	firstNode.mark(BEST);
-	double actDist = firstNode.getDistanceOfWay(NWAY2);
+	ctx.mark(firstNode,BEST);
+	double actDist = ctx.getDistanceOfWay(firstNode,NWAY2);
 	PathEdge path = null;
 	PathEdge firstPath = null;
 	Node actNode = null;
 	// Nur falls es eine NWAY1-Kante gibt, Pfad ablaufen
-	if (firstNode.getWayEdge(NWAY1) != null) {
-		Edge actEdge = firstNode.getWayEdge(NWAY1);
-		double actWeight = actEdge.getWeight(actEdge.isDirectedTo(firstNode));
+	if (ctx.getWayEdge(firstNode,NWAY1) != null) {
+		Edge actEdge = ctx.getWayEdge(firstNode,NWAY1);
+		double actWeight = ctx.getWeight(actEdge,actEdge.isDirectedTo(firstNode));
 		firstPath = new PathEdge (actEdge,actEdge.isDirectedTo(firstNode),actWeight);
 		path = firstPath;
 		actDist += actWeight;
 		actNode = actEdge.getOppositeNode (firstNode);
-		while ((!actNode.isMarked(BEST)) && (actNode.getWayEdge(NWAY1) != null)) {
-			actNode.mark (BEST);
-			actNode.setDistanceOfWay (NWAY2,actDist);
-			actEdge = actNode.getWayEdge(NWAY1);
-			actWeight = actEdge.getWeight(actEdge.isDirectedTo(actNode));
+		while ((!ctx.isMarked(actNode,BEST)) && (ctx.getWayEdge(actNode,NWAY1) != null)) {
+			ctx.mark(actNode,BEST);
+			ctx.setDistanceOfWay(actNode,NWAY2,actDist);
+			actEdge = ctx.getWayEdge(actNode,NWAY1);
+			actWeight = ctx.getWeight(actEdge,actEdge.isDirectedTo(actNode));
 			path = new PathEdge (actEdge,actEdge.isDirectedTo(actNode),actWeight,path);
 			actDist += actWeight;
 			actNode = actEdge.getOppositeNode (actNode);
@@ -437,13 +716,13 @@ protected PathEdge computeResultPath (Node firstNode, boolean computeNWAY2) {
 		
 	// Berechnung NWAY2
 	// Fall bercksichtigen, da es keine NWAY2-Kante gibt, 
-	if (firstNode.getWayEdge(NWAY2) == null) {
+	if (ctx.getWayEdge(firstNode,NWAY2) == null) {
 		return path;
 	}
 	// In Abhngigkeit vom NWAY1-Weg Resultat verketten
 	PathEdge resPath = null;
-	Edge actEdge = firstNode.getWayEdge(NWAY2);
-	double actWeight = actEdge.getWeight(actEdge.isStartingFrom(firstNode));
+	Edge actEdge = ctx.getWayEdge(firstNode,NWAY2);
+	double actWeight = ctx.getWeight(actEdge,actEdge.isStartingFrom(firstNode));
 	if (path != null) {
 		resPath = path;
 		firstPath.next = new PathEdge (actEdge,actEdge.isStartingFrom(firstNode),actWeight);
@@ -454,21 +733,64 @@ protected PathEdge computeResultPath (Node firstNode, boolean computeNWAY2) {
 		resPath = path;
 	}
 	// Pfad ablaufen
-	actDist = firstNode.getDistanceOfWay (NWAY1) + actWeight;
+	actDist = ctx.getDistanceOfWay(firstNode,NWAY1) + actWeight;
 	actNode = actEdge.getOppositeNode (firstNode);
-	actEdge = actNode.getWayEdge(NWAY2);
-	while ((!actNode.isMarked(BEST)) && (actEdge != null)) {
-		actNode.mark(BEST);
-		actNode.setDistanceOfWay (NWAY1,actDist);
-		actWeight = actEdge.getWeight(actEdge.isStartingFrom(actNode));
+	actEdge = ctx.getWayEdge(actNode,NWAY2);
+	while ((!ctx.isMarked(actNode,BEST)) && (actEdge != null)) {
+		ctx.mark(actNode,BEST);
+		ctx.setDistanceOfWay(actNode,NWAY1,actDist);
+		actWeight = ctx.getWeight(actEdge,actEdge.isStartingFrom(actNode));
 		path.next = new PathEdge (actEdge,actEdge.isStartingFrom(actNode),actWeight);
 		path = path.next;
 		actDist += actWeight;
 		actNode = actEdge.getOppositeNode (actNode);
-		actEdge = actNode.getWayEdge(NWAY2);
+		actEdge = ctx.getWayEdge(actNode,NWAY2);
 	}
 	return resPath;				
 }
+/**
+ * Erzeugt die Route ber einen Verbindungsknoten aus dem NWAY1- und dem NWAY2-Weg.
+ * Die Kanten und Gewichte entsprechen computeResultPath (ctx,node,true),
+ * es werden jedoch keine Knoten markiert.
+ * @return berechnete Route (null, falls sie keine Kante enthlt)
+ * @param ctx Routing-Kontext der Suche
+ * @param g kompakter Graph der Suche
+ * @param connection Index des Verbindungsknotens
+ */
+protected Route computeResultRoute (RoutingContext ctx, CompactGraph g, int connection) {
+	Node firstNode = g.node[connection];
+	// Anzahl der Kanten beider Wege bestimmen
+	int num1 = 0;
+	for (Node actNode = firstNode; ctx.getWayEdge(actNode,NWAY1) != null; num1++)
+		actNode = ctx.getWayEdge(actNode,NWAY1).getOppositeNode(actNode);
+	int num = num1;
+	for (Node actNode = firstNode; ctx.getWayEdge(actNode,NWAY2) != null; num++)
+		actNode = ctx.getWayEdge(actNode,NWAY2).getOppositeNode(actNode);
+	if (num == 0)
+		return null;
+	// NWAY1-Weg rckwrts, NWAY2-Weg vorwrts eintragen
+	Route route = new Route(g,num);
+	int i = num1;
+	Node actNode = firstNode;
+	Edge actEdge = ctx.getWayEdge(actNode,NWAY1);
+	while (actEdge != null) {
+		boolean forwards = actEdge.isDirectedTo(actNode);
+		route.set(--i,actEdge.getIndex(),forwards,ctx.getWeight(actEdge,forwards));
+		actNode = actEdge.getOppositeNode(actNode);
+		actEdge = ctx.getWayEdge(actNode,NWAY1);
+	}
+	i = num1;
+	actNode = firstNode;
+	actEdge = ctx.getWayEdge(actNode,NWAY2);
+	while (actEdge != null) {
+		boolean forwards = actEdge.isStartingFrom(actNode);
+		route.set(i++,actEdge.getIndex(),forwards,ctx.getWeight(actEdge,forwards));
+		actNode = actEdge.getOppositeNode(actNode);
+		actEdge = ctx.getWayEdge(actNode,NWAY2);
+	}
+	route.complete();
+	return route;
+}
 /**
  * Berechnung des Ergebnispfad von einem Knoten ausgehend entlang eines Weges.
  * Dabei wird der Pfad entgegen der Normalrichtung abgelaufen.
@@ -478,7 +800,7 @@ protected PathEdge computeResultPath (Node firstNode, boolean computeNWAY2) {
  * @param actNode Ausgangsknoten
  * @param way Index des gewnschten Weges
  */
-protected PathEdge computeResultPathBackwards (Node firstNode, int way) {
+protected PathEdge computeResultPathBackwards (RoutingContext ctx, Node firstNode, int way) {
 	// Vorbereitungen
 	if (firstNode == null)
 		return null;
@@ -489,24 +811,24 @@ protected PathEdge computeResultPathBackwards (Node firstNode, int way) {
 	Node actNode = firstNode;
 	PathEdge path = null;
 	long distOfOtherWay = 0;
-	double distOfWay = actNode.getDistanceOfWay(way);
-	Edge actEdge = actNode.getWayEdge(way);
-	while ((!actNode.isMarked(BEST)) && (actEdge != null)) {
-		actNode.mark (BEST);
-		actNode.setDistanceOfWay(way,distOfWay);
-		double actWeight = actEdge.getWeight(actEdge.isStartingFrom(actNode));
+	double distOfWay = ctx.getDistanceOfWay(actNode,way);
+	Edge actEdge = ctx.getWayEdge(actNode,way);
+	while ((!ctx.isMarked(actNode,BEST)) && (actEdge != null)) {
+		ctx.mark(actNode,BEST);
+		ctx.setDistanceOfWay(actNode,way,distOfWay);
+		double actWeight = ctx.getWeight(actEdge,actEdge.isStartingFrom(actNode));
 		path = new PathEdge (actEdge,actEdge.isStartingFrom(actNode),actWeight,path);
 		distOfOtherWay += actWeight;
 		distOfWay += actWeight;
 		actNode = actEdge.getOppositeNode (actNode);
-		actEdge = actNode.getWayEdge(way);
+		actEdge = ctx.getWayEdge(actNode,way);
 	}
 	// Setzen der Distanzen des anderen Wegs
-	distOfOtherWay += actNode.getDistanceOfWay(theOtherWay);
+	distOfOtherWay += ctx.getDistanceOfWay(actNode,theOtherWay);
 	while (!firstNode.equals(actNode)) {
-		firstNode.setDistanceOfWay(theOtherWay,distOfOtherWay);
+		ctx.setDistanceOfWay(firstNode,theOtherWay,distOfOtherWay);
 System.err.println("Ich glaube das nachfolgende ist falsch, da sich path nicht ndert");
-		distOfOtherWay -= path.edge.getWeight();
+		distOfOtherWay -= ctx.getWeight(path.edge);
 		firstNode = path.edge.getOppositeNode (firstNode);
 	}
 
@@ -552,18 +874,80 @@ public void createByNetworkFiles (DataInputStream nodeIn, DataInputStream edgeIn
 			eof = true;
 		}
 	}	
+	getCompactGraph();
+}
+/**
+ * Erzeugt Netzwerk aus den durch einen NetworkFileReader eingelesenen Datenstzen.
+ * Knoten und Kanten werden wie beim Einlesen aus Streams in der Reihenfolge der
+ * Dateien erzeugt.
+ * @param reader Reader mit den eingelesenen Datenstzen
+ * @param objects Container fr drawable objects
+ */
+private void createByNetworkFileReader (NetworkFileReader reader, DrawableObjects objects) {
+	System.out.println("read nodes ...");
+	Node[] node = new Node[reader.numOfNodes];
+	for (int i=0; i<reader.numOfNodes; i++) {
+		String name = (reader.nodeName != null) ? reader.nodeName[i] : null;
+		node[i] = nodes.newNode(reader.nodeId[i],reader.nodeX[i],reader.nodeY[i],name);
+		if (objects != null)
+			objects.addDrawable(node[i]);
+	}
+	System.out.println("read edges ...");
+	for (int i=0; i<reader.numOfEdges; i++) {
+		// bei mehrfachen IDs verweist die Position auf den letzten, gltigen Knoten;
+		// Knoten, die nicht in der Datei stehen, werden im Netzwerk gesucht
+		Node node1 = (reader.edgeNode1[i] >= 0) ? node[reader.edgeNode1[i]] : null;
+		Node node2 = (reader.edgeNode2[i] >= 0) ? node[reader.edgeNode2[i]] : null;
+		if ((node1 == null) && (reader.edgeNodeId1 != null))
+			node1 = nodes.get(reader.edgeNodeId1[i]);
+		if ((node2 == null) && (reader.edgeNodeId2 != null))
+			node2 = nodes.get(reader.edgeNodeId2[i]);
+		String name = (reader.edgeName != null) ? reader.edgeName[i] : null;
+		Edge actEdge = edges.newEdge(reader.edgeId[i],reader.edgeClass[i],node1,node2,name);
+		if (actEdge == null)
+			System.err.println("Read error for edge on line "+(i+1));
+		else if (objects != null)
+			objects.addDrawable(actEdge);
+	}
+	getCompactGraph();
 }
 /**
  * Erzeugt Netzwerk aus Netzwerk-Dateien.
+ * Existiert ein aktueller Snapshot der Dateien (siehe saveSnapshot) und ist das
+ * Netzwerk leer, wird das Netzwerk aus dem Snapshot erzeugt. Sonst werden die Dateien
+ * in den Speicher abgebildet und parallel dekodiert; gelingt die Abbildung nicht,
+ * werden sie ber gepufferte Streams gelesen.
  * @return erfolgreich?
  * @param filename Basiname der Dateien
  * @param objects Container fr drawable objects
  */
 public boolean createByNetworkFiles (String filename, DrawableObjects objects) {
+	boolean empty = (nodes.numOfNodes() == 0) && (edges.numOfEdges() == 0);
+	if (empty && createBySnapshot(filename,objects)) {
+		this.filename = filename;
+		return true;
+	}
+	NetworkFileReader reader = null;
 	try {
-		DataInputStream nodeStream = new DataInputStream(new FileInputStream(filename+".node"));
-		DataInputStream edgeStream = new DataInputStream(new FileInputStream(filename+".edge"));
-		createByNetworkFiles (nodeStream,edgeStream,objects);
+		reader = new NetworkFileReader(filename+".node",filename+".edge");
+	}
+	catch (IOException e) {
+	}
+	try {
+		if (reader != null) {
+			reader.read(Runtime.getRuntime().availableProcessors(),!empty);
+			createByNetworkFileReader(reader,objects);
+		}
+		else {
+			DataInputStream nodeStream = new DataInputStream(new BufferedInputStream(new FileInputStream(filename+".node")));
+			DataInputStream edgeStream = new DataInputStream(new BufferedInputStream(new FileInputStream(filename+".edge")));
+			createByNetworkFiles (nodeStream,edgeStream,objects);
+			nodeStream.close();
+			edgeStream.close();
+		}
+		this.filename = filename;
+		if (empty)
+			loadedGraph = getCompactGraph();
 		return true;
 	}		
 	catch (IOException e) {
@@ -571,6 +955,67 @@ public boolean createByNetworkFiles (String filename, DrawableObjects objects) {
 		return false;
 	}		
 }
+/**
+ * Erzeugt Netzwerk aus dem Snapshot von Netzwerk-Dateien.
+ * Die Knoten und Kanten werden in der Reihenfolge ihrer dichten Indizes erzeugt;
+ * ihre Attribute werden direkt aus dem abgebildeten Speicher gelesen, ohne sie zuvor
+ * in Arrays zu kopieren. Drawable objects werden nur eingetragen, falls ein Container
+ * angegeben ist. Kompakte Darstellung, 2-d-Baum der Knoten und ggf. Landmarks und
+ * Kontraktionshierarchie werden bernommen; ihre Arrays werden in den Heap kopiert,
+ * da die Wegesuche auf int-Arrays arbeitet.
+ * @return erfolgreich? (false, falls kein aktueller Snapshot existiert)
+ * @param filename Basisname der Netzwerk-Dateien
+ * @param objects Container fr drawable objects
+ */
+private boolean createBySnapshot (String filename, DrawableObjects objects) {
+	ByteBuffer buf = NetworkSnapshot.open(filename);
+	if (buf == null)
+		return false;
+	System.out.println("read snapshot ...");
+	int flags = buf.getInt();
+	int numOfNodes = buf.getInt();
+	int numOfEdges = buf.getInt();
+	// Knoten
+	LongBuffer nodeId = NetworkSnapshot.viewLongs(buf,numOfNodes);
+	IntBuffer nodeX = NetworkSnapshot.viewInts(buf,numOfNodes);
+	IntBuffer nodeY = NetworkSnapshot.viewInts(buf,numOfNodes);
+	String[] nodeName = null;
+	if ((flags & NetworkSnapshot.NODE_NAMES) != 0)
+		nodeName = NetworkSnapshot.readNames(buf,numOfNodes);
+	for (int i=0; i<numOfNodes; i++) {
+		Node actNode = nodes.newNode(nodeId.get(i),nodeX.get(i),nodeY.get(i),(nodeName != null) ? nodeName[i] : null);
+		if (objects != null)
+			objects.addDrawable(actNode);
+	}
+	// Kanten (die Knoten des leeren Netzwerks haben die dichten Indizes des Snapshots)
+	LongBuffer edgeId = NetworkSnapshot.viewLongs(buf,numOfEdges);
+	IntBuffer edgeClass = NetworkSnapshot.viewInts(buf,numOfEdges);
+	IntBuffer edgeNode1 = NetworkSnapshot.viewInts(buf,numOfEdges);
+	IntBuffer edgeNode2 = NetworkSnapshot.viewInts(buf,numOfEdges);
+	String[] edgeName = null;
+	if ((flags & NetworkSnapshot.EDGE_NAMES) != 0)
+		edgeName = NetworkSnapshot.readNames(buf,numOfEdges);
+	for (int i=0; i<numOfEdges; i++) {
+		Edge actEdge = edges.newEdge(edgeId.get(i),edgeClass.get(i),nodes.getNode(edgeNode1.get(i)),nodes.getNode(edgeNode2.get(i)),(edgeName != null) ? edgeName[i] : null);
+		if (objects != null)
+			objects.addDrawable(actEdge);
+	}
+	// Vorberechnungen
+	CompactGraph g = new CompactGraph(nodes,edges,buf);
+	graph = g;
+	nodes.tree.readSnapshot(buf);
+	if ((flags & NetworkSnapshot.LANDMARKS) != 0) {
+		snapshotLandmarks = Landmarks.readSnapshot(buf,g);
+		landmarkSets.addElement(snapshotLandmarks);
+	}
+	if ((flags & NetworkSnapshot.HIERARCHY) != 0) {
+		hierarchy = new ContractionHierarchy(g,buf);
+		snapshotHierarchy = hierarchy;
+	}
+	loadedGraph = g;
+	snapshotExists = true;
+	return true;
+}
 /**
  * Erzeugt Netzwerk aus Netzwerk-Dateien.
  * @param nodeURL URL der Knoten-Datei
@@ -584,18 +1029,26 @@ public void createByNetworkFiles (URL nodeURL, URL edgeURL, DrawableObjects obje
 		if (nodeURL.toString().endsWith(".zip")) {
 			ZipInputStream zis = new ZipInputStream(nodeURL.openStream());
 			zis.getNextEntry();
-			nodeStream = new DataInputStream(zis);
+			nodeStream = new DataInputStream(new BufferedInputStream(zis));
 		}
 		else
-			nodeStream = new DataInputStream(nodeURL.openStream());
+			nodeStream = new DataInputStream(new BufferedInputStream(nodeURL.openStream()));
 		if (edgeURL.toString().endsWith(".zip")) {
 			ZipInputStream zis = new ZipInputStream(edgeURL.openStream());
 			zis.getNextEntry();
-			edgeStream = new DataInputStream(zis);
+			edgeStream = new DataInputStream(new BufferedInputStream(zis));
 		}
 		else
-			edgeStream = 	new DataInputStream(edgeURL.openStream());
+			edgeStream = 	new DataInputStream(new BufferedInputStream(edgeURL.openStream()));
 		createByNetworkFiles (nodeStream,edgeStream,objects);
+		// Basisname lokaler Dateien merken
+		if (nodeURL.getProtocol().equals("file")) {
+			String name = nodeURL.getFile();
+			if (name.endsWith(".zip"))
+				name = name.substring(0,name.length()-4);
+			if (name.endsWith(".node"))
+				filename = URLDecoder.decode(name.substring(0,name.length()-5),"UTF-8");
+		}
 	}		
 	catch (IOException ex) {
 		System.err.println ("Network.createByNetworkFiles: I/O-Error!!!\n"+ex);
@@ -606,7 +1059,8 @@ public void createByNetworkFiles (URL nodeURL, URL edgeURL, DrawableObjects obje
  * Diese Version der Methode untersttzt die Berechnung von Verbindungen,
  * fr den Fall, da die Erweiterung auf einen FINAL- oder BEST-Knoten trifft.
  * Die Entfernung zum Zielknoten wird grundstzlich in den Rand-Elementen abgelegt.
- * @param border Rand gem Dijkstra als Heap
+ * @param ctx Routing-Kontext mit dem Rand gem Dijkstra als Heap
+ * @param g kompakte Darstellung des Netzwerks
  * @param start aktueller Knoten
  * @param stop Zielknoten
  * @param wayMark Index des betrachteten Wegs (WAY1 oder WAY2)
@@ -614,94 +1068,181 @@ public void createByNetworkFiles (URL nodeURL, URL edgeURL, DrawableObjects obje
  * @param shortestDistance Lnge des krzesten Weges
  * @param resPath Ergebnispfad mit allen bislang berechneter Wege
  */
-protected void enlargeBorder (BorderHeap border, Node start, Node stop, int wayMark, int threshold, double shortestDistance, PathEdge resPath) {
+protected void enlargeBorder (RoutingContext ctx, CompactGraph g, Node start, Node stop, int wayMark, int threshold, double shortestDistance, PathEdge resPath) {
 	// Vorbereitungen
-	int way = wayMark / WAY1;
+	int way = wayMark / ctx.WAY1;
 	// ber alle Kanten des aktuellen Knotens iterieren
-	Edge actEdge = start.getFirstEdge();
-	while (actEdge != null) {
+	for (int a=g.firstArc[start.index]; a<g.firstArc[start.index+1]; a++) {
+		Edge actEdge = g.edge[g.arcEdge[a]];
 		// Ausschlieen, da Zurckgelaufen wird
-		if (actEdge != start.getWayEdge(way)) {
-			Node oppositeNode = actEdge.getOppositeNode(start);
-			boolean newInBorder = (!oppositeNode.isMarked(wayMark));
+		if (actEdge != ctx.getWayEdge(start,way)) {
+			Node oppositeNode = g.node[g.arcTarget[a]];
+			boolean newInBorder = (!ctx.isMarked(oppositeNode,wayMark));
 			// neue Knoten mit max. Distanz versehen
 			if (newInBorder)
-				oppositeNode.setDistanceOfWay (way,maxDistance);
+				ctx.setDistanceOfWay(oppositeNode,way,maxDistance);
 			// den akt. Knoten in Rand aufnehmen, falls dieser nicht mit FINAL markiert
 			// und Distanz sich verringert
-			if ((!oppositeNode.isMarked(FINAL)) &&
-				(start.getDistanceOfWay(way)+actEdge.getWeight() <= oppositeNode.getDistanceOfWay(way)) ) {
+			if ((!ctx.isMarked(oppositeNode,ctx.FINAL)) &&
+				(ctx.getDistanceOfWay(start,way)+ctx.getWeight(actEdge) <= ctx.getDistanceOfWay(oppositeNode,way)) ) {
 				// Distanz am Knoten vermerken
-				oppositeNode.setDistanceOfWay (way,start.getDistanceOfWay(way)+actEdge.getWeight());
+				ctx.setDistanceOfWay(oppositeNode,way,ctx.getDistanceOfWay(start,way)+ctx.getWeight(actEdge));
 				// Knoten neu in Rand aufnehmen
 				if (newInBorder) {
-					oppositeNode.setWay (way,actEdge);
-					oppositeNode.mark (wayMark);
+					ctx.setWay(oppositeNode,way,actEdge);
+					ctx.mark(oppositeNode,wayMark);
 					//System.out.print("neu im Heap: "); element.debugPrint(); System.out.println();
-					border.insert (oppositeNode,way,edges.getWeightManager().computeWeight (oppositeNode.distanceTo(stop)));
+					ctx.insertIntoBorder (oppositeNode.index,way,ctx.getWeightManager(edges).computeWeight (oppositeNode.distanceTo(stop)));
 				}
-				// oder Gewicht anpassen (bei akt. Heap-Implementierung ist dazu nichts ntig)
+				// oder Gewicht anpassen
 				else {
+					ctx.adaptToDecreasedDistance(oppositeNode.index,way);
 					//System.out.print("gendert im Heap: "); oppositeNode.debugPrint(way); System.out.println();
 					// Prfen, ob ber alten Weg neue Verbindung anlegbar ist
-					if (oppositeNode.isMarked(BEST)) {
-						Edge oldEdge = oppositeNode.getWayEdge(way);
-						computeNewConnection (border, oldEdge.getOppositeNode(oppositeNode),oldEdge,stop, wayMark, threshold,shortestDistance, resPath);
+					if (ctx.isMarked(oppositeNode,BEST)) {
+						Edge oldEdge = ctx.getWayEdge(oppositeNode,way);
+						computeNewConnection (ctx, oldEdge.getOppositeNode(oppositeNode),oldEdge,stop, wayMark, threshold,shortestDistance, resPath);
 					}
-					oppositeNode.setWay (way,actEdge);
+					ctx.setWay(oppositeNode,way,actEdge);
 				}	
 			}
 			
 			// ansonsten, Prfen, ob eine neue Verbindung anlegbar ist
-			else if ((resPath!=null) && (oppositeNode.isMarked(BEST) || oppositeNode.isMarked(FINAL)) && (!start.isMarked(BEST) || (oppositeNode.isMarked(BEST) && start.getDistanceOfWay(way) < oppositeNode.getDistanceOfWay(way))) )
-				computeNewConnection (border, start,actEdge,stop, wayMark, threshold,shortestDistance, resPath);
+			else if ((resPath!=null) && (ctx.isMarked(oppositeNode,BEST) || ctx.isMarked(oppositeNode,ctx.FINAL)) && (!ctx.isMarked(start,BEST) || (ctx.isMarked(oppositeNode,BEST) && ctx.getDistanceOfWay(start,way) < ctx.getDistanceOfWay(oppositeNode,way))) )
+				computeNewConnection (ctx, start,actEdge,stop, wayMark, threshold,shortestDistance, resPath);
 		}	// if 		
-		actEdge = start.getNextEdge();
-	}	// while
+	}	// for
 }
 /**
  * (Standard-)Erweiterung des Randes.
- * @param border Rand gem Dijkstra als Heap
- * @param start Startknoten
- * @param stop Zielknoten
+ * @param ctx Routing-Kontext mit dem Rand gem Dijkstra als Heap
+ * @param g kompakte Darstellung des Netzwerks
+ * @param start Index des Startknotens
+ * @param stop Index des Zielknotens
  * @param way betrachteter Weg
  * @param considerDistToDest Soll die Entfernung zum Zielknoten bercksichtigt werden?
  */
-protected void enlargeBorder (BorderHeap border, Node start, Node stop, int way, boolean considerDistToDest) {
-	Edge actEdge = start.getFirstEdge();
-	while (actEdge != null) {
-		Node oppositeNode = actEdge.getOppositeNode(start);
+protected void enlargeBorder (RoutingContext ctx, CompactGraph g, int start, int stop, int way, boolean considerDistToDest) {
+	WeightManager wm = ctx.getWeightManager(edges);
+	for (int a=g.firstArc[start]; a<g.firstArc[start+1]; a++) {
+		int oppositeNode = g.arcTarget[a];
 		// verbundenen Knoten in Rand aufnehmen, falls Knoten nicht mit FINAL markiert
-		if (!oppositeNode.isMarked(FINAL)) {
-			boolean newInBorder = (!oppositeNode.isMarked(way));
+		if (!ctx.isMarked(oppositeNode,ctx.FINAL)) {
+			boolean newInBorder = (!ctx.isMarked(oppositeNode,way));
 			// neue Knoten mit max. Distanz versehen
 			if (newInBorder)
-				oppositeNode.setDistanceOfWay (way,maxDistance);
+				ctx.setDistanceOfWay(oppositeNode,way,maxDistance);
 			// und Distanz sich verringert
-			double actWeight = actEdge.getWeight(start);
-			if (start.getDistanceOfWay(way)+actWeight < oppositeNode.getDistanceOfWay(way)) {
+			double actWeight = wm.getWeight(g.edge[g.arcEdge[a]],g.arcForwards[a]);
+			if (ctx.getDistanceOfWay(start,way)+actWeight < ctx.getDistanceOfWay(oppositeNode,way)) {
 				// case 1: insert into heap
 				if (newInBorder) {
-					oppositeNode.setDistanceOfWay (way,start.getDistanceOfWay(way)+actWeight);
-					oppositeNode.setWay (way,actEdge);
-					oppositeNode.mark (way);
-					if (considerDistToDest)
-						border.insert(oppositeNode,way,edges.getWeightManager().computeWeight (oppositeNode.distanceTo(stop)));
+					ctx.setDistanceOfWay(oppositeNode,way,ctx.getDistanceOfWay(start,way)+actWeight);
+					ctx.setWayPosition(oppositeNode,way,g.arcReverse[a]);
+					ctx.mark(oppositeNode,way);
+					if (considerDistToDest && (way == NWAY2))
+						ctx.insertIntoBorder(oppositeNode,way,estimateWeight(ctx,g,wm,stop,oppositeNode));
+					else if (considerDistToDest)
+						ctx.insertIntoBorder(oppositeNode,way,estimateWeight(ctx,g,wm,oppositeNode,stop));
 					else
-						border.insert(oppositeNode,way,0);
+						ctx.insertIntoBorder(oppositeNode,way,0);
 				}
 				// case 2: change 
 				else {
-					oppositeNode.setDistanceOfWay (way,start.getDistanceOfWay(way)+actWeight);
-					oppositeNode.setWay (way,actEdge);
-					border.adaptToDecreasedDistance(oppositeNode,way);
-					//System.out.print("gendert im Heap: "); oppositeNode.debugPrint(way); System.out.println();
+					ctx.setDistanceOfWay(oppositeNode,way,ctx.getDistanceOfWay(start,way)+actWeight);
+					ctx.setWayPosition(oppositeNode,way,g.arcReverse[a]);
+					ctx.adaptToDecreasedDistance(oppositeNode,way);
 				}	
 			}
 		}	
-		actEdge = start.getNextEdge();
 	}
 }
+/**
+ * Erweiterung eines Randes der bidirektionalen A*-Suche.
+ * Weg 1 wird vorwrts vom Startknoten, Weg 2 rckwrts vom Stopknoten aus berechnet.
+ * Erreicht eine Kante einen Knoten des anderen Weges, wird die Verbindung im Kontext vermerkt.
+ * @param ctx Routing-Kontext mit getrennten Rndern
+ * @param g kompakte Darstellung des Netzwerks
+ * @param wm Objekt zur Kantenbewertung
+ * @param actNode Index des zu erweiternden Knotens
+ * @param start Index des Startknotens
+ * @param stop Index des Stopknotens
+ * @param way betrachteter Weg (NWAY1 oder NWAY2)
+ * @param startPotential Potential des Startknotens
+ * @param stopPotential Potential des Stopknotens
+ */
+protected void enlargeBorder (RoutingContext ctx, CompactGraph g, WeightManager wm, int actNode, int start, int stop, int way, double startPotential, double stopPotential) {
+	int finalMark = ctx.FINAL;
+	int otherWay = NWAY2;
+	if (way == NWAY2) {
+		finalMark = FINAL2;
+		otherWay = NWAY1;
+	}
+	for (int a=g.firstArc[actNode]; a<g.firstArc[actNode+1]; a++) {
+		int oppositeNode = g.arcTarget[a];
+		if (ctx.isMarked(oppositeNode,finalMark))
+			continue;
+		// Weg 2 durchluft die Kante in Gegenrichtung
+		double dist = ctx.getDistanceOfWay(actNode,way)+wm.getWeight(g.edge[g.arcEdge[a]],g.arcForwards[a] == (way == NWAY1));
+		// case 1: insert into heap
+		if (!ctx.isMarked(oppositeNode,way)) {
+			ctx.setDistanceOfWay(oppositeNode,way,dist);
+			ctx.setWayPosition(oppositeNode,way,g.arcReverse[a]);
+			ctx.mark(oppositeNode,way);
+			double potential = computePotential(ctx,g,wm,oppositeNode,start,stop);
+			if (way == NWAY1)
+				ctx.insertIntoBorder(oppositeNode,way,potential-startPotential);
+			else
+				ctx.insertIntoBorder(oppositeNode,way,stopPotential-potential);
+		}
+		// case 2: change
+		else if (dist < ctx.getDistanceOfWay(oppositeNode,way)) {
+			ctx.setDistanceOfWay(oppositeNode,way,dist);
+			ctx.setWayPosition(oppositeNode,way,g.arcReverse[a]);
+			ctx.adaptToDecreasedDistance(oppositeNode,way);
+		}
+		else
+			continue;
+		// Verbindung beider Wege
+		if (ctx.isMarked(oppositeNode,otherWay))
+			ctx.updateConnection(oppositeNode,dist+ctx.getDistanceOfWay(oppositeNode,otherWay));
+	}
+}
+/**
+ * Berechnet das gemittelte Potential eines Knotens fr die bidirektionale A*-Suche.
+ * @return (h(node,stop)-h(start,node))/2
+ * @param ctx Routing-Kontext der Suche
+ * @param g kompakte Darstellung des Netzwerks
+ * @param wm Objekt zur Kantenbewertung
+ * @param node Index des Knotens
+ * @param start Index des Startknotens
+ * @param stop Index des Stopknotens
+ */
+private double computePotential (RoutingContext ctx, CompactGraph g, WeightManager wm, int node, int start, int stop) {
+	return (estimateWeight(ctx,g,wm,node,stop)-estimateWeight(ctx,g,wm,start,node))/2;
+}
+/**
+ * Schtzt das Gewicht des schnellsten Weges zwischen 2 Knoten nach unten ab.
+ * Verwendet wird die mit der maximalen Geschwindigkeit bewertete Luftliniendistanz
+ * und, falls fr den Graphen vorhanden, die Abschtzung durch die Landmarks
+ * des Routing-Kontexts bzw. des Netzwerks.
+ * @return untere Schranke des Gewichts
+ * @param ctx Routing-Kontext der Suche
+ * @param g kompakte Darstellung des Netzwerks
+ * @param wm Objekt zur Kantenbewertung
+ * @param from Index des ersten Knotens
+ * @param to Index des zweiten Knotens
+ */
+protected double estimateWeight (RoutingContext ctx, CompactGraph g, WeightManager wm, int from, int to) {
+	double res = wm.computeWeight(g.distance(from,to));
+	Landmarks lm = ctx.getLandmarks(landmarks);
+	if ((lm != null) && (lm.getGraph() == g)) {
+		double bound = lm.lowerBound(from,to);
+		if (bound > res)
+			res = bound;
+	}
+	return res;
+}
 /**
  * Gibt Kanten-Container zurck.
  * @return Kanten-Container
@@ -709,6 +1250,91 @@ protected void enlargeBorder (BorderHeap border, Node start, Node stop, int way,
 public Edges getEdges() {
 	return edges;
 }
+/**
+ * Returns the compact representation of the network.
+ * The representation is rebuilt if nodes or edges have been modified since its construction.
+ * @return the compact graph
+ */
+public CompactGraph getCompactGraph () {
+	CompactGraph g = graph;
+	if ((g == null) || !g.isUpToDate(nodes,edges)) {
+		synchronized (this) {
+			g = graph;
+			if ((g == null) || !g.isUpToDate(nodes,edges)) {
+				g = new CompactGraph(nodes,edges);
+				graph = g;
+			}
+		}
+	}
+	return g;
+}
+/**
+ * Gibt die Landmarks zurck.
+ * @return Landmarks oder null
+ */
+public Landmarks getLandmarks () {
+	return landmarks;
+}
+/**
+ * Stellt Landmarks fr den aktuellen Graphen und einen Kantenbewerter bereit,
+ * ohne sie als Landmarks des Netzwerks zu setzen; sie knnen z.B. einem
+ * Routing-Kontext bergeben werden. Bereits bereitgestellte passende Landmarks werden
+ * wiederverwendet, sonst werden sie wie bei prepareLandmarks gelesen oder berechnet.
+ * @return die Landmarks (null, falls num = 0)
+ * @param wm der Kantenbewerter
+ * @param num Anzahl der Landmarks
+ * @param selection Auswahlverfahren (Landmarks.FARTHEST oder Landmarks.AVOID)
+ */
+public synchronized Landmarks getLandmarks (WeightManager wm, int num, int selection) {
+	if (num <= 0)
+		return null;
+	CompactGraph g = getCompactGraph();
+	long fingerprint = Landmarks.computeFingerprint(g,wm);
+	Landmarks lm = landmarks;
+	if ((lm != null) && (lm.getGraph() == g) && (lm.getFingerprint() == fingerprint) && (lm.getNumOfLandmarks() == num))
+		return lm;
+	for (int i=landmarkSets.size()-1; i>=0; i--) {
+		lm = (Landmarks)landmarkSets.elementAt(i);
+		if (lm.getGraph() != g)
+			landmarkSets.removeElementAt(i);
+		else if ((lm.getFingerprint() == fingerprint) && (lm.getNumOfLandmarks() == num))
+			return lm;
+	}
+	lm = null;
+	if (filename != null)
+		lm = Landmarks.read(filename+Landmarks.EXTENSION,g,fingerprint);
+	if ((lm == null) || (lm.getNumOfLandmarks() != num)) {
+		System.out.println("compute landmarks ...");
+		lm = new Landmarks(g,wm,num,selection);
+		if (filename != null)
+			lm.save(filename+Landmarks.EXTENSION);
+	}
+	landmarkSets.addElement(lm);
+	return lm;
+}
+/**
+ * Gibt die Kontraktionshierarchie des aktuellen Netzwerks zurck.
+ * Sie wird neu berechnet, falls sich das Netzwerk seit ihrer Berechnung verndert hat.
+ * @return die Kontraktionshierarchie
+ */
+public synchronized ContractionHierarchy getContractionHierarchy () {
+	CompactGraph g = getCompactGraph();
+	if ((hierarchy == null) || (hierarchy.getGraph() != g)) {
+		System.out.println("compute contraction hierarchy ...");
+		hierarchy = new ContractionHierarchy(g);
+	}
+	return hierarchy;
+}
+/**
+ * Returns the routing context used by the methods without context parameter.
+ * The heap operations of this context are measured by the timers of IndexedHeap.
+ * @return the default context
+ */
+protected synchronized RoutingContext getDefaultContext () {
+	if (defaultContext == null)
+		defaultContext = new RoutingContext(nodes,true);
+	return defaultContext;
+}
 /**
  * Gibt Knoten-Container zurck.
  * @return Knoten-Container
@@ -716,8 +1342,133 @@ public Edges getEdges() {
 public Nodes getNodes() {
 	return nodes;
 }
+/**
+ * Prft, ob zwei Knoten derselben Zusammenhangskomponente angehren,
+ * d.h. ob es einen Weg zwischen ihnen gibt (siehe CompactGraph).
+ * @return verbunden?
+ * @param n1 erster Knoten
+ * @param n2 zweiter Knoten
+ */
+public boolean isConnected (Node n1, Node n2) {
+	CompactGraph g = getCompactGraph();
+	return g.component[n1.index] == g.component[n2.index];
+}
+/**
+ * Stellt die Landmarks fr den aktuellen Graphen und Kantenbewerter bereit.
+ * Passende Landmarks werden aus der Datei neben den Netzwerk-Dateien gelesen;
+ * sonst werden sie berechnet und dort gespeichert. Die Methode muss erneut aufgerufen
+ * werden, nachdem der Kantenbewerter ausgetauscht oder verndert worden ist.
+ * @return die Landmarks (null, falls num = 0)
+ * @param num Anzahl der Landmarks
+ * @param selection Auswahlverfahren (Landmarks.FARTHEST oder Landmarks.AVOID)
+ */
+public synchronized Landmarks prepareLandmarks (int num, int selection) {
+	landmarks = getLandmarks(edges.getWeightManager(),num,selection);
+	return landmarks;
+}
+/**
+ * Speichert einen Snapshot des Netzwerks neben den Netzwerk-Dateien.
+ * Der Snapshot enthlt die Knoten und Kanten, die kompakte Darstellung, den
+ * 2-d-Baum der Knoten sowie die Landmarks und die Kontraktionshierarchie, soweit sie
+ * berechnet sind; er wird beim nchsten Einlesen der Dateien durch createByNetworkFiles
+ * verwendet. Der Snapshot wird nur geschrieben, wenn das Netzwerk seit dem Einlesen
+ * unverndert ist und der vorhandene Snapshot nicht bereits alle Vorberechnungen enthlt.
+ * @return ist ein aktueller Snapshot vorhanden?
+ */
+public synchronized boolean saveSnapshot () {
+	if ((filename == null) || (loadedGraph == null) || (getCompactGraph() != loadedGraph))
+		return false;
+	CompactGraph g = loadedGraph;
+	Landmarks lm = landmarks;
+	for (int i=landmarkSets.size()-1; (i>=0) && ((lm == null) || (lm.getGraph() != g)); i--)
+		lm = (Landmarks)landmarkSets.elementAt(i);
+	if ((lm != null) && (lm.getGraph() != g))
+		lm = null;
+	ContractionHierarchy ch = ((hierarchy != null) && (hierarchy.getGraph() == g)) ? hierarchy : null;
+	if (snapshotExists && ((lm == null) || (lm == snapshotLandmarks)) && ((ch == null) || (ch == snapshotHierarchy)))
+		return true;
+	if (lm == null)
+		lm = snapshotLandmarks;
+	if (ch == null)
+		ch = snapshotHierarchy;
+	System.out.println("write snapshot ...");
+	File file = new File(filename+NetworkSnapshot.EXTENSION);
+	File tmpFile = new File(filename+NetworkSnapshot.EXTENSION+".tmp");
+	try {
+		long checksum = NetworkSnapshot.computeChecksum(filename);
+		int numOfNodes = nodes.numOfNodes();
+		int numOfEdges = edges.numOfEdges();
+		int flags = 0;
+		for (int i=0; i<numOfNodes; i++)
+			if (nodes.getNode(i).getName().length() > 0)
+				flags |= NetworkSnapshot.NODE_NAMES;
+		for (int i=0; i<numOfEdges; i++)
+			if (edges.getEdge(i).getName().length() > 0)
+				flags |= NetworkSnapshot.EDGE_NAMES;
+		if (lm != null)
+			flags |= NetworkSnapshot.LANDMARKS;
+		if (ch != null)
+			flags |= NetworkSnapshot.HIERARCHY;
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmpFile)));
+		NetworkSnapshot.writeHeader(out,checksum);
+		out.writeInt(flags);
+		out.writeInt(numOfNodes);
+		out.writeInt(numOfEdges);
+		// Knoten
+		for (int i=0; i<numOfNodes; i++)
+			out.writeLong(nodes.getNode(i).getID());
+		for (int i=0; i<numOfNodes; i++)
+			out.writeInt(nodes.getNode(i).getX());
+		for (int i=0; i<numOfNodes; i++)
+			out.writeInt(nodes.getNode(i).getY());
+		if ((flags & NetworkSnapshot.NODE_NAMES) != 0)
+			for (int i=0; i<numOfNodes; i++) {
+				String name = nodes.getNode(i).getName();
+				NetworkSnapshot.writeName(out,(name.length() > 0) ? name : null);
+			}
+		// Kanten
+		for (int i=0; i<numOfEdges; i++)
+			out.writeLong(edges.getEdge(i).getID());
+		for (int i=0; i<numOfEdges; i++)
+			out.writeInt(edges.getEdge(i).getEdgeClass());
+		for (int i=0; i<numOfEdges; i++)
+			out.writeInt(edges.getEdge(i).getNode1().index);
+		for (int i=0; i<numOfEdges; i++)
+			out.writeInt(edges.getEdge(i).getNode2().index);
+		if ((flags & NetworkSnapshot.EDGE_NAMES) != 0)
+			for (int i=0; i<numOfEdges; i++) {
+				String name = edges.getEdge(i).getName();
+				NetworkSnapshot.writeName(out,(name.length() > 0) ? name : null);
+			}
+		// Vorberechnungen
+		g.writeSnapshot(out);
+		nodes.getTree().writeSnapshot(out);
+		if (lm != null)
+			lm.writeSnapshot(out);
+		if (ch != null)
+			ch.writeSnapshot(out);
+		NetworkSnapshot.writeTrailer(out);
+		out.close();
+		// ein abgebildeter alter Snapshot wird durch das Umbenennen nicht verndert
+		if (!tmpFile.renameTo(file)) {
+			file.delete();
+			if (!tmpFile.renameTo(file))
+				throw new IOException("cannot rename "+tmpFile);
+		}
+	}
+	catch (IOException ex) {
+		System.err.println("Network.saveSnapshot: "+ex);
+		tmpFile.delete();
+		return false;
+	}
+	snapshotExists = true;
+	snapshotLandmarks = lm;
+	snapshotHierarchy = ch;
+	return true;
+}
 /**
  * Saves the network in network files.
+ * The nodes and edges are written in the order of their dense indices.
  * @param filename path and basic name of the files
  */
 public void save (String filename) {
@@ -745,6 +1496,7 @@ public void save (String filename) {
 }
 /**
  * Saves the network in text files.
+ * The nodes and edges are written in the order of their dense indices.
  * @param filename path and basic name of the files
  */
 public void saveAsText (String filename) {
@@ -770,4 +1522,12 @@ public void saveAsText (String filename) {
 		System.err.println("Network.saveAsText: I/O-Error" + ioe.getMessage());
 	}
 }
+/**
+ * Setzt die Landmarks (null: keine Landmarks).
+ * Die Landmarks werden nur verwendet, solange sie zum aktuellen Graphen gehren.
+ * @param landmarks die Landmarks
+ */
+public void setLandmarks (Landmarks landmarks) {
+	this.landmarks = landmarks;
+}
 }
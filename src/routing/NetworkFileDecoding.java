@@ -0,0 +1,33 @@
+package routing;
+
+/**
+ * Thread decoding chunks of a network file.
+ * The thread decodes chunks until all chunks of the file are decoded.
+ *
+ * @version	1.00	17.10.2026	first version
+ * @author FH Oldenburg
+ */
+class NetworkFileDecoding extends Thread {
+
+	/**
+	 * The reader whose chunks are decoded.
+	 */
+	private NetworkFileReader reader = null;
+
+/**
+ * Constructor.
+ * @param  reader  the reader whose chunks are decoded
+ */
+NetworkFileDecoding (NetworkFileReader reader) {
+	this.reader = reader;
+}
+
+/**
+ * Decodes chunks as long as chunks are left.
+ */
+public void run () {
+	while (reader.decodeNextChunk())
+		;
+}
+
+}
@@ -0,0 +1,314 @@
+package routing;
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+import util.LongIntHashMap;
+
+/**
+ * Reader of the network files (.node and .edge) into primitive arrays.
+ * The files are mapped into memory. A first, sequential pass determines the boundaries
+ * of the records, which have a variable length due to their names; then the records are
+ * decoded in chunks of CHUNK_SIZE records by several threads. The ids of the nodes
+ * are resolved to the positions of the node records by a primitive hash map; if
+ * several records have the same id, the last one counts as in Nodes. If the network
+ * already contains nodes, the ids of the nodes of the edges can be kept, so that the ids
+ * not found in the node file can be resolved by the network.
+ * An incomplete record at the end of a file is ignored like by Nodes.read and Edges.read.
+ * The reader does not create Node and Edge objects; this is done by Network.
+ *
+ * @version	1.10	17.10.2026	ids of the nodes of the edges kept on request
+ * @version	1.00	17.10.2026	first version
+ * @author FH Oldenburg
+ */
+class NetworkFileReader {
+
+	/**
+	 * Number of records per chunk.
+	 */
+	static final int CHUNK_SIZE = 1 << 15;
+	/**
+	 * Size of a node record without name (length of name, id, x, y).
+	 */
+	private static final int NODE_RECORD_SIZE = 1+8+4+4;
+	/**
+	 * Size of an edge record without name (ids of the nodes, length of name, id, class).
+	 */
+	private static final int EDGE_RECORD_SIZE = 8+8+1+8+4;
+
+	/**
+	 * Mapped node file.
+	 */
+	private ByteBuffer nodeBuffer = null;
+	/**
+	 * Mapped edge file.
+	 */
+	private ByteBuffer edgeBuffer = null;
+	/**
+	 * Start of each chunk in the node file.
+	 */
+	private int[] nodeChunk = null;
+	/**
+	 * Start of each chunk in the edge file.
+	 */
+	private int[] edgeChunk = null;
+	/**
+	 * Next chunk to be decoded.
+	 */
+	private int nextChunk = 0;
+	/**
+	 * Are the edges decoded (or the nodes)?
+	 */
+	private boolean decodingEdges = false;
+
+	/**
+	 * Number of node records.
+	 */
+	int numOfNodes = 0;
+	/**
+	 * Ids of the nodes.
+	 */
+	long[] nodeId = null;
+	/**
+	 * X-coordinates of the nodes.
+	 */
+	int[] nodeX = null;
+	/**
+	 * Y-coordinates of the nodes.
+	 */
+	int[] nodeY = null;
+	/**
+	 * Names of the nodes (null if no node has a name).
+	 */
+	String[] nodeName = null;
+	/**
+	 * Number of edge records.
+	 */
+	int numOfEdges = 0;
+	/**
+	 * Ids of the edges.
+	 */
+	long[] edgeId = null;
+	/**
+	 * Classes of the edges.
+	 */
+	int[] edgeClass = null;
+	/**
+	 * Positions of the records of the first nodes of the edges (-1: unknown node).
+	 */
+	int[] edgeNode1 = null;
+	/**
+	 * Positions of the records of the second nodes of the edges (-1: unknown node).
+	 */
+	int[] edgeNode2 = null;
+	/**
+	 * Ids of the first nodes of the edges (null if the ids are not kept, see read).
+	 */
+	long[] edgeNodeId1 = null;
+	/**
+	 * Ids of the second nodes of the edges (null if the ids are not kept, see read).
+	 */
+	long[] edgeNodeId2 = null;
+	/**
+	 * Names of the edges (null if no edge has a name).
+	 */
+	String[] edgeName = null;
+	/**
+	 * Positions of the node records by the ids of the nodes.
+	 */
+	LongIntHashMap nodeIndex = null;
+
+/**
+ * Constructor; maps the files into memory.
+ * @param nodeFile name of the node file
+ * @param edgeFile name of the edge file
+ * @exception IOException if a file cannot be mapped
+ */
+NetworkFileReader (String nodeFile, String edgeFile) throws IOException {
+	nodeBuffer = map(nodeFile);
+	edgeBuffer = map(edgeFile);
+}
+
+/**
+ * Decodes the records of a chunk of the actual file into the arrays.
+ * @param buf the mapped file
+ * @param c the chunk
+ */
+private void decodeChunk (ByteBuffer buf, int c) {
+	int first = c*CHUNK_SIZE;
+	if (!decodingEdges) {
+		buf.position(nodeChunk[c]);
+		int last = Math.min(first+CHUNK_SIZE,numOfNodes);
+		for (int i=first; i<last; i++) {
+			byte len = buf.get();
+			if (len > 0)
+				nodeName[i] = readName(buf,len);
+			nodeId[i] = buf.getLong();
+			nodeX[i] = buf.getInt();
+			nodeY[i] = buf.getInt();
+		}
+	}
+	else {
+		buf.position(edgeChunk[c]);
+		int last = Math.min(first+CHUNK_SIZE,numOfEdges);
+		for (int i=first; i<last; i++) {
+			long id1 = buf.getLong();
+			long id2 = buf.getLong();
+			edgeNode1[i] = nodeIndex.get(id1);
+			edgeNode2[i] = nodeIndex.get(id2);
+			if (edgeNodeId1 != null) {
+				edgeNodeId1[i] = id1;
+				edgeNodeId2[i] = id2;
+			}
+			byte len = buf.get();
+			if (len > 0)
+				edgeName[i] = readName(buf,len);
+			edgeId[i] = buf.getLong();
+			edgeClass[i] = buf.getInt();
+		}
+	}
+}
+/**
+ * Decodes the chunks of the actual file by several threads.
+ * @param numOfThreads number of threads
+ */
+private void decode (int numOfThreads) {
+	int numOfChunks = decodingEdges ? edgeChunk.length : nodeChunk.length;
+	nextChunk = 0;
+	NetworkFileDecoding[] thread = new NetworkFileDecoding[Math.max(1,Math.min(numOfThreads,numOfChunks))];
+	for (int t=0; t<thread.length; t++) {
+		thread[t] = new NetworkFileDecoding(this);
+		thread[t].start();
+	}
+	for (int t=0; t<thread.length; t++)
+		try {
+			thread[t].join();
+		}
+		catch (InterruptedException ex) {
+			System.err.println("NetworkFileReader.decode: "+ex);
+		}
+}
+/**
+ * Decodes a chunk, which has not been decoded yet.
+ * Called by NetworkFileDecoding.
+ * @return was a chunk decoded? (false if all chunks are decoded)
+ */
+boolean decodeNextChunk () {
+	int c;
+	ByteBuffer buf;
+	synchronized (this) {
+		if (nextChunk >= (decodingEdges ? edgeChunk.length : nodeChunk.length))
+			return false;
+		c = nextChunk++;
+		// each chunk has its own position in the file
+		buf = (decodingEdges ? edgeBuffer : nodeBuffer).duplicate();
+	}
+	decodeChunk(buf,c);
+	return true;
+}
+/**
+ * Maps a file read-only into memory.
+ * @return the mapped file
+ * @param filename name of the file
+ * @exception IOException if the file cannot be mapped
+ */
+private static ByteBuffer map (String filename) throws IOException {
+	RandomAccessFile file = new RandomAccessFile(filename,"r");
+	try {
+		FileChannel channel = file.getChannel();
+		if (channel.size() > Integer.MAX_VALUE)
+			throw new IOException(filename+" is too large to be mapped");
+		return channel.map(FileChannel.MapMode.READ_ONLY,0,channel.size());
+	}
+	finally {
+		file.close();
+	}
+}
+/**
+ * Reads the network files.
+ * @param numOfThreads number of decoding threads
+ * @param keepNodeIds keep the ids of the nodes of the edges (edgeNodeId1, edgeNodeId2)?
+ */
+void read (int numOfThreads, boolean keepNodeIds) {
+	// nodes
+	nodeChunk = scan(nodeBuffer,false);
+	nodeId = new long[numOfNodes];
+	nodeX = new int[numOfNodes];
+	nodeY = new int[numOfNodes];
+	decodingEdges = false;
+	decode(numOfThreads);
+	nodeIndex = new LongIntHashMap(numOfNodes);
+	for (int i=0; i<numOfNodes; i++)
+		nodeIndex.put(nodeId[i],i);
+	// edges
+	edgeChunk = scan(edgeBuffer,true);
+	edgeId = new long[numOfEdges];
+	edgeClass = new int[numOfEdges];
+	edgeNode1 = new int[numOfEdges];
+	edgeNode2 = new int[numOfEdges];
+	if (keepNodeIds) {
+		edgeNodeId1 = new long[numOfEdges];
+		edgeNodeId2 = new long[numOfEdges];
+	}
+	decodingEdges = true;
+	decode(numOfThreads);
+	nodeBuffer = null;
+	edgeBuffer = null;
+}
+/**
+ * Reads a name.
+ * @return the name
+ * @param buf the mapped file at the position of the name
+ * @param len length of the name
+ */
+private static String readName (ByteBuffer buf, int len) {
+	byte[] data = new byte[len];
+	buf.get(data);
+	return new String(data);
+}
+/**
+ * Determines the number of complete records of a file and the start of its chunks.
+ * Allocates the array of the names if a record has a name.
+ * @return the start of the chunks
+ * @param buf the mapped file
+ * @param edges edge file (or node file)?
+ */
+private int[] scan (ByteBuffer buf, boolean edges) {
+	int recordSize = edges ? EDGE_RECORD_SIZE : NODE_RECORD_SIZE;
+	int lenOffset = edges ? 16 : 0;
+	int limit = buf.limit();
+	int[] chunk = new int[16];
+	int num = 0;
+	boolean named = false;
+	int pos = 0;
+	while (limit-pos >= recordSize) {
+		byte len = buf.get(pos+lenOffset);
+		int size = recordSize+Math.max(len,0);
+		if (limit-pos < size)
+			break;
+		if (num%CHUNK_SIZE == 0) {
+			int c = num/CHUNK_SIZE;
+			if (c == chunk.length) {
+				int[] newArray = new int[2*chunk.length];
+				System.arraycopy(chunk,0,newArray,0,c);
+				chunk = newArray;
+			}
+			chunk[c] = pos;
+		}
+		named |= (len > 0);
+		pos += size;
+		num++;
+	}
+	int[] res = new int[(num+CHUNK_SIZE-1)/CHUNK_SIZE];
+	System.arraycopy(chunk,0,res,0,res.length);
+	if (edges) {
+		numOfEdges = num;
+		edgeName = named ? new String[num] : null;
+	}
+	else {
+		numOfNodes = num;
+		nodeName = named ? new String[num] : null;
+	}
+	return res;
+}
+}
@@ -0,0 +1,288 @@
+package routing;
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+import java.util.zip.CRC32;
+
+/**
+ * Binary snapshot of a network, which is stored next to the network files.
+ * The snapshot contains the nodes and edges in the order of their dense indices,
+ * the CompactGraph with its connected components, the packed 2-d-tree over the nodes
+ * and optionally landmarks and the contraction hierarchy. Its header carries a version
+ * and a CRC32 checksum of the network files; a snapshot is only used if both match.
+ * The snapshot is mapped read-only into memory; the attributes of the nodes and edges
+ * are read through views of the mapping, the other arrays are copied in bulk.
+ * This class provides the header and the conversion of arrays; the sections are
+ * written and read by the classes they belong to (see Network.saveSnapshot).
+ *
+ * @version	1.10	17.10.2026	views of arrays (viewInts, viewLongs)
+ * @version	1.00	17.10.2026	first version
+ * @author FH Oldenburg
+ */
+class NetworkSnapshot {
+
+	/**
+	 * Extension of snapshot files.
+	 */
+	static final String EXTENSION = ".snp";
+	/**
+	 * Identification of snapshot files.
+	 */
+	private static final int MAGIC = 0x4E534E50;
+	/**
+	 * Version of the format.
+	 */
+	private static final int VERSION = 1;
+	/**
+	 * Flag: the nodes have names.
+	 */
+	static final int NODE_NAMES = 1;
+	/**
+	 * Flag: the edges have names.
+	 */
+	static final int EDGE_NAMES = 2;
+	/**
+	 * Flag: the snapshot contains landmarks.
+	 */
+	static final int LANDMARKS = 4;
+	/**
+	 * Flag: the snapshot contains the contraction hierarchy.
+	 */
+	static final int HIERARCHY = 8;
+
+/**
+ * Computes the checksum of the network files.
+ * @return the checksum
+ * @param filename base name of the network files
+ * @exception IOException if a file cannot be read
+ */
+static long computeChecksum (String filename) throws IOException {
+	CRC32 crc = new CRC32();
+	update(crc,filename+".node");
+	update(crc,filename+".edge");
+	return crc.getValue();
+}
+/**
+ * Opens a snapshot for reading.
+ * @return the mapped snapshot positioned behind the header or null if it does not
+ * exist or does not match the version or the checksum
+ * @param filename base name of the network files
+ */
+static ByteBuffer open (String filename) {
+	try {
+		File file = new File(filename+EXTENSION);
+		if (!file.exists())
+			return null;
+		RandomAccessFile raf = new RandomAccessFile(file,"r");
+		ByteBuffer buf = null;
+		try {
+			FileChannel channel = raf.getChannel();
+			if ((channel.size() < 16) || (channel.size() > Integer.MAX_VALUE))
+				return null;
+			buf = channel.map(FileChannel.MapMode.READ_ONLY,0,channel.size());
+		}
+		finally {
+			raf.close();
+		}
+		// an incompletely written snapshot has no trailer
+		if ((buf.getInt(buf.limit()-4) != MAGIC) || (buf.getInt() != MAGIC) || (buf.getInt() != VERSION) || (buf.getLong() != computeChecksum(filename)))
+			return null;
+		return buf;
+	}
+	catch (IOException ex) {
+		return null;
+	}
+}
+/**
+ * Reads an array of booleans stored as bytes.
+ * @return the array
+ * @param buf the snapshot
+ * @param n length of the array
+ */
+static boolean[] readBooleans (ByteBuffer buf, int n) {
+	boolean[] res = new boolean[n];
+	for (int i=0; i<n; i++)
+		res[i] = (buf.get() != 0);
+	return res;
+}
+/**
+ * Reads an array of doubles.
+ * @return the array
+ * @param buf the snapshot
+ * @param n length of the array
+ */
+static double[] readDoubles (ByteBuffer buf, int n) {
+	double[] res = new double[n];
+	buf.asDoubleBuffer().get(res);
+	buf.position(buf.position()+8*n);
+	return res;
+}
+/**
+ * Reads an array of ints.
+ * @return the array
+ * @param buf the snapshot
+ * @param n length of the array
+ */
+static int[] readInts (ByteBuffer buf, int n) {
+	int[] res = new int[n];
+	buf.asIntBuffer().get(res);
+	buf.position(buf.position()+4*n);
+	return res;
+}
+/**
+ * Reads an array of longs.
+ * @return the array
+ * @param buf the snapshot
+ * @param n length of the array
+ */
+static long[] readLongs (ByteBuffer buf, int n) {
+	long[] res = new long[n];
+	buf.asLongBuffer().get(res);
+	buf.position(buf.position()+8*n);
+	return res;
+}
+/**
+ * Reads an array of names.
+ * @return the array
+ * @param buf the snapshot
+ * @param n length of the array
+ */
+static String[] readNames (ByteBuffer buf, int n) {
+	String[] res = new String[n];
+	for (int i=0; i<n; i++) {
+		int len = buf.getInt();
+		if (len >= 0) {
+			byte[] data = new byte[len];
+			buf.get(data);
+			try {
+				res[i] = new String(data,"UTF-8");
+			}
+			catch (UnsupportedEncodingException ex) {
+				res[i] = new String(data);
+			}
+		}
+	}
+	return res;
+}
+/**
+ * Adds the content of a file to a checksum.
+ * @param crc the checksum
+ * @param filename name of the file
+ * @exception IOException if the file cannot be read
+ */
+private static void update (CRC32 crc, String filename) throws IOException {
+	RandomAccessFile file = new RandomAccessFile(filename,"r");
+	try {
+		FileChannel channel = file.getChannel();
+		long size = channel.size();
+		for (long pos=0; pos<size; pos+=Integer.MAX_VALUE)
+			crc.update(channel.map(FileChannel.MapMode.READ_ONLY,pos,Math.min(size-pos,Integer.MAX_VALUE)));
+	}
+	finally {
+		file.close();
+	}
+}
+/**
+ * Returns a view of an array of ints without copying it; the snapshot is positioned behind the array.
+ * @return the view, indexed like the array
+ * @param buf the snapshot
+ * @param n length of the array
+ */
+static IntBuffer viewInts (ByteBuffer buf, int n) {
+	IntBuffer res = buf.asIntBuffer();
+	res.limit(n);
+	buf.position(buf.position()+4*n);
+	return res;
+}
+/**
+ * Returns a view of an array of longs without copying it; the snapshot is positioned behind the array.
+ * @return the view, indexed like the array
+ * @param buf the snapshot
+ * @param n length of the array
+ */
+static LongBuffer viewLongs (ByteBuffer buf, int n) {
+	LongBuffer res = buf.asLongBuffer();
+	res.limit(n);
+	buf.position(buf.position()+8*n);
+	return res;
+}
+/**
+ * Writes an array of booleans as bytes.
+ * @param out the output
+ * @param a the array
+ * @param n number of elements to be written
+ * @exception IOException if an I/O error occurs
+ */
+static void writeBooleans (DataOutput out, boolean[] a, int n) throws IOException {
+	for (int i=0; i<n; i++)
+		out.writeByte(a[i] ? 1 : 0);
+}
+/**
+ * Writes an array of doubles.
+ * @param out the output
+ * @param a the array
+ * @param n number of elements to be written
+ * @exception IOException if an I/O error occurs
+ */
+static void writeDoubles (DataOutput out, double[] a, int n) throws IOException {
+	for (int i=0; i<n; i++)
+		out.writeDouble(a[i]);
+}
+/**
+ * Writes the header.
+ * @param out the output
+ * @param checksum checksum of the network files
+ * @exception IOException if an I/O error occurs
+ */
+static void writeHeader (DataOutput out, long checksum) throws IOException {
+	out.writeInt(MAGIC);
+	out.writeInt(VERSION);
+	out.writeLong(checksum);
+}
+/**
+ * Writes an array of ints.
+ * @param out the output
+ * @param a the array
+ * @param n number of elements to be written
+ * @exception IOException if an I/O error occurs
+ */
+static void writeInts (DataOutput out, int[] a, int n) throws IOException {
+	for (int i=0; i<n; i++)
+		out.writeInt(a[i]);
+}
+/**
+ * Writes an array of longs.
+ * @param out the output
+ * @param a the array
+ * @param n number of elements to be written
+ * @exception IOException if an I/O error occurs
+ */
+static void writeLongs (DataOutput out, long[] a, int n) throws IOException {
+	for (int i=0; i<n; i++)
+		out.writeLong(a[i]);
+}
+/**
+ * Writes a name (length -1: no name).
+ * @param out the output
+ * @param name the name (may be null)
+ * @exception IOException if an I/O error occurs
+ */
+static void writeName (DataOutput out, String name) throws IOException {
+	if (name == null) {
+		out.writeInt(-1);
+		return;
+	}
+	byte[] data = name.getBytes("UTF-8");
+	out.writeInt(data.length);
+	out.write(data);
+}
+/**
+ * Writes the trailer, which marks a complete snapshot.
+ * @param out the output
+ * @exception IOException if an I/O error occurs
+ */
+static void writeTrailer (DataOutput out) throws IOException {
+	out.writeInt(MAGIC);
+}
+}
@@ -8,6 +8,8 @@ import util.*;
 /**
  * Class for representing nodes.
  * 
+ * @version	4.11	17.10.2026	moveTo invalidates the 2-d-tree of the container
+ * @version	4.10	17.10.2026	search states moved to RoutingContext, dense index and getEdge added, modifications counted
  * @version	4.00	18.08.2003	super class Symbol replaced by Drawable, distance becomes double, dynamic number of edge per node, heapPos added
  * @version	3.30	03.07.2001	getContainer renamed to getNodeContainer
  * @version	3.21	01.06.2000	adapted to new versions of drawable classes
@@ -57,24 +59,10 @@ public class Node extends Drawable {
 	 * The container, the node belongs to.
 	 */
 	private Nodes nodes = null;
-
-	/**
-	 * The current mark.
-	 */
-	private int mark = 0;
-	
-	/**
-	 * distances of the path 1 and 2
-	 */
-	private double distanceOfWay[] = {0.0,0.0};
 	/**
-	 * marks of edges using path 1 and 2
+	 * Dense index of the node in its container (-1 if not contained).
 	 */
-	private byte wayEdge[] = {-1,-1};
-	/**
-	 * Positions in a heap depending of the path (1 and 2)
-	 */
-	protected short heapPos[] = {0,0};
+	protected int index = -1;
 
 /**
  * Constructor.
@@ -165,6 +153,8 @@ public void addEdge (Edge newEdge) {
 			newEdges[i] = edge[i];
 		edge = newEdges;
 	}
+	if (nodes != null)
+		nodes.modCount++;
 	try {
 	edge[numOfEdges++] = newEdge;
 	adaptClass (newEdge.getEdgeClass());
@@ -172,21 +162,6 @@ public void addEdge (Edge newEdge) {
 		System.out.println("ex "+ex);
 	}
 }
-/**
- * Lscht die angegebene Markierung vom Knoten.
- * @param value Wert der Markierung
- */
-public void clearMark (int value) {
-	if (isMarked (value))
-		mark = mark-value;
-}
-/**
- * Lscht alle Wege, die vom Knoten ausgehen.
- */
-public void clearWays () {
-	wayEdge[0] = -1;
-	wayEdge[1] = -1;
-}
 /**
  * Computes the distance of the drawing primitive to a point.
  * @return distance
@@ -196,12 +171,6 @@ public void clearWays () {
 public double computeDistanceTo (int x, int y) {
 	return computeDistance (this.x,this.y, x,y);
 }
-/**
- * Ausgabe des Knotens zu Debugging-Zwecken.
- */
-public void debugPrint (int way) {
-	System.out.print(name+ " - "+ getDistanceOfWay(way));
-}
 /**
  * Berechnet den Abstand des Knotens zu dem angegebenen Knoten.
  * @return Abstand
@@ -251,12 +220,13 @@ public boolean equals (Object node) {
 	return (id == ((Node)node).id); 
 }
 /**
- * Gibt die Distanz bei dem Knoten bezglich des angegebenen Weges zurck.
- * @return Distanz
- * @param Index des Weges
+ * Returns the i-th edge of the node.
+ * In contrast to getFirstEdge and getNextEdge, the node is not modified.
+ * @return the edge
+ * @param i index of the edge (0 <= i < getNumOfEdges())
  */
-public double getDistanceOfWay (int way) {
-	return distanceOfWay[way-1];
+public Edge getEdge (int i) {
+	return edge[i];
 }
 /**
  * Gibt die erste Kante des Knotens zurck.
@@ -277,6 +247,14 @@ public long getID () {
 	return id;
 }
 
+/**
+ * Returns the dense index of the node in its container.
+ * @return index or -1
+ */
+public int getIndex () {
+	return index;
+}
+
 /**
  * Returns the minimum bounding rectangle of the primitive.
  * @return  the MBR
@@ -327,17 +305,6 @@ public Nodes getNodeContainer () {
 public int getNumOfEdges () {
 	return numOfEdges;
 }
-/**
- * Gibt die Kante zurck, ber die der angefragte Weg verluft.
- * @return  Kante, ber die der Weg verluft
- * @param  way  Index des Weges
- */
-public Edge getWayEdge (int way) {
-	if (wayEdge[way-1] < 0)
-		return null;
-	else
-		return edge[wayEdge[way-1]];
-}
 /**
  * Gibt Hashcode fr den Knoten zurck.
  * @return Hashcode
@@ -388,29 +355,6 @@ public boolean interacts (int px, int py, int scale) {
 		   (py >= y-size/2*scale-1) && (py <= y+size/2*scale);
 }
 
-/**
- * Gibt zurck, ob der Knoten mit dem angegebenen Wert markiert ist.
- * @return markiert?
- * @param value Markierungswert
- */
-public boolean isMarked (int value) {
-	if (mark > nodes.nullMark)
-		return ((mark-nodes.nullMark) & value) > 0;
-	else
-		return false;
-}
-/**
- * Markiert den Knoten mit dem angegebenen Wert.
- * @param value Markierunsgwert
- */
-public void mark (int value) {
-	if (mark > nodes.nullMark)
-		mark = nodes.nullMark + ((mark-nodes.nullMark) | value);
-	else
-		mark = nodes.nullMark + value;
-	if (nodes.maxMark < mark)
-		nodes.maxMark = mark;
-}
 /**
  * Moves the node to a new position.
  * @param x new x-coordinate
@@ -421,6 +365,10 @@ public void moveTo (int x, int y) {
 	this.y = y;
 	for (int i=0; i<numOfEdges; i++)
 		edge[i].announceMove(this);
+	if (nodes != null) {
+		nodes.tree.invalidate();
+		nodes.modCount++;
+	}
 }
 
 /**
@@ -445,6 +393,8 @@ public void removeEdge (Edge oldEdge) {
 	// und entfernen
 	edge[edgeIndex] = edge[numOfEdges-1];
 	numOfEdges--;
+	if (nodes != null)
+		nodes.modCount++;
 	// Die Knotenklassen werden z.Zt. nicht angepasst !!!
 }
 /**
@@ -457,14 +407,6 @@ public void replaceBy (Node node) {
 	if (numOfEdges != 0)
 		System.err.println("Node.replaceBy: numOfEdges != 0");
 }
-/**
- * Setzt die Distanz bezglich des angegebenen Weges.
- * @param way Index des Weges
- * @param distance Distanz
- */
-public void setDistanceOfWay (int way, double distance) {
-	distanceOfWay[way-1] = distance;
-}
 /**
  * Sets the ID of the node.
  * @param newID the new ID
@@ -490,22 +432,6 @@ public void setStandardAppearance () {
 	setPresentation(DrawablePresentation.get("Node"+nodeClass));
 }
 
-/**
- * Merkt sich die angegebene Kante als weiteren Verlauf des angegebenen Weges.
- * @param way Index des Wegs
- * @param e Kante, ber der der Weg verluft
- */
-public void setWay (int way, Edge e) {
-	// ggf. alte Wegkanten zurcksetzen
-	if (!isMarked(1))
-		wayEdge[0] = -1;
-	if (!isMarked(2))
-		wayEdge[1] = -1;
-	// Kante merken
-	for (int i=0; i < numOfEdges; i++)
-		if (edge[i] == e)
-			wayEdge[way-1] = (byte)i;
-}
 /**
  * Schreibt den Knoten in den DataOutput.
  * @return  erfolgreich?
@@ -0,0 +1,245 @@
+package routing;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+
+/**
+ * 2-d-tree over the coordinates of the nodes.
+ * The nodes are numbered by their dense indices. Since new nodes are appended to the
+ * dense array, the tree consists of static, bulk-built 2-d-trees over consecutive ranges
+ * of the dense indices whose sizes are the powers of two of the binary representation of
+ * the number of nodes; appending a node rebuilds the ranges of the smaller trees
+ * (logarithmic method). Each tree is stored implicitly: the median of a range is located
+ * at its middle position, the smaller half before and the larger half behind it.
+ * After removing or moving nodes, the tree is rebuilt completely by the next update.
+ * The queries do not allocate objects and may be performed concurrently as long as
+ * the tree is not updated.
+ *
+ * @version	1.10	17.10.2026	stored in and read from network snapshots
+ * @version	1.00	17.10.2026	first version
+ * @author FH Oldenburg
+ */
+class NodeTree {
+
+	/**
+	 * Dense index of the node at each position.
+	 */
+	private int[] index = new int[0];
+	/**
+	 * X-coordinate of the node at each position.
+	 */
+	private int[] posX = new int[0];
+	/**
+	 * Y-coordinate of the node at each position.
+	 */
+	private int[] posY = new int[0];
+	/**
+	 * Number of nodes in the tree.
+	 */
+	private int num = 0;
+
+/**
+ * Builds the tree over a range of positions.
+ * @param lo first position
+ * @param hi position behind the last one
+ * @param xAxis split by the x-coordinate?
+ */
+private void build (int lo, int hi, boolean xAxis) {
+	if (hi-lo <= 1)
+		return;
+	int mid = (lo+hi) >>> 1;
+	select(lo,hi,mid,xAxis);
+	build(lo,mid,!xAxis);
+	build(mid+1,hi,!xAxis);
+}
+/**
+ * Returns the closer of two positions to (x,y); for equal distances,
+ * the position of the node with the smaller dense index.
+ * @return the closer position
+ * @param p the first position
+ * @param best the second position (-1: none)
+ * @param x x-coordinate
+ * @param y y-coordinate
+ */
+private int closer (int p, int best, int x, int y) {
+	if (best < 0)
+		return p;
+	double d = distance(p,x,y);
+	double bestDist = distance(best,x,y);
+	if ((d < bestDist) || ((d == bestDist) && (index[p] < index[best])))
+		return p;
+	return best;
+}
+/**
+ * Returns the squared distance of the node at a position to (x,y).
+ * @return squared distance
+ * @param p the position
+ * @param x x-coordinate
+ * @param y y-coordinate
+ */
+private double distance (int p, int x, int y) {
+	double dx = (double)posX[p]-x;
+	double dy = (double)posY[p]-y;
+	return dx*dx+dy*dy;
+}
+/**
+ * Finds the nearest node to (x,y). For several nearest nodes, the node with the
+ * smallest dense index is returned.
+ * @return dense index of the node or -1 if the tree is empty
+ * @param x x-coordinate
+ * @param y y-coordinate
+ */
+int findNearest (int x, int y) {
+	int best = -1;
+	int lo = 0;
+	for (int bit=Integer.highestOneBit(num); bit>0; bit>>>=1)
+		if ((num & bit) != 0) {
+			best = nearest(lo,lo+bit,true,x,y,best);
+			lo += bit;
+		}
+	return (best < 0) ? -1 : index[best];
+}
+/**
+ * Searches the nearest node to (x,y) in a range of positions.
+ * @return the position of the nearest node found so far
+ * @param lo first position
+ * @param hi position behind the last one
+ * @param xAxis split by the x-coordinate?
+ * @param x x-coordinate
+ * @param y y-coordinate
+ * @param best the position of the nearest node found so far (-1: none)
+ */
+private int nearest (int lo, int hi, boolean xAxis, int x, int y, int best) {
+	if (lo >= hi)
+		return best;
+	int mid = (lo+hi) >>> 1;
+	best = closer(mid,best,x,y);
+	double d = xAxis ? (double)x-posX[mid] : (double)y-posY[mid];
+	if (d < 0) {
+		best = nearest(lo,mid,!xAxis,x,y,best);
+		if (d*d <= distance(best,x,y))
+			best = nearest(mid+1,hi,!xAxis,x,y,best);
+	}
+	else {
+		best = nearest(mid+1,hi,!xAxis,x,y,best);
+		if (d*d <= distance(best,x,y))
+			best = nearest(lo,mid,!xAxis,x,y,best);
+	}
+	return best;
+}
+/**
+ * Reads the packed tree from a network snapshot.
+ * @param buf the snapshot at the position of the tree
+ */
+void readSnapshot (ByteBuffer buf) {
+	num = buf.getInt();
+	index = NetworkSnapshot.readInts(buf,num);
+	posX = NetworkSnapshot.readInts(buf,num);
+	posY = NetworkSnapshot.readInts(buf,num);
+}
+/**
+ * Rearranges a range of positions such that the node at position k has the k-th
+ * coordinate, the nodes before it smaller or equal and the nodes behind it larger
+ * or equal coordinates (quickselect).
+ * @param lo first position
+ * @param hi position behind the last one
+ * @param k the position
+ * @param xAxis by the x-coordinate?
+ */
+private void select (int lo, int hi, int k, boolean xAxis) {
+	int[] c = xAxis ? posX : posY;
+	hi--;
+	while (lo < hi) {
+		int pivot = c[(lo+hi) >>> 1];
+		int i = lo;
+		int j = hi;
+		while (i <= j) {
+			while (c[i] < pivot)
+				i++;
+			while (c[j] > pivot)
+				j--;
+			if (i <= j) {
+				swap(i,j);
+				i++;
+				j--;
+			}
+		}
+		if (k <= j)
+			hi = j;
+		else if (k >= i)
+			lo = i;
+		else
+			return;
+	}
+}
+/**
+ * Swaps the nodes at two positions.
+ * @param i first position
+ * @param j second position
+ */
+private void swap (int i, int j) {
+	int t = index[i];
+	index[i] = index[j];
+	index[j] = t;
+	t = posX[i];
+	posX[i] = posX[j];
+	posX[j] = t;
+	t = posY[i];
+	posY[i] = posY[j];
+	posY[j] = t;
+}
+/**
+ * Invalidates the tree; it is rebuilt completely by the next update.
+ */
+void invalidate () {
+	num = 0;
+}
+/**
+ * Adds the nodes appended to the dense array since the last update.
+ * @param node the nodes in the order of their dense index
+ * @param numOfNodes the number of nodes
+ */
+void update (Node[] node, int numOfNodes) {
+	if (numOfNodes < num)
+		num = 0;
+	if (index.length < numOfNodes) {
+		int capacity = Math.max(numOfNodes,2*index.length);
+		int[] a = new int[capacity];
+		System.arraycopy(index,0,a,0,num);
+		index = a;
+		a = new int[capacity];
+		System.arraycopy(posX,0,a,0,num);
+		posX = a;
+		a = new int[capacity];
+		System.arraycopy(posY,0,a,0,num);
+		posY = a;
+	}
+	if (numOfNodes == num)
+		return;
+	for (int i=num; i<numOfNodes; i++) {
+		index[i] = i;
+		posX[i] = node[i].getX();
+		posY[i] = node[i].getY();
+	}
+	// the trees of the bits above the highest changed bit are kept, the others are rebuilt
+	int changed = Integer.highestOneBit(num ^ numOfNodes);
+	int lo = numOfNodes & ~(2*changed-1);
+	for (int bit=changed; bit>0; bit>>>=1)
+		if ((numOfNodes & bit) != 0) {
+			build(lo,lo+bit,true);
+			lo += bit;
+		}
+	num = numOfNodes;
+}
+/**
+ * Writes the packed tree into a network snapshot.
+ * @param out the output
+ * @exception IOException if an I/O error occurs
+ */
+void writeSnapshot (DataOutput out) throws IOException {
+	out.writeInt(num);
+	NetworkSnapshot.writeInts(out,index,num);
+	NetworkSnapshot.writeInts(out,posX,num);
+	NetworkSnapshot.writeInts(out,posY,num);
+}
+}
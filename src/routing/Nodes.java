@@ -4,10 +4,16 @@ import java.awt.*;
 import java.io.*;
 import java.util.*;
 import drawables.*;
+import util.LongIntHashMap;
 
 /**
  * Container class for the class Node.
  * 
+ * @version	1.51	17.10.2026	former order of the enumeration documented
+ * @version	1.50	17.10.2026	ids indexed by a LongIntHashMap instead of a Hashtable, enumeration in the dense order
+ * @version	1.41	17.10.2026	getTree package-private for network snapshots
+ * @version	1.40	17.10.2026	findNearest by a 2-d-tree over the nodes, findNode added
+ * @version	1.30	17.10.2026	dense node index added, marks moved to RoutingContext, modification counter added
  * @version	1.21	16.08.2003	distance becomes double
  * @version	1.20	03.07.2001	parameter DrawableObjects removed from findNearest
  * @version	1.12	28.06.2000	adapted to DrawableObjects v4.0, Timer removed
@@ -20,13 +26,9 @@ import drawables.*;
 public class Nodes {
 
 	/**
-	 * Container of all nodes
+	 * Dense indices of the nodes by their ids
 	 */
-	private Hashtable hashTable = null;
-	/**
-	 * Container of all drawable objects
-	 */
-	private DrawableObjects objects = null;
+	private LongIntHashMap index = null;
 	/**
 	 * Highest id of a node
 	 */
@@ -42,17 +44,21 @@ public class Nodes {
 	 */
 	private int actEdge = 0;
 	/**
-	 * Value of the mark which corresponds to unmarked
+	 * Nodes in the order of their dense index
 	 */
-	protected int nullMark = 0;
+	private Node[] node = new Node[10000];
 	/**
-	 * Highest existing mark
+	 * Number of nodes in the dense array
 	 */
-	protected int maxMark = 0;
+	private int num = 0;
 	/**
-	 * Index of the actual edge
+	 * Counter of structural modifications
+	 */
+	protected int modCount = 0;
+	/**
+	 * 2-d-tree over the coordinates of the nodes
 	 */
-	private Node searchNode = new Node(0,0,0);
+	protected NodeTree tree = new NodeTree();
 
 	/**
 	 * Scale boundaries for the visiblity of the nodes
@@ -69,7 +75,7 @@ public class Nodes {
  */
 public Nodes (int numOfClasses) {
 	this.numOfClasses = numOfClasses;
-	hashTable = new Hashtable (10000);
+	index = new LongIntHashMap (10000);
 }
 /**
  * Konstruktor.
@@ -77,67 +83,87 @@ public Nodes (int numOfClasses) {
  */
 public Nodes (Edges edges) {
 	this.numOfClasses = edges.getNumOfClasses()+1;
-	hashTable = new Hashtable (10000);
+	index = new LongIntHashMap (10000);
 }
 /**
- * Die Markierungen aller Knoten werden gelscht.
- */
-public void clearAllMarks () {
-	maxMark++;
-	nullMark = maxMark;
-}
-/**
- * Gibt Enumeration ber alle Knoten zurck.
+ * Gibt Enumeration ber alle Knoten in der Reihenfolge ihrer dichten Indizes zurck.
+ * Bis Version 1.41 folgte die Enumeration der Reihenfolge einer Hashtable; der
+ * ObjectGenerator bildet diese Reihenfolge nach, damit ein Seed dieselben Datenstze erzeugt.
  * @return Enumeration der Knoten
  */
 public Enumeration elements () {
-	return hashTable.elements();
+	return new Enumeration() {
+		private int next = 0;
+		public boolean hasMoreElements () {
+			return next < num;
+		}
+		public Object nextElement () {
+			if (next >= num)
+				throw new NoSuchElementException("Nodes.elements");
+			return node[next++];
+		}
+	};
 }
 /**
  * Finds the nearest node to the position (x,y).
- * @return the node
+ * For several nearest nodes, the node with the smallest dense index is returned.
+ * The search uses a 2-d-tree over the nodes, which is updated if the nodes have been
+ * modified; several threads may search concurrently if the nodes are not modified.
+ * @return the node or null if there is no node
  * @param x x-coordinate
  * @param y y-coordinate
  */
 public Node findNearest (int x, int y) {
-	if (numOfNodes() == 0)
-		return null;
-	Enumeration e = null;
-	Node node = null;
-	if (objects == null) {
-		e = hashTable.elements();
-		node = (Node)e.nextElement();
-		objects = node.getContainer();
-	}
-	Node testNode = new Node (0,x,y);
-	if (objects != null)
-		try {
-			return (Node)((DrawableObjectsWithSearchTree)objects).findNearestDrawable (x,y,null,new DrawableSpatialSearchTreeObject(testNode));
-		}
-		catch (Exception ex) {
-			System.err.println("Exception in Nodes.findNearest: "+ex);
-		}
-	Node nearestNode = node;
-	double distance = testNode.distanceTo(nearestNode);
-	for (; e.hasMoreElements();) {
-		Node next = (Node)e.nextElement();
-		double actDist = testNode.distanceTo(next);
-		if (actDist < distance) {
-			nearestNode = next;
-			distance = actDist;
-		}
-	}
-	return nearestNode;
+	int i = getTree().findNearest(x,y);
+	return (i < 0) ? null : node[i];
+}
+/**
+ * Finds a node at the position (x,y).
+ * For several such nodes, the node with the smallest dense index is returned.
+ * @return the node or null if there is no node at the position
+ * @param x x-coordinate
+ * @param y y-coordinate
+ */
+public Node findNode (int x, int y) {
+	Node res = findNearest(x,y);
+	if ((res != null) && (res.getX() == x) && (res.getY() == y))
+		return res;
+	return null;
 }
 /**
  * Gibt den Knoten zurck, der die angegebene ID besitzt.
  * Gibt es keinen solchen Knoten, wird null zurckgegeben.
+ * Mehrere Threads knnen gleichzeitig suchen, solange die Knoten nicht verndert werden.
  * @return ggf. gefundener Knoten
  * @param id ID des Knotens
  */
 public Node get (long id) {
-	searchNode.setID(id);
-	return (Node) hashTable.get (searchNode);
+	int i = index.get(id);
+	return (i == LongIntHashMap.NOT_FOUND) ? null : node[i];
+}
+/**
+ * Returns the counter of modifications.
+ * It is incremented whenever a node is inserted, removed or moved or the edges of a node change.
+ * @return modification counter
+ */
+public int getModCount () {
+	return modCount;
+}
+/**
+ * Returns the node with the given dense index.
+ * @return the node
+ * @param index dense index (0 <= index < numOfNodes())
+ */
+public Node getNode (int index) {
+	return node[index];
+}
+/**
+ * Returns the 2-d-tree over the nodes after adding the new nodes.
+ * @return the tree
+ */
+synchronized NodeTree getTree () {
+	tree.update(node,num);
+	return tree;
 }
 /**
  * Returns the next free identifier.
@@ -179,7 +205,24 @@ public Node newNode (long id, int x, int y, String name) {
 		node = new Node (id, x,y, name, this);
 	else
 		node = new Node (id, x,y, this);
-	hashTable.put (node,node);
+	int i = index.get(id);
+	if (i != LongIntHashMap.NOT_FOUND) {
+		// the node replaces the node with the same id
+		node.index = i;
+		this.node[i].index = -1;
+		tree.invalidate();
+	}
+	else {
+		if (num >= this.node.length) {
+			Node[] newArray = new Node[2*this.node.length];
+			System.arraycopy(this.node,0,newArray,0,num);
+			this.node = newArray;
+		}
+		node.index = num++;
+		index.put(id,node.index);
+	}
+	this.node[node.index] = node;
+	modCount++;
 	if (id > maxId)
 		maxId = id;
 	return node;
@@ -189,7 +232,7 @@ public Node newNode (long id, int x, int y, String name) {
  * @return Anzahl
  */
 public int numOfNodes () {
-	return hashTable.size();
+	return num;
 }
 /**
  * Liest einen Knoten vom DataInput.
@@ -228,7 +271,19 @@ public Node read (DataInput in) {
  */
 public boolean removeNode (Node node) {
 	if ((node != null) && (node.getNumOfEdges() == 0)) {
-		hashTable.remove (node);
+		if ((node.index >= 0) && (this.node[node.index] == node)) {
+			index.remove(node.getID());
+			// move the last node into the gap
+			num--;
+			this.node[node.index] = this.node[num];
+			this.node[node.index].index = node.index;
+			if (node.index < num)
+				index.put(this.node[num].getID(),node.index);
+			this.node[num] = null;
+			node.index = -1;
+		}
+		tree.invalidate();
+		modCount++;
 		return true;
 	}
 	return false;
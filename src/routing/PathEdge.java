@@ -5,6 +5,8 @@ import drawables.*;
 /**
  * Class for representing pathes of edges.
  * 
+ * @version 1.71	17.10.2026	recursions replaced by loops
+ * @version 1.70	17.10.2026	copy added
  * @version 1.60	19.08.2003	checkForDestinationNode added, distance and weight becomes double
  * @version	1.51	24.05.2001	simple constructor added
  * @version	1.50	30.04.2000	constructors changed, computeDegree added
@@ -74,21 +76,20 @@ public PathEdge (Edge edge, boolean forwards, double origWeight, PathEdge next)
  * @param path the additional path
  */
 public PathEdge addPath (PathEdge path) {
-	if (next == null) {
-		next = path;
-		return path;
-	}
-	else
-		return next.addPath (path);
+	PathEdge last = this;
+	while (last.next != null)
+		last = last.next;
+	last.next = path;
+	return path;
 }
 /**
  * ndert die Darstellung der Kanten.
  * @param presName Darstellungsname
  */
 public void changePresentation (String presName) {
-	edge.setPresentation(DrawablePresentation.get(presName));
-	if (next != null)
-		next.changePresentation(presName);
+	DrawablePresentation pres = DrawablePresentation.get(presName);
+	for (PathEdge path = this; path != null; path = path.next)
+		path.edge.setPresentation(pres);
 }
 /**
  * Checks the path for a given destination node.
@@ -102,48 +103,60 @@ public boolean checkForDestinationNode (Node node) {
 	return currEdge.getDestinationNode() == node;
 }
 
+/**
+ * Copies the path. The edges are not copied.
+ * @return the copy
+ */
+public PathEdge copy () {
+	PathEdge first = new PathEdge(edge,forwards,origWeight);
+	PathEdge last = first;
+	for (PathEdge path = next; path != null; path = path.next) {
+		last.next = new PathEdge(path.edge,path.forwards,path.origWeight);
+		last = last.next;
+	}
+	return first;
+}
 /**
  * Computes the degrees of starting nodes.
  * @return total degree
  */
 public int computeDegree () {
-	if (next == null)
-		return 0;
-	else
-		return next.computeDegree()+getStartingNode().getNumOfEdges();
+	int degree = 0;
+	for (PathEdge path = this; path.next != null; path = path.next)
+		degree += path.getStartingNode().getNumOfEdges();
+	return degree;
 }
 /**
  * Berechnet die Lnge des Pfads.
  * @return Pfadlnge
  */
 public double computeDistance () {
-	if (next == null)
-		return edge.getWeight();
-	else
-		return edge.getWeight() + next.computeDistance();
+	double distance = 0;
+	for (PathEdge path = this; path != null; path = path.next)
+		distance += path.edge.getWeight();
+	return distance;
 }
 /**
  * Computes the number of edges.
  * @return number of edges
  */
 public int computeNumber () {
-	if (next == null)
-		return 1;
-	else
-		return next.computeNumber()+1;
+	int number = 0;
+	for (PathEdge path = this; path != null; path = path.next)
+		number++;
+	return number;
 }
 /**
  * Gibt den Pfad zu Debugging-Zwecken aus.
  */
 public void debugPrint () {
-	Node node = getStartingNode();
-	System.out.print("1: "); node.debugPrint(1); System.out.println(" - "+node.getDistanceOfWay(2));
-	node = edge.getOppositeNode(node);
-	System.out.print("2: "); node.debugPrint(1); System.out.println(" - "+node.getDistanceOfWay(2));
-	if (next != null)
-		next.debugPrint();
-	else
-		System.out.println("***");
+	for (PathEdge path = this; path != null; path = path.next) {
+		Node node = path.getStartingNode();
+		System.out.print("1: "+node.getName()); System.out.println(" - "+path.origWeight);
+		node = path.edge.getOppositeNode(node);
+		System.out.print("2: "+node.getName()); System.out.println(" - "+path.origWeight);
+	}
+	System.out.println("***");
 }
 /**
  * Sucht bergebene Kante im Pfad. Falls sie gefunden wird, wird das Pfadelement
@@ -154,12 +167,10 @@ public void debugPrint () {
 public PathEdge findEdge (Edge pEdge) {
 	if (pEdge == null)
 		return null;
-	else if (pEdge.equals(edge))
-		return this;
-	else if (next == null)
-		return null;
-	else
-		return next.findEdge (pEdge);
+	for (PathEdge path = this; path != null; path = path.next)
+		if (pEdge.equals(path.edge))
+			return path;
+	return null;
 }
 /**
  * Gibt den Knoten zurck, bei dem die Pfadkante endet.
@@ -190,10 +201,10 @@ public boolean getForwards () {
  * @return Kante
  */
 public Edge getLastEdge () {
-	if (next == null)
-		return edge;
-	else
-		return next.getLastEdge();
+	PathEdge last = this;
+	while (last.next != null)
+		last = last.next;
+	return last.edge;
 }
 /**
  * Gibt das folgende Pfadelement zurck.
@@ -223,9 +234,8 @@ public Node getStartingNode () {
  * Selektiert die Kanten ungerichtet.
  */
 public void select () {
-	edge.setSelection(true);
-	if (next != null)
-		next.select();
+	for (PathEdge path = this; path != null; path = path.next)
+		path.edge.setSelection(true);
 }
 /**
  * Selektiert die Kanten gerichtet.
@@ -251,8 +261,7 @@ public void setNext (PathEdge path) {
  * Setzt die Kanten des Pfads auf die Standard-Darstellung.
  */
 public void setStandardAppearance () {
-	edge.setStandardAppearance();
-	if (next != null)
-		next.setStandardAppearance();
+	for (PathEdge path = this; path != null; path = path.next)
+		path.edge.setStandardAppearance();
 }
 }
@@ -0,0 +1,303 @@
+package routing;
+
+import java.io.*;
+
+/**
+ * Packed representation of a route.
+ * The edges are stored by their dense indices in the compact graph, the directions
+ * in a bit set and the weights together with their prefix sums. In contrast to
+ * PathEdge, a route consists of a constant number of arrays and is not modified
+ * after its construction; it is traversed by a position (0 to getNumOfEdges()-1).
+ *
+ * @version	1.10	17.10.2026	route can be written and read (for checkpoints)
+ * @version	1.00	17.10.2026	first version
+ * @author FH Oldenburg
+ */
+public class Route {
+
+	/**
+	 * The graph whose edge indices are stored.
+	 */
+	private CompactGraph graph = null;
+	/**
+	 * Number of edges.
+	 */
+	private int num = 0;
+	/**
+	 * Dense indices of the edges.
+	 */
+	private int[] edge = null;
+	/**
+	 * Bit set of the edges traversed against their direction.
+	 */
+	private long[] backwards = null;
+	/**
+	 * Weights of the edges at the computation of the route.
+	 */
+	private double[] weight = null;
+	/**
+	 * Prefix sums of the weights; prefix[i] is the weight of the first i edges.
+	 */
+	private double[] prefix = null;
+	/**
+	 * Total degree of the starting nodes of all edges except the last one.
+	 */
+	private int degree = 0;
+
+/**
+ * Creates an empty route with space for a number of edges.
+ * @param  graph  the compact graph
+ * @param  num  number of edges
+ */
+protected Route (CompactGraph graph, int num) {
+	this.graph = graph;
+	this.num = num;
+	edge = new int[num];
+	backwards = new long[(num+63) >> 6];
+	weight = new double[num];
+	prefix = new double[num+1];
+}
+
+/**
+ * Creates a route from a path.
+ * @param  graph  the compact graph containing the edges of the path
+ * @param  path  the path
+ */
+public Route (CompactGraph graph, PathEdge path) {
+	this (graph,path.computeNumber());
+	int i = 0;
+	for (PathEdge p = path; p != null; p = p.getNext())
+		set(i++,p.getEdge().getIndex(),p.getForwards(),p.getOrigWeight());
+	complete();
+}
+
+/**
+ * Reads a route written by write.
+ * @param  graph  the compact graph containing the edges of the route
+ * @param  in  the input
+ * @exception IOException if an I/O error occurs
+ */
+public Route (CompactGraph graph, DataInput in) throws IOException {
+	this (graph,in.readInt());
+	for (int i=0; i<num; i++)
+		edge[i] = in.readInt();
+	for (int i=0; i<backwards.length; i++)
+		backwards[i] = in.readLong();
+	for (int i=0; i<num; i++)
+		weight[i] = in.readDouble();
+	complete();
+}
+
+/**
+ * Computes the prefix sums and the degree after all edges have been set.
+ */
+protected void complete () {
+	prefix[0] = 0;
+	degree = 0;
+	for (int i=0; i<num; i++) {
+		prefix[i+1] = prefix[i]+weight[i];
+		if (i < num-1)
+			degree += getStartingNode(i).getNumOfEdges();
+	}
+}
+
+/**
+ * Returns the position of the edge that is traversed after the given weight
+ * has been spent. Binary search on the prefix sums.
+ * @return  position (getNumOfEdges()-1 if the weight exceeds the route)
+ * @param  offset  the weight from the start of the route
+ */
+public int findPosition (double offset) {
+	int lo = 0;
+	int hi = num-1;
+	while (lo < hi) {
+		int mid = (lo+hi+1) >>> 1;
+		if (prefix[mid] <= offset)
+			lo = mid;
+		else
+			hi = mid-1;
+	}
+	return lo;
+}
+
+/**
+ * Returns the total degree of the starting nodes of all edges except the last one
+ * (compare PathEdge.computeDegree).
+ * @return  degree
+ */
+public int getDegree () {
+	return degree;
+}
+
+/**
+ * Returns the destination node of the route.
+ * @return  the node
+ */
+public Node getDestinationNode () {
+	return getDestinationNode(num-1);
+}
+
+/**
+ * Returns the node where the edge at a position ends.
+ * @return  the node
+ * @param  i  the position
+ */
+public Node getDestinationNode (int i) {
+	if (getForwards(i))
+		return getEdge(i).getNode2();
+	else
+		return getEdge(i).getNode1();
+}
+
+/**
+ * Returns the edge at a position.
+ * @return  the edge
+ * @param  i  the position
+ */
+public Edge getEdge (int i) {
+	return graph.edge[edge[i]];
+}
+
+/**
+ * Returns the dense index of the edge at a position.
+ * @return  the edge index
+ * @param  i  the position
+ */
+public int getEdgeIndex (int i) {
+	return edge[i];
+}
+
+/**
+ * Is the edge at a position traversed in its direction?
+ * @return  forwards?
+ * @param  i  the position
+ */
+public boolean getForwards (int i) {
+	return (backwards[i >> 6] & (1L << i)) == 0;
+}
+
+/**
+ * Returns the graph of the route.
+ * @return  the compact graph
+ */
+public CompactGraph getGraph () {
+	return graph;
+}
+
+/**
+ * Returns the number of edges.
+ * @return  number of edges
+ */
+public int getNumOfEdges () {
+	return num;
+}
+
+/**
+ * Returns the weight of the edge at a position at the computation of the route.
+ * @return  the weight
+ * @param  i  the position
+ */
+public double getOrigWeight (int i) {
+	return weight[i];
+}
+
+/**
+ * Returns the starting node of the route.
+ * @return  the node
+ */
+public Node getStartingNode () {
+	return getStartingNode(0);
+}
+
+/**
+ * Returns the node where the edge at a position starts.
+ * @return  the node
+ * @param  i  the position
+ */
+public Node getStartingNode (int i) {
+	if (getForwards(i))
+		return getEdge(i).getNode1();
+	else
+		return getEdge(i).getNode2();
+}
+
+/**
+ * Returns the total weight of the route at its computation.
+ * @return  the weight
+ */
+public double getWeight () {
+	return prefix[num];
+}
+
+/**
+ * Returns the weight of the edges before a position.
+ * @return  the weight
+ * @param  i  the position (0 to getNumOfEdges())
+ */
+public double getWeightBefore (int i) {
+	return prefix[i];
+}
+
+/**
+ * Creates a new route consisting of a part of this route and a following route.
+ * @return  the new route
+ * @param  from  first position of the part
+ * @param  to  last position of the part
+ * @param  next  the following route (may be null)
+ */
+public Route reroute (int from, int to, Route next) {
+	int numOfNext = 0;
+	if (next != null)
+		numOfNext = next.num;
+	Route res = new Route(graph,to-from+1+numOfNext);
+	int j = 0;
+	for (int i=from; i<=to; i++)
+		res.set(j++,edge[i],getForwards(i),weight[i]);
+	for (int i=0; i<numOfNext; i++)
+		res.set(j++,next.edge[i],next.getForwards(i),next.weight[i]);
+	res.complete();
+	return res;
+}
+
+/**
+ * Sets the edge at a position. Must be followed by complete().
+ * @param  i  the position
+ * @param  e  dense index of the edge
+ * @param  forwards  edge traversed in its direction?
+ * @param  w  weight of the edge
+ */
+protected void set (int i, int e, boolean forwards, double w) {
+	edge[i] = e;
+	if (forwards)
+		backwards[i >> 6] &= ~(1L << i);
+	else
+		backwards[i >> 6] |= 1L << i;
+	weight[i] = w;
+}
+
+/**
+ * Converts the route into a path.
+ * @return  the path
+ */
+public PathEdge toPathEdge () {
+	PathEdge path = null;
+	for (int i=num-1; i>=0; i--)
+		path = new PathEdge(getEdge(i),getForwards(i),weight[i],path);
+	return path;
+}
+
+/**
+ * Writes the route; the edges are written by their dense indices in the compact graph.
+ * @param  out  the output
+ * @exception IOException if an I/O error occurs
+ */
+public void write (DataOutput out) throws IOException {
+	out.writeInt(num);
+	for (int i=0; i<num; i++)
+		out.writeInt(edge[i]);
+	for (int i=0; i<backwards.length; i++)
+		out.writeLong(backwards[i]);
+	for (int i=0; i<num; i++)
+		out.writeDouble(weight[i]);
+}
+}
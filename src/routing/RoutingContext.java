@@ -0,0 +1,549 @@
+package routing;
+
+/**
+ * Working memory of a route query.
+ * All search states (marks, distances, path edges, heap positions) are stored in arrays
+ * indexed by the dense node index. Therefore, the network itself is not modified
+ * by a query and several threads may route concurrently, each using its own context.
+ * A context must not be used by two threads at the same time.
+ *
+ * @version	1.60	17.10.2026	getWayPosition and removeFromBorder added
+ * @version	1.50	17.10.2026	own landmarks added
+ * @version	1.40	17.10.2026	states of ContractionHierarchy queries added
+ * @version	1.30	17.10.2026	separate border of path 2 and connection for bidirectional A*
+ * @version	1.20	17.10.2026	BorderHeap replaced by IndexedHeap
+ * @version	1.10	17.10.2026	access by dense node index added for CompactGraph
+ * @version	1.00	17.10.2026	first version
+ * @author FH Oldenburg
+ */
+public class RoutingContext {
+
+	/**
+	 * The node container the context belongs to.
+	 */
+	private Nodes nodes = null;
+	/**
+	 * The weight manager used by the queries (null: the weight manager of the edges).
+	 */
+	private WeightManager wm = null;
+	/**
+	 * The landmarks used by the queries (see setLandmarks).
+	 */
+	private Landmarks landmarks = null;
+	/**
+	 * Are the landmarks of the context used instead of the landmarks of the network?
+	 */
+	private boolean useOwnLandmarks = false;
+	/**
+	 * The heap for the border; the item of a node n concerning path w is 2*n+w-1.
+	 */
+	protected IndexedHeap heap = null;
+	/**
+	 * The heap for the border of path 2 if the borders are separated (see useSeparateBorders).
+	 */
+	protected IndexedHeap reverseHeap = null;
+	/**
+	 * Are the borders of path 1 and 2 kept in separate heaps?
+	 */
+	private boolean separateBorders = false;
+	/**
+	 * Dense index of the best node connecting path 1 and 2 found so far; -1 = none.
+	 */
+	private int connectionNode = -1;
+	/**
+	 * Length of the best connection of path 1 and 2 found so far.
+	 */
+	private double connectionDistance = Double.MAX_VALUE;
+
+	/**
+	 * Marks of the nodes.
+	 */
+	private int[] mark = new int[0];
+	/**
+	 * Value of the mark which corresponds to unmarked.
+	 */
+	private int nullMark = 0;
+	/**
+	 * Highest existing mark.
+	 */
+	private int maxMark = 0;
+	/**
+	 * Distances of the nodes concerning path 1 and 2.
+	 */
+	private double[][] distanceOfWay = new double[2][0];
+	/**
+	 * Positions of the edges (in the edge array of the node) concerning path 1 and 2; -1 = none.
+	 */
+	private int[][] wayEdge = new int[2][0];
+	/**
+	 * Estimated remaining distances of the nodes in the border concerning path 1 and 2.
+	 */
+	private double[][] estimate = new double[2][0];
+
+	/**
+	 * Distances of the upward searches of ContractionHierarchy (infinite if not reached).
+	 */
+	protected double[][] hierarchyDistance = new double[2][0];
+	/**
+	 * Arcs of the upward searches of ContractionHierarchy leading to the nodes.
+	 */
+	protected int[][] hierarchyArc = new int[2][0];
+	/**
+	 * Stack for unpacking the shortcuts of ContractionHierarchy.
+	 */
+	protected int[] hierarchyStack = new int[64];
+
+	/**
+	 * Node mark of path 1 (modified by Network.computeFastWays).
+	 */
+	protected int WAY1 = 1;
+	/**
+	 * Node mark of path 2 (modified by Network.computeFastWays).
+	 */
+	protected int WAY2 = 2;
+	/**
+	 * Node mark of final nodes (modified by Network.computeFastWays).
+	 */
+	protected int FINAL = 4;
+
+/**
+ * Constructor.
+ * @param  nodes  the node container
+ */
+public RoutingContext (Nodes nodes) {
+	this (nodes,false);
+}
+
+/**
+ * Constructor.
+ * @param  nodes  the node container
+ * @param  timed  should the heap operations be measured by the timers of IndexedHeap?
+ */
+protected RoutingContext (Nodes nodes, boolean timed) {
+	this.nodes = nodes;
+	heap = new IndexedHeap(IndexedHeap.DEFAULT_ARITY,timed);
+	reverseHeap = new IndexedHeap(IndexedHeap.DEFAULT_ARITY,timed);
+}
+
+/**
+ * Clears all marks, resets the mark values and adapts the arrays to the current number of nodes.
+ * Must be called at the beginning of each query.
+ */
+public void clearAllMarks () {
+	int num = nodes.numOfNodes();
+	if (mark.length < num) {
+		int len = Math.max(num,2*mark.length);
+		mark = enlarge(mark,len);
+		for (int w=0; w<2; w++) {
+			distanceOfWay[w] = enlarge(distanceOfWay[w],len);
+			estimate[w] = enlarge(estimate[w],len);
+			wayEdge[w] = enlarge(wayEdge[w],len);
+		}
+		heap.ensureCapacity(2*len);
+		reverseHeap.ensureCapacity(2*len);
+	}
+	// avoid an overflow of the marks
+	if (maxMark > Integer.MAX_VALUE/2) {
+		for (int i=0; i<mark.length; i++)
+			mark[i] = 0;
+		maxMark = 0;
+	}
+	maxMark++;
+	nullMark = maxMark;
+	WAY1 = 1;
+	WAY2 = 2;
+	FINAL = 4;
+	separateBorders = false;
+	connectionNode = -1;
+	connectionDistance = Double.MAX_VALUE;
+}
+
+/**
+ * Adapts the position of a node in the border after its distance has been decreased.
+ * Nothing happens if the node is not in the border.
+ * @param  node  dense index of the node
+ * @param  way  index of the path (1 or 2)
+ */
+public void adaptToDecreasedDistance (int node, int way) {
+	int i = 2*node+way-1;
+	IndexedHeap h = getBorder(way);
+	if (h.contains(i))
+		h.decreaseKey(i,distanceOfWay[way-1][node]+estimate[way-1][node]);
+}
+
+/**
+ * Clears the mark of the given value.
+ * @param  node  the node
+ * @param  value  value of the mark
+ */
+public void clearMark (Node node, int value) {
+	if (isMarked (node,value))
+		mark[node.index] = mark[node.index]-value;
+}
+
+/**
+ * Clears the path edges of the node.
+ * @param  node  the node
+ */
+public void clearWays (Node node) {
+	wayEdge[0][node.index] = -1;
+	wayEdge[1][node.index] = -1;
+}
+
+/**
+ * Prints the state of a node for debugging.
+ * @param  node  the node
+ * @param  way  index of the path
+ */
+public void debugPrint (Node node, int way) {
+	System.out.print(node.getName()+ " - "+ getDistanceOfWay(node,way));
+}
+
+/**
+ * Returns an enlarged copy of an array.
+ * @return  the new array
+ * @param  old  the old array
+ * @param  len  the new length
+ */
+private static double[] enlarge (double[] old, int len) {
+	double[] res = new double[len];
+	System.arraycopy(old,0,res,0,old.length);
+	return res;
+}
+
+/**
+ * Returns an enlarged copy of an array.
+ * @return  the new array
+ * @param  old  the old array
+ * @param  len  the new length
+ */
+private static int[] enlarge (int[] old, int len) {
+	int[] res = new int[len];
+	System.arraycopy(old,0,res,0,old.length);
+	return res;
+}
+
+/**
+ * Returns the node fetched from the border by the last call of heap.fetchFirst.
+ * @return  dense index of the node
+ */
+public int getFetchedNode () {
+	return heap.returnItem() >> 1;
+}
+
+/**
+ * Returns the heap containing the border of the given path.
+ * @return  the heap
+ * @param  way  index of the path (1 or 2)
+ */
+public IndexedHeap getBorder (int way) {
+	if (separateBorders && (way == 2))
+		return reverseHeap;
+	return heap;
+}
+
+/**
+ * Returns the length of the best connection of path 1 and 2 found so far.
+ * @return  the length or Double.MAX_VALUE
+ */
+public double getConnectionDistance () {
+	return connectionDistance;
+}
+
+/**
+ * Returns the best node connecting path 1 and 2 found so far.
+ * @return  dense index of the node or -1
+ */
+public int getConnectionNode () {
+	return connectionNode;
+}
+
+/**
+ * Returns the distance of the node concerning the given path.
+ * @return  distance
+ * @param  node  the node
+ * @param  way  index of the path (1 or 2)
+ */
+public double getDistanceOfWay (Node node, int way) {
+	return distanceOfWay[way-1][node.index];
+}
+
+/**
+ * Returns the distance of the node concerning the given path.
+ * @return  distance
+ * @param  node  dense index of the node
+ * @param  way  index of the path (1 or 2)
+ */
+public double getDistanceOfWay (int node, int way) {
+	return distanceOfWay[way-1][node];
+}
+
+/**
+ * Returns the node container.
+ * @return  the nodes
+ */
+public Nodes getNodes () {
+	return nodes;
+}
+
+/**
+ * Returns the edge the given path runs over.
+ * @return  the edge or null
+ * @param  node  the node
+ * @param  way  index of the path (1 or 2)
+ */
+public Edge getWayEdge (Node node, int way) {
+	int pos = wayEdge[way-1][node.index];
+	if (pos < 0)
+		return null;
+	else
+		return node.getEdge(pos);
+}
+
+/**
+ * Returns the position of the edge the given path runs over in the edge list of the node.
+ * @return  the position or -1
+ * @param  node  dense index of the node
+ * @param  way  index of the path (1 or 2)
+ */
+public int getWayPosition (int node, int way) {
+	return wayEdge[way-1][node];
+}
+
+/**
+ * Returns the (averaged) weight of the edge.
+ * @return  the weight
+ * @param  e  the edge
+ */
+public double getWeight (Edge e) {
+	if (wm != null)
+		return wm.getWeight(e);
+	return e.getWeight();
+}
+
+/**
+ * Returns the weight of the edge starting from the given node.
+ * @return  the weight
+ * @param  e  the edge
+ * @param  from  the starting node
+ */
+public double getWeight (Edge e, Node from) {
+	if (wm != null)
+		return wm.getWeight(e,e.isStartingFrom(from));
+	return e.getWeight(from);
+}
+
+/**
+ * Returns the directed weight of the edge.
+ * @return  the weight
+ * @param  e  the edge
+ * @param  forwards  is the edge directed forwards?
+ */
+public double getWeight (Edge e, boolean forwards) {
+	if (wm != null)
+		return wm.getWeight(e,forwards);
+	return e.getWeight(forwards);
+}
+
+/**
+ * Returns the landmarks used by the queries.
+ * @return  the landmarks (may be null)
+ * @param  networkLandmarks  the landmarks of the network used by default
+ */
+public Landmarks getLandmarks (Landmarks networkLandmarks) {
+	if (useOwnLandmarks)
+		return landmarks;
+	return networkLandmarks;
+}
+
+/**
+ * Returns the weight manager used by the queries.
+ * @return  the weight manager
+ * @param  edges  the edge container whose weight manager is used by default
+ */
+public WeightManager getWeightManager (Edges edges) {
+	if (wm != null)
+		return wm;
+	return edges.getWeightManager();
+}
+
+/**
+ * Inserts a node into the border.
+ * Its key is the current distance plus the estimated remaining distance.
+ * @param  node  dense index of the node
+ * @param  way  index of the path (1 or 2)
+ * @param  est  estimated remaining distance
+ */
+public void insertIntoBorder (int node, int way, double est) {
+	estimate[way-1][node] = est;
+	getBorder(way).insert(2*node+way-1,distanceOfWay[way-1][node]+est);
+}
+
+/**
+ * Is the node marked with the given value?
+ * @return  marked?
+ * @param  node  the node
+ * @param  value  value of the mark
+ */
+public boolean isMarked (Node node, int value) {
+	return isMarked (node.index,value);
+}
+
+/**
+ * Is the node marked with the given value?
+ * @return  marked?
+ * @param  node  dense index of the node
+ * @param  value  value of the mark
+ */
+public boolean isMarked (int node, int value) {
+	int m = mark[node];
+	if (m > nullMark)
+		return ((m-nullMark) & value) > 0;
+	else
+		return false;
+}
+
+/**
+ * Marks the node with the given value.
+ * @param  node  the node
+ * @param  value  value of the mark
+ */
+public void mark (Node node, int value) {
+	mark (node.index,value);
+}
+
+/**
+ * Marks the node with the given value.
+ * @param  node  dense index of the node
+ * @param  value  value of the mark
+ */
+public void mark (int node, int value) {
+	int m = mark[node];
+	if (m > nullMark)
+		m = nullMark + ((m-nullMark) | value);
+	else
+		m = nullMark + value;
+	mark[node] = m;
+	if (maxMark < m)
+		maxMark = m;
+}
+
+/**
+ * Adapts the arrays of the ContractionHierarchy queries to the given number of nodes.
+ * New entries get an infinite distance.
+ * @param  num  number of nodes
+ */
+public void prepareHierarchySearch (int num) {
+	if (hierarchyDistance[0].length < num) {
+		for (int w=0; w<2; w++) {
+			hierarchyDistance[w] = new double[num];
+			for (int i=0; i<num; i++)
+				hierarchyDistance[w][i] = Double.POSITIVE_INFINITY;
+			hierarchyArc[w] = new int[num];
+		}
+	}
+}
+
+/**
+ * Removes a node from the border; nothing happens if it is not in the border.
+ * @param  node  dense index of the node
+ * @param  way  index of the path (1 or 2)
+ */
+public void removeFromBorder (int node, int way) {
+	getBorder(way).remove(2*node+way-1);
+}
+
+/**
+ * Sets the distance of the node concerning the given path.
+ * @param  node  the node
+ * @param  way  index of the path (1 or 2)
+ * @param  distance  the distance
+ */
+public void setDistanceOfWay (Node node, int way, double distance) {
+	distanceOfWay[way-1][node.index] = distance;
+}
+
+/**
+ * Sets the distance of the node concerning the given path.
+ * @param  node  dense index of the node
+ * @param  way  index of the path (1 or 2)
+ * @param  distance  the distance
+ */
+public void setDistanceOfWay (int node, int way, double distance) {
+	distanceOfWay[way-1][node] = distance;
+}
+
+/**
+ * Stores the given edge as continuation of the given path.
+ * @param  node  the node
+ * @param  way  index of the path (1 or 2)
+ * @param  e  edge the path runs over
+ */
+public void setWay (Node node, int way, Edge e) {
+	// reset old path edges if necessary
+	if (!isMarked(node,1))
+		wayEdge[0][node.index] = -1;
+	if (!isMarked(node,2))
+		wayEdge[1][node.index] = -1;
+	// store edge
+	for (int i=0; i < node.getNumOfEdges(); i++)
+		if (node.getEdge(i) == e)
+			wayEdge[way-1][node.index] = i;
+}
+
+/**
+ * Stores the edge at the given position of the edge list of the node
+ * as continuation of the given path.
+ * @param  node  dense index of the node
+ * @param  way  index of the path (1 or 2)
+ * @param  pos  position of the edge in the edge list of the node
+ */
+public void setWayPosition (int node, int way, int pos) {
+	// reset old path edges if necessary
+	if (!isMarked(node,1))
+		wayEdge[0][node] = -1;
+	if (!isMarked(node,2))
+		wayEdge[1][node] = -1;
+	wayEdge[way-1][node] = pos;
+}
+
+/**
+ * Stores the node as connection of path 1 and 2 if the connection is shorter than the best one found so far.
+ * @param  node  dense index of the node
+ * @param  distance  length of the connection via the node
+ */
+public void updateConnection (int node, double distance) {
+	if (distance < connectionDistance) {
+		connectionDistance = distance;
+		connectionNode = node;
+	}
+}
+
+/**
+ * Keeps the border of path 2 in reverseHeap instead of heap until the next call of clearAllMarks.
+ */
+public void useSeparateBorders () {
+	separateBorders = true;
+	reverseHeap.reset();
+}
+
+/**
+ * Sets the weight manager used by the queries of this context.
+ * Each thread may use its own weight manager; null selects the weight manager of the edges.
+ * @param  wm  the weight manager
+ */
+public void setWeightManager (WeightManager wm) {
+	this.wm = wm;
+}
+
+/**
+ * Sets the landmarks used by the queries of this context instead of the landmarks
+ * of the network. They must be computed for the weight manager of the context.
+ * @param  landmarks  the landmarks (null: no landmarks)
+ */
+public void setLandmarks (Landmarks landmarks) {
+	this.landmarks = landmarks;
+	this.useOwnLandmarks = true;
+}
+
+}
@@ -3,6 +3,7 @@ package routing;
 /**
  * Standard class for weighting the edges.
  * 
+ * @version	2.10	17.10.2026	getMinimumWeight added
  * @version	2.00	17.08.2003	long become double, adapted to Edge
  * @version	1.01	09.03.2000	constructor corrected
  * @version	1.00	04.01.2000	first version
@@ -57,6 +58,17 @@ public class StandardWeightManager implements WeightManager {
 			return edge.getLength();
 	}
 
+	/**
+	 * Computation of the smallest weight an edge may get in a given direction.
+	 * The weights of this class do not change; therefore, the weight is returned.
+	 * @return  the minimum weight
+	 * @param  edge  the edge
+	 * @param  forwards  true: in direction of the edge; false: in the other direction
+	 */
+	public double getMinimumWeight(Edge edge, boolean forwards) {
+		return getWeight(edge,forwards);
+	}
+
 	/**
 	 * Computation of the weight of an edge in a given direction.
 	 * @return  the weight
@@ -3,6 +3,8 @@ package routing;
 /**
  * Interface for classes that weight the edges.
  * 
+ * @version	2.20	17.10.2026	getMinimumWeight added
+ * @version	2.10	17.10.2026	computeWeight(distance) specified as lower bound
  * @version	2.00	16.08.2003	long become double
  * @version	1.00	04.01.2000	first version
  * @author Thomas Brinkhoff
@@ -12,6 +14,8 @@ public interface WeightManager {
 	
 	/**
 	 * Computation of the weight of an edge of class 0.
+	 * The result must not exceed the weight of any edge of the given length, because
+	 * it is used as estimate of the remaining weight by Network.computeFastestWay2.
 	 * @return  the weight
 	 * @param  distance  the length of the edge
 	 */
@@ -39,4 +43,13 @@ public interface WeightManager {
 	 * @param  forwards  true: in direction of the edge; false: in the other direction
 	 */
 	double getWeight (Edge edge, boolean forwards);
+	
+	/**
+	 * Computation of the smallest weight an edge may get in a given direction.
+	 * The result is used for the precomputation of landmarks (see Landmarks).
+	 * @return  the minimum weight
+	 * @param  edge  the edge
+	 * @param  forwards  true: in direction of the edge; false: in the other direction
+	 */
+	double getMinimumWeight (Edge edge, boolean forwards);
 }
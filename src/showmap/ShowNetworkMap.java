@@ -9,6 +9,7 @@ import routing.*;
  * Applet for showing an interactive network map.
  * The applet allows navigating, zooming and retrieval of object information as well as the computations of shortest paths.
  *
+ * @version 1.41	17.10.26	fast way computed by computeFastestWay2
  * @version 1.40	01.06.00	support of presentation modes
  * @version 1.30	09.03.00	Laden des Netwerks im separaten Proze, genderte Hervorhebung
  * @version 1.20	30.01.00	setEdgeSelectivity, isEdge added
@@ -54,7 +55,7 @@ public class ShowNetworkMap extends ShowMap {
 public void computeFastWay () {
 	if (path != null)
 		path.setStandardAppearance();
-	path = net.computeFastWay2 (start,stop);
+	path = net.computeFastestWay2 (start,stop);
 	if (path != null) {
 		path.changePresentation("Way");
 		//path.debugPrint();
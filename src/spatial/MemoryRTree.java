@@ -1,10 +1,13 @@
 package spatial;
 
 import java.awt.*;
+import java.io.*;
+import java.util.Vector;
 
 /**
  * A memory-based R-tree.
  * 
+ * @version 3.10	17.10.2026	structure can be written and read (e.g. for checkpoints)
  * @version 3.01	01.03.2003	adpated to ST_RegionQuery v3.0
  * @version 3.00	09.10.2002	Rectangle becomes MBR
  * @version 2.20	01.04.2002	setSplitStrategy added
@@ -61,11 +64,32 @@ public MemoryRTree (int dim, int nodecapacity) {
 	moveQuery = new RegionQuery(new IsContainedQuery());
 	root = new MemoryRTreeNode(this);
 }
+/**
+ * Reads a tree written by write. The tree gets exactly the written structure.
+ * @param  in  the input
+ * @param  objs  the objects of the tree in depth-first order (see collectObjects)
+ * @exception IOException if an I/O error occurs
+ */
+public MemoryRTree (DataInput in, Vector objs) throws IOException {
+	this.dim = in.readInt();
+	removeQuery = new RegionQuery(new IsContainedQuery());
+	moveQuery = new RegionQuery(new IsContainedQuery());
+	root = MemoryRTreeNode.read(in,this,objs.elements());
+	root.isRoot = true;
+	totalnum = objs.size();
+}
 /**
  * Dummy operation.
  */
 public void close() {
 }
+/**
+ * Appends all objects of the tree in depth-first order to a vector.
+ * @param  objs  the vector
+ */
+public void collectObjects (Vector objs) {
+	root.collectObjects(objs);
+}
 /**
  * Returns the number of entries of the tree.
  * @return number of entries
@@ -154,4 +178,14 @@ public boolean remove (SpatialSearchTreeObject obj) {
 public void setSplitStrategy (RTreeStrategy str) {
 	strategy = str;
 }
+/**
+ * Writes the structure of the tree. The objects are not written; they are identified
+ * by their depth-first order (see collectObjects).
+ * @param  out  the output
+ * @exception IOException if an I/O error occurs
+ */
+public void write (DataOutput out) throws IOException {
+	out.writeInt(dim);
+	root.write(out);
+}
 }
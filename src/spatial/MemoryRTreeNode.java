@@ -2,11 +2,15 @@ package spatial;
 
 import java.awt.Color;
 import java.awt.Graphics;
+import java.io.*;
 import java.util.BitSet;
+import java.util.Enumeration;
+import java.util.Vector;
 
 /**
  * A memory-based R-tree node.
  * 
+ * @version 2.30	17.10.2026	collectObjects, read and write added
  * @version 2.20	21.08.2003	getNumOfDimensions, getTree, setEntry added, adapted to changed strategy interface
  * @version 2.10	01.03.2003	getEntry becomes getChildNode, getEntry added
  * @version 2.00	13.10.2002	Rectangle becomes MBR
@@ -111,6 +115,17 @@ protected void adaptMBR () {
 			mbr.add(entry[i].getMBR());
 	}
 }
+/**
+ * Appends the objects of the subtree in depth-first order to a vector.
+ * @param objs the vector
+ */
+protected void collectObjects (Vector objs) {
+	for (int i=0; i<num; i++)
+		if (isLeaf)
+			objs.addElement(entry[i]);
+		else
+			((MemoryRTreeNode)entry[i]).collectObjects(objs);
+}
 /**
  * Returns the number of entries of the tree.
  * @return number of entries
@@ -393,6 +408,31 @@ public void removeObject (int index) {
 		adaptMBR();
 	}
 }
+/**
+ * Reads a subtree written by write.
+ * @return the root of the subtree
+ * @param in the input
+ * @param tree the memory r-tree
+ * @param objs the objects of the leaves in depth-first order
+ * @exception IOException if an I/O error occurs
+ */
+protected static MemoryRTreeNode read (DataInput in, MemoryRTree tree, Enumeration objs) throws IOException {
+	MemoryRTreeNode node = new MemoryRTreeNode(in.readBoolean(),tree);
+	node.num = in.readInt();
+	int[] coords = new int[tree.dim];
+	int[] exts = new int[tree.dim];
+	for (int d=0; d<tree.dim; d++) {
+		coords[d] = in.readInt();
+		exts[d] = in.readInt();
+	}
+	node.mbr.setBounds(coords,exts);
+	for (int i=0; i<node.num; i++)
+		if (node.isLeaf)
+			node.entry[i] = (SpatialSearchTreeEntry)objs.nextElement();
+		else
+			node.entry[i] = read(in,tree,objs);
+	return node;
+}
 /**
  * Pseudo operation.
  */
@@ -450,4 +490,23 @@ protected MemoryRTreeNode split () {
  */
 public void updateObject (int index) {
 }
+/**
+ * Writes the structure of the subtree in depth-first order: the leaf flag, the
+ * number of entries and the mbr of each node. The objects are not written.
+ * @param out the output
+ * @exception IOException if an I/O error occurs
+ */
+protected void write (DataOutput out) throws IOException {
+	out.writeBoolean(isLeaf);
+	out.writeInt(num);
+	int[] coords = mbr.getMinCoords();
+	int[] exts = mbr.getExtensions();
+	for (int d=0; d<coords.length; d++) {
+		out.writeInt(coords[d]);
+		out.writeInt(exts[d]);
+	}
+	if (!isLeaf)
+		for (int i=0; i<num; i++)
+			((MemoryRTreeNode)entry[i]).write(out);
+}
 }
@@ -0,0 +1,182 @@
+package util;
+
+/**
+ * Hash map from long keys to non-negative int values, e.g. from ids to dense indices.
+ * The map uses open addressing with linear probing in primitive arrays; it neither
+ * boxes the keys nor synchronizes. Several threads may read the map concurrently
+ * as long as it is not modified.
+ *
+ * @version	1.00	17.10.2026	first version
+ * @author FH Oldenburg
+ */
+public class LongIntHashMap {
+
+	/**
+	 * Value returned for keys that are not contained in the map.
+	 */
+	public static final int NOT_FOUND = -1;
+
+	/**
+	 * Keys of the slots.
+	 */
+	private long[] key = null;
+	/**
+	 * Values of the slots (NOT_FOUND: empty slot).
+	 */
+	private int[] value = null;
+	/**
+	 * Number of entries.
+	 */
+	private int count = 0;
+	/**
+	 * The table is enlarged when count exceeds this threshold.
+	 */
+	private int threshold = 0;
+
+/**
+ * Constructs an empty map with a default capacity.
+ */
+public LongIntHashMap () {
+	this(16);
+}
+/**
+ * Constructs an empty map, which can store the given number of entries without being enlarged.
+ * @param expectedSize expected number of entries
+ */
+public LongIntHashMap (int expectedSize) {
+	int capacity = 16;
+	while ((capacity < (1 << 30)) && (capacity/4*3 < expectedSize))
+		capacity <<= 1;
+	allocate(capacity);
+}
+/**
+ * Allocates empty slots.
+ * @param capacity number of slots (a power of two)
+ */
+private void allocate (int capacity) {
+	key = new long[capacity];
+	value = new int[capacity];
+	java.util.Arrays.fill(value,NOT_FOUND);
+	threshold = capacity/4*3;
+}
+/**
+ * Removes all entries.
+ */
+public void clear () {
+	java.util.Arrays.fill(value,NOT_FOUND);
+	count = 0;
+}
+/**
+ * Tests whether the key is contained in the map.
+ * @return contained?
+ * @param k the key
+ */
+public boolean containsKey (long k) {
+	return get(k) != NOT_FOUND;
+}
+/**
+ * Returns the value of a key.
+ * @return the value or NOT_FOUND if the key is not contained in the map
+ * @param k the key
+ */
+public int get (long k) {
+	int mask = key.length-1;
+	for (int i=slot(k); value[i] != NOT_FOUND; i=(i+1)&mask)
+		if (key[i] == k)
+			return value[i];
+	return NOT_FOUND;
+}
+/**
+ * Stores a value for a key and replaces a previous value.
+ * @return the previous value or NOT_FOUND
+ * @param k the key
+ * @param v the value (>= 0)
+ */
+public int put (long k, int v) {
+	if (v < 0)
+		throw new IllegalArgumentException("LongIntHashMap.put: negative value "+v);
+	int mask = key.length-1;
+	int i = slot(k);
+	for (; value[i] != NOT_FOUND; i=(i+1)&mask)
+		if (key[i] == k) {
+			int old = value[i];
+			value[i] = v;
+			return old;
+		}
+	key[i] = k;
+	value[i] = v;
+	if (++count > threshold)
+		rehash();
+	return NOT_FOUND;
+}
+/**
+ * Doubles the number of slots.
+ */
+private void rehash () {
+	long[] oldKey = key;
+	int[] oldValue = value;
+	allocate(2*oldKey.length);
+	int mask = key.length-1;
+	for (int j=0; j<oldKey.length; j++)
+		if (oldValue[j] != NOT_FOUND) {
+			int i = slot(oldKey[j]);
+			while (value[i] != NOT_FOUND)
+				i = (i+1)&mask;
+			key[i] = oldKey[j];
+			value[i] = oldValue[j];
+		}
+}
+/**
+ * Removes a key. The following entries of its cluster are shifted backwards,
+ * so the map needs no deletion marks.
+ * @return the removed value or NOT_FOUND
+ * @param k the key
+ */
+public int remove (long k) {
+	int mask = key.length-1;
+	int i = slot(k);
+	while (key[i] != k) {
+		if (value[i] == NOT_FOUND)
+			return NOT_FOUND;
+		i = (i+1)&mask;
+	}
+	// the key of an empty slot may be left over
+	if (value[i] == NOT_FOUND)
+		return NOT_FOUND;
+	int old = value[i];
+	// close the gap by the entries whose home slot does not lie between the gap and their slot
+	int gap = i;
+	for (int j=(gap+1)&mask; value[j] != NOT_FOUND; j=(j+1)&mask) {
+		int home = slot(key[j]);
+		if (((j-home)&mask) >= ((j-gap)&mask)) {
+			key[gap] = key[j];
+			value[gap] = value[j];
+			gap = j;
+		}
+	}
+	value[gap] = NOT_FOUND;
+	count--;
+	return old;
+}
+/**
+ * Returns the number of entries.
+ * @return number of entries
+ */
+public int size () {
+	return count;
+}
+/**
+ * Returns the home slot of a key.
+ * @return the slot
+ * @param k the key
+ */
+private int slot (long k) {
+	// finalizer of MurmurHash3 spreading the bits of consecutive ids
+	k ^= k >>> 33;
+	k *= 0xff51afd7ed558ccdL;
+	k ^= k >>> 33;
+	k *= 0xc4ceb53a2ed5a265L;
+	k ^= k >>> 33;
+	return (int)k & (key.length-1);
+}
+}